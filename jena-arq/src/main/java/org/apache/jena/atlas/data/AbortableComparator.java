@@ -64,6 +64,23 @@ public final class AbortableComparator<E> implements Comparator<E> {
         return Finish.COMPLETED;
     }
 
+    /**
+     * As {@link #abortableSort}, using {@link Arrays#parallelSort}.
+     */
+    public Finish abortableParallelSort(E[] e) {
+        try {
+            Arrays.parallelSort(e, this);
+        } catch (AbandonSort s) {
+            return Finish.ABORTED;
+        } catch (RuntimeException ex) {
+            // The exception may be wrapped when rethrown from another thread.
+            if ( cancelled )
+                return Finish.ABORTED;
+            throw ex;
+        }
+        return Finish.COMPLETED;
+    }
+
     /**
      * Arrange that the next on-frequency cancellation test in compare will
      * succeed, aborting the sort.
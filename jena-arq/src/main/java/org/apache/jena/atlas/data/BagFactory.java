@@ -52,6 +52,14 @@ public class BagFactory
     {
         return new SortedDataBag<>(policy, serializerFactory, comparator);
     }
+
+    /**
+     * Get a sorted data bag that uses up to {@code parallelism} threads to sort.
+     */
+    public static <T> SortedDataBag<T> newSortedBag(ThresholdPolicy<T> policy, SerializationFactory<T> serializerFactory, Comparator<T> comparator, int parallelism)
+    {
+        return new SortedDataBag<>(policy, serializerFactory, comparator, parallelism);
+    }
     
     /**
      * Get a distinct data bag.
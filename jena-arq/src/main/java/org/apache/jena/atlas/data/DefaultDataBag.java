@@ -148,7 +148,8 @@ public class DefaultDataBag<E> extends AbstractDataBag<E> {
         closeWriter();
 
         // Create a new reader
-        if ( policy.isThresholdExceeded() ) {
+        // The threshold can be reached by the last item added without spilling.
+        if ( spilled ) {
             File spillFile = getSpillFiles().get(0);
 
             InputStream in;
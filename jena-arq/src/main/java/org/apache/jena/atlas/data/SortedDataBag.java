@@ -23,12 +23,14 @@ package org.apache.jena.atlas.data;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 import org.apache.jena.atlas.AtlasException;
 import org.apache.jena.atlas.data.AbortableComparator.Finish;
 import org.apache.jena.atlas.iterator.Iter;
 import org.apache.jena.atlas.iterator.IteratorCloseable;
 import org.apache.jena.atlas.lib.Sink;
+import org.apache.jena.atlas.lib.ThreadLib;
 
 /**
  * <p>
@@ -57,6 +59,13 @@ import org.apache.jena.atlas.lib.Sink;
  * is time to spill, that data is sorted and written to disk. An iterator will
  * read in each file and perform a merge-sort as the results are returned.
  * </p>
+ * <p>
+ * With a parallelism greater than one, data in memory is sorted with
+ * {@link Arrays#parallelSort}, each spill is sorted and written by another thread
+ * while items continue to be added (with up to "parallelism" spills in progress),
+ * and the spill files are merged in groups, each on its own thread, with the
+ * results of the groups merged by the iterator.
+ * </p>
  */
 public class SortedDataBag<E> extends AbstractDataBag<E> {
     /**
@@ -68,15 +77,24 @@ public class SortedDataBag<E> extends AbstractDataBag<E> {
     protected final ThresholdPolicy<E> policy;
     protected final SerializationFactory<E> serializationFactory;
     protected final AbortableComparator<E> comparator;
+    protected final int parallelism;
+
+    // Spills being sorted and written by other threads.
+    private final List<Future<?>> pendingSpills = new ArrayList<>();
 
     protected boolean finishedAdding = false;
     protected boolean spilled = false;
     protected boolean closed = false;
 
     public SortedDataBag(ThresholdPolicy<E> policy, SerializationFactory<E> serializerFactory, Comparator<? super E> comparator) {
+        this(policy, serializerFactory, comparator, 1);
+    }
+
+    public SortedDataBag(ThresholdPolicy<E> policy, SerializationFactory<E> serializerFactory, Comparator<? super E> comparator, int parallelism) {
         this.policy = policy;
         this.serializationFactory = serializerFactory;
         this.comparator = new AbortableComparator<>(comparator);
+        this.parallelism = Math.max(1, parallelism);
     }
 
     /**
@@ -145,22 +163,15 @@ public class SortedDataBag<E> extends AbstractDataBag<E> {
                 throw new AtlasException(e);
             }
 
-            // Sort the tuples as an array. The CanAbortComparator will sort
-            // the array using Arrays.sort. The cast to E[] is safe. If the sort is
-            // aborted, don't bother messing around with the serialisation.
-            // We'll never get around to using it anyway.
-
+            // The cast to E[] is safe.
             E[] array = (E[])memory.toArray();
-            if ( comparator.abortableSort(array) == Finish.COMPLETED ) {
-                Sink<E> serializer = serializationFactory.createSerializer(out);
-                try {
-                    for ( Object tuple : array ) {
-                        serializer.send((E)tuple);
-                    }
-                }
-                finally {
-                    serializer.close();
-                }
+            if ( parallelism > 1 ) {
+                // Limit the number of arrays held in memory waiting to be written.
+                while ( pendingSpills.size() >= parallelism )
+                    awaitSpill(pendingSpills.remove(0));
+                pendingSpills.add(ThreadLib.getExecutionService().submit(() -> sortAndWrite(array, out)));
+            } else {
+                sortAndWrite(array, out);
             }
 
             spilled = true;
@@ -169,9 +180,47 @@ public class SortedDataBag<E> extends AbstractDataBag<E> {
         }
     }
 
+    private void sortAndWrite(E[] array, OutputStream out) {
+        // Sort the tuples as an array. The CanAbortComparator will sort
+        // the array using Arrays.sort. If the sort is aborted, don't bother
+        // messing around with the serialisation. We'll never get around to
+        // using it anyway.
+        if ( comparator.abortableSort(array) == Finish.COMPLETED ) {
+            Sink<E> serializer = serializationFactory.createSerializer(out);
+            try {
+                for ( E tuple : array ) {
+                    serializer.send(tuple);
+                }
+            }
+            finally {
+                serializer.close();
+            }
+        } else {
+            try { out.close(); }
+            catch (IOException ex) { throw new AtlasException(ex); }
+        }
+    }
+
+    private void awaitSpills() {
+        while ( !pendingSpills.isEmpty() )
+            awaitSpill(pendingSpills.remove(0));
+    }
+
+    private static void awaitSpill(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new AtlasException(ex);
+        } catch (ExecutionException ex) {
+            throw new AtlasException("Failed to write spill file", ex.getCause());
+        }
+    }
+
     @Override
     public void flush() {
         spill();
+        awaitSpills();
     }
 
     protected Iterator<E> getInputIterator(File spillFile) throws FileNotFoundException {
@@ -190,6 +239,7 @@ public class SortedDataBag<E> extends AbstractDataBag<E> {
      */
     @Override
     public Iterator<E> iterator() {
+        awaitSpills();
         preMerge();
         return iterator(getSpillFiles().size());
     }
@@ -204,7 +254,11 @@ public class SortedDataBag<E> extends AbstractDataBag<E> {
         // like all the other methods)
         if ( !finishedAdding && memSize > 1 ) {
             E[] array = (E[])memory.toArray();
-            comparator.abortableSort(array); // don't care if we aborted or not
+            // don't care if we aborted or not
+            if ( parallelism > 1 )
+                comparator.abortableParallelSort(array);
+            else
+                comparator.abortableSort(array);
             memory = Arrays.asList(array);
         }
 
@@ -232,7 +286,9 @@ public class SortedDataBag<E> extends AbstractDataBag<E> {
                 }
             }
 
-            SpillSortIterator<E> ssi = new SpillSortIterator<>(inputs, comparator);
+            SpillSortIterator<E> ssi = ( parallelism > 1 && inputs.size() > 2 )
+                ? parallelMerge(inputs)
+                : new SpillSortIterator<>(inputs, comparator);
             registerCloseableIterator(ssi);
 
             return ssi;
@@ -245,6 +301,20 @@ public class SortedDataBag<E> extends AbstractDataBag<E> {
         }
     }
 
+    // Merge groups of the inputs on other threads, and merge the results of the groups.
+    private SpillSortIterator<E> parallelMerge(List<Iterator<E>> inputs) {
+        int numGroups = Math.min(parallelism, inputs.size() / 2);
+        List<List<Iterator<E>>> groups = new ArrayList<>(numGroups);
+        for ( int i = 0 ; i < numGroups ; i++ )
+            groups.add(new ArrayList<>());
+        for ( int i = 0 ; i < inputs.size() ; i++ )
+            groups.get(i % numGroups).add(inputs.get(i));
+        List<Iterator<E>> merged = new ArrayList<>(numGroups);
+        for ( List<Iterator<E>> group : groups )
+            merged.add(new MergeThreadIterator<>(group, comparator));
+        return new SpillSortIterator<>(merged, comparator);
+    }
+
     private void preMerge() {
         if ( getSpillFiles() == null || getSpillFiles().size() <= MAX_SPILL_FILES ) {
             return;
@@ -283,6 +353,9 @@ public class SortedDataBag<E> extends AbstractDataBag<E> {
     @Override
     public void close() {
         if ( !closed ) {
+            // Spill threads must finish before the files are deleted.
+            try { awaitSpills(); }
+            catch (AtlasException ex) {}
             closeIterators();
             deleteSpillFiles();
 
@@ -390,4 +463,107 @@ public class SortedDataBag<E> extends AbstractDataBag<E> {
         }
 
     }
+
+    /**
+     * An iterator that merges its inputs on another thread and passes the results
+     * back in batches. The inputs are closed by the merge thread.
+     */
+    protected static class MergeThreadIterator<T> implements IteratorCloseable<T> {
+        private static final int BatchSize = 1000;
+        private static final int QueueSize = 4;
+
+        private final List<Iterator<T>> inputs;
+        private final BlockingQueue<List<T>> queue = new ArrayBlockingQueue<>(QueueSize);
+        // Marks the end of the results.
+        private final List<T> endMarker = new ArrayList<>(0);
+        private final Future<?> future;
+        private volatile boolean closed = false;
+        private volatile Throwable error = null;
+        private Iterator<T> current = Collections.emptyIterator();
+        private boolean finished = false;
+
+        public MergeThreadIterator(List<Iterator<T>> inputs, Comparator<? super T> comp) {
+            this.inputs = inputs;
+            this.future = ThreadLib.getExecutionService().submit(() -> merge(comp));
+        }
+
+        private void merge(Comparator<? super T> comp) {
+            try {
+                SpillSortIterator<T> ssi = new SpillSortIterator<>(inputs, comp);
+                List<T> batch = new ArrayList<>(BatchSize);
+                while ( !closed && ssi.hasNext() ) {
+                    batch.add(ssi.next());
+                    if ( batch.size() == BatchSize ) {
+                        put(batch);
+                        batch = new ArrayList<>(BatchSize);
+                    }
+                }
+                if ( !batch.isEmpty() )
+                    put(batch);
+            } catch (Throwable th) {
+                error = th;
+            } finally {
+                for ( Iterator<T> it : inputs )
+                    Iter.close(it);
+                put(endMarker);
+            }
+        }
+
+        // Wait for space in the queue unless the iterator is closed.
+        private void put(List<T> batch) {
+            try {
+                while ( !closed ) {
+                    if ( queue.offer(batch, 100, TimeUnit.MILLISECONDS) )
+                        return;
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while ( !current.hasNext() ) {
+                if ( finished )
+                    return false;
+                List<T> batch;
+                try {
+                    batch = queue.take();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new AtlasException(ex);
+                }
+                if ( batch == endMarker ) {
+                    finished = true;
+                    if ( error instanceof RuntimeException ex )
+                        throw ex;
+                    if ( error != null )
+                        throw new AtlasException(error);
+                    return false;
+                }
+                current = batch.iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if ( !hasNext() )
+                throw new NoSuchElementException();
+            return current.next();
+        }
+
+        @Override
+        public void close() {
+            if ( closed )
+                return;
+            closed = true;
+            queue.clear();
+            try {
+                future.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException ex) {}
+        }
+    }
 }
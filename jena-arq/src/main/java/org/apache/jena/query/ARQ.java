@@ -325,15 +325,15 @@ public class ARQ
      * choosing the value.
      * <p>
      * Operations currently affected by this symbol: <br>
-     * ORDER BY, SPARQL Update, CONSTRUCT (optionally)
+     * ORDER BY, DISTINCT, GROUP BY, MINUS, hash joins, SPARQL Update, CONSTRUCT (optionally)
      * <p>
      * A reasonable value here is 10000.
      * </p>
      * @see <a href="https://issues.apache.org/jira/browse/JENA-119">JENA-119</a>
      */
     // Some possible additions to the list:
-    // Sort: DISTINCT, merge joins<br>
-    // Hash table: GROUP BY, MINUS, SERVICE, VALUES, and hash joins <br>
+    // Sort: merge joins<br>
+    // Hash table: SERVICE, VALUES <br>
     public static final Symbol spillToDiskThreshold = SystemARQ.allocSymbol("spillToDiskThreshold");
 
     // Optimizer controls.
@@ -531,6 +531,15 @@ public class ARQ
     // TDB reorders based on stats when the input binding is known.
     public static final Symbol optReorderBGP = SystemARQ.allocSymbol("optReorderBGP");
 
+    /**
+     * Context key controlling whether the standard optimizer reorders the parts of
+     * joins (basic graph patterns, OPTIONAL, UNION, sub-queries, VALUES) using
+     * estimates of the number of results from the dataset being queried, and uses
+     * the estimates to choose between index joins and hash joins.
+     * <p>By default, this transformation is not applied.
+     */
+    public static final Symbol optJoinOrder = SystemARQ.allocSymbol("optJoinOrder");
+
     /**
      *  Context key controlling whether the main query engine processes property functions.
      *  <p>By default, this is applied.
@@ -564,6 +573,72 @@ public class ARQ
      */
     public static Symbol symJavaScriptLibFile = ScriptLangSymbols.scriptLibrary("js");
 
+    /**
+     * Context setting: the number of bindings that FILTER, BIND, LET and projection
+     * steps process together. Consecutive steps are executed as one iterator that
+     * passes arrays of bindings through each step in turn.
+     * Default: not set - one binding at a time.
+     */
+    public static final Symbol executionBatchSize = SystemARQ.allocSymbol("executionBatchSize");
+
+    /**
+     * Context setting: the number of partitions for a hash join that uses several
+     * threads to build and probe the hash table. This helps joins where both sides
+     * are large. The order of results of the join is not the order of the streamed side.
+     * Default: not set - hash joins use one thread.
+     */
+    public static final Symbol parallelHashJoin = SystemARQ.allocSymbol("parallelHashJoin");
+
+    /**
+     * Context setting: the number of threads for ORDER BY. Sorts in memory use
+     * {@link java.util.Arrays#parallelSort}. When a sort spills to disk (see
+     * {@link #spillToDiskThreshold}), chunks are sorted and written by other threads
+     * while the input is being read, and the spill files are merged in groups on
+     * other threads. ORDER BY with a large LIMIT is also sorted in parallel.
+     * Only ORDER BY of variables is sorted in parallel; ORDER BY with an expression,
+     * which may use EXISTS or custom functions, uses one thread.
+     * Default: not set - sorting uses one thread.
+     */
+    public static final Symbol parallelSort = SystemARQ.allocSymbol("parallelSort");
+
+    /**
+     * Context setting: when a join has a basic graph pattern on the right, evaluate
+     * the left side first and pass the values of the join variables to the pattern
+     * matching of the right side, so that rows that can not join are removed as the
+     * pattern is matched. The value is the maximum number of distinct values of a
+     * join variable for it to be used.
+     * Default: not set - no filtering.
+     */
+    public static final Symbol semiJoinFilter = SystemARQ.allocSymbol("semiJoinFilter");
+
+    /**
+     * Context setting: share the evaluation of basic graph patterns between queries
+     * running at the same time on the same version of the data. The value is the
+     * maximum number of rows of an evaluation kept in memory to be shared.
+     * The storage must set {@link ARQConstants#sysDataVersion}, as TDB2 does for
+     * read transactions.
+     * Default: not set - no sharing.
+     * @see org.apache.jena.sparql.engine.main.SharedScans
+     */
+    public static final Symbol sharedScans = SystemARQ.allocSymbol("sharedScans");
+
+    /**
+     * Context setting: cache the results of query executions on local datasets in
+     * {@link org.apache.jena.sparql.exec.QueryResultCache#get()}. Results are cached
+     * for a version of the data, which the storage must set in
+     * {@link ARQConstants#sysDataVersion}, as TDB2 does for read transactions.
+     * Default: not set - no caching.
+     */
+    public static final Symbol queryResultCache = SystemARQ.allocSymbol("queryResultCache");
+
+    /**
+     * Context setting: evaluate FILTER, BIND and LET expressions with a
+     * {@link org.apache.jena.sparql.expr.CompiledExpr}, compiled once for the
+     * step rather than walking the expression tree for each binding.
+     * Default: not set - expressions are evaluated with {@code Expr.eval}.
+     */
+    public static final Symbol compileExpressions = SystemARQ.allocSymbol("compileExpressions");
+
     /**
      * Generate the ToList operation in the algebra (as ARQ is stream based, ToList is a non-op).
      * Default is not to do so.  Strict mode will also enable this.
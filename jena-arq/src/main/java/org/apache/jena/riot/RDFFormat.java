@@ -38,6 +38,11 @@ public class RDFFormat {
     public static final RDFFormatVariant FLAT           = new RDFFormatVariant("flat") ;
     /** Print with fixed indentation width and linebreaks after each sequence element */
     public static final RDFFormatVariant LONG           = new RDFFormatVariant("long") ;
+    /**
+     * Print nested blank nodes and lists in one pass over the data, without first
+     * reading all the data into memory
+     */
+    public static final RDFFormatVariant STREAMING      = new RDFFormatVariant("streaming") ;
 
     /** Use ASCII output (N-triples, N-Quads) */
     public static final RDFFormatVariant ASCII          = new RDFFormatVariant("ascii") ;
@@ -61,6 +66,8 @@ public class RDFFormat {
     public static final RDFFormat  TURTLE_FLAT      = new RDFFormat(Lang.TURTLE, FLAT) ;
     /** Turtle - with fixed indentation width and linebreaks after each sequence element */
     public static final RDFFormat  TURTLE_LONG      = new RDFFormat(Lang.TURTLE, LONG) ;
+    /** Turtle - near pretty form, written in one pass over the data in bounded memory */
+    public static final RDFFormat  TURTLE_STREAMING = new RDFFormat(Lang.TURTLE, STREAMING) ;
 
     /** N-Triples in UTF-8 */
     public static final RDFFormat  NTRIPLES_UTF8    = new RDFFormat(Lang.NTRIPLES, UTF8) ;
@@ -98,6 +105,8 @@ public class RDFFormat {
     public static final RDFFormat  TRIG_FLAT        = new RDFFormat(Lang.TRIG, FLAT) ;
     /** TriG - with fixed indentation width and linebreaks after each sequence element */
     public static final RDFFormat  TRIG_LONG        = new RDFFormat(Lang.TRIG, LONG) ;
+    /** TriG - near pretty form, written in one pass over the data in bounded memory */
+    public static final RDFFormat  TRIG_STREAMING   = new RDFFormat(Lang.TRIG, STREAMING) ;
 
     /** SHACL Compact Syntax */
     public static final RDFFormat  SHACLC         =  new RDFFormat(Lang.SHACLC);
@@ -39,6 +39,7 @@ import java.util.Objects;
 import java.util.Optional;
 
 import org.apache.jena.atlas.io.IO;
+import org.apache.jena.atlas.io.InputStreamByteBuffer;
 import org.apache.jena.atlas.lib.InternalErrorException;
 import org.apache.jena.atlas.lib.Lib;
 import org.apache.jena.atlas.web.ContentType;
@@ -55,6 +56,7 @@ import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.riot.process.normalize.StreamCanonicalLangTag;
 import org.apache.jena.riot.process.normalize.StreamCanonicalLiterals;
 import org.apache.jena.riot.system.*;
+import org.apache.jena.riot.system.streammgr.LocatorFile;
 import org.apache.jena.riot.system.streammgr.StreamManager;
 import org.apache.jena.riot.web.HttpNames;
 import org.apache.jena.sparql.SystemARQ;
@@ -397,7 +399,9 @@ public class RDFParser {
                 if ( readerRiot == null )
                     throw setupException("No parser registered for content type: " + ct.getContentTypeStr());
             }
-            read(readerRiot, input, null, baseURI, context, ct, destination);
+            // A memory-mapped file is passed directly so that readers can use the bytes.
+            InputStream in = ( input.getInputStream() instanceof InputStreamByteBuffer mapped ) ? mapped : input;
+            read(readerRiot, in, null, baseURI, context, ct, destination);
         }
     }
 
@@ -442,7 +446,11 @@ public class RDFParser {
         // If path, use that.
         if ( path != null ) {
             try {
-                InputStream in = Files.newInputStream(path);
+                InputStream in = null;
+                if ( context.isTrue(RIOT.symParserMapFiles) )
+                    in = LocatorFile.openMapped(path.toString());
+                if ( in == null )
+                    in = Files.newInputStream(path);
                 ContentType ct = RDFLanguages.guessContentType(urlStr) ;
                 return new TypedInputStream(in, ct);
             }
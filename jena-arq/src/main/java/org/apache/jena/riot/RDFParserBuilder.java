@@ -395,7 +395,8 @@ public class RDFParserBuilder {
      * replaces any previous setting.
      * <br/>
      * The default is use {@link RiotLib#factoryRDF()} which is provides {@code Node}
-     * reuse.
+     * reuse, or a {@link FactoryRDFInterning} if the context has
+     * {@link RIOT#symParserInternNodes} set.
      * <br/>
      * The {@code FactoryRDF} also determines how blank node labels in RDF syntax are
      * mapped to blank node objects.
@@ -590,7 +591,7 @@ public class RDFParserBuilder {
             throw new RiotException("No source specified");
         Context context = contextAcc.context();
 
-        FactoryRDF factory$ = buildFactoryRDF();
+        FactoryRDF factory$ = buildFactoryRDF(context);
         ErrorHandler errorHandler$ = errorHandler;
         if ( errorHandler$ == null )
             errorHandler$ = ErrorHandlerFactory.getDefaultErrorHandler();
@@ -625,10 +626,12 @@ public class RDFParserBuilder {
                              factory$, errorHandler$, context);
     }
 
-    private FactoryRDF buildFactoryRDF() {
+    private FactoryRDF buildFactoryRDF(Context context) {
         FactoryRDF factory$ = factory;
         if ( factory$ == null ) {
-            if ( labelToNode != null )
+            if ( context.isTrue(RIOT.symParserInternNodes) )
+                factory$ = new FactoryRDFInterning(labelToNode != null ? labelToNode : SyntaxLabels.createLabelToNode());
+            else if ( labelToNode != null )
                 factory$ = RiotLib.factoryRDF(labelToNode);
             else
                 factory$ = RiotLib.factoryRDF();
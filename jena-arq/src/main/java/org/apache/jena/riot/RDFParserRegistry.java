@@ -64,7 +64,7 @@ public class RDFParserRegistry
         // Make sure the constants are initialized.
         RDFLanguages.init();
 
-        registerLangTriples(NTRIPLES,   RiotParsers.factoryNT);
+        registerLangTriples(NTRIPLES,   ReaderNTuplesParallel.factoryNT);
         registerLangTriples(N3,         RiotParsers.factoryTTL);
         registerLangTriples(TURTLE,     RiotParsers.factoryTTL);
 
@@ -81,7 +81,7 @@ public class RDFParserRegistry
         registerLangTriples(JSONLD,     RiotParsers.factoryJSONLD);
         registerLangTriples(JSONLD11,   RiotParsers.factoryJSONLD);
 
-        registerLangQuads(NQUADS,       RiotParsers.factoryNQ);
+        registerLangQuads(NQUADS,       ReaderNTuplesParallel.factoryNQ);
         registerLangQuads(TRIG,         RiotParsers.factoryTRIG);
         registerLangQuads(RDFPROTO,     RiotParsers.factoryRDFProtobuf);
         registerLangQuads(RDFTHRIFT,    RiotParsers.factoryRDFThrift);
@@ -75,6 +75,8 @@ public class RDFWriterRegistry
                 return new TurtleWriterFlat();
             if ( Objects.equals(RDFFormat.TURTLE_LONG, serialization) )
                 return new TurtleWriterLong();
+            if ( Objects.equals(RDFFormat.TURTLE_STREAMING, serialization) )
+                return new TurtleWriterStreaming();
 
             if ( Objects.equals(RDFFormat.NTRIPLES_UTF8, serialization) )
                 return new NTriplesWriter();
@@ -110,6 +112,8 @@ public class RDFWriterRegistry
                 return new TriGWriterFlat();
             if ( Objects.equals(RDFFormat.TRIG_LONG, serialization) )
                 return new TriGWriterLong();
+            if ( Objects.equals(RDFFormat.TRIG_STREAMING, serialization) )
+                return new TriGWriterStreaming();
             if ( Objects.equals(RDFFormat.NQUADS_UTF8, serialization) )
                 return new NQuadsWriter();
             if ( Objects.equals(RDFFormat.NQUADS_ASCII, serialization) )
@@ -175,6 +179,7 @@ public class RDFWriterRegistry
         register(RDFFormat.TURTLE_BLOCKS,   wgfactory);
         register(RDFFormat.TURTLE_FLAT,     wgfactory);
         register(RDFFormat.TURTLE_LONG,     wgfactory);
+        register(RDFFormat.TURTLE_STREAMING, wgfactory);
 
         register(RDFFormat.NTRIPLES,        wgfactory);
         register(RDFFormat.NTRIPLES_ASCII,  wgfactory);
@@ -213,6 +218,7 @@ public class RDFWriterRegistry
         register(RDFFormat.TRIG_BLOCKS,     wgfactory);
         register(RDFFormat.TRIG_FLAT,       wgfactory);
         register(RDFFormat.TRIG_LONG,       wgfactory);
+        register(RDFFormat.TRIG_STREAMING,  wgfactory);
 
         register(RDFFormat.NQUADS,          wgfactory);
         register(RDFFormat.NQUADS_ASCII,    wgfactory);
@@ -232,6 +238,7 @@ public class RDFWriterRegistry
         register(RDFFormat.TRIG_PRETTY,     wdsfactory);
         register(RDFFormat.TRIG_BLOCKS,     wdsfactory);
         register(RDFFormat.TRIG_FLAT,       wdsfactory);
+        register(RDFFormat.TRIG_STREAMING,  wdsfactory);
 
         register(RDFFormat.NQUADS,          wdsfactory);
         register(RDFFormat.NQUADS_ASCII,    wdsfactory);
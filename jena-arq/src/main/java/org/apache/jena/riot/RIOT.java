@@ -121,6 +121,7 @@ public class RIOT {
 
     private static String TURTLE_SYMBOL_BASE = "http://jena.apache.org/riot/turtle#";
     private static String RDFXML_SYMBOL_BASE = "http://jena.apache.org/riot/rdfxml#";
+    private static String PARSER_SYMBOL_BASE = "http://jena.apache.org/riot/parser#";
 
     /**
      * Printing style - {@code PREFIX} or {@code @prefix}
@@ -157,4 +158,57 @@ public class RIOT {
      * Print literals with newlines in multiple line form, using triple quotes.
      */
     public static final Symbol symTurtleMultilineLiterals = SystemARQ.allocSymbol(TURTLE_SYMBOL_BASE, "multiline_literals") ;
+
+    /**
+     * The number of threads for parsing N-Triples and N-Quads from an {@code InputStream}.
+     * The input is split into chunks at line ends, and the chunks are parsed in parallel.
+     * Default: not set - parse on the calling thread.
+     * @see org.apache.jena.riot.lang.ReaderNTuplesParallel
+     */
+    public static final Symbol symParserThreads = SystemARQ.allocSymbol(PARSER_SYMBOL_BASE, "threads") ;
+
+    /**
+     * With {@link #symParserThreads}, send triples and quads to the output in the order
+     * chunks finish parsing, not the order of the input.
+     * Default: false - in the order of the input.
+     */
+    public static final Symbol symParserUnordered = SystemARQ.allocSymbol(PARSER_SYMBOL_BASE, "unordered") ;
+
+    /**
+     * Tokenize Turtle, TriG, N-Triples and N-Quads from an {@code InputStream} directly
+     * on the UTF-8 bytes, decoding characters only where needed.
+     * Default: false - decode the input to characters then tokenize.
+     * @see org.apache.jena.riot.tokens.TokenizerTextBuilder#byteLevel(boolean)
+     */
+    public static final Symbol symParserByteTokenizer = SystemARQ.allocSymbol(PARSER_SYMBOL_BASE, "byteTokenizer") ;
+
+    /**
+     * Memory-map local files for parsing, instead of reading them through an
+     * {@code InputStream}. The Turtle, TriG, N-Triples, N-Quads, RDF Thrift and RDF
+     * Protobuf parsers then work on the bytes of the file directly. Compressed files
+     * and files smaller than 64K bytes are read as usual.
+     * <p>
+     * Mapping only helps files under 2G bytes. A file is mapped as one
+     * {@code ByteBuffer}, which can not be larger than 2G bytes, so larger files,
+     * such as large N-Triples dumps, are always read through an {@code InputStream}
+     * and this setting has no effect on them.
+     * <p>
+     * This is a setting for {@link #getContext()}, which is used by {@code LocatorFile}.
+     * It can also be set for an {@link RDFParser} reading from a {@code Path}.
+     * <p>
+     * On MS Windows, a file can not be deleted while it is mapped, and the mapping
+     * lasts until the JVM garbage collects it.
+     * Default: false - read files with an {@code InputStream}.
+     */
+    public static final Symbol symParserMapFiles = SystemARQ.allocSymbol(PARSER_SYMBOL_BASE, "mapFiles") ;
+
+    /**
+     * Intern IRIs and short literals while parsing, in a bounded cache shared by parser
+     * runs, so that a term that occurs many times is one {@code Node} object. This
+     * reduces the heap used when loading large data into memory.
+     * This setting is used when no {@code FactoryRDF} is given to the parser.
+     * Default: false - cache recently seen IRIs for each parser run.
+     * @see org.apache.jena.riot.system.FactoryRDFInterning
+     */
+    public static final Symbol symParserInternNodes = SystemARQ.allocSymbol(PARSER_SYMBOL_BASE, "internNodes") ;
 }
@@ -46,7 +46,7 @@ public class LabelToNode extends MapWithScope<String, Node, Node>
      * See {@link #createScopeGlobal} for some history.
      */
     public static LabelToNode createScopeByDocumentHash()
-    { return new LabelToNode(new FixedScopePolicy(), nodeAllocatorHash()); }
+    { return new LabelToNode(new FixedScopePolicy(), nodeAllocatorHash(), true); }
 
     /**
      * Allocation from a single scope; just the label matters.
@@ -54,7 +54,7 @@ public class LabelToNode extends MapWithScope<String, Node, Node>
      * @param seed Seed
      */
     public static LabelToNode createScopeByDocumentHash(UUID seed)
-    { return new LabelToNode(new FixedScopePolicy(), nodeAllocatorHash(seed)); }
+    { return new LabelToNode(new FixedScopePolicy(), nodeAllocatorHash(seed), true); }
 
     /**
      * Allocation, with a map from seen label to node. It uses the jena-core blank
@@ -136,8 +136,20 @@ public class LabelToNode extends MapWithScope<String, Node, Node>
 
     // ---- The class
 
+    private final boolean scopeByDocumentHash;
+
     public LabelToNode(ScopePolicy<String, Node, Node> scopePolicy, Allocator<String, Node, Node> allocator) {
+        this(scopePolicy, allocator, false);
+    }
+
+    private LabelToNode(ScopePolicy<String, Node, Node> scopePolicy, Allocator<String, Node, Node> allocator, boolean scopeByDocumentHash) {
         super(scopePolicy, allocator);
+        this.scopeByDocumentHash = scopeByDocumentHash;
+    }
+
+    /** Whether this label mapping was created by {@link #createScopeByDocumentHash}. */
+    public boolean isScopeByDocumentHash() {
+        return scopeByDocumentHash;
     }
 
     // ======== Scope Policies
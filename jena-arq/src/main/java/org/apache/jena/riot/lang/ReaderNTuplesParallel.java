@@ -0,0 +1,394 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.apache.jena.riot.lang;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import org.apache.jena.atlas.io.IO;
+import org.apache.jena.atlas.io.InputStreamByteBuffer;
+import org.apache.jena.atlas.web.ContentType;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.RIOT;
+import org.apache.jena.riot.ReaderRIOT;
+import org.apache.jena.riot.ReaderRIOTFactory;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.system.*;
+import org.apache.jena.riot.tokens.Tokenizer;
+import org.apache.jena.riot.tokens.TokenizerText;
+import org.apache.jena.riot.tokens.TokenizerTextBuilder;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.util.Context;
+
+/**
+ * Parse N-Triples or N-Quads on several threads.
+ * <p>
+ * N-Triples and N-Quads have one triple or quad per line, so the input can be split
+ * into chunks at line ends and each chunk parsed by a parser of its own. Each chunk
+ * has its own tokenizer and parser profile. Blank nodes are allocated from a hash
+ * of the label and a seed for the whole parser run, as the default allocation
+ * policy does, so the same label in different chunks is the same blank node. Line
+ * numbers in errors are lines of the input.
+ * <p>
+ * Triples and quads are sent to the output on the calling thread, in the order of
+ * the input unless {@link RIOT#symParserUnordered} is true.
+ * <p>
+ * This reader is used when the context of the read has {@link RIOT#symParserThreads}
+ * greater than one, the input is an {@code InputStream}, the parser profile is
+ * a {@link ParserProfileStd}, and its {@link FactoryRDF} is a {@link FactoryRDFStd},
+ * {@link FactoryRDFCaching} or {@link FactoryRDFInterning} with the default blank node
+ * label policy ({@link LabelToNode#createScopeByDocumentHash}). Otherwise, such as
+ * when the parser has a factory or label policy of its own, it parses on the
+ * calling thread in the same way as the usual N-Triples and N-Quads readers.
+ * <p>
+ * If the input is an {@link InputStreamByteBuffer}, such as a memory-mapped file,
+ * chunks are slices of its bytes, not copies, and are parsed with the byte-level
+ * tokenizer.
+ */
+public class ReaderNTuplesParallel implements ReaderRIOT {
+
+    public static final ReaderRIOTFactory factoryNT =
+            (lang, profile) -> new ReaderNTuplesParallel(RDFLanguages.NTRIPLES, profile, RiotParsers.factoryNT.create(lang, profile));
+
+    public static final ReaderRIOTFactory factoryNQ =
+            (lang, profile) -> new ReaderNTuplesParallel(RDFLanguages.NQUADS, profile, RiotParsers.factoryNQ.create(lang, profile));
+
+    /** Size of the chunks of input, in bytes. A chunk is longer if a line is longer. */
+    /*package*/ static int ChunkSize = 4 * 1024 * 1024;
+
+    private final Lang lang;
+    private final ParserProfile profile;
+    private final ReaderRIOT sequential;
+
+    private ReaderNTuplesParallel(Lang lang, ParserProfile profile, ReaderRIOT sequential) {
+        this.lang = lang;
+        this.profile = profile;
+        this.sequential = sequential;
+    }
+
+    @Override
+    public void read(InputStream in, String baseURI, ContentType ct, StreamRDF output, Context context) {
+        int threads = ( context == null ) ? 1 : context.getInt(RIOT.symParserThreads, 1);
+        if ( threads <= 1 || !(profile instanceof ParserProfileStd profileStd) || !canCopy(profileStd.getFactorRDF()) ) {
+            sequential.read(in, baseURI, ct, output, context);
+            return;
+        }
+        boolean ordered = !context.isTrue(RIOT.symParserUnordered);
+        boolean byteLevel = context.isTrue(RIOT.symParserByteTokenizer) || in instanceof InputStreamByteBuffer;
+        new ParallelParse(profileStd, in, output, threads, ordered, byteLevel).parse();
+    }
+
+    /**
+     * Whether chunks can be parsed with copies of the factory. A copy has the
+     * default label policy with the seed of the parser run.
+     */
+    private static boolean canCopy(FactoryRDF factory) {
+        Class<?> cls = factory.getClass();
+        if ( cls != FactoryRDFStd.class && cls != FactoryRDFCaching.class && cls != FactoryRDFInterning.class )
+            return false;
+        return ((FactoryRDFStd)factory).getLabelMapping().isScopeByDocumentHash();
+    }
+
+    private static FactoryRDF copy(FactoryRDF factory, LabelToNode labelToNode) {
+        if ( factory instanceof FactoryRDFInterning interning )
+            return interning.copy(labelToNode);
+        if ( factory instanceof FactoryRDFCaching )
+            return RiotLib.factoryRDF(labelToNode);
+        return new FactoryRDFStd(labelToNode);
+    }
+
+    @Override
+    public void read(Reader reader, String baseURI, ContentType ct, StreamRDF output, Context context) {
+        sequential.read(reader, baseURI, ct, output, context);
+    }
+
+    /** A chunk of input, with the number of lines before it. */
+    private static class Chunk {
+        final ByteBuffer bytes;
+        final CompletableFuture<Long> startLine;
+        final CompletableFuture<Long> lineCount = new CompletableFuture<>();
+
+        Chunk(ByteBuffer bytes, CompletableFuture<Long> startLine) {
+            this.bytes = bytes;
+            this.startLine = startLine;
+        }
+    }
+
+    private class ParallelParse {
+        private final ParserProfileStd profileStd;
+        private final InputStream input;
+        // Set if the input bytes are available directly.
+        private final ByteBuffer inputBytes;
+        private final StreamRDF output;
+        private final int threads;
+        private final boolean ordered;
+        private final boolean byteLevel;
+        private final UUID seed = UUID.randomUUID();
+        // Input after the last line end of the previous chunk.
+        private byte[] carry = new byte[0];
+        private CompletableFuture<Long> nextStartLine = CompletableFuture.completedFuture(0L);
+
+        ParallelParse(ParserProfileStd profileStd, InputStream input, StreamRDF output, int threads, boolean ordered, boolean byteLevel) {
+            this.profileStd = profileStd;
+            this.input = input;
+            this.inputBytes = ( input instanceof InputStreamByteBuffer mapped ) ? mapped.getByteBuffer() : null;
+            this.output = output;
+            this.threads = threads;
+            this.ordered = ordered;
+            this.byteLevel = byteLevel;
+        }
+
+        void parse() {
+            ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "ParseNTuples");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // Limit the number of chunks in memory.
+            int maxInFlight = 2 * threads;
+            output.start();
+            try {
+                if ( ordered ) {
+                    Deque<Future<List<?>>> inFlight = new ArrayDeque<>();
+                    Chunk chunk;
+                    while ( (chunk = nextChunk()) != null ) {
+                        Chunk c = chunk;
+                        inFlight.add(executor.submit(() -> parseChunk(c)));
+                        if ( inFlight.size() >= maxInFlight )
+                            emit(await(inFlight.removeFirst()));
+                    }
+                    while ( !inFlight.isEmpty() )
+                        emit(await(inFlight.removeFirst()));
+                } else {
+                    CompletionService<List<?>> completion = new ExecutorCompletionService<>(executor);
+                    int inFlight = 0;
+                    Chunk chunk;
+                    while ( (chunk = nextChunk()) != null ) {
+                        Chunk c = chunk;
+                        completion.submit(() -> parseChunk(c));
+                        inFlight++;
+                        if ( inFlight >= maxInFlight ) {
+                            emit(await(completion.take()));
+                            inFlight--;
+                        }
+                    }
+                    for ( ; inFlight > 0 ; inFlight-- )
+                        emit(await(completion.take()));
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new RiotException("Interrupted", ex);
+            } finally {
+                executor.shutdownNow();
+                output.finish();
+            }
+        }
+
+        private void emit(List<?> items) {
+            for ( Object item : items ) {
+                if ( item instanceof Triple triple )
+                    output.triple(triple);
+                else
+                    output.quad((Quad)item);
+            }
+        }
+
+        private List<?> await(Future<List<?>> future) throws InterruptedException {
+            try {
+                return future.get();
+            } catch (ExecutionException ex) {
+                if ( ex.getCause() instanceof RuntimeException rex )
+                    throw rex;
+                if ( ex.getCause() instanceof Error err )
+                    throw err;
+                throw new RiotException(ex.getCause());
+            }
+        }
+
+        // Read the next chunk of input, ending at a line end or the end of the input.
+        // Return null at the end of the input.
+        private Chunk nextChunk() {
+            if ( inputBytes != null )
+                return nextSlice();
+            byte[] buffer = new byte[Math.max(ChunkSize, 2 * carry.length)];
+            System.arraycopy(carry, 0, buffer, 0, carry.length);
+            int len = carry.length;
+            int searchFrom = len;
+            for (;;) {
+                int n = readFully(buffer, len);
+                len += n;
+                if ( len < buffer.length ) {
+                    // End of input.
+                    carry = new byte[0];
+                    return ( len == 0 ) ? null : newChunk(ByteBuffer.wrap(buffer, 0, len));
+                }
+                int idx = lastNewline(buffer, searchFrom, len);
+                if ( idx >= 0 ) {
+                    carry = Arrays.copyOfRange(buffer, idx + 1, len);
+                    return newChunk(ByteBuffer.wrap(buffer, 0, idx + 1));
+                }
+                // A line longer than the buffer.
+                searchFrom = len;
+                buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+            }
+        }
+
+        // The next chunk as a slice of the input bytes.
+        private Chunk nextSlice() {
+            int start = inputBytes.position();
+            int limit = inputBytes.limit();
+            if ( start == limit )
+                return null;
+            int end = limit;
+            if ( limit - start > ChunkSize ) {
+                // Find the last line end in the chunk, or the first one after it.
+                int idx = -1;
+                for ( int i = start + ChunkSize - 1 ; i >= start ; i-- ) {
+                    if ( inputBytes.get(i) == '\n' ) {
+                        idx = i;
+                        break;
+                    }
+                }
+                for ( int i = start + ChunkSize ; idx < 0 && i < limit ; i++ ) {
+                    if ( inputBytes.get(i) == '\n' )
+                        idx = i;
+                }
+                if ( idx >= 0 )
+                    end = idx + 1;
+            }
+            inputBytes.position(end);
+            return newChunk(inputBytes.slice(start, end - start));
+        }
+
+        private Chunk newChunk(ByteBuffer bytes) {
+            Chunk chunk = new Chunk(bytes, nextStartLine);
+            nextStartLine = chunk.startLine.thenCombine(chunk.lineCount, Long::sum);
+            return chunk;
+        }
+
+        // Read until the buffer is full or the end of the input.
+        private int readFully(byte[] buffer, int start) {
+            try {
+                int len = start;
+                while ( len < buffer.length ) {
+                    int n = input.read(buffer, len, buffer.length - len);
+                    if ( n < 0 )
+                        break;
+                    len += n;
+                }
+                return len - start;
+            } catch (IOException ex) {
+                IO.exception(ex);
+                return -1;
+            }
+        }
+
+        private static int lastNewline(byte[] bytes, int from, int to) {
+            for ( int i = to - 1 ; i >= from ; i-- ) {
+                if ( bytes[i] == '\n' )
+                    return i;
+            }
+            return -1;
+        }
+
+        // Parse on a worker thread.
+        private List<?> parseChunk(Chunk chunk) {
+            long lines = 0;
+            ByteBuffer bytes = chunk.bytes;
+            for ( int i = 0 ; i < bytes.limit() ; i++ ) {
+                if ( bytes.get(i) == '\n' )
+                    lines++;
+            }
+            chunk.lineCount.complete(lines);
+
+            ErrorHandler errorHandler = new ErrorHandlerLineOffset(profileStd.getErrorHandler(), chunk.startLine);
+            LabelToNode labelToNode = LabelToNode.createScopeByDocumentHash(seed);
+            FactoryRDF factory = copy(profileStd.getFactorRDF(), labelToNode);
+            ParserProfile chunkProfile = profileStd.copy(factory, errorHandler);
+            TokenizerTextBuilder builder = TokenizerText.create().errorHandler(errorHandler);
+            Tokenizer tokenizer = byteLevel
+                    ? builder.source(bytes).build()
+                    : builder.source(new InputStreamByteBuffer(bytes)).build();
+            CollectorStreamRDF collector = new CollectorStreamRDF();
+            LangRIOT parser = RDFLanguages.NTRIPLES.equals(lang)
+                    ? new LangNTriples(tokenizer, chunkProfile, collector)
+                    : new LangNQuads(tokenizer, chunkProfile, collector);
+            parser.parse();
+            return RDFLanguages.NTRIPLES.equals(lang) ? collector.getTriples() : collector.getQuads();
+        }
+    }
+
+    /**
+     * Adjust line numbers from a chunk to lines of the input, and pass on to the
+     * error handler of the parse, one thread at a time.
+     */
+    private static class ErrorHandlerLineOffset implements ErrorHandler {
+        private final ErrorHandler handler;
+        private final CompletableFuture<Long> startLine;
+
+        ErrorHandlerLineOffset(ErrorHandler handler, CompletableFuture<Long> startLine) {
+            this.handler = handler;
+            this.startLine = startLine;
+        }
+
+        // The line counts of earlier chunks are set when they start parsing, and
+        // chunks start in order, so this does not wait for long.
+        private long line(long line) {
+            return ( line < 0 ) ? line : line + startLine.join();
+        }
+
+        @Override
+        public void warning(String message, long line, long col) {
+            long inputLine = line(line);
+            synchronized (handler) {
+                handler.warning(message, inputLine, col);
+            }
+        }
+
+        @Override
+        public void error(String message, long line, long col) {
+            long inputLine = line(line);
+            synchronized (handler) {
+                handler.error(message, inputLine, col);
+            }
+        }
+
+        @Override
+        public void fatal(String message, long line, long col) {
+            long inputLine = line(line);
+            synchronized (handler) {
+                handler.fatal(message, inputLine, col);
+            }
+        }
+    }
+}
@@ -25,6 +25,7 @@ package org.apache.jena.riot.lang;
 import java.io.InputStream;
 import java.io.Reader;
 
+import org.apache.jena.atlas.io.InputStreamByteBuffer;
 import org.apache.jena.atlas.io.PeekReader;
 import org.apache.jena.atlas.json.io.parser.TokenizerJSON;
 import org.apache.jena.atlas.lib.InternalErrorException;
@@ -90,7 +91,14 @@ public class RiotParsers {
         @Override
         public void read(InputStream input, String baseURI, ContentType ct, StreamRDF output, Context context) {
             // Parser profile gets the base.
-            Tokenizer tokenizer = TokenizerText.create().source(input).errorHandler(parserProfile.getErrorHandler()).build();
+            Tokenizer tokenizer;
+            if ( input instanceof InputStreamByteBuffer mapped ) {
+                // Tokenize the bytes directly, e.g. a memory-mapped file.
+                tokenizer = TokenizerText.create().source(mapped.getByteBuffer()).errorHandler(parserProfile.getErrorHandler()).build();
+            } else {
+                boolean byteLevel = context != null && context.isTrue(RIOT.symParserByteTokenizer);
+                tokenizer = TokenizerText.create().source(input).byteLevel(byteLevel).errorHandler(parserProfile.getErrorHandler()).build();
+            }
             read(tokenizer,  output, context);
         }
 
@@ -24,9 +24,13 @@ package org.apache.jena.riot.protobuf;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.List;
 
+import com.google.protobuf.CodedInputStream;
+
 import org.apache.jena.atlas.io.IO;
+import org.apache.jena.atlas.io.InputStreamByteBuffer;
 import org.apache.jena.riot.protobuf.wire.PB_RDF.RDF_StreamRow;
 import org.apache.jena.riot.system.PrefixMapFactory;
 import org.apache.jena.riot.system.StreamRDF;
@@ -123,6 +127,10 @@ public class ProtobufRDF {
      * @param action  Code to act on the row.
      */
     public static void apply(InputStream input, VisitorStreamRowProtoRDF action) {
+        if ( input instanceof InputStreamByteBuffer mapped ) {
+            apply(mapped.getByteBuffer(), action);
+            return;
+        }
         input = IO.ensureBuffered(input);
         try {
             while(true) {
@@ -134,6 +142,23 @@ public class ProtobufRDF {
         } catch(IOException ex) { IO.exception(ex); }
     }
 
+    // Rows with delimiters, parsed directly from the bytes.
+    private static void apply(ByteBuffer bytes, VisitorStreamRowProtoRDF action) {
+        CodedInputStream input = CodedInputStream.newInstance(bytes);
+        try {
+            while ( !input.isAtEnd() ) {
+                int length = input.readRawVarint32();
+                int oldLimit = input.pushLimit(length);
+                RDF_StreamRow x = RDF_StreamRow.parseFrom(input);
+                input.popLimit(oldLimit);
+                input.resetSizeCounter();
+                boolean b = PBufRDF.visit(x, action);
+                if ( !b )
+                    return;
+            }
+        } catch(IOException ex) { IO.exception(ex); }
+    }
+
     /**
      * Return a streaming {@link RowSet} read from an input stream (with delimiters per row)
      */
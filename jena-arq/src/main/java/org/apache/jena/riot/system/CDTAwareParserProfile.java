@@ -58,6 +58,17 @@ public class CDTAwareParserProfile extends ParserProfileStd {
         super(factory, errorHandler, resolver, prefixMap, context, checking, strictMode);
     }
 
+    @Override
+    protected ParserProfileStd create( final FactoryRDF factory,
+                                       final ErrorHandler errorHandler,
+                                       final IRIxResolver resolver,
+                                       final PrefixMap prefixMap,
+                                       final Context context,
+                                       final boolean checking,
+                                       final boolean strictMode ) {
+        return new CDTAwareParserProfile(factory, errorHandler, resolver, prefixMap, context, checking, strictMode);
+    }
+
     @Override
     public Node createTypedLiteral( final String lex, final RDFDatatype datatype, final long line, final long col ) {
         // cdt:List and cdt:Map literals need to be treated in a special way
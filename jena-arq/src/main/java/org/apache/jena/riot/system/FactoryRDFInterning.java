@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.apache.jena.riot.system;
+
+import java.util.Objects;
+
+import org.apache.jena.atlas.lib.Cache;
+import org.apache.jena.atlas.lib.CacheFactory;
+import org.apache.jena.atlas.lib.cache.CacheInfo;
+import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.riot.RIOT;
+import org.apache.jena.riot.lang.LabelToNode;
+
+/**
+ * A {@link FactoryRDF} that interns terms: IRIs, and literals with a lexical form of
+ * up to {@link #MaxLiteralLength} characters, including their datatype or language
+ * tag. A term that occurs many times in the input is then one {@code Node} object,
+ * which reduces the heap used by a large graph held in memory.
+ * <p>
+ * The cache is bounded and thread-safe. It can be shared between parser runs and
+ * between parsers on different threads. The constructors without a cache size use
+ * one cache for the JVM.
+ * <p>
+ * This is the factory used by {@link org.apache.jena.riot.RDFParser} when
+ * {@link RIOT#symParserInternNodes} is true.
+ */
+public class FactoryRDFInterning extends FactoryRDFStd {
+    /** Size of the cache shared by parser runs. */
+    public static final int DftInternCacheSize = 100_000;
+    /** Literals with longer lexical forms are not interned. */
+    public static final int MaxLiteralLength = 64;
+
+    private static class LazyShared {
+        private static final Cache<Object, Node> cache = createCache(DftInternCacheSize);
+    }
+
+    // Literal cache key. IRIs are keyed by the IRI string.
+    private record LiteralKey(String lexical, String langTag, String direction, RDFDatatype datatype) {}
+
+    private final Cache<Object, Node> cache;
+
+    /** Create a factory that uses the shared cache. */
+    public FactoryRDFInterning() {
+        this(SyntaxLabels.createLabelToNode());
+    }
+
+    /** Create a factory that uses the shared cache. */
+    public FactoryRDFInterning(LabelToNode labelMapping) {
+        this(LazyShared.cache, labelMapping);
+    }
+
+    /** Create a factory with a cache of its own. */
+    public FactoryRDFInterning(int cacheSize, LabelToNode labelMapping) {
+        this(createCache(cacheSize), labelMapping);
+    }
+
+    private FactoryRDFInterning(Cache<Object, Node> cache, LabelToNode labelMapping) {
+        super(labelMapping);
+        this.cache = Objects.requireNonNull(cache);
+    }
+
+    private static Cache<Object, Node> createCache(int cacheSize) {
+        // Thread safe.
+        return CacheFactory.createCache(cacheSize);
+    }
+
+    /**
+     * Return a factory that has the same cache as this one, and the given blank node
+     * label mapping. This is for parsers on several threads, each with a label
+     * mapping of its own.
+     */
+    public FactoryRDFInterning copy(LabelToNode labelMapping) {
+        return new FactoryRDFInterning(cache, labelMapping);
+    }
+
+    @Override
+    public Node createURI(String uriStr) {
+        return cache.get(uriStr, k->RiotLib.createIRIorBNode(uriStr));
+    }
+
+    @Override
+    public Node createTypedLiteral(String lexical, RDFDatatype datatype) {
+        if ( lexical.length() > MaxLiteralLength )
+            return super.createTypedLiteral(lexical, datatype);
+        return cache.get(new LiteralKey(lexical, null, null, datatype), k->super.createTypedLiteral(lexical, datatype));
+    }
+
+    @Override
+    public Node createLangLiteral(String lexical, String langTag) {
+        if ( lexical.length() > MaxLiteralLength )
+            return super.createLangLiteral(lexical, langTag);
+        return cache.get(new LiteralKey(lexical, langTag, null, null), k->super.createLangLiteral(lexical, langTag));
+    }
+
+    @Override
+    public Node createLangDirLiteral(String lexical, String langTag, String direction) {
+        if ( lexical.length() > MaxLiteralLength )
+            return super.createLangDirLiteral(lexical, langTag, direction);
+        return cache.get(new LiteralKey(lexical, langTag, direction, null), k->super.createLangDirLiteral(lexical, langTag, direction));
+    }
+
+    @Override
+    public Node createStringLiteral(String lexical) {
+        if ( lexical.length() > MaxLiteralLength )
+            return super.createStringLiteral(lexical);
+        return cache.get(new LiteralKey(lexical, null, null, null), k->super.createStringLiteral(lexical));
+    }
+
+    public CacheInfo stats() {
+        return cache.stats();
+    }
+}
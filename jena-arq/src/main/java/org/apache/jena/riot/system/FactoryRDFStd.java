@@ -42,6 +42,11 @@ public class FactoryRDFStd implements FactoryRDF {
         this.labelMapping = labelMapping ;
     }
 
+    /** The blank node label mapping of this factory. */
+    public LabelToNode getLabelMapping() {
+        return labelMapping ;
+    }
+
     @Override
     public Triple createTriple(Node subject, Node predicate, Node object) {
         return Triple.create(subject, predicate, object);
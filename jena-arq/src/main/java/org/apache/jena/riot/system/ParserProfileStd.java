@@ -67,6 +67,22 @@ public class ParserProfileStd implements ParserProfile {
         this.allowNodeExtentions = true; // (context.isTrue(RIOT.ALLOW_NODE_EXT)) ;
     }
 
+    /**
+     * Return a parser profile with the settings of this one and a different
+     * {@link FactoryRDF} and {@link ErrorHandler}, for example for a parser
+     * running on another thread.
+     */
+    public ParserProfileStd copy(FactoryRDF factory, ErrorHandler errorHandler) {
+        return create(factory, errorHandler, resolver, prefixMap, context, checking, strictMode);
+    }
+
+    /** Create a parser profile of the same kind as this one. */
+    protected ParserProfileStd create(FactoryRDF factory, ErrorHandler errorHandler,
+                                      IRIxResolver resolver, PrefixMap prefixMap, Context context,
+                                      boolean checking, boolean strictMode) {
+        return new ParserProfileStd(factory, errorHandler, resolver, prefixMap, context, checking, strictMode);
+    }
+
     @Override
     public FactoryRDF getFactorRDF() {
         return factory;
@@ -38,6 +38,7 @@ import org.apache.jena.riot.writer.StreamWriterTriX ;
 import org.apache.jena.riot.writer.WriterStreamRDFBlocks ;
 import org.apache.jena.riot.writer.WriterStreamRDFFlat ;
 import org.apache.jena.riot.writer.WriterStreamRDFPlain ;
+import org.apache.jena.riot.writer.WriterStreamRDFPretty ;
 import org.apache.jena.sparql.core.DatasetGraph ;
 import org.apache.jena.sparql.util.Context;
 import org.apache.jena.sys.JenaSystem;
@@ -62,6 +63,13 @@ public class StreamRDFWriter {
         }
     } ;
 
+    private static StreamRDFWriterFactory streamWriterFactoryStreaming = new StreamRDFWriterFactory() {
+        @Override
+        public StreamRDF create(OutputStream output, RDFFormat format, Context context) {
+            return new WriterStreamRDFPretty(output, context) ;
+        }
+    } ;
+
     private static StreamRDFWriterFactory streamWriterFactoryFlat = new StreamRDFWriterFactory() {
         @Override
         public StreamRDF create(OutputStream output, RDFFormat format, Context context) {
@@ -155,8 +163,10 @@ public class StreamRDFWriter {
 
         register(RDFFormat.TURTLE_BLOCKS,   streamWriterFactoryBlocks) ;
         register(RDFFormat.TURTLE_FLAT,     streamWriterFactoryFlat) ;
+        register(RDFFormat.TURTLE_STREAMING, streamWriterFactoryStreaming) ;
         register(RDFFormat.TRIG_BLOCKS,     streamWriterFactoryBlocks) ;
         register(RDFFormat.TRIG_FLAT,       streamWriterFactoryFlat) ;
+        register(RDFFormat.TRIG_STREAMING,  streamWriterFactoryStreaming) ;
 
         register(RDFFormat.NTRIPLES,        streamWriterFactoryTriplesQuads) ;
         register(RDFFormat.NTRIPLES_UTF8,   streamWriterFactoryTriplesQuads) ;
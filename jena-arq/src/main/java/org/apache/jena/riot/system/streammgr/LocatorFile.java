@@ -24,13 +24,17 @@ package org.apache.jena.riot.system.streammgr;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import org.apache.jena.atlas.io.IO;
+import org.apache.jena.atlas.io.InputStreamByteBuffer;
 import org.apache.jena.atlas.lib.IRILib;
 import org.apache.jena.atlas.web.ContentType;
 import org.apache.jena.atlas.web.TypedInputStream;
 import org.apache.jena.irix.IRIs;
 import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.RIOT;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -154,7 +158,11 @@ public class LocatorFile implements Locator {
         }
 
         try {
-            InputStream in = IO.openFileEx(fn);
+            InputStream in = null;
+            if ( RIOT.getContext().isTrue(RIOT.symParserMapFiles) )
+                in = openMapped(fn);
+            if ( in == null )
+                in = IO.openFileEx(fn);
 
             if ( StreamManager.logAllLookups && log.isTraceEnabled() )
                 log.trace("Found: " + filenameIRI + thisDirLogStr);
@@ -168,6 +176,26 @@ public class LocatorFile implements Locator {
         }
     }
 
+    // Smaller files are read with an InputStream.
+    private static final long MinMapSize = 64 * 1024;
+
+    /**
+     * Open a file as a memory-mapped {@link InputStreamByteBuffer}. Return null if
+     * the file is compressed, is smaller than 64K bytes or is larger than 2G bytes.
+     * Files larger than 2G bytes are never mapped: a {@code ByteBuffer} is limited to
+     * 2G bytes.
+     * @see RIOT#symParserMapFiles
+     */
+    public static InputStream openMapped(String filename) throws IOException {
+        if ( filename.equals("-") || !IO.filenameNoCompression(filename).equals(filename) )
+            return null;
+        Path path = Path.of(filename);
+        long size = Files.size(path);
+        if ( size < MinMapSize || size > Integer.MAX_VALUE )
+            return null;
+        return InputStreamByteBuffer.mapFile(path);
+    }
+
     @Override
     public String getName() {
         String tmp = "LocatorFile";
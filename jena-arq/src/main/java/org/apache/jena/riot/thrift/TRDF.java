@@ -24,6 +24,7 @@ package org.apache.jena.riot.thrift;
 import java.io.*;
 
 import org.apache.jena.atlas.io.IO;
+import org.apache.jena.atlas.io.InputStreamByteBuffer;
 import org.apache.jena.atlas.logging.Log;
 import org.apache.jena.riot.RiotException;
 import org.apache.jena.riot.system.StreamRDF;
@@ -65,6 +66,8 @@ public class TRDF {
      * @param in InputStream
      */
     public static TProtocol protocol(InputStream in) {
+        if ( in instanceof InputStreamByteBuffer mapped )
+            return protocol(new TTransportByteBuffer(mapped.getByteBuffer()));
         in = ensureBuffered(in);
         try {
             TTransport transport = new TIOStreamTransport(in);
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.apache.jena.riot.thrift;
+
+import java.nio.ByteBuffer;
+
+import org.apache.thrift.TConfiguration;
+import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
+
+/**
+ * Read-only Thrift transport over the bytes of a {@link ByteBuffer}, such as a
+ * memory-mapped file. Unlike {@code TByteBuffer}, there is no limit on the total size.
+ * When the {@code ByteBuffer} has an accessible array, the protocol can read directly
+ * from it.
+ */
+class TTransportByteBuffer extends TTransport {
+    private final ByteBuffer byteBuffer;
+    private final boolean hasArray;
+
+    TTransportByteBuffer(ByteBuffer byteBuffer) {
+        this.byteBuffer = byteBuffer;
+        this.hasArray = byteBuffer.hasArray();
+    }
+
+    @Override
+    public boolean isOpen() { return true; }
+
+    @Override
+    public void open() {}
+
+    @Override
+    public void close() {}
+
+    @Override
+    public int read(byte[] buf, int off, int len) throws TTransportException {
+        // As TIOStreamTransport: ThriftRDF relies on END_OF_FILE.
+        if ( len > 0 && !byteBuffer.hasRemaining() )
+            throw new TTransportException(TTransportException.END_OF_FILE);
+        int n = Math.min(len, byteBuffer.remaining());
+        byteBuffer.get(buf, off, n);
+        return n;
+    }
+
+    @Override
+    public void write(byte[] buf, int off, int len) throws TTransportException {
+        throw new TTransportException(TTransportException.NOT_OPEN, "Read-only transport");
+    }
+
+    @Override
+    public byte[] getBuffer() {
+        return hasArray ? byteBuffer.array() : null;
+    }
+
+    @Override
+    public int getBufferPosition() {
+        return hasArray ? byteBuffer.arrayOffset() + byteBuffer.position() : 0;
+    }
+
+    @Override
+    public int getBytesRemainingInBuffer() {
+        return hasArray ? byteBuffer.remaining() : -1;
+    }
+
+    @Override
+    public void consumeBuffer(int len) {
+        byteBuffer.position(byteBuffer.position() + len);
+    }
+
+    @Override
+    public TConfiguration getConfiguration() {
+        return TConfiguration.DEFAULT;
+    }
+
+    @Override
+    public void updateKnownMessageSize(long size) {}
+
+    @Override
+    public void checkReadBytesAvailable(long numBytes) throws TTransportException {
+        if ( numBytes > byteBuffer.remaining() )
+            throw new TTransportException(TTransportException.END_OF_FILE, "Not enough bytes remaining: " + numBytes);
+    }
+}
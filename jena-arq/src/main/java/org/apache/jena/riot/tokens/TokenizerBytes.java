@@ -0,0 +1,1926 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.apache.jena.riot.tokens;
+
+import static org.apache.jena.atlas.lib.Chars.*;
+import static org.apache.jena.riot.system.RiotChars.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import org.apache.jena.atlas.AtlasException;
+import org.apache.jena.atlas.io.IO;
+import org.apache.jena.atlas.io.PeekReader;
+import org.apache.jena.atlas.lib.Chars;
+import org.apache.jena.atlas.lib.Hex;
+import org.apache.jena.atlas.lib.InternalErrorException;
+import org.apache.jena.riot.RiotParseException;
+import org.apache.jena.riot.system.ErrorHandler;
+import org.apache.jena.riot.system.RiotChars;
+import org.apache.jena.sparql.ARQInternalErrorException;
+
+/**
+ * Tokenizer for the Turtle family of syntaxes that works on UTF-8 bytes.
+ * <p>
+ * This produces the same tokens, and the same errors, as {@link TokenizerText}. It
+ * reads bytes into a buffer (or uses the bytes of a {@link ByteBuffer} directly),
+ * not characters from a {@link PeekReader}. IRIs, strings, prefixed names, blank
+ * node labels and whitespace are scanned a run of ASCII bytes at a time and the
+ * token image is made directly from the bytes. UTF-8 is decoded only for the
+ * characters of a token that are not plain ASCII, or when there are escape
+ * sequences. A plain ASCII IRI or short string that was seen recently reuses the
+ * {@code String} of the earlier token.
+ * <p>
+ * Create with {@link TokenizerTextBuilder#byteLevel(boolean)} or
+ * {@link TokenizerTextBuilder#source(ByteBuffer)}.
+ */
+/*package*/ final class TokenizerBytes implements Tokenizer
+{
+    // This class is performance critical.
+    // It is TokenizerText with a different character source - see TokenizerText
+    // for notes on Unicode and surrogates. Keep the two in step.
+
+    // -- Configuration : as TokenizerText.
+
+    private static final boolean CHECK_RDFSTRING = false;
+    private static final boolean VeryVeryLaxIRI = false;
+    private static final boolean AllowSpacesInIRI = false;
+
+    private final static boolean WarnOnReplacmentCharInIRI = false;
+    private final static boolean WarnOnReplacmentCharInString = false;
+    private final static boolean WarnOnReplacmentCharInPrefixedName = true;
+    private final static boolean WarnOnReplacmentCharInBlankNodeLabel = true;
+
+    private static final boolean CHECKER = false;
+    // Optional checker.
+    private final TokenChecker checker = null;
+
+    // -- ASCII bytes that can be taken in a run, without further checks, for each kind of token.
+    // Non-ASCII bytes (negative as a Java byte) always end a run.
+
+    // IRIREF characters, not including UCHAR, and less the characters that cause warnings.
+    private static final boolean[] plainIRI = asciiTable(ch -> ch > 0x20 && "<>\"{}|^`\\".indexOf(ch) < 0);
+    private static final boolean[] plainString1 = asciiTable(ch -> ch != '\'' && ch != '\\' && ch != '\n' && ch != '\r');
+    private static final boolean[] plainString2 = asciiTable(ch -> ch != '"' && ch != '\\' && ch != '\n' && ch != '\r');
+    // PN_CHARS, blank node labels and prefixes, without '.'.
+    private static final boolean[] plainPN = asciiTable(ch -> RiotChars.isPNChars(ch));
+    // Local part of a prefixed name, without '.' and PLX.
+    private static final boolean[] plainLocal = asciiTable(ch -> ch == ':' || RiotChars.isPNChars(ch));
+
+    private interface CharTest { boolean test(int ch); }
+
+    private static boolean[] asciiTable(CharTest test) {
+        boolean[] table = new boolean[128];
+        for ( int i = 0 ; i < table.length ; i++ )
+            table[i] = test.test(i);
+        return table;
+    }
+
+    // ----
+    // Byte source. The bytes are buf[pos] to buf[limit-1]. When the source is a
+    // byte array, or a ByteBuffer with an accessible array, buf is that array and
+    // there is no refill. Otherwise bytes are read into buf from the InputStream
+    // or copied from the ByteBuffer.
+    private static final int BUFFER_SIZE = 128 * 1024;
+    private byte[] buf;
+    private int pos;
+    private int limit;
+    private final InputStream input;
+    private final ByteBuffer byteBuffer;
+
+    // Character state, as PeekReader.
+    private static final int PUSHBACK_SIZE = 10;
+    private char[] pushbackChars = new char[PUSHBACK_SIZE];
+    private int idxPushback = -1;
+    // Second half of a surrogate pair, where the first half has been read.
+    private int pendingLow = -1;
+    // Length in bytes of the last decoded UTF-8 sequence.
+    private int decodedLength;
+    private long posn = 0;
+    private long lineNum = PeekReader.INIT_LINE;
+    private long colNum = PeekReader.INIT_COL;
+
+    // ----
+    // Tokenizer state.
+
+    // Whether whitespace between tokens includes newlines (in various forms).
+    private final boolean singleLineMode;
+    // The code assumes that errors throw exceptions and so stop parsing.
+    private final ErrorHandler errorHandler;
+    private Token token = null;
+    private boolean finished = false;
+
+    /*package*/ static TokenizerBytes internal(InputStream input, boolean singleLineMode, ErrorHandler errorHandler) {
+        Objects.requireNonNull(input, "InputStream");
+        return new TokenizerBytes(new byte[BUFFER_SIZE], 0, 0, input, null, singleLineMode, errorHandler);
+    }
+
+    /*package*/ static TokenizerBytes internal(byte[] bytes, int offset, int length, boolean singleLineMode, ErrorHandler errorHandler) {
+        return new TokenizerBytes(bytes, offset, offset + length, null, null, singleLineMode, errorHandler);
+    }
+
+    /*package*/ static TokenizerBytes internal(ByteBuffer bytes, boolean singleLineMode, ErrorHandler errorHandler) {
+        if ( bytes.hasArray() )
+            return internal(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining(), singleLineMode, errorHandler);
+        // Do not change the position of the caller's ByteBuffer.
+        ByteBuffer source = bytes.slice();
+        return new TokenizerBytes(new byte[BUFFER_SIZE], 0, 0, null, source, singleLineMode, errorHandler);
+    }
+
+    private TokenizerBytes(byte[] buf, int pos, int limit, InputStream input, ByteBuffer byteBuffer,
+                           boolean singleLineMode, ErrorHandler errorHandler) {
+        this.buf = buf;
+        this.pos = pos;
+        this.limit = limit;
+        this.input = input;
+        this.byteBuffer = byteBuffer;
+        this.singleLineMode = singleLineMode;
+        this.errorHandler = Objects.requireNonNull(errorHandler, "ErrorHandler");
+        skipBOM();
+    }
+
+    @Override
+    public final boolean hasNext() {
+        if ( finished )
+            return false;
+        if ( token != null )
+            return true;
+
+        try {
+            skip();
+            if ( atEOF() ) {
+                finished = true;
+                return false;
+            }
+            token = parseToken();
+            if ( token == null ) {
+                finished = true;
+                return false;
+            }
+            return true;
+        } catch (AtlasException ex) {
+            if ( ex.getCause() != null )
+                throw new RiotParseException("Bad input stream [" + ex.getCause() + "]", lineNum, colNum);
+            throw new RiotParseException("Bad input stream", lineNum, colNum);
+        }
+    }
+
+    @Override
+    public final boolean eof() {
+        return !hasNext();
+    }
+
+    @Override
+    public final Token next() {
+        if ( !hasNext() )
+            throw new NoSuchElementException();
+        Token t = token;
+        token = null;
+        return t;
+    }
+
+    @Override
+    public final Token peek() {
+        if ( !hasNext() )
+            return null;
+        return token;
+    }
+
+    @Override
+    public void close() {
+        if ( input != null )
+            IO.close(input);
+    }
+
+    // ---- Bytes
+
+    // Move the unread bytes to the start of the buffer and add more bytes.
+    // Return false if there are no more bytes.
+    private boolean fill() {
+        if ( input == null && byteBuffer == null )
+            return false;
+        if ( pos > 0 ) {
+            System.arraycopy(buf, pos, buf, 0, limit - pos);
+            limit -= pos;
+            pos = 0;
+        } else if ( limit == buf.length ) {
+            buf = Arrays.copyOf(buf, 2 * buf.length);
+        }
+        int n = readBytes(buf, limit, buf.length - limit);
+        if ( n <= 0 )
+            return false;
+        limit += n;
+        return true;
+    }
+
+    private int readBytes(byte[] bytes, int offset, int length) {
+        if ( byteBuffer != null ) {
+            int n = Math.min(length, byteBuffer.remaining());
+            if ( n == 0 )
+                return -1;
+            byteBuffer.get(bytes, offset, n);
+            return n;
+        }
+        try {
+            int n;
+            do {
+                n = input.read(bytes, offset, length);
+            } while ( n == 0 );
+            return n;
+        } catch (IOException ex) {
+            IO.exception(ex);
+            return -1;
+        }
+    }
+
+    private void skipBOM() {
+        while ( limit - pos < 3 && fill() ) {}
+        if ( limit - pos >= 3 && buf[pos] == (byte)0xEF && buf[pos+1] == (byte)0xBB && buf[pos+2] == (byte)0xBF ) {
+            // Counts as a character, as PeekReader.makeUTF8.
+            pos += 3;
+            posn++;
+            colNum++;
+        }
+    }
+
+    /**
+     * Decode the UTF-8 sequence at {@code pos}, which starts with a non-ASCII byte.
+     * Sets {@code decodedLength}. Malformed sequences are U+FFFD, as for a Java
+     * decoder that replaces malformed input.
+     */
+    private int decode() {
+        while ( limit - pos < 4 && fill() ) {}
+        int avail = limit - pos;
+        int b0 = buf[pos] & 0xFF;
+        int need;
+        int cp;
+        // Range of the second byte - excludes overlong forms, surrogates and beyond U+10FFFF.
+        int min2 = 0x80;
+        int max2 = 0xBF;
+        if ( b0 >= 0xC2 && b0 <= 0xDF ) {
+            need = 2;
+            cp = b0 & 0x1F;
+        } else if ( b0 >= 0xE0 && b0 <= 0xEF ) {
+            need = 3;
+            cp = b0 & 0x0F;
+            if ( b0 == 0xE0 )
+                min2 = 0xA0;
+            else if ( b0 == 0xED )
+                max2 = 0x9F;
+        } else if ( b0 >= 0xF0 && b0 <= 0xF4 ) {
+            need = 4;
+            cp = b0 & 0x07;
+            if ( b0 == 0xF0 )
+                min2 = 0x90;
+            else if ( b0 == 0xF4 )
+                max2 = 0x8F;
+        } else {
+            decodedLength = 1;
+            return REPLACEMENT;
+        }
+        for ( int i = 1 ; i < need ; i++ ) {
+            int b = ( i < avail ) ? buf[pos+i] & 0xFF : -1;
+            int lo = ( i == 1 ) ? min2 : 0x80;
+            int hi = ( i == 1 ) ? max2 : 0xBF;
+            if ( b < lo || b > hi ) {
+                decodedLength = i;
+                return REPLACEMENT;
+            }
+            cp = (cp << 6) | (b & 0x3F);
+        }
+        decodedLength = need;
+        return cp;
+    }
+
+    // ---- Characters, as PeekReader.
+
+    private int peekChar() {
+        if ( idxPushback >= 0 )
+            return pushbackChars[idxPushback];
+        if ( pendingLow >= 0 )
+            return pendingLow;
+        if ( pos >= limit && !fill() )
+            return EOF;
+        int b = buf[pos];
+        if ( b >= 0 )
+            return b;
+        int cp = decode();
+        return ( cp > 0xFFFF ) ? Character.highSurrogate(cp) : cp;
+    }
+
+    private int readChar() {
+        if ( idxPushback >= 0 )
+            return pushbackChars[idxPushback--];
+        if ( pendingLow >= 0 ) {
+            int ch = pendingLow;
+            pendingLow = -1;
+            posn++;
+            colNum++;
+            return ch;
+        }
+        if ( pos >= limit && !fill() )
+            return EOF;
+        int b = buf[pos];
+        posn++;
+        if ( b >= 0 ) {
+            pos++;
+            if ( b == '\n' ) {
+                lineNum++;
+                colNum = PeekReader.INIT_COL;
+            } else
+                colNum++;
+            return b;
+        }
+        int cp = decode();
+        pos += decodedLength;
+        colNum++;
+        if ( cp > 0xFFFF ) {
+            pendingLow = Character.lowSurrogate(cp);
+            return Character.highSurrogate(cp);
+        }
+        return cp;
+    }
+
+    // Does not alter the position, line or column.
+    private void pushbackChar(int ch) {
+        if ( ch == EOF )
+            IO.exception("Illegal character to push back: " + ch);
+        idxPushback++;
+        if ( idxPushback >= pushbackChars.length )
+            pushbackChars = Arrays.copyOf(pushbackChars, 2 * pushbackChars.length);
+        pushbackChars[idxPushback] = (char)ch;
+    }
+
+    private boolean atEOF() {
+        return peekChar() == EOF;
+    }
+
+    // ---- Runs of ASCII bytes.
+
+    // Whether the next character is buf[pos].
+    private boolean atBytes() {
+        return idxPushback < 0 && pendingLow < 0;
+    }
+
+    /**
+     * Find the end of the run of bytes from {@code pos} that are ASCII characters
+     * marked in {@code plain}. Returns the index of the first byte not in the run,
+     * which is {@code limit} at the end of the input. Does not move {@code pos} but
+     * may move the bytes to the start of the buffer.
+     */
+    private int scan(boolean[] plain) {
+        int i = pos;
+        for (;;) {
+            final byte[] bytes = buf;
+            final int end = limit;
+            while ( i < end ) {
+                int b = bytes[i];
+                if ( b < 0 || !plain[b] )
+                    return i;
+                i++;
+            }
+            // fill() moves the bytes, even if there is no more input.
+            int n = i - pos;
+            boolean more = fill();
+            i = pos + n;
+            if ( !more )
+                return i;
+        }
+    }
+
+    // Move over the bytes to 'end', which are ASCII and not newlines.
+    private void advance(int end) {
+        int n = end - pos;
+        pos = end;
+        posn += n;
+        colNum += n;
+    }
+
+    // The run of bytes to 'end' as a string, and move over them.
+    private String takeRun(int end) {
+        int length = end - pos;
+        String str = ( length <= RUN_MAX_LENGTH )
+                ? runString(pos, length)
+                : new String(buf, pos, length, StandardCharsets.ISO_8859_1);
+        advance(end);
+        return str;
+    }
+
+    // Strings for runs of bytes, so that a repeated IRI or short string reuses the
+    // String of an earlier occurrence. Looked up by the hash of the bytes; there is
+    // no new String unless the entry is missing. Direct-mapped: a new entry replaces
+    // the entry in its slot.
+    private static final int RUN_TABLE_SIZE = 4096;
+    private static final int RUN_MAX_LENGTH = 256;
+    private final String[] runStrings = new String[RUN_TABLE_SIZE];
+
+    private String runString(int start, int length) {
+        final byte[] bytes = buf;
+        final int end = start + length;
+        // String.hashCode for ASCII.
+        int hash = 0;
+        for ( int i = start ; i < end ; i++ )
+            hash = 31 * hash + bytes[i];
+        int idx = (hash ^ (hash >>> 16)) & (RUN_TABLE_SIZE - 1);
+        String str = runStrings[idx];
+        if ( str != null && str.hashCode() == hash && str.length() == length && sameChars(str, bytes, start) )
+            return str;
+        str = new String(bytes, start, length, StandardCharsets.ISO_8859_1);
+        runStrings[idx] = str;
+        return str;
+    }
+
+    private static boolean sameChars(String str, byte[] bytes, int start) {
+        for ( int i = 0 ; i < str.length() ; i++ ) {
+            if ( str.charAt(i) != bytes[start + i] )
+                return false;
+        }
+        return true;
+    }
+
+    // Append the run of bytes to 'end' to the string builder, and move over them.
+    private void appendRun(int end) {
+        for ( int i = pos ; i < end ; i++ )
+            stringBuilder.append((char)buf[i]);
+        advance(end);
+    }
+
+    // ---- Machinery
+
+    private void skip() {
+        // Spaces, tabs and newlines directly on the bytes.
+        while ( atBytes() ) {
+            if ( pos >= limit && !fill() )
+                return;
+            byte b = buf[pos];
+            if ( b == ' ' || b == '\t' ) {
+                pos++;
+                posn++;
+                colNum++;
+            } else if ( b == '\n' && !singleLineMode ) {
+                pos++;
+                posn++;
+                lineNum++;
+                colNum = PeekReader.INIT_COL;
+            } else
+                break;
+        }
+
+        int ch = EOF;
+        for (;;) {
+            if ( atEOF() )
+                return;
+
+            ch = peekChar();
+            if ( ch == CH_HASH ) {
+                readChar();
+                // Comment. Skip to NL
+                for (;;) {
+                    ch = peekChar();
+                    if ( ch == EOF || isNewlineChar(ch) )
+                        break;
+                    readChar();
+                }
+            }
+
+            // Including excess newline chars from comment.
+            if ( singleLineMode ) {
+                if ( !isHorizontalWhitespace(ch) )
+                    break;
+            } else {
+                if ( !isWhitespace(ch) )
+                    break;
+            }
+            readChar();
+        }
+    }
+
+    private Token parseToken() {
+        token = new Token(getLine(), getColumn());
+
+        int ch = peekChar();
+
+        // ---- IRI, unless it's << or <<(
+        // [spc] check is for LT.
+        if ( ch == CH_LT ) {
+            readChar();
+            // Look ahead on char
+            int chPeek2 = peekChar();
+            if ( chPeek2 != CH_LT ) {
+                // '<' not '<<'
+                token.setImage(readIRI());
+                token.setType(TokenType.IRI);
+                if ( CHECKER )
+                    checkURI(token.getImage());
+                return token;
+            }
+            readChar();
+            // '<<' so far - maybe '<<('
+            int chPeek3 = peekChar();
+            if ( chPeek3 != CH_LPAREN ) {
+                // Not '<<(' - it's '<<'
+                token.setType(TokenType.LT2);
+                //token.setImage("<<");
+                return token;
+            }
+            // It is '<<('
+            readChar();
+            token.setType(TokenType.L_TRIPLE);
+            //token.setImage("<<(");
+            return token;
+        }
+
+        // ---- Literal
+        if ( ch == CH_QUOTE1 || ch == CH_QUOTE2 ) {
+            // The token type is STRING.
+            // We incorporate this into a token for LITERAL_LANG or LITERAL_DT.
+            token.setType(TokenType.STRING);
+
+            readChar();
+            int ch2 = peekChar();
+            if ( ch2 == ch ) {
+                readChar(); // Read potential second quote.
+                int ch3 = peekChar();
+                if ( ch3 == ch ) {
+                    readChar();     // Read potential third quote.
+                    token.setImage(readStringQuote3(ch));
+                    StringType st = (ch == CH_QUOTE1) ? StringType.LONG_STRING1 : StringType.LONG_STRING2;
+                    token.setStringType(st);
+                } else {
+                    // Two quotes then a non-quote.
+                    // Must be '' or ""
+                    // No need to pushback characters as we know the lexical
+                    // form is the empty string.
+                    // if ( ch2 != EOF ) pushbackChar(ch2);
+                    // if ( ch1 != EOF ) pushbackChar(ch1);
+                    token.setImage("");
+                    StringType st = (ch == CH_QUOTE1) ? StringType.STRING1 : StringType.STRING2;
+                    token.setStringType(st);
+                }
+            } else {
+                // One quote character.
+                token.setImage(readStringQuote1(ch, ch));
+                // Record exactly what form of STRING was seen.
+                StringType st = (ch == CH_QUOTE1) ? StringType.STRING1 : StringType.STRING2;
+                token.setStringType(st);
+            }
+
+            // White space after lexical part of a literal.
+            skip();
+
+            // Literal. Is it @ or ^^
+            if ( peekChar() == CH_AT ) {
+                readChar();
+                // White space is not legal here.
+                // The spec terminal is "LANGTAG" which includes the '@'.
+                Token mainToken = new Token(token);
+                mainToken.setType(TokenType.LITERAL_LANG);
+                mainToken.setSubToken1(token);
+                mainToken.setImage2(langTag());
+                token = mainToken;
+                if ( CHECKER )
+                    checkLiteralLang(token.getImage(), token.getImage2());
+            } else if ( peekChar() == '^' ) {
+                expect("^^");
+                // White space is legal after a ^^.
+                // It's not a good idea, but it is legal.
+//                // Check no whitespace.
+//                int nextCh = peekChar();
+//                if ( isWhitespace(nextCh) )
+//                    exception("No whitespace after ^^ in literal with datatype");
+                skip();
+
+                // Stash current token.
+                Token mainToken = new Token(token);
+                mainToken.setSubToken1(token);
+                mainToken.setImage(token.getImage());
+
+                Token subToken = parseToken();
+                if ( !subToken.isIRI() )
+                    fatal("Datatype URI required after ^^ - URI or prefixed name expected");
+
+                mainToken.setSubToken2(subToken);
+                mainToken.setType(TokenType.LITERAL_DT);
+
+                token = mainToken;
+                if ( CHECKER )
+                    checkLiteralDT(token.getImage(), subToken);
+            } else {
+                // Was a simple string.
+                if ( CHECKER )
+                    checkString(token.getImage());
+            }
+            return token;
+        }
+
+        if ( ch == CH_UNDERSCORE ) {
+            readChar();
+            int ch2 = peekChar();
+            if ( ch2 == CH_COLON ) {
+                readChar();
+                token.setImage(readBlankNodeLabel());
+                token.setType(TokenType.BNODE);
+                if ( CHECKER ) checkBlankNode(token.getImage());
+                return token;
+            }
+            token.setType(TokenType.UNDERSCORE);
+            /*token.setImage(CH_UNDERSCORE);*/
+            return token;
+        }
+
+        // A directive (not part of a literal as lang tag)
+        if ( ch == CH_AT ) {
+            readChar();
+            token.setType(TokenType.DIRECTIVE);
+            token.setImage(readWord(false));
+            if ( CHECKER )
+                checkDirective(token.getImage());
+            return token;
+        }
+
+        // Variable
+        if ( ch == CH_QMARK ) {
+            readChar();
+            token.setType(TokenType.VAR);
+            // Character set?
+            token.setImage(readVarName());
+            if ( CHECKER )
+                checkVariable(token.getImage());
+            return token;
+        }
+
+        //if ( ch == CH_DOLLAR ) {}
+
+        switch(ch)
+        {
+            // DOT can start a decimal.
+            case CH_DOT:
+                readChar();
+                ch = peekChar();
+                if ( range(ch, '0', '9') ) {
+                    // DOT DIGIT - it's a number.
+                    // Reload the DOT.
+                    pushbackChar(CH_DOT);
+                    boolean charactersConsumed = readNumber(CH_ZERO, false);
+                    if ( charactersConsumed ) {
+                        if ( CHECKER )
+                            checkNumber(token.getImage(), token.getImage2());
+                        return token;
+                    }
+                    // else it's DOT - drop through.
+                }
+                // It's DOT.
+                token.setType(TokenType.DOT);
+                return token;
+
+            case CH_GT: {
+                readChar();
+                int chPeek = peekChar();
+                if ( chPeek == CH_GT ) {
+                    readChar();
+                    token.setType(TokenType.GT2);
+                    return token;
+                }
+                token.setType(TokenType.GT);
+                //token.setImage(">");
+                return token;
+            }
+
+            case CH_SEMICOLON:  readChar(); token.setType(TokenType.SEMICOLON); /*token.setImage(CH_SEMICOLON);*/ return token;
+            case CH_COMMA:      readChar(); token.setType(TokenType.COMMA);     /*token.setImage(CH_COMMA);*/ return token;
+
+            // {| for RDF-1.2 annotation syntax.
+//            case CH_LBRACE:     readChar(); token.setType(TokenType.LBRACE);    /*token.setImage(CH_LBRACE);*/ return token;
+            case CH_LBRACE: {
+                readChar();
+                int chPeek = peekChar();
+                if ( chPeek == CH_VBAR ) {
+                    readChar();
+                    token.setType(TokenType.L_ANN);
+                    return token;
+                }
+                token.setType(TokenType.LBRACE);
+                return token;
+            }
+            case CH_RBRACE:     readChar(); token.setType(TokenType.RBRACE);    /*token.setImage(CH_RBRACE);*/ return token;
+
+            case CH_LPAREN:     readChar(); token.setType(TokenType.LPAREN);    /*token.setImage(CH_LPAREN);*/ return token;
+
+            // Can be ')' or ')>>'
+            case CH_RPAREN: {
+                // The ')'
+                readChar();
+                int peek2 = peekChar();
+                if ( peek2 != '>') {
+                    // Includes EOF.
+                    token.setType(TokenType.RPAREN);
+                    return token;
+                }
+                readChar();
+                int peek3 = peekChar();
+                if ( peek3 != '>') {
+                    pushbackChar(peek2);
+                    token.setType(TokenType.RPAREN);
+                    return token;
+                }
+                // It is ')>>'
+                readChar();
+                token.setType(TokenType.R_TRIPLE);
+                /*token.setImage(")>>");*/
+                return token;
+            }
+
+            case CH_LBRACKET:   readChar(); token.setType(TokenType.LBRACKET);  /*token.setImage(CH_LBRACKET);*/ return token;
+            case CH_RBRACKET:   readChar(); token.setType(TokenType.RBRACKET);  /*token.setImage(CH_RBRACKET);*/ return token;
+            case CH_EQUALS:     readChar(); token.setType(TokenType.EQUALS);    /*token.setImage(CH_EQUALS);*/ return token;
+            case CH_SLASH:      readChar(); token.setType(TokenType.SLASH);     /*token.setImage(CH_SLASH);*/ return token;
+            case CH_RSLASH:     readChar(); token.setType(TokenType.RSLASH);    /*token.setImage(CH_RSLASH);*/ return token;
+//            case CH_VBAR:       readChar(); token.setType(TokenType.VBAR);      /*token.setImage(CH_VBAR);*/ return token;
+
+            // |} for RDF-1.2 annotation syntax.
+            case CH_VBAR: {
+                readChar();
+                int chPeek = peekChar();
+                if ( chPeek == CH_RBRACE ) {
+                    readChar();
+                    token.setType(TokenType.R_ANN);
+                    return token;
+                }
+                token.setType(TokenType.VBAR);
+                return token;
+            }
+
+            case CH_AMPHERSAND: readChar(); token.setType(TokenType.AMPERSAND);/*token.setImage(CH_AMPHERSAND);*/ return token;
+            // Specials (if prefix names processing is off)
+            //case CH_COLON:      readChar(); token.setType(TokenType.COLON); /*token.setImage(COLON);*/return token;
+            // Done above with blank nodes.
+            //case CH_UNDERSCORE: readChar(); token.setType(TokenType.UNDERSCORE);/*token.setImage(CH_UNDERSCORE);*/ return token;
+            case CH_LT:         readChar(); token.setType(TokenType.LT);        /*token.setImage(CH_LT);*/ return token;
+            case CH_STAR:       readChar(); token.setType(TokenType.STAR);      /*token.setImage(CH_STAR);*/ return token;
+            case CH_EMARK:      readChar(); token.setType(TokenType.EMARK);     /*token.setImage(CH_EMARK);*/ return token;
+
+            case CH_TILDE:      readChar(); token.setType(TokenType.TILDE);     /*token.setImage(CH_TILDE);*/ return token;
+
+            // VAR overrides
+            //case CH_QMARK:      readChar(); token.setType(TokenType.QMARK);   /*token.setImage(CH_EMARK);*/ return token;
+
+            // Two character tokens && || GE >= , LE <=
+            //TokenType.LE
+            //TokenType.GE
+            //TokenType.LOGICAL_AND
+            //TokenType.LOGICAL_OR
+        }
+
+        // ---- Numbers.
+        // A plain "+" and "-", not followed by an unsigned number are symbols.
+
+        /*
+        [16]    integer         ::=     ('-' | '+') ? [0-9]+
+        [17]    double          ::=     ('-' | '+') ? ( [0-9]+ '.' [0-9]* exponent | '.' ([0-9])+ exponent | ([0-9])+ exponent )
+                                        0.e0, .0e0, 0e0
+        [18]    decimal         ::=     ('-' | '+')? ( [0-9]+ '.' [0-9]* | '.' ([0-9])+ | ([0-9])+ )
+                                        0.0 .0 0.
+        [19]    exponent        ::=     [eE] ('-' | '+')? [0-9]+
+        []      hex             ::=     0x0123456789ABCDEFG
+
+        */
+
+        if ( ch == CH_PLUS || ch == CH_MINUS ) {
+            readChar();
+            int ch2 = peekChar();
+            if ( !range(ch2, '0', '9') && ch2 != CH_DOT ) {
+                // Not a number.
+                if ( ch == CH_PLUS )
+                    token.setType(TokenType.PLUS);
+                else
+                    token.setType(TokenType.MINUS);
+                return token;
+            }
+            // ch2 not consumed.
+            boolean charactersConsumed = readNumber(ch, false);
+            if ( ! charactersConsumed ) {
+                if ( ch == CH_PLUS )
+                    token.setType(TokenType.PLUS);
+                else
+                    token.setType(TokenType.MINUS);
+            }
+            return token;
+        }
+
+        if ( range(ch, '0', '9')  ) {
+            readChar();
+            if ( ch == '0' ) {
+                // Is it "hex" -- 0x/0X ?
+                boolean isHex = readPossibleHex();
+                if ( isHex )
+                    return token;
+            }
+            // Not hex.
+            boolean charactersConsumed = readNumber(ch, true);
+            if ( ! charactersConsumed ) {
+                // Impossible.
+                throw new InternalError("Seen digit but no number produced");
+            }
+            return token;
+        }
+
+        if ( isNewlineChar(ch) ) {
+            //** - If collecting token image.
+            //** resetStringBuilder();
+            // Any number of NL and CR become one "NL" token.
+            do {
+                int ch2 = readChar();
+                // insertCodepointDirect(stringBuilder,ch2);
+            } while (isNewlineChar(peekChar()));
+            token.setType(TokenType.NL);
+            //** token.setImage(currentString());
+            return token;
+        }
+
+        // Plain words and prefixes.
+        //   Can't start with a number due to numeric test above.
+        //   Can't start with a '_' due to blank node test above.
+        // If we see a :, the first time it means a prefixed name else it's a token break.
+
+        readPrefixedNameOrKeyword(token);
+
+        if ( CHECKER ) checkKeyword(token.getImage());
+        return token;
+    }
+
+    // ==== Manage the stringBuilder
+    // Workspace for building token images.
+    // Reusing a StringBuilder is faster than allocating a fresh one each time.
+    // It should be possible to rename stringBuilder with no changes to the code anywhere outside these operations.s
+    private final StringBuilder stringBuilder = new StringBuilder(200);
+
+    // -- Unicode sequences with the possibility of codepoints beyond U+FFFF
+    /**
+     * String with the possibility of a unicode surrogate or unicode escape.
+     *
+     * Pair with {@link #finishStringU(int)}
+     */
+    private void startStringU() {
+        stringBuilder.setLength(0);
+    }
+
+    /**
+     * Check terminates correctly and return string.
+     * Pair with {@link #startStringU()}
+     */
+    private String finishStringU() {
+        return stringBuilder.toString();
+    }
+
+    // -- Strings without possible unicode surrogates
+
+    /**
+     * String with no possibility of a unicode surrogate or unicode escape.
+     *
+     * Pair with {@link #finishStringNU()}
+     */
+    private void startStringNU() {
+        stringBuilder.setLength(0);
+    }
+
+    /**
+     * End processing a string.
+     * Pair with {@link #startStringNU()}
+     */
+    private String finishStringNU() {
+        return stringBuilder.toString();
+    }
+
+    private int lengthStringBuilder()           { return stringBuilder.length(); }
+    private void setStringBuilderLength(int x)  { stringBuilder.setLength(x); }
+
+    private char charAt(int idx) { return stringBuilder.charAt(idx); }
+    private void deleteCharAt(int idx) { stringBuilder.deleteCharAt(idx); }
+
+    /** Insert codepoint. */
+    private void insertCodepoint(int ch) {
+        if ( Character.charCount(ch) == 1 ) {
+            char ch16 = (char)ch;   // Safe, not truncating, because count = 1
+            insertCodepointDirect(ch16);
+            return;
+        }
+        if ( !Character.isDefined(ch) && !Character.isSupplementaryCodePoint(ch) )
+            fatal("Illegal codepoint: 0x%04X", ch);
+        char[] chars = Character.toChars(ch);
+        stringBuilder.append(chars);
+    }
+
+    // XXX
+    // Insert codepoint, knowing that 'ch' is 16 bit and not a surrogate.
+    private void insertCodepointDirect(int ch) {
+        if ( ch >= Character.MIN_SUPPLEMENTARY_CODE_POINT ) {
+            String msg = String .format("Internal error: Attempt to insert a supplementary codepoint directly 0x04X", ch);
+            throw new InternalErrorException(msg);
+        }
+        insertCodepointDirect((char)ch);
+    }
+
+    /** Insert codepoint, knowing that 'ch' is not a surrogate. */
+    private void insertCodepointDirect(char ch) {
+        stringBuilder.append(ch);
+    }
+
+    /** Snapshot (unchecked) string builder - for error messages. */
+    private String currentString() { return stringBuilder.toString(); }
+
+    // ====
+
+    // [8]  IRIREF  ::= '<' ([^#x00-#x20<>"{}|^`\] | UCHAR)* '>'
+    private String readIRI() {
+        startStringU();
+        for (;;) {
+            if ( atBytes() ) {
+                int end = scan(plainIRI);
+                if ( end < limit && buf[end] == CH_GT && lengthStringBuilder() == 0 ) {
+                    // The whole IRI is plain ASCII.
+                    String str = takeRun(end);
+                    advance(end + 1);
+                    return str;
+                }
+                appendRun(end);
+            }
+            int ch = readChar();
+            switch(ch) {
+                case EOF:
+                    fatal("Broken IRI (End of file)"); return null;
+                case NL:
+                    fatal("Broken IRI (newline): %s", currentString()); return null;
+                case CR:
+                    fatal("Broken IRI (CR): %s", currentString()); return null;
+                case CH_GT:
+                    // Done!
+                    String str = finishStringU();
+                    if ( CHECK_RDFSTRING )
+                        checkRDFString(str);
+                    return str;
+                case CH_RSLASH:
+                    ch = readUnicodeEscapeOnly();
+                    // Don't check legality of ch (strict syntax at this point).
+                    // IRI parsing will catch errors.
+                    break;
+                case CH_LT:
+                    // Probably a corrupt file so treat as fatal.
+                    fatal("Bad character in IRI (bad character: '<'): <%s[<]...>", currentString()); return null;
+                case TAB:
+                    error("Bad character in IRI (tab character): <%s[tab]...>", currentString()); break;
+                case '{': case '}': case '"': case '|': case '^': case '`' :
+                    if ( ! VeryVeryLaxIRI )
+                        warning("Illegal character in IRI (codepoint U+%04X, '%c'): <%s[%c]...>", ch, (char)ch, currentString(), (char)ch);
+                    break;
+                case SPC:
+                    if ( ! AllowSpacesInIRI )
+                        error("Bad character in IRI (space): <%s[space]...>", currentString());
+                    else
+                        warning("Bad character in IRI (space): <%s[space]...>", currentString());
+                    break;
+                case REPLACEMENT:
+                    if ( WarnOnReplacmentCharInIRI )
+                        warning("Unicode replacement character U+FFFD in IRI");
+                    break;
+                default:
+                    if ( ch <= 0x19 )
+                        warning("Illegal character in IRI (control char 0x%02X): <%s[0x%02X]...>", ch, currentString(), ch);
+            }
+            insertCodepoint(ch);
+        }
+    }
+
+    private void readPrefixedNameOrKeyword(Token token) {
+        long start = posn;
+        String prefixPart = readPrefixPart(); // Prefix part or keyword
+        token.setImage(prefixPart);
+        token.setType(TokenType.KEYWORD);
+        int ch = peekChar();
+        if ( ch == CH_COLON ) {
+            readChar();
+            token.setType(TokenType.PREFIXED_NAME);
+            String ln = readLocalPart(); // Local part
+            token.setImage2(ln);
+            if ( CHECKER )
+                checkPrefixedName(token.getImage(), token.getImage2());
+        }
+
+        // If we made no progress, nothing found, not even a keyword -- it's an
+        // error.
+        if ( start == posn )
+            fatal("Failed to find a prefix name or keyword: %c(%d;0x%04X)", ch, ch, ch);
+
+        if ( CHECKER )
+            checkKeyword(token.getImage());
+    }
+
+    /*
+    The token rules from SPARQL and Turtle.
+    PNAME_NS       ::=  PN_PREFIX? ':'
+    PNAME_LN       ::=  PNAME_NS PN_LOCAL
+
+    PN_CHARS_BASE  ::=  [A-Z] | [a-z] | [#x00C0-#x00D6] | [#x00D8-#x00F6] | [#x00F8-#x02FF] | [#x0370-#x037D] | [#x037F-#x1FFF]
+                   |    [#x200C-#x200D] | [#x2070-#x218F] | [#x2C00-#x2FEF]
+                   |    [#x3001-#xD7FF] | [#xF900-#xFDCF] | [#xFDF0-#xFFFD]
+                   |    [#x10000-#xEFFFF]
+    PN_CHARS_U  ::=  PN_CHARS_BASE | '_'
+    PN_CHARS  ::=  PN_CHARS_U | '-' | [0-9] | #x00B7 | [#x0300-#x036F] | [#x203F-#x2040]
+
+    PN_PREFIX  ::=  PN_CHARS_BASE ((PN_CHARS|'.')* PN_CHARS)?
+    PN_LOCAL  ::=  (PN_CHARS_U | ':' | [0-9] | PLX ) ((PN_CHARS | '.' | ':' | PLX)* (PN_CHARS | ':' | PLX) )?
+    PLX  ::=  PERCENT | PN_LOCAL_ESC
+    PERCENT  ::=  '%' HEX HEX
+    HEX  ::=  [0-9] | [A-F] | [a-f]
+    PN_LOCAL_ESC  ::=  '\' ( '_' | '~' | '.' | '-' | '!' | '$' | '&' | "'" | '(' | ')' | '*' | '+' | ',' | ';' | '=' | '/' | '?' | '#' | '@' | '%' )
+    */
+
+    private String readPrefixPart() {
+        // PN_PREFIX : also keywords.
+        return readSegment(false);
+    }
+
+    private String readLocalPart() {
+        // PN_LOCAL
+        return readSegment(true);
+    }
+
+    // Read the prefix or localname part of a prefixed name.
+    // Returns "" when there are no valid characters, e.g. prefix for ":foo" or local name for "ex:".
+    private String readSegment(boolean isLocalPart) {
+        // Prefix: PN_CHARS_BASE                       ((PN_CHARS|'.')* PN_CHARS)?
+        // Local: ( PN_CHARS_U | ':' | [0-9] | PLX )   ((PN_CHARS | '.' | ':' | PLX)* (PN_CHARS | ':' | PLX) )?
+        //    PN_CHARS_U is PN_CHARS_BASE and '_'
+
+        // RiotChars has isPNChars_U_N for   ( PN_CHARS_U | [0-9] )
+
+        // -- Test first character
+        int ch = peekChar();
+        if ( ch == EOF )
+            return "";
+
+        startStringU();
+
+        if ( isLocalPart ) {
+            if ( ch == CH_COLON ) {
+                readChar();
+                insertCodepoint(ch);
+            } else if ( ch == CH_PERCENT || ch == CH_RSLASH ) {
+                // processPLX
+                // read % or \
+                readChar();
+                processPLX(ch);
+                // prevCP = NO_CODEPOINT;
+            } else if ( RiotChars.isPNChars_U_N(ch) ) {
+                if ( WarnOnReplacmentCharInPrefixedName ) {
+                    if ( ch == REPLACEMENT )
+                        warning("Unicode replacement character U+FFFD in prefixed name");
+                }
+                insertCodepoint(ch);
+                readChar();
+            } else {
+                finishStringU();
+                return "";
+            }
+        } else {
+            if ( !RiotChars.isPNCharsBase(ch) ) {
+                finishStringU();
+                return "";
+            }
+            insertCodepoint(ch);
+            readChar();
+        }
+        // Done first character
+        int chDot = 0;
+
+        for (;;) {
+            if ( chDot == 0 && atBytes() )
+                appendRun(scan(isLocalPart ? plainLocal : plainPN));
+            ch = peekChar();
+            boolean valid = false;
+            if ( isLocalPart && (ch == CH_PERCENT || ch == CH_RSLASH) ) {
+                readChar();
+                if ( chDot != 0 )
+                    insertCodepointDirect(chDot);
+                processPLX(ch);
+                chDot = 0;
+                continue;
+            }
+
+            // Single valid characters
+            if ( isLocalPart && ch == CH_COLON )
+                valid = true;
+            else if ( isPNChars(ch) )
+                valid = true;
+            else if ( ch == CH_DOT )
+                valid = true;
+            else
+                valid = false;
+
+            if ( !valid )
+                break; // Exit loop
+
+            // Valid character.
+            // Was there also a DOT in the previous loop?
+            if ( chDot != 0 ) {
+                insertCodepointDirect(chDot);
+                chDot = 0;
+            }
+
+            if ( ch != CH_DOT ) {
+                if ( WarnOnReplacmentCharInPrefixedName ) {
+                    if ( ch == REPLACEMENT )
+                        warning("Unicode replacement character U+FFFD in prefixed name");
+                }
+                insertCodepoint(ch);
+            } else {
+                // DOT - delay until next loop.
+                chDot = ch;
+            }
+            readChar();
+        }
+
+        // On exit, chDot may hold a character.
+
+        if ( chDot == CH_DOT )
+            // Unread it.
+            pushbackChar(chDot);
+        return finishStringU();
+    }
+
+    // Process PLX (percent or character escape for a prefixed name)
+    private void processPLX(int ch) {
+        if ( ch == CH_PERCENT ) {
+            insertCodepointDirect(ch);
+            ch = peekChar();
+            if ( !isHexChar(ch) )
+                fatal("Not a hex character: '%c'", ch);
+            insertCodepointDirect(ch);
+            readChar();
+
+            ch = peekChar();
+            if ( !isHexChar(ch) )
+                fatal("Not a hex character: '%c'", ch);
+            insertCodepointDirect(ch);
+            readChar();
+        } else if ( ch == CH_RSLASH ) {
+            ch = readCharEscapePLX();  // Does not allow Unicode escapes.
+            insertCodepointDirect(ch);
+        } else
+            throw new ARQInternalErrorException("Not a '\\' or a '%' character");
+    }
+
+    /**
+     * Apply any checks for "RDF String" to a string that has already had escape processing applied.
+     * An RDF String is a sequence of codepoints in the range U+0000 to U+10FFFF, excluding surrogates.
+     * Because this is java, we test for no non-paired surrogates.
+     * A surrogate pair is high-low.
+     * If enabled, this check is performed in readIRI, readStringQuote1, and readStringQuote3
+     */
+    private void checkRDFString(String string) {
+        for ( int i = 0 ; i < string.length() ; i++ ) {
+            // Not "codePointAt" which does surrogate processing.
+            char ch = string.charAt(i);
+
+            if ( ! Character.isValidCodePoint(ch) )
+                warning("Illegal code point in \\U sequence value: 0x%08X", (int)ch);
+
+            // Check surrogate pairs are pairs.
+            if ( Character.isHighSurrogate(ch) ) {
+                i++;
+                if ( i == string.length() )
+                    fatal("Bad surrogate pair (end of string):0x%04X", (int)ch);
+                char ch1 = string.charAt(i);
+                if ( ! Character.isLowSurrogate(ch1) ) {
+                    fatal("Bad surrogate (high surrogate not followed by a low surrogate): 0x%04X", (int)ch1);
+                }
+            } else if ( Character.isLowSurrogate(ch) ) {
+                fatal("Bad surrogate pair (low surrogate not preceded by a high surrogate): 0x%04X", (int)ch);
+            }
+        }
+    }
+
+    // Get characters between two markers.
+    // String escapes are processed.
+    private String readStringQuote1(int startCh, int endCh) {
+        // Assumes the 1 character starting delimiter has been read.
+        // Reads the terminating delimiter.
+        startStringU();
+        boolean[] plain = ( endCh == CH_QUOTE1 ) ? plainString1 : plainString2;
+
+        for (;;) {
+            if ( atBytes() ) {
+                int end = scan(plain);
+                if ( end < limit && buf[end] == endCh && lengthStringBuilder() == 0 ) {
+                    // The whole string is plain ASCII.
+                    String str = takeRun(end);
+                    advance(end + 1);
+                    return str;
+                }
+                appendRun(end);
+            }
+            int ch = readChar();
+            if ( WarnOnReplacmentCharInString ) {
+                // Raw replacement char in a string.
+                if ( ch == REPLACEMENT )
+                    warning("Unicode replacement character U+FFFD in string");
+            }
+            if ( ch == NotACharacter || ch == ReverseOrderBOM )
+                warning("Unicode non-character U+%04X in string", ch);
+            if ( ch == EOF )
+                fatal("Broken token: %s", currentString());
+            else if ( ch == endCh ) {
+                // Done!
+                String str = finishStringU();
+                if ( CHECK_RDFSTRING )
+                    checkRDFString(str);
+                return str;
+            } else if ( ch == NL )
+                fatal("Broken token (newline in string)", currentString());
+            else if ( ch == CR )
+                fatal("Broken token (carriage return in string)", currentString());
+            // Legal in Turtle/N-Triples - maybe warn?
+//            else if ( ch == FF )
+//                warning("Bad token (form feed in string)", currentString());
+//            else if ( ch == VT )
+//                fatal("Bad token (vertical tab in string)", currentString());
+            else if ( ch == CH_RSLASH )
+                // Allow escaped replacement character.
+                ch = readLiteralEscape();
+            insertCodepoint(ch);
+        }
+    }
+
+    private String readStringQuote3(int quoteChar) {
+        // Assumes the 3 character starting delimiter has been read.
+        // Reads the terminating delimiter.
+        startStringU();
+        for (;;) {
+            int ch = readChar();
+            if ( WarnOnReplacmentCharInString ) {
+                // Raw replacement char in a string.
+                if ( ch == REPLACEMENT )
+                    warning("Unicode replacement character U+FFFD in string");
+            }
+            if ( ch == EOF ) {
+                fatal("Broken long string");
+            } else if ( ch == quoteChar ) {
+                if ( threeQuotes(quoteChar) ) {
+                    String str = finishStringU();
+                    if ( CHECK_RDFSTRING )
+                        checkRDFString(str);
+                    return str;
+                }
+                // quote, not triple. It is a normal character.
+            } else if ( ch == CH_RSLASH )
+                ch = readLiteralEscape();
+            insertCodepoint(ch);
+        }
+    }
+
+    private String readWord(boolean leadingDigitAllowed) {
+        return readWordSub(leadingDigitAllowed, false);
+    }
+
+    // A 'word' is used in several places:
+    //   keyword
+    //   prefix part of prefix name
+    //   local part of prefix name (allows digits)
+
+    static private char[] extraCharsWord = new char[] {'_', '.' , '-'};
+
+    private String readWordSub(boolean leadingDigitAllowed, boolean leadingSignAllowed) {
+        return readCharsWithExtras(leadingDigitAllowed, leadingSignAllowed, extraCharsWord, false);
+    }
+
+    // This array adds the other characters that can occurs in an internal variable name.
+    // Variables can be created with SPARQL-illegal syntax to ensure they do not clash with
+    // variables in the query from the application.
+    // See ARQConstants.
+    //   allocVarAnonMarker, allocVarMarker, globalVar, allocVarBNodeToVar, allocVarScopeHiding
+    // but this set is wider and matches anywhere in the name after the first '?'.
+    static private char[] extraCharsVar = new char[]{'_', '.', '-', '?', '@', '+', '/', '~'};
+
+    private String readVarName() {
+        return readCharsWithExtras(true, true, extraCharsVar, true);
+    }
+
+    private String readCharsWithExtras(boolean leadingDigitAllowed, boolean leadingSignAllowed, char[] extraChars, boolean allowFinalDot) {
+        // No unicode escapes.
+        startStringNU();
+        int idx = 0;
+        if ( !leadingDigitAllowed ) {
+            int ch = peekChar();
+            if ( Character.isDigit(ch) )
+                return "";
+        }
+
+        // Used for local part of prefix names =>
+        if ( !leadingSignAllowed ) {
+            int ch = peekChar();
+            if ( ch == '-' || ch == '+' )
+                return "";
+        }
+
+        for (;; idx++) {
+            int ch = peekChar();
+
+            if ( isAlphaNumeric(ch) || Chars.charInArray(ch, extraChars) ) {
+                readChar();
+                insertCodepointDirect(ch);
+                continue;
+            } else
+                // Inappropriate character.
+                break;
+
+        }
+
+        if ( !allowFinalDot ) {
+            // BAD : assumes pushbackChar is infinite.
+            // Check is ends in "."
+            while (idx > 0 && charAt(idx - 1) == CH_DOT) {
+                // Push back the dot.
+                pushbackChar(CH_DOT);
+                idx--;
+                setStringBuilderLength(idx);
+            }
+        }
+        return finishStringNU();
+    }
+
+    // BLANK_NODE_LABEL    ::=     '_:' (PN_CHARS_U | [0-9]) ((PN_CHARS | '.')* PN_CHARS)?
+
+    private String readBlankNodeLabel() {
+        startStringU();
+        // First character.
+        {
+            int ch = peekChar();
+            if ( ch == EOF )
+                fatal("Blank node label missing (EOF found)");
+            if ( isWhitespace(ch) )
+                fatal("Blank node label missing");
+            if ( !RiotChars.isPNChars_U_N(ch) )
+                fatal("Blank node label does not start with alphabetic or _ : '%c'", (char)ch);
+            readChar();
+            if ( WarnOnReplacmentCharInBlankNodeLabel ) {
+                // Raw replacement char in a string.
+                if ( ch == REPLACEMENT )
+                    warning("Unicode replacement character U+FFFD in blank node label");
+            }
+            insertCodepoint(ch);
+        }
+
+        // Remainder. DOT can't be last so do a delay on that.
+
+        int chDot = 0;
+
+        for (;;) {
+            if ( chDot == 0 && atBytes() )
+                appendRun(scan(plainPN));
+            int ch = peekChar();
+            if ( ch == EOF )
+                break;
+
+            // DOT magic.
+            if ( !(RiotChars.isPNChars(ch) || ch == CH_DOT) )
+                break;
+            readChar();
+
+            if ( chDot != 0 ) {
+                insertCodepointDirect(chDot);
+                chDot = 0;
+            }
+
+            if ( ch != CH_DOT ) {
+                if ( WarnOnReplacmentCharInBlankNodeLabel ) {
+                    // Raw replacement char in a string.
+                    if ( ch == REPLACEMENT )
+                        warning("Unicode replacement character U+FFFD in blank node label");
+                }
+                insertCodepoint(ch);
+            } else
+                // DOT - delay until next loop.
+                chDot = ch;
+        }
+
+        if ( chDot == CH_DOT )
+            // Unread it.
+            pushbackChar(chDot);
+
+        // if ( ! seen )
+        // exception("Blank node label missing");
+        return finishStringU();
+    }
+
+    /*
+     * Number, no sign.
+     * [146]  INTEGER  ::=  [0-9]+
+     * [147]  DECIMAL  ::=  [0-9]* '.' [0-9]+
+     * [148]  DOUBLE  ::=  [0-9]+ '.' [0-9]* EXPONENT | '.' ([0-9])+ EXPONENT | ([0-9])+ EXPONENT
+     */
+    /**
+     * Read a number.
+     * <p>
+     * On entry, {@code initialChar} is a seen and consumer character or {code CH_ZERO} (char 0x0000).
+     * <p>
+     * It parses {@code [0-9]* '.' [0-9]*}, then checks the outcome is not a single DOT, then adds an exponent.
+     * If the number/significand is exactly '.', set the token to be DOT.
+     * Note special code in sign processing for this.
+     * <p>
+     * HEX has already been handled.
+     *
+     * @return true if the function consumed any characters.
+     */
+    private boolean readNumber(int initialChar, boolean isDigit) {
+        // initial character is a +/- sign or 0.
+        boolean isDouble = false;
+        boolean hasDecimalPoint = false;
+        boolean hasDigitsBeforeDot = false;
+        boolean hasDigitsAfterDot = false;
+        // DP = Decimal Point.
+        int numDigitsBeforeDP = 0;
+        int numDigitsAfterDP = 0;
+
+        startStringNU();
+        if ( initialChar != CH_ZERO ) { // char U+0000
+            if ( initialChar == CH_PLUS || initialChar == CH_MINUS )
+                insertCodepointDirect(initialChar);
+            else if ( isDigit ) {
+                insertCodepointDirect(initialChar);
+                numDigitsBeforeDP = 1;
+            }
+        }
+
+        int ch = peekChar();
+        numDigitsBeforeDP += readDigits();
+        if ( numDigitsBeforeDP > 0 )
+            hasDigitsBeforeDot = true;
+
+        // DOT or integer.
+        ch = peekChar();
+        if ( ch == CH_DOT ) {
+            readChar();
+            insertCodepointDirect(CH_DOT);
+            hasDecimalPoint = true;
+            numDigitsAfterDP += readDigits();
+            if ( numDigitsAfterDP > 0 )
+                hasDigitsAfterDot = true;
+        }
+
+        if ( numDigitsBeforeDP == 0 && !hasDecimalPoint )
+            // Possible a tokenizer error - should not have entered readNumber
+            // in the first place.
+            fatal("Unrecognized as number");
+
+        if ( ! hasDigitsBeforeDot & ! hasDigitsAfterDot ) {
+            // The number/significand/mantissa is exactly '.'
+            // Don't do anything - there might be a preceding sign.
+            if ( hasDecimalPoint )
+                pushbackChar(CH_DOT);
+            return false;
+        }
+
+        if ( exponent() ) {
+            isDouble = true;
+        } else {
+            // Final part - "decimal" 123. is an integer 123 and a DOT.
+            if ( hasDecimalPoint && ! hasDigitsAfterDot ) {
+                int N = lengthStringBuilder();
+                // Reject the DOT which will be picked up next time.
+                deleteCharAt(N-1);
+                pushbackChar(CH_DOT);
+                hasDecimalPoint = false;
+            }
+        }
+
+        token.setImage(finishStringNU());
+        if ( isDouble )
+            token.setType(TokenType.DOUBLE);
+        else if ( hasDecimalPoint )
+            token.setType(TokenType.DECIMAL);
+        else
+            token.setType(TokenType.INTEGER);
+        return true;
+    }
+
+    // On entry, have seen and consumed a digit '0'
+    private boolean readPossibleHex() {
+        int ch2 = peekChar();
+        if ( ch2 != 'x' && ch2 != 'X' )
+            return false;
+        // It's HEX
+        readChar();
+        startStringNU();
+        insertCodepointDirect('0');
+        insertCodepointDirect(ch2);
+        // Error if no hex digits.
+        readHex();
+        token.setImage(finishStringNU());
+        token.setType(TokenType.HEX);
+        return true;
+    }
+
+    private void readHex() {
+        // Just after the 0x, which are in string builder.
+        int x = 0;
+        for (;;) {
+            int ch = peekChar();
+            if ( !isHexChar(ch) )
+                break;
+            readChar();
+            insertCodepointDirect(ch);
+            x++;
+        }
+        if ( x == 0 )
+            fatal("No hex characters after %s", currentString());
+    }
+
+    private int readDigits() {
+        int count = 0;
+        for (;;) {
+            int ch = peekChar();
+            if ( !range(ch, '0', '9') )
+                break;
+            readChar();
+            insertCodepointDirect(ch);
+            count++;
+        }
+        return count;
+    }
+
+    private void readPossibleSign() {
+        int ch = peekChar();
+        if ( ch == '-' || ch == '+' ) {
+            readChar();
+            insertCodepointDirect(ch);
+        }
+    }
+
+    // Assume we have read the first quote char.
+    // On return:
+    //   If false, have moved over no more characters (due to pushbacks)
+    //   If true, at end of 3 quotes
+    private boolean threeQuotes(int ch) {
+        // readChar(); // Read first quote.
+        int ch2 = peekChar();
+        if ( ch2 != ch ) {
+            // pushbackChar(ch2);
+            return false;
+        }
+
+        readChar(); // Read second quote.
+        int ch3 = peekChar();
+        if ( ch3 != ch ) {
+            // pushbackChar(ch3);
+            pushbackChar(ch2);
+            return false;
+        }
+
+        // Three quotes.
+        readChar(); // Read third quote.
+        return true;
+    }
+
+    private boolean exponent() {
+        int ch = peekChar();
+        if ( ch != 'e' && ch != 'E' )
+            return false;
+        readChar();
+        insertCodepointDirect(ch);
+        readPossibleSign();
+        int x = readDigits();
+        if ( x == 0 )
+            fatal("Malformed double: %s", currentString());
+        return true;
+    }
+
+    private String langTag() {
+        startStringU();
+        a2z();
+        if ( lengthStringBuilder() == 0 )
+            fatal("Bad language tag");
+
+        boolean seenTextDirection = false;
+
+        for (;;) {
+            int ch = peekChar();
+            if ( ch == '-' ) {
+                if ( seenTextDirection )
+                   fatal("Bad language tag with base direction");
+                readChar();
+                insertCodepointDirect(ch);
+                int ch2 = peekChar();
+                if ( ch2 == '-' ) {
+                    readChar();
+                    // base direction
+                    insertCodepointDirect(ch2);
+                    seenTextDirection = true;
+                }
+                int x = lengthStringBuilder();
+                a2zN();
+                if ( lengthStringBuilder() == x )
+                    fatal("Bad language tag");
+            } else
+                break;
+        }
+        return finishStringU().intern();
+    }
+
+    // ASCII-only e.g. in lang tags.
+    private void a2z() {
+        for (;;) {
+            int ch = peekChar();
+            if ( isA2Z(ch) ) {
+                readChar();
+                insertCodepointDirect(ch);
+            } else
+                return;
+        }
+    }
+
+    private void a2zN() {
+        for (;;) {
+            int ch = peekChar();
+            if ( isA2ZN(ch) ) {
+                readChar();
+                insertCodepointDirect(ch);
+            } else
+                return;
+        }
+    }
+
+    @Override
+    public long getColumn() {
+        return colNum;
+    }
+
+    @Override
+    public long getLine() {
+        return lineNum;
+    }
+
+    // ---- Escape sequences
+
+    // Read a unicode escape : does not allow \\ bypass
+    private final int readUnicodeEscapeOnly() {
+        int ch = readChar();
+        if ( ch == EOF )
+            fatal("Broken escape sequence");
+
+        switch (ch) {
+            case 'u': return readUnicode4OrDelimEscape(); //readUnicode4Escape();
+            case 'U': return readUnicode8Escape();
+            default:
+                fatal("Illegal unicode escape sequence value: \\%c (0x%02X)", ch, ch);
+        }
+        return 0;
+    }
+
+    // Validating the character is a defined Unicode scalar value happens in insertCodePoint.
+    private final int readLiteralEscape() {
+        int c = readChar();
+        if ( c == EOF )
+            fatal("Escape sequence not completed");
+
+        switch (c) {
+            case 'n':   return NL;
+            case 'r':   return CR;
+            case 't':   return TAB;
+            case 'f':   return '\f';
+            case 'b':   return BSPACE;
+            case '"':   return '"';
+            case '\'':  return '\'';
+            case '\\':  return '\\';
+            case 'u':   return readUnicode4OrDelimEscape();
+            case 'U':   return readUnicode8Escape();
+            default:
+                fatal("Illegal escape sequence value: %c (0x%02X)",c , c);
+                return 0;
+        }
+    }
+
+    private final int readCharEscapePLX() { // Prefix name escapes
+        // PN_LOCAL_ESC ::= '\' ( '_' | '~' | '.' | '-' | '!' | '$' | '&' | "'"
+        //                | '(' | ')' | '*' | '+' | ',' | ';' | '=' | '/' | '?' | '#' | '@' | '%' )
+
+        int c = readChar();
+        if ( c == EOF )
+            fatal("Escape sequence not completed");
+
+        switch (c) {
+            case '_': case '~': case '.':  case '-':  case '!':  case '$':  case '&':
+            case '\'':
+            case '(':  case ')':  case '*':  case '+':  case ',':  case ';':
+            case '=':  case '/':  case '?':  case '#':  case '@':  case '%':
+                return c;
+            default:
+                fatal("illegal character escape value: \\%c", c);
+                return 0;
+        }
+    }
+
+    // Either \-uXXXX or \-u{...}
+    private final int readUnicode4OrDelimEscape() {
+        int nextCh = peekChar();
+        if ( nextCh == CH_LBRACE )
+            return readUnicodeDelimitedHex();
+        int ch = readUnicode4Escape();
+        if ( isSurrogate(ch) )
+            fatal("Surrogate codepoint from Unicode \\u escape sequence: 0x%04X", ch);
+        return ch;
+    }
+
+    private final int readUnicodeDelimitedHex() {
+        // The peeked '{'
+        readChar();
+        int value = 0;
+        int n = 0;
+        for (;;) {
+            // read. No need to peek as we will move on one character
+            int ch = readChar();
+            if ( ch == EOF )
+                fatal("Truncated delimited hex escape sequence");
+            int v = Hex.hexDigitToInt(ch, -1);
+            if ( v == -1 ) {
+                if ( ch == CH_RBRACE ) {
+                    break;
+                } else
+                    fatal("Broken delimited hex escape sequence");
+            }
+            value = (value<<4)+v ;
+            n++;
+            // Do this check here to catch overruns.
+            // 6 (max unicode range) or 8 (max 32 bit).
+            if ( n > 6 )
+                fatal("Delimited hex escape sequence too long");
+        }
+        if ( n == 0 )
+            fatal("Empty delimited hex escape sequence");
+        if ( isSurrogate(value) )
+            fatal("Surrogate codepoint from delimited Unicode escape sequence: 0x%04X", value);
+        return value;
+    }
+
+    private final int readUnicode4Escape() {
+        return readHexSequence(4);
+    }
+
+    private final int readUnicode8Escape() {
+        int ch8 = readHexSequence(8);
+        // Check > 0x10FFFF
+        if ( ! Character.isValidCodePoint(ch8) )
+            fatal("Illegal code point from \\U sequence value: 0x%08X", ch8);
+        if ( isSurrogate(ch8) )
+            fatal("Surrogate codepoint from Unicode \\U escape sequence: 0x%04X", ch8);
+        return ch8;
+    }
+
+    private final int readHexSequence(int N) {
+        int x = 0;
+        for (int i = 0; i < N; i++) {
+            int d = readHexChar();
+            if ( d < 0 )
+                return -1;
+            x = (x << 4) + d;
+        }
+        return x;
+    }
+
+    private final int readHexChar() {
+        int ch = readChar();
+        if ( ch == EOF )
+            fatal("Not a hexadecimal character (end of file)");
+
+        int x = valHexChar(ch);
+        if ( x != -1 )
+            return x;
+        fatal("Not a hexadecimal character: '%c'", (char)ch);
+        return -1;
+    }
+
+    private boolean expect(String str) {
+        for (int i = 0; i < str.length(); i++) {
+            char want = str.charAt(i);
+            if ( atEOF() ) {
+                fatal("End of input during expected string: %s", str);
+                return false;
+            }
+            int inChar = peekChar();
+            if ( inChar != want ) {
+                fatal("expected \"%s\"", str);
+                return false;
+            }
+            readChar();
+        }
+        return true;
+    }
+
+    /** Warning - can continue. */
+    private void warning(String message, Object... args) {
+        String msg = String.format(message, args);
+        errorHandler.warning(msg, lineNum, colNum);
+    }
+
+    /**
+     * Error - at the tokenizer level, it can continue (with some junk) but it is a serious error and the
+     * caller probably should treat as an error and stop.
+     * @param message
+     * @param args
+     */
+    private void error(String message, Object... args) {
+        String msg = String.format(message, args);
+        errorHandler.error(msg, lineNum, colNum);
+    }
+
+    /** Structural error - unrecoverable - but reported as ERROR (FATAL can imply system fault) */
+    private void fatal(String message, Object... args) {
+        String msg = String.format(message, args);
+        long line = lineNum;
+        long col = colNum;
+        errorHandler.fatal(msg, line, col);
+        // We require that errors cause the tokenizer to stop so in case the
+        // provided error handler does not, we throw an exception.
+        throw new RiotParseException(message, line, col);
+    }
+
+    // ---- Routines to check tokens
+
+    private void checkBlankNode(String blankNodeLabel) {
+        if ( checker != null )
+            checker.checkBlankNode(blankNodeLabel);
+    }
+
+    private void checkLiteralLang(String lexicalForm, String langTag) {
+        if ( checker != null )
+            checker.checkLiteralLang(lexicalForm, langTag);
+    }
+
+    private void checkLiteralDT(String lexicalForm, Token datatype) {
+        if ( checker != null )
+            checker.checkLiteralDT(lexicalForm, datatype);
+    }
+
+    private void checkString(String string) {
+        if ( checker != null )
+            checker.checkString(string);
+    }
+
+    private void checkURI(String uriStr) {
+        if ( checker != null )
+            checker.checkURI(uriStr);
+    }
+
+    private void checkNumber(String image, String datatype) {
+        if ( checker != null )
+            checker.checkNumber(image, datatype);
+    }
+
+    private void checkVariable(String tokenImage) {
+        if ( checker != null )
+            checker.checkVariable(tokenImage);
+    }
+
+    private void checkDirective(String directive) {
+        if ( checker != null )
+            checker.checkDirective(directive);
+    }
+
+    private void checkKeyword(String tokenImage) {
+        if ( checker != null )
+            checker.checkKeyword(tokenImage);
+    }
+
+    private void checkPrefixedName(String tokenImage, String tokenImage2) {
+        if ( checker != null )
+            checker.checkPrefixedName(tokenImage, tokenImage2);
+    }
+
+    private void checkControl(int code) {
+        if ( checker != null )
+            checker.checkControl(code);
+    }
+}
@@ -23,6 +23,8 @@ package org.apache.jena.riot.tokens;
 
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 import org.apache.jena.atlas.io.PeekReader;
 import org.apache.jena.atlas.lib.InternalErrorException;
@@ -31,7 +33,13 @@ import org.apache.jena.riot.system.ErrorHandler;
 import org.apache.jena.riot.system.ErrorHandlerFactory;
 import org.slf4j.Logger;
 
-/** Builder for TokenizerText */
+/**
+ * Builder for TokenizerText.
+ * <p>
+ * With {@link #byteLevel(boolean) byteLevel(true)}, UTF-8 input from an
+ * {@code InputStream} or a string is tokenized directly on the bytes.
+ * Input from a {@link ByteBuffer} is always tokenized on the bytes.
+ */
 public class TokenizerTextBuilder {
 
     // One of these.
@@ -39,9 +47,11 @@ public class TokenizerTextBuilder {
     private InputStream  input           = null;
     private Reader       reader          = null;
     private String       string          = null;
+    private ByteBuffer   byteBuffer      = null;
 
     private boolean      singleLineMode  = false;
     private boolean      utf8            = true;
+    private boolean      byteLevel       = false;
     private ErrorHandler errorHandler    = null;
 
     TokenizerTextBuilder() {}
@@ -51,6 +61,7 @@ public class TokenizerTextBuilder {
         this.input = null;
         this.reader = null;
         this.string = null;
+        this.byteBuffer = null;
     }
 
     public TokenizerTextBuilder source(InputStream input) {
@@ -71,6 +82,13 @@ public class TokenizerTextBuilder {
         return this;
     }
 
+    /** UTF-8 bytes from the position to the limit of the {@code ByteBuffer}. The position is not changed. */
+    public TokenizerTextBuilder source(ByteBuffer byteBuffer) {
+        clearInput();
+        this.byteBuffer = byteBuffer;
+        return this;
+    }
+
     public TokenizerTextBuilder fromString(String string) {
         clearInput();
         this.string = string;
@@ -87,6 +105,15 @@ public class TokenizerTextBuilder {
         return this;
     }
 
+    /**
+     * Tokenize UTF-8 bytes without first decoding them to characters.
+     * This applies to {@code InputStream} and string sources.
+     */
+    public TokenizerTextBuilder byteLevel(boolean byteLevel) {
+        this.byteLevel = byteLevel;
+        return this;
+    }
+
     public TokenizerTextBuilder errorHandler(ErrorHandler errorHandler) {
         this.errorHandler = errorHandler;
         return this;
@@ -116,9 +143,19 @@ public class TokenizerTextBuilder {
 
     public Tokenizer build() {
         ErrorHandler errHandler = (errorHandler != null) ? errorHandler : errorHandlerDft();
-        int x = countNotNulls(peekReader, input, reader, string);
+        int x = countNotNulls(peekReader, input, reader, string, byteBuffer);
         if ( x > 1 )
             throw new InternalErrorException("Too many data sources");
+        if ( byteBuffer != null )
+            return TokenizerBytes.internal(byteBuffer, singleLineMode, errHandler);
+        if ( byteLevel && utf8 ) {
+            if ( input != null )
+                return TokenizerBytes.internal(input, singleLineMode, errHandler);
+            if ( string != null ) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                return TokenizerBytes.internal(bytes, 0, bytes.length, singleLineMode, errHandler);
+            }
+        }
         PeekReader pr;
         if ( input != null ) {
             pr = utf8 ? PeekReader.makeUTF8(input) : PeekReader.makeASCII(input);
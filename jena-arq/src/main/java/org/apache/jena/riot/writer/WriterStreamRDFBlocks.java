@@ -139,7 +139,7 @@ public class WriterStreamRDFBlocks extends WriterStreamRDFBatched
         out.decIndent(INDENT_PREDICATE);
     }
 
-    private void writePredicateObjectList(Collection<Triple> triples) {
+    protected void writePredicateObjectList(Collection<Triple> triples) {
         // Find width
         // We may have a prefix for RDF otherwise we use the 'a' abbreviation for rdf:type.
         boolean writeKeyWordType = countPrefixesForRDF <= 0;
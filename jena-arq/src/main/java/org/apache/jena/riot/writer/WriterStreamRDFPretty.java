@@ -0,0 +1,420 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.riot.writer;
+
+import static org.apache.jena.riot.writer.WriterConst.RDF_First;
+import static org.apache.jena.riot.writer.WriterConst.RDF_Nil;
+import static org.apache.jena.riot.writer.WriterConst.RDF_Rest;
+import static org.apache.jena.riot.writer.WriterConst.RDF_type;
+
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.*;
+
+import org.apache.jena.atlas.io.IndentedWriter;
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.atlas.lib.Cache;
+import org.apache.jena.atlas.lib.CacheFactory;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.util.Context;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+
+/**
+ * A Turtle/TriG writer that prints in one pass over the data, in the order the
+ * triples and quads arrive, while getting close to the output of the pretty
+ * writers.
+ * <p>
+ * Within each block of same subject (and same graph), predicates are ordered as
+ * for the pretty writers and repeated predicates become object lists.
+ * <p>
+ * If the writer is given the dataset the data comes from, it also prints blank
+ * nodes as nested {@code [ ]} objects and well-formed RDF lists as
+ * {@code ( )}. Deciding whether a blank node can be nested needs to know it is not
+ * used anywhere else; the writer asks the dataset with an index lookup ("who
+ * refers to this blank node?") instead of analysing all the data beforehand, so
+ * memory use is one subject block, the nesting currently being printed and a
+ * bounded cache, not the size of the data. Whether a blank node is nested depends
+ * only on the data, not on the order of the output, so any order is correct; a
+ * sorted scan, such as SPO order from TDB2, gives the most readable output.
+ * <p>
+ * A blank node is nested if it is the object of exactly one triple, all its
+ * triples are in the same graph, and following the single referrers upwards
+ * reaches a top-level subject within {@link #MaxDepth} steps. Blank nodes in
+ * cycles, or in chains too deep, are printed with a label.
+ * <p>
+ * Blank nodes in triple terms must be printed with a label, and there is no index
+ * to find the triple terms a blank node is used in. If any triple term in the data
+ * has a blank node in it, no blank nodes are nested. This is found by a scan of the
+ * data before the first nesting decision, which stops at the first such triple term
+ * and keeps nothing else.
+ * <p>
+ * Without a dataset, the writer only groups predicates and objects.
+ */
+public class WriterStreamRDFPretty extends WriterStreamRDFBlocks
+{
+    /** Maximum depth of nested blank nodes. */
+    public static final int MaxDepth = 1000;
+
+    // Depth of a blank node below its top-level subject; NotNested if not nested.
+    private static final int NotNested = Integer.MAX_VALUE;
+    private static final int DepthCacheSize = 10_000;
+
+    private final DatasetGraph source;
+    private final Cache<Node, Integer> depths = CacheFactory.createSimpleCache(DepthCacheSize);
+    // Set on first use.
+    private Boolean blankNodesInTripleTerms = null;
+    private Boolean singleGraph = null;
+    private Node currentGraph = Quad.defaultGraphIRI;
+
+    public WriterStreamRDFPretty(OutputStream output, Context context) {
+        super(output, context);
+        this.source = null;
+    }
+
+    public WriterStreamRDFPretty(Writer output, Context context) {
+        super(output, context);
+        this.source = null;
+    }
+
+    public WriterStreamRDFPretty(IndentedWriter output, Context context) {
+        this(output, context, null);
+    }
+
+    /**
+     * Create a writer that uses the {@code source} dataset to print nested blank
+     * nodes and RDF lists. The triples and quads sent to the writer must be those of
+     * {@code source}.
+     */
+    public WriterStreamRDFPretty(IndentedWriter output, Context context, DatasetGraph source) {
+        super(output, context);
+        this.source = source;
+    }
+
+    @Override
+    protected void printBatchQuads(Node g, Node s, List<Quad> quads) {
+        currentGraph = ( g == null ) ? Quad.defaultGraphIRI : g;
+        // Printed as an object of its referrer.
+        if ( isNested(s) )
+            return;
+        super.printBatchQuads(g, s, quads);
+    }
+
+    @Override
+    protected void printBatchTriples(Node s, List<Triple> triples) {
+        currentGraph = Quad.defaultGraphIRI;
+        if ( isNested(s) )
+            return;
+        super.printBatchTriples(s, triples);
+    }
+
+    @Override
+    protected void writePredicateObjectList(Collection<Triple> triples) {
+        Map<Node, List<Node>> pGroups = groupByPredicates(triples);
+        // We may have a prefix for RDF otherwise we use the 'a' abbreviation for rdf:type.
+        boolean writeKeyWordType = countPrefixesForRDF <= 0;
+        int predicateMaxWidth = Widths.calcWidth(pMap, baseURI, pGroups.keySet(), MIN_PREDICATE, LONG_PREDICATE, writeKeyWordType);
+        boolean first = true;
+        for ( Map.Entry<Node, List<Node>> e : pGroups.entrySet() ) {
+            if ( !first )
+                out.println(";");
+            else
+                first = false;
+            printProperty(e.getKey());
+            out.pad(predicateMaxWidth);
+            out.print(' ', GAP_P_O);
+            boolean firstObject = true;
+            for ( Node o : e.getValue() ) {
+                if ( !firstObject )
+                    out.print(" , ");
+                else
+                    firstObject = false;
+                writeObject(o);
+            }
+        }
+    }
+
+    private void writeObject(Node o) {
+        if ( isNested(o) ) {
+            List<Node> elts = listElements(o);
+            if ( elts != null )
+                writeList(elts);
+            else
+                writeNestedObject(o);
+            return;
+        }
+        if ( RDF_Nil.equals(o) ) {
+            out.print("()");
+            return;
+        }
+        outputNode(o);
+    }
+
+    private void writeNestedObject(Node node) {
+        List<Triple> triples = triplesOfSubject(node, -1);
+        if ( triples.isEmpty() ) {
+            out.print("[]");
+            return;
+        }
+        if ( isCompact(triples) ) {
+            out.print("[ ");
+            out.incIndent(2);
+            writePredicateObjectList(triples);
+            out.decIndent(2);
+            out.print(" ]");
+            return;
+        }
+        int indent0 = out.getAbsoluteIndent();
+        out.setAbsoluteIndent(out.getCol());
+        out.print("[ ");
+        out.incIndent(2);
+        writePredicateObjectList(triples);
+        out.decIndent(2);
+        out.println();
+        out.print("]");
+        out.setAbsoluteIndent(indent0);
+    }
+
+    private void writeList(List<Node> elts) {
+        out.print("(");
+        for ( Node n : elts ) {
+            out.print(" ");
+            writeObject(n);
+        }
+        out.print(" )");
+    }
+
+    // Compact if one predicate and no nested objects.
+    private boolean isCompact(Collection<Triple> triples) {
+        Node predicate = null;
+        for ( Triple t : triples ) {
+            if ( isNested(t.getObject()) )
+                return false;
+            if ( predicate != null && !predicate.equals(t.getPredicate()) )
+                return false;
+            predicate = t.getPredicate();
+        }
+        return true;
+    }
+
+    /**
+     * The elements of the well-formed RDF list starting at {@code node}, or null.
+     * Each list cell must be nested and have exactly one rdf:first and one rdf:rest.
+     */
+    private List<Node> listElements(Node node) {
+        List<Node> elts = new ArrayList<>();
+        Node x = node;
+        while ( !RDF_Nil.equals(x) ) {
+            if ( !isNested(x) )
+                return null;
+            List<Triple> cell = triplesOfSubject(x, 3);
+            if ( cell.size() != 2 )
+                return null;
+            Node first = null;
+            Node rest = null;
+            for ( Triple t : cell ) {
+                if ( RDF_First.equals(t.getPredicate()) )
+                    first = t.getObject();
+                else if ( RDF_Rest.equals(t.getPredicate()) )
+                    rest = t.getObject();
+            }
+            if ( first == null || rest == null )
+                return null;
+            elts.add(first);
+            x = rest;
+        }
+        return elts;
+    }
+
+    // Triples with the subject in the graph being printed; limit < 0 for all of them.
+    private List<Triple> triplesOfSubject(Node subject, int limit) {
+        List<Triple> triples = new ArrayList<>();
+        Iterator<Quad> iter = source.find(currentGraph, subject, Node.ANY, Node.ANY);
+        try {
+            while ( iter.hasNext() && triples.size() != limit )
+                triples.add(iter.next().asTriple());
+        } finally { Iter.close(iter); }
+        return triples;
+    }
+
+    private boolean isNested(Node node) {
+        if ( source == null || !node.isBlank() || blankNodesInTripleTerms() )
+            return false;
+        int d = depth(node);
+        return d > 0 && d != NotNested;
+    }
+
+    /**
+     * Steps from a blank node, by its single referrers, to a subject that is printed at
+     * the top level. The value depends only on the data, not on the order of the
+     * output or on what is in the cache, so a node skipped as a subject is always
+     * printed as an object, even if its depth is calculated again after it has been
+     * dropped from the cache.
+     */
+    private int depth(Node node) {
+        Integer d = depths.getIfPresent(node);
+        if ( d != null )
+            return d;
+        List<Node> path = new ArrayList<>();
+        Set<Node> seen = new HashSet<>();
+        path.add(node);
+        seen.add(node);
+        Node x = node;
+        for (;;) {
+            Node parent = singleReferrer(x);
+            if ( parent == null )
+                // x is top level.
+                return setDepths(path, 0);
+            Integer parentDepth = depths.getIfPresent(parent);
+            if ( parentDepth != null )
+                return setDepths(path, parentDepth == NotNested ? NotNested : parentDepth + 1);
+            if ( seen.contains(parent) )
+                // Cycle
+                return setDepths(path, NotNested);
+            if ( path.size() > MaxDepth ) {
+                // Too deep; the depths of the nodes above are not known.
+                depths.put(node, NotNested);
+                return NotNested;
+            }
+            path.add(parent);
+            seen.add(parent);
+            x = parent;
+        }
+    }
+
+    // The last node of the path has depth "base"; each step down adds one.
+    // Returns the depth of the first node of the path.
+    private int setDepths(List<Node> path, int base) {
+        int d = base;
+        for ( int i = path.size() - 1 ; i >= 0 ; i-- ) {
+            if ( base != NotNested ) {
+                long x = (long)base + (path.size() - 1 - i);
+                d = ( x > MaxDepth ) ? NotNested : (int)x;
+            }
+            depths.put(path.get(i), d);
+        }
+        return d;
+    }
+
+    /** The subject of the only triple that has the blank node as object, or null. */
+    private Node singleReferrer(Node node) {
+        if ( !node.isBlank() )
+            return null;
+        Quad quad;
+        Iterator<Quad> iter = source.find(Node.ANY, Node.ANY, Node.ANY, node);
+        try {
+            if ( !iter.hasNext() )
+                return null;
+            quad = iter.next();
+            if ( iter.hasNext() )
+                return null;
+        } finally { Iter.close(iter); }
+        if ( !singleGraph() && !containedInOneGraph(node, quad.getGraph()) )
+            return null;
+        return quad.getSubject();
+    }
+
+    private boolean singleGraph() {
+        if ( singleGraph == null ) {
+            Iterator<Node> graphNames = source.listGraphNodes();
+            try {
+                singleGraph = !graphNames.hasNext();
+            } finally { Iter.close(graphNames); }
+        }
+        return singleGraph;
+    }
+
+    private boolean containedInOneGraph(Node node, Node graph) {
+        if ( source.containsGraph(node) )
+            return false;
+        Iterator<Quad> iter = source.find(Node.ANY, node, Node.ANY, Node.ANY);
+        try {
+            while ( iter.hasNext() ) {
+                if ( !sameGraph(graph, iter.next().getGraph()) )
+                    return false;
+            }
+        } finally { Iter.close(iter); }
+        return true;
+    }
+
+    private static boolean sameGraph(Node g1, Node g2) {
+        if ( Quad.isDefaultGraph(g1) || Quad.isDefaultGraph(g2) )
+            return Quad.isDefaultGraph(g1) && Quad.isDefaultGraph(g2);
+        return g1.equals(g2);
+    }
+
+    // Blank nodes are printed with a label inside triple terms. Without an index to
+    // find them, no blank node is nested if there are any.
+    private boolean blankNodesInTripleTerms() {
+        if ( blankNodesInTripleTerms == null ) {
+            boolean found = false;
+            Iterator<Quad> iter = source.find();
+            try {
+                while ( !found && iter.hasNext() ) {
+                    Quad q = iter.next();
+                    found = hasBlankNode(q.getSubject()) || hasBlankNode(q.getObject());
+                }
+            } finally { Iter.close(iter); }
+            blankNodesInTripleTerms = found;
+        }
+        return blankNodesInTripleTerms;
+    }
+
+    // A triple term with a blank node in it, at any depth.
+    private static boolean hasBlankNode(Node node) {
+        if ( !node.isTripleTerm() )
+            return false;
+        Triple t = node.getTriple();
+        for ( Node n : List.of(t.getSubject(), t.getPredicate(), t.getObject()) ) {
+            if ( n.isBlank() || hasBlankNode(n) )
+                return true;
+        }
+        return false;
+    }
+
+    private static Map<Node, List<Node>> groupByPredicates(Collection<Triple> triples) {
+        SortedMap<Node, List<Node>> x = new TreeMap<>(compPredicates);
+        for ( Triple t : triples )
+            x.computeIfAbsent(t.getPredicate(), p -> new ArrayList<>()).add(t.getObject());
+        return x;
+    }
+
+    // rdf:type first, then RDF and RDFS properties, then the rest; as the pretty writers.
+    private static int classification(Node p) {
+        if ( p.equals(RDF_type) )
+            return 0;
+        if ( p.getURI().startsWith(RDF.getURI()) || p.getURI().startsWith(RDFS.getURI()) )
+            return 1;
+        return 2;
+    }
+
+    private static Comparator<Node> compPredicates = (p1, p2) -> {
+        int class1 = classification(p1);
+        int class2 = classification(p2);
+        if ( class1 != class2 )
+            return Integer.compare(class1, class2);
+        return p1.getURI().compareTo(p2.getURI());
+    };
+}
@@ -241,6 +241,13 @@ public class ARQConstants
     /** Context key for the dataset for the current query execution. */
     public static final Symbol sysCurrentDataset        = Symbol.create(systemVarNS+"dataset") ;
 
+    /**
+     * Context key for the version of the data seen by the current query execution,
+     * set by storage that can say when two executions see the same data.
+     * Executions with equal values, on the same dataset, see the same data.
+     */
+    public static final Symbol sysDataVersion           = Symbol.create(systemVarNS+"dataVersion") ;
+
     public static final Symbol sysVarAllocRDFStar       = Symbol.create(systemVarNS+"varAllocRDFStar") ;
 
     /** Context key for the dataset description (if any).
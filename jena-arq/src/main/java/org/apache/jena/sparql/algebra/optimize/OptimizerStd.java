@@ -22,10 +22,13 @@
 package org.apache.jena.sparql.algebra.optimize;
 
 import org.apache.jena.query.ARQ;
+import org.apache.jena.query.Dataset;
 import org.apache.jena.sparql.ARQConstants;
 import org.apache.jena.sparql.SystemARQ;
 import org.apache.jena.sparql.algebra.*;
 import org.apache.jena.sparql.algebra.op.OpLabel;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.engine.optimizer.CardinalityEstimator;
 import org.apache.jena.sparql.util.Context;
 import org.apache.jena.sparql.util.Symbol;
 import org.slf4j.Logger;
@@ -36,6 +39,8 @@ public class OptimizerStd implements Rewrite
 {
     static private Logger log = LoggerFactory.getLogger(Optimize.class);
     private final Context context;
+    // Set if join ordering is enabled and there is a dataset to estimate with.
+    private CardinalityEstimator estimator = null;
 
     public OptimizerStd(Context context) {
         this.context = context;
@@ -136,6 +141,14 @@ public class OptimizerStd implements Rewrite
         if ( context.isTrueOrUndef(ARQ.optDistinctToReduced) )
             op = transformDistinctToReduced(op);
 
+        // Order the parts of joins using estimates of the number of results from the dataset.
+        // The estimates are also used to choose between index joins and hash joins.
+        if ( context.isTrue(ARQ.optJoinOrder) ) {
+            estimator = createCardinalityEstimator();
+            if ( estimator != null )
+                op = transformJoinOrder(op);
+        }
+
         // Find joins/leftJoin that can be done by index joins (generally preferred as fixed memory overhead).
         if ( context.isTrueOrUndef(ARQ.optIndexJoinStrategy) )
             op = transformJoinStrategy(op);
@@ -238,7 +251,21 @@ public class OptimizerStd implements Rewrite
     }
 
     protected Op transformJoinStrategy(Op op) {
-        return apply("Index Join strategy", new TransformJoinStrategy(), op);
+        return apply("Index Join strategy", new TransformJoinStrategy(estimator), op);
+    }
+
+    protected Op transformJoinOrder(Op op) {
+        return apply("Join order", new TransformJoinOrder(estimator), op);
+    }
+
+    /** The estimator for join ordering, or null if there is no dataset in the context. */
+    protected CardinalityEstimator createCardinalityEstimator() {
+        Object obj = context.get(ARQConstants.sysCurrentDataset);
+        if ( obj instanceof Dataset dataset )
+            return new CardinalityEstimator(dataset.asDatasetGraph());
+        if ( obj instanceof DatasetGraph dsg )
+            return new CardinalityEstimator(dsg);
+        return null;
     }
 
     protected Op transformFilterPlacement(Op op) {
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.sparql.algebra.optimize;
+
+import java.util.*;
+
+import org.apache.jena.sparql.algebra.Op;
+import org.apache.jena.sparql.algebra.OpVars;
+import org.apache.jena.sparql.algebra.TransformCopy;
+import org.apache.jena.sparql.algebra.op.OpJoin;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.optimizer.CardinalityEstimator;
+
+/**
+ * Reorder the parts of inner joins, which may be basic graph patterns, OPTIONALs,
+ * UNIONs, sub-queries or VALUES blocks, using estimates of the number of results of
+ * each part. Join is commutative and associative so the results are the same for
+ * any order, but not necessarily in the same order.
+ * <p>
+ * The part with the smallest estimate goes first, then, at each step, the part with
+ * the smallest estimate of those sharing a variable with the parts already placed.
+ * A part with no shared variables (a cross product) is only placed when there are
+ * no connected parts.
+ * <p>
+ * This transform produces left-deep {@link OpJoin OpJoins}; the join strategy is
+ * chosen later by {@link TransformJoinStrategy}.
+ */
+public class TransformJoinOrder extends TransformCopy {
+    private final CardinalityEstimator estimator;
+
+    public TransformJoinOrder(CardinalityEstimator estimator) {
+        this.estimator = Objects.requireNonNull(estimator);
+    }
+
+    @Override
+    public Op transform(OpJoin opJoin, Op left, Op right) {
+        List<Op> elts = new ArrayList<>();
+        flatten(left, elts);
+        flatten(right, elts);
+        List<Op> ordered = order(elts);
+        if ( ordered.equals(elts) )
+            return super.transform(opJoin, left, right);
+        Op op = ordered.get(0);
+        for ( int i = 1 ; i < ordered.size() ; i++ )
+            op = OpJoin.create(op, ordered.get(i));
+        return op;
+    }
+
+    private static void flatten(Op op, List<Op> acc) {
+        if ( op instanceof OpJoin opJoin ) {
+            flatten(opJoin.getLeft(), acc);
+            flatten(opJoin.getRight(), acc);
+            return;
+        }
+        acc.add(op);
+    }
+
+    private List<Op> order(List<Op> elts) {
+        int N = elts.size();
+        double[] estimates = new double[N];
+        List<Set<Var>> eltVars = new ArrayList<>(N);
+        for ( int i = 0 ; i < N ; i++ ) {
+            estimates[i] = estimator.estimate(elts.get(i));
+            eltVars.add(OpVars.visibleVars(elts.get(i)));
+        }
+
+        List<Op> ordered = new ArrayList<>(N);
+        boolean[] placed = new boolean[N];
+        Set<Var> vars = new HashSet<>();
+        for ( int k = 0 ; k < N ; k++ ) {
+            // Ties keep the original order.
+            int next = -1;
+            boolean nextConnected = false;
+            for ( int i = 0 ; i < N ; i++ ) {
+                if ( placed[i] )
+                    continue;
+                boolean connected = ! Collections.disjoint(vars, eltVars.get(i));
+                if ( next < 0 || ( connected && ! nextConnected ) || ( connected == nextConnected && estimates[i] < estimates[next] ) ) {
+                    next = i;
+                    nextConnected = connected;
+                }
+            }
+            placed[next] = true;
+            ordered.add(elts.get(next));
+            vars.addAll(eltVars.get(next));
+        }
+        return ordered;
+    }
+}
@@ -26,14 +26,25 @@ import org.apache.jena.sparql.algebra.TransformCopy ;
 import org.apache.jena.sparql.algebra.op.* ;
 import org.apache.jena.sparql.engine.main.JoinClassifier ;
 import org.apache.jena.sparql.engine.main.LeftJoinClassifier ;
+import org.apache.jena.sparql.engine.optimizer.CardinalityEstimator ;
 
 /** Choose join strategy */ 
 public class TransformJoinStrategy extends TransformCopy
 {
     // OpSequence - linear join
     // OpCondition - linear left join
+    private final CardinalityEstimator estimator ;
+
     public TransformJoinStrategy()
-    {}
+    { this(null) ; }
+
+    /**
+     * Choose join strategy using estimates of the number of results:
+     * a join where the right side has fewer results than the left side
+     * is left as a hash join, not turned into an index join.
+     */
+    public TransformJoinStrategy(CardinalityEstimator estimator)
+    { this.estimator = estimator ; }
     
     @Override
     public Op transform(OpJoin opJoin, Op left, Op right)
@@ -55,7 +66,12 @@ public class TransformJoinStrategy extends TransformCopy
                     right = tmp ;
                 }
             }
-            
+
+            // An index join evaluates the right side once per row from the left side.
+            // A hash join evaluates each side once.
+            if ( estimator != null && estimator.estimate(right) < estimator.estimate(left) )
+                return super.transform(opJoin, left, right) ;
+
             // Streamed evaluation
             return OpSequence.create(left, right) ;
         }
@@ -69,6 +69,11 @@ public final class ExecutionContext implements FunctionEnv
         return new ExecutionContext(other, other.activeGraph, opExecutorFactory);
     }
 
+    /** Clone and change the context - shares tracking */
+    public static ExecutionContext copyChangeContext(ExecutionContext other, Context context) {
+        return new ExecutionContext(other, context, other.activeGraph, other.executor);
+    }
+
     /**
      * ExecutionContext for normal execution over a dataset, with defaults for
      * {@link Context} and {@link OpExecutorFactory}.
@@ -147,7 +152,14 @@ public final class ExecutionContext implements FunctionEnv
      * Clone, changing the active graph and OpExecutorFactory.
      */
     private ExecutionContext(ExecutionContext other, Graph activeGraph, OpExecutorFactory opExecutorFactory) {
-        this.context = other.context;
+        this(other, other.context, activeGraph, opExecutorFactory);
+    }
+
+    /**
+     * Clone, changing the context, active graph and OpExecutorFactory.
+     */
+    private ExecutionContext(ExecutionContext other, Context context, Graph activeGraph, OpExecutorFactory opExecutorFactory) {
+        this.context = context;
         this.dataset = other.dataset;
         this.openIterators = other.openIterators;
         this.allIterators = other.allIterators;
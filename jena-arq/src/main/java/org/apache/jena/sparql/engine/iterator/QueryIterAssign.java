@@ -21,9 +21,13 @@
 
 package org.apache.jena.sparql.engine.iterator;
 
+import java.util.HashMap ;
+import java.util.Map ;
+
 import org.apache.jena.atlas.io.IndentedWriter ;
 import org.apache.jena.atlas.lib.Lib ;
 import org.apache.jena.graph.Node ;
+import org.apache.jena.query.ARQ ;
 import org.apache.jena.query.QueryExecException ;
 import org.apache.jena.sparql.ARQInternalErrorException;
 import org.apache.jena.sparql.core.Var ;
@@ -32,7 +36,12 @@ import org.apache.jena.sparql.engine.ExecutionContext ;
 import org.apache.jena.sparql.engine.QueryIterator ;
 import org.apache.jena.sparql.engine.binding.Binding ;
 import org.apache.jena.sparql.engine.binding.BindingBuilder;
+import org.apache.jena.sparql.expr.CompiledExpr ;
 import org.apache.jena.sparql.expr.Expr ;
+import org.apache.jena.sparql.expr.ExprEvalException ;
+import org.apache.jena.sparql.expr.NodeValue ;
+import org.apache.jena.sparql.function.FunctionEnv ;
+import org.apache.jena.sparql.function.scripting.ScriptDenyException ;
 import org.apache.jena.sparql.serializer.SerializationContext ;
 
 /** Extend each solution by a (var, expression) */
@@ -40,6 +49,7 @@ import org.apache.jena.sparql.serializer.SerializationContext ;
 public class QueryIterAssign extends QueryIterProcessBinding
 {
     private VarExprList exprs ;
+    private final Map<Var, CompiledExpr> compiled ;
     private final boolean mustBeNewVar ;
 
     public QueryIterAssign(QueryIterator input, Var var, Expr expr, ExecutionContext qCxt) {
@@ -53,16 +63,43 @@ public class QueryIterAssign extends QueryIterProcessBinding
         // Syntax checking of BIND should have assured this.
         super(input, qCxt) ;
         this.exprs = exprs ;
+        this.compiled = qCxt.getContext().isTrue(ARQ.compileExpressions) ? compile(exprs) : null ;
         this.mustBeNewVar = mustBeNewVar ;
     }
 
+    /** Compile the expressions of a {@link VarExprList}. */
+    static Map<Var, CompiledExpr> compile(VarExprList exprs) {
+        Map<Var, CompiledExpr> compiled = new HashMap<>() ;
+        exprs.forEachExpr((v, expr) -> compiled.put(v, CompiledExpr.compile(expr))) ;
+        return compiled ;
+    }
+
+    /** As {@link VarExprList#get(Var, Binding, FunctionEnv)} using compiled expressions. */
+    static Node get(Map<Var, CompiledExpr> compiled, Var var, Binding binding, FunctionEnv funcEnv) {
+        CompiledExpr expr = compiled.get(var) ;
+        if ( expr == null )
+            return binding.get(var) ;
+        try {
+            NodeValue nv = expr.eval(binding, funcEnv) ;
+            if ( nv == null )
+                return null ;
+            return nv.asNode() ;
+        } catch (ScriptDenyException ex) {
+            throw ex ;
+        } catch (ExprEvalException ex) {
+            return null ;
+        }
+    }
+
     @Override
     public Binding accept(Binding binding) {
         BindingBuilder b = Binding.builder(binding);
         for ( Var v : exprs.getVars() ) {
             // if "binding", not "b" used, we get (Lisp) "let"
             // semantics, not the desired "let*" semantics
-            Node n = exprs.get(v, b.snapshot(), getExecContext());
+            Node n = ( compiled != null )
+                ? get(compiled, v, b.snapshot(), getExecContext())
+                : exprs.get(v, b.snapshot(), getExecContext());
 
             if ( n == null )
                 // Expression failed to evaluate - no assignment
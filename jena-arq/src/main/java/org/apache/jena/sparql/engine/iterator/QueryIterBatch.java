@@ -0,0 +1,298 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.sparql.engine.iterator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.jena.atlas.io.IndentedWriter;
+import org.apache.jena.atlas.lib.Lib;
+import org.apache.jena.atlas.logging.Log;
+import org.apache.jena.graph.Node;
+import org.apache.jena.query.ARQ;
+import org.apache.jena.query.QueryCancelledException;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.core.VarExprList;
+import org.apache.jena.sparql.engine.ExecutionContext;
+import org.apache.jena.sparql.engine.QueryIterator;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingBuilder;
+import org.apache.jena.sparql.engine.binding.BindingProject;
+import org.apache.jena.sparql.expr.CompiledExpr;
+import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.expr.ExprException;
+import org.apache.jena.sparql.serializer.SerializationContext;
+import org.apache.jena.sparql.util.ExprUtils;
+
+/**
+ * Apply a sequence of steps (FILTER, BIND, LET and projection) to a batch of bindings
+ * at a time. The input is read into an array, each step processes the whole array in
+ * turn, and then the results are returned.
+ * <p>
+ * Steps added by {@link #create} to a {@code QueryIterBatch} that has not started
+ * are added to it, so that a chain of steps is one iterator, not one iterator per
+ * step. Each step gives the same results as the iterator for the step
+ * ({@link QueryIterFilterExpr}, {@link QueryIterAssign}, {@link QueryIterProject}).
+ *
+ * @see org.apache.jena.query.ARQ#executionBatchSize
+ */
+public class QueryIterBatch extends QueryIter1 {
+
+    /** One step of a batch pipeline. */
+    public interface Stage {
+        /**
+         * Process the bindings {@code rows[0]} to {@code rows[n-1]}, in place, and
+         * return the number of bindings, which are then {@code rows[0]} to
+         * {@code rows[result-1]}.
+         */
+        public int process(Binding[] rows, int n, ExecutionContext execCxt);
+    }
+
+    /** Add a step to an iterator. */
+    public static QueryIterator create(QueryIterator input, Stage stage, int batchSize, ExecutionContext execCxt) {
+        if ( input instanceof QueryIterBatch qIter && qIter.rows == null ) {
+            qIter.stages.add(stage);
+            return qIter;
+        }
+        return new QueryIterBatch(input, stage, batchSize, execCxt);
+    }
+
+    private final int batchSize;
+    private final List<Stage> stages = new ArrayList<>();
+    private final AtomicBoolean signalCancel;
+    // Null until the first batch is read.
+    private Binding[] rows = null;
+    private int count = 0;
+    private int index = 0;
+
+    private QueryIterBatch(QueryIterator input, Stage stage, int batchSize, ExecutionContext execCxt) {
+        super(input, execCxt);
+        if ( batchSize <= 0 )
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        this.batchSize = batchSize;
+        this.stages.add(stage);
+        this.signalCancel = execCxt.getCancelSignal();
+    }
+
+    @Override
+    protected boolean hasNextBinding() {
+        if ( isFinished() )
+            return false;
+        if ( rows == null )
+            rows = new Binding[batchSize];
+        while ( index >= count ) {
+            if ( !getInput().hasNext() )
+                return false;
+            fill();
+        }
+        return true;
+    }
+
+    private void fill() {
+        int n = 0;
+        while ( n < batchSize && getInput().hasNext() )
+            rows[n++] = getInput().nextBinding();
+        int nInput = n;
+        checkCancelled();
+        for ( Stage stage : stages ) {
+            if ( n == 0 )
+                break;
+            n = stage.process(rows, n, getExecContext());
+        }
+        // Release the bindings that were not kept.
+        for ( int i = n ; i < nInput ; i++ )
+            rows[i] = null;
+        count = n;
+        index = 0;
+    }
+
+    private void checkCancelled() {
+        if ( signalCancel != null && signalCancel.get() ) {
+            this.cancel();
+            throw new QueryCancelledException();
+        }
+    }
+
+    @Override
+    protected Binding moveToNextBinding() {
+        if ( !hasNextBinding() )
+            throw new NoSuchElementException();
+        Binding b = rows[index];
+        rows[index] = null;
+        index++;
+        return b;
+    }
+
+    @Override
+    protected void closeSubIterator() {
+        rows = null;
+    }
+
+    @Override
+    protected void requestSubCancel() {}
+
+    @Override
+    protected void details(IndentedWriter out, SerializationContext sCxt) {
+        out.print(Lib.className(this));
+        out.print(" ");
+        out.print(stages.toString());
+    }
+
+    // ---- Stages
+
+    /** A FILTER step. */
+    public static Stage filter(Expr expr) {
+        return new StageFilter(expr);
+    }
+
+    /** A BIND or LET step. */
+    public static Stage assign(VarExprList exprs) {
+        return new StageAssign(exprs);
+    }
+
+    /** A projection step. */
+    public static Stage project(List<Var> vars) {
+        return new StageProject(vars);
+    }
+
+    private static class StageFilter implements Stage {
+        private final Expr expr;
+        private CompiledExpr compiled = null;
+        private boolean started = false;
+
+        StageFilter(Expr expr) {
+            this.expr = expr;
+        }
+
+        @Override
+        public int process(Binding[] rows, int n, ExecutionContext execCxt) {
+            if ( ! started ) {
+                started = true;
+                if ( execCxt.getContext().isTrue(ARQ.compileExpressions) )
+                    compiled = CompiledExpr.compile(expr);
+            }
+            int j = 0;
+            for ( int i = 0 ; i < n ; i++ ) {
+                if ( isSatisfied(rows[i], execCxt) )
+                    rows[j++] = rows[i];
+            }
+            return j;
+        }
+
+        // As QueryIterFilterExpr.
+        private boolean isSatisfied(Binding binding, ExecutionContext execCxt) {
+            try {
+                if ( compiled != null )
+                    return compiled.isSatisfied(binding, execCxt);
+                return expr.isSatisfied(binding, execCxt);
+            } catch (QueryCancelledException ex) {
+                ex.addSuppressed(new RuntimeException("Query cancelled exception."));
+                throw ex;
+            } catch (ExprException ex) {
+                Log.warn(QueryIterBatch.class, "Expression exception in " + expr, ex);
+                return false;
+            } catch (Exception ex) {
+                Log.warn(QueryIterBatch.class, "General exception in " + expr, ex);
+                return false;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "filter " + ExprUtils.fmtSPARQL(expr);
+        }
+    }
+
+    private static class StageAssign implements Stage {
+        private final VarExprList exprs;
+        private Map<Var, CompiledExpr> compiled = null;
+        private boolean started = false;
+
+        StageAssign(VarExprList exprs) {
+            this.exprs = exprs;
+        }
+
+        @Override
+        public int process(Binding[] rows, int n, ExecutionContext execCxt) {
+            if ( ! started ) {
+                started = true;
+                if ( execCxt.getContext().isTrue(ARQ.compileExpressions) )
+                    compiled = QueryIterAssign.compile(exprs);
+            }
+            int j = 0;
+            for ( int i = 0 ; i < n ; i++ ) {
+                Binding b = assign(rows[i], execCxt);
+                if ( b != null )
+                    rows[j++] = b;
+            }
+            return j;
+        }
+
+        // As QueryIterAssign.
+        private Binding assign(Binding binding, ExecutionContext execCxt) {
+            BindingBuilder b = Binding.builder(binding);
+            for ( Var v : exprs.getVars() ) {
+                Node n = ( compiled != null )
+                    ? QueryIterAssign.get(compiled, v, b.snapshot(), execCxt)
+                    : exprs.get(v, b.snapshot(), execCxt);
+                if ( n == null )
+                    continue;
+                if ( b.contains(v) ) {
+                    Node n2 = b.get(v);
+                    if ( !n2.sameValueAs(n) )
+                        return null;
+                    continue;
+                }
+                b.add(v, n);
+            }
+            return b.build();
+        }
+
+        @Override
+        public String toString() {
+            return "assign " + exprs;
+        }
+    }
+
+    private static class StageProject implements Stage {
+        private final List<Var> vars;
+
+        StageProject(List<Var> vars) {
+            this.vars = vars;
+        }
+
+        @Override
+        public int process(Binding[] rows, int n, ExecutionContext execCxt) {
+            for ( int i = 0 ; i < n ; i++ )
+                rows[i] = new BindingProject(vars, rows[i]);
+            return n;
+        }
+
+        @Override
+        public String toString() {
+            return "project " + vars;
+        }
+    }
+}
@@ -24,10 +24,12 @@ package org.apache.jena.sparql.engine.iterator;
 import org.apache.jena.atlas.io.IndentedWriter;
 import org.apache.jena.atlas.lib.Lib;
 import org.apache.jena.atlas.logging.Log;
+import org.apache.jena.query.ARQ;
 import org.apache.jena.query.QueryCancelledException;
 import org.apache.jena.sparql.engine.ExecutionContext;
 import org.apache.jena.sparql.engine.QueryIterator;
 import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.expr.CompiledExpr;
 import org.apache.jena.sparql.expr.Expr;
 import org.apache.jena.sparql.expr.ExprException;
 import org.apache.jena.sparql.serializer.SerializationContext;
@@ -39,10 +41,12 @@ import org.apache.jena.sparql.util.ExprUtils;
 
 public class QueryIterFilterExpr extends QueryIterProcessBinding {
     private final Expr expr;
+    private final CompiledExpr compiled;
 
     public QueryIterFilterExpr(QueryIterator input, Expr expr, ExecutionContext context) {
         super(input, context);
         this.expr = expr;
+        this.compiled = context.getContext().isTrue(ARQ.compileExpressions) ? CompiledExpr.compile(expr) : null;
     }
 
     @Override
@@ -50,7 +54,10 @@ public class QueryIterFilterExpr extends QueryIterProcessBinding {
         // Any problems causes null.
         try {
             // ExprNode.isSatisfied converts exceptions to ExprEvalException
-            if ( expr.isSatisfied(binding, super.getExecContext()) )
+            boolean b = ( compiled != null )
+                ? compiled.isSatisfied(binding, super.getExecContext())
+                : expr.isSatisfied(binding, super.getExecContext());
+            if ( b )
                 return binding;
             return null;
         } catch (QueryCancelledException ex) {
@@ -23,15 +23,23 @@ package org.apache.jena.sparql.engine.iterator;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import org.apache.commons.collections4.MultiMapUtils;
 import org.apache.commons.collections4.MultiValuedMap;
+import org.apache.jena.atlas.data.BagFactory;
+import org.apache.jena.atlas.data.SortedDataBag;
+import org.apache.jena.atlas.data.ThresholdPolicy;
+import org.apache.jena.atlas.data.ThresholdPolicyFactory;
 import org.apache.jena.atlas.iterator.Iter;
 import org.apache.jena.atlas.iterator.IteratorDelayedInitialization;
 import org.apache.jena.atlas.lib.Pair;
 import org.apache.jena.graph.Node;
+import org.apache.jena.query.QueryCancelledException;
+import org.apache.jena.sparql.ARQConstants;
 import org.apache.jena.sparql.core.Var;
 import org.apache.jena.sparql.core.VarExprList;
 import org.apache.jena.sparql.engine.ExecutionContext;
@@ -42,10 +50,28 @@ import org.apache.jena.sparql.engine.binding.BindingFactory;
 import org.apache.jena.sparql.expr.ExprAggregator;
 import org.apache.jena.sparql.expr.NodeValue;
 import org.apache.jena.sparql.expr.aggregate.Accumulator;
+import org.apache.jena.sparql.system.SerializationFactoryFinder;
+import org.apache.jena.sparql.util.NodeCmp;
 
+/**
+ * Grouping and aggregation.
+ * <p>
+ * Groups are calculated in-memory unless the number of groups exceeds the threshold of
+ * {@link ThresholdPolicyFactory#policyFromContext} (the
+ * {@link org.apache.jena.query.ARQ#spillToDiskThreshold} context setting). After
+ * that, rows for groups already in memory continue to be aggregated in memory, and
+ * rows for any other group are written to a {@link SortedDataBag}, sorted by group
+ * key. These groups are then aggregated one at a time as the sorted rows are read back.
+ * The group key of a row is calculated once, when the row is read; a spilled row
+ * carries its key values so that sorting and grouping do not evaluate the GROUP BY
+ * expressions again. The rows of a spilled group are not necessarily in input order, which can change the
+ * order of {@code GROUP_CONCAT} and the choice of {@code SAMPLE}.
+ */
 public class QueryIterGroup extends QueryIterPlainWrapper
 {
 	private final QueryIterator embeddedIterator;
+	// Set if grouping spills to disk.
+	/*package*/ SortedDataBag<Binding> dataBag = null;
 
 	public QueryIterGroup(QueryIterator qIter,
                           VarExprList groupVars,
@@ -53,26 +79,30 @@ public class QueryIterGroup extends QueryIterPlainWrapper
                           ExecutionContext execCxt) {
 	    // Delayed initalization
 	    // Does the group calculation when first used (typically hasNext)
-        super(calc(qIter, groupVars, aggregators, execCxt),
-              execCxt);
+        super(null, execCxt);
         this.embeddedIterator = qIter;
+        this.setIterator(calc(qIter, groupVars, aggregators, execCxt));
     }
 
     @Override
     public void requestCancel() {
+        if ( this.dataBag != null )
+            this.dataBag.cancel();
         this.embeddedIterator.cancel();
         super.requestCancel();
     }
 
     @Override
     protected void closeIterator() {
+        if ( this.dataBag != null )
+            this.dataBag.close();
         this.embeddedIterator.close();
         super.closeIterator();
     }
 
 	private static Pair<Var, Accumulator> placeholder = Pair.create((Var)null, (Accumulator)null);
 
-    private static Iterator<Binding> calc(final QueryIterator iter,
+    private Iterator<Binding> calc(final QueryIterator iter,
                                           final VarExprList groupVarExpr,
                                           final List<ExprAggregator> aggregators,
                                           final ExecutionContext execCxt) {
@@ -109,58 +139,201 @@ public class QueryIterGroup extends QueryIterPlainWrapper
 
                 // Case: there is input.
                 // Phase 1 : Create keys and aggregators per key, and pump bindings through the aggregators.
+                // When there are too many groups, rows for new groups go to the data bag.
                 MultiValuedMap<Binding, Pair<Var, Accumulator>> accumulators = MultiMapUtils.newListValuedHashMap();
-                while (iter.hasNext()) {
-                    Binding b = iter.nextBinding();
-                    Binding key = genKey(groupVarExpr, b, execCxt);
-
-                    if ( !hasAggregators ) {
-                        // Put in a dummy to remember the input.
-                        accumulators.put(key, placeholder);
-                        continue;
-                    }
+                ThresholdPolicy<Binding> policy = ThresholdPolicyFactory.policyFromContext(execCxt.getContext());
+                try {
+                    while (iter.hasNext()) {
+                        Binding b = iter.nextBinding();
+                        Binding key = genKey(groupVarExpr, b, execCxt);
 
-                    // Create if does not exist.
-                    if ( !accumulators.containsKey(key) ) {
-                        for ( ExprAggregator agg : aggregators ) {
-                            Accumulator x = agg.getAggregator().createAccumulator();
-                            Var v = agg.getVar();
-                            accumulators.put(key, Pair.create(v, x));
+                        if ( !accumulators.containsKey(key) ) {
+                            // Always keep one group in memory (no GROUP BY is one group).
+                            if ( policy.isThresholdExceeded() && !accumulators.isEmpty() ) {
+                                spill(b, key, groupVarExpr, execCxt);
+                                continue;
+                            }
+                            policy.increment(key);
+                            createAccumulators(accumulators, key, aggregators);
                         }
+                        accumulate(accumulators.get(key), b, execCxt);
                     }
-
-                    // Do the per-accumulator calculation.
-                    for ( Pair<Var, Accumulator> pair : accumulators.get(key) )
-                        pair.getRight().accumulate(b, execCxt);
+                } catch (QueryCancelledException ex) {
+                    QueryIterGroup.this.close();
+                    throw ex;
                 }
 
                 // Phase 2 : There was input and so there are some groups.
                 // For each bucket, get binding, add aggregator values to the binding.
                 // We used AccNull so there are always accumulators.
 
+                Iterator<Binding> results;
                 if ( !hasAggregators )
                     // We used placeholder so there are always the key.
-                    return accumulators.keySet().iterator();
+                    results = accumulators.keySet().iterator();
+                else {
+                    List<Binding> x = new ArrayList<>();
+                    for ( Binding k : accumulators.keySet() )
+                        x.add(result(k, accumulators.get(k)));
+                    results = x.iterator();
+                }
+                if ( dataBag == null )
+                    return results;
+                // Phase 3 : Groups from the data bag, in group key order.
+                return Iter.concat(results, new SpilledGroupIterator(dataBag.iterator(), groupVarExpr, aggregators, execCxt));
+            }
+        };
+    }
 
-                List<Binding> results = new ArrayList<>();
-                for ( Binding k : accumulators.keySet() ) {
-                    BindingBuilder builder2 = Binding.builder(k);
-                    Collection<Pair<Var, Accumulator>> accs = accumulators.get(k);
+    private void spill(Binding binding, Binding key, VarExprList groupVarExpr, ExecutionContext execCxt) {
+        if ( dataBag == null ) {
+            ThresholdPolicy<Binding> policy = ThresholdPolicyFactory.policyFromContext(execCxt.getContext());
+            dataBag = BagFactory.newSortedBag(policy, SerializationFactoryFinder.bindingSerializationFactory(),
+                                              keyComparator(groupVarExpr));
+        }
+        // The row with its key values, under other variable names.
+        BindingBuilder builder = Binding.builder();
+        builder.addAll(binding);
+        key.forEach((var, node) -> builder.add(keyVar(var), node));
+        dataBag.add(builder.build());
+    }
 
-                    for ( Pair<Var, Accumulator> pair : accs ) {
-                        NodeValue value = pair.getRight().getValue();
-                        if ( value == null )
-                            continue;
-                        Var v = pair.getLeft();
-                        builder2.add(v, value.asNode());
-                    }
-                    results.add(builder2.build());
-                }
-                return results.iterator();
+    private static final String KeyVarPrefix = ARQConstants.allocVarMarker+"group.";
+
+    // Variable for the value of a group variable in a spilled row.
+    private static Var keyVar(Var var) {
+        return Var.alloc(KeyVarPrefix+var.getVarName());
+    }
+
+    // The group key of a spilled row.
+    private static Binding spilledKey(Binding row, VarExprList groupVarExpr) {
+        BindingBuilder builder = Binding.builder();
+        for ( Var var : groupVarExpr.getVars() ) {
+            Node node = row.get(keyVar(var));
+            if ( node != null )
+                builder.add(var, node);
+        }
+        return builder.build();
+    }
+
+    // A spilled row without its key values.
+    private static Binding spilledRow(Binding row) {
+        BindingBuilder builder = Binding.builder();
+        row.forEach((var, node) -> {
+            if ( !var.getVarName().startsWith(KeyVarPrefix) )
+                builder.add(var, node);
+        });
+        return builder.build();
+    }
+
+    private static void createAccumulators(MultiValuedMap<Binding, Pair<Var, Accumulator>> accumulators,
+                                           Binding key, List<ExprAggregator> aggregators) {
+        if ( aggregators == null || aggregators.isEmpty() ) {
+            // Put in a dummy to remember the input.
+            accumulators.put(key, placeholder);
+            return;
+        }
+        for ( ExprAggregator agg : aggregators ) {
+            Accumulator x = agg.getAggregator().createAccumulator();
+            Var v = agg.getVar();
+            accumulators.put(key, Pair.create(v, x));
+        }
+    }
+
+    // Do the per-accumulator calculation.
+    private static void accumulate(Collection<Pair<Var, Accumulator>> accs, Binding binding, ExecutionContext execCxt) {
+        for ( Pair<Var, Accumulator> pair : accs ) {
+            if ( pair != placeholder )
+                pair.getRight().accumulate(binding, execCxt);
+        }
+    }
+
+    private static Binding result(Binding key, Collection<Pair<Var, Accumulator>> accs) {
+        BindingBuilder builder2 = Binding.builder(key);
+        for ( Pair<Var, Accumulator> pair : accs ) {
+            if ( pair == placeholder )
+                continue;
+            NodeValue value = pair.getRight().getValue();
+            if ( value == null )
+                continue;
+            Var v = pair.getLeft();
+            builder2.add(v, value.asNode());
+        }
+        return builder2.build();
+    }
+
+    /**
+     * Order spilled rows by the RDF terms of their group key so that rows of the same
+     * group are adjacent. Unbound and error come first.
+     */
+    private static Comparator<Binding> keyComparator(VarExprList groupVarExpr) {
+        List<Var> keyVars = groupVarExpr.getVars().stream().map(QueryIterGroup::keyVar).toList();
+        return (b1, b2) -> {
+            for ( Var keyVar : keyVars ) {
+                Node n1 = b1.get(keyVar);
+                Node n2 = b2.get(keyVar);
+                int x = NodeCmp.compareRDFTerms(n1, n2);
+                if ( x != 0 )
+                    return x;
             }
+            return 0;
         };
     }
 
+    /** Aggregate the groups of rows sorted by group key, one group at a time. */
+    private static class SpilledGroupIterator implements Iterator<Binding> {
+        private final Iterator<Binding> sorted;
+        private final VarExprList groupVarExpr;
+        private final List<ExprAggregator> aggregators;
+        private final ExecutionContext execCxt;
+        // First row of the next group.
+        private Binding pending = null;
+        private Binding pendingKey = null;
+
+        SpilledGroupIterator(Iterator<Binding> sorted, VarExprList groupVarExpr,
+                             List<ExprAggregator> aggregators, ExecutionContext execCxt) {
+            this.sorted = sorted;
+            this.groupVarExpr = groupVarExpr;
+            this.aggregators = aggregators;
+            this.execCxt = execCxt;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pending != null || sorted.hasNext();
+        }
+
+        @Override
+        public Binding next() {
+            if ( !hasNext() )
+                throw new NoSuchElementException();
+            if ( pending == null ) {
+                Binding b = sorted.next();
+                pending = spilledRow(b);
+                pendingKey = spilledKey(b, groupVarExpr);
+            }
+            Binding key = pendingKey;
+            MultiValuedMap<Binding, Pair<Var, Accumulator>> accumulators = MultiMapUtils.newListValuedHashMap();
+            createAccumulators(accumulators, key, aggregators);
+            Collection<Pair<Var, Accumulator>> accs = accumulators.get(key);
+            accumulate(accs, pending, execCxt);
+            pending = null;
+            pendingKey = null;
+            while (sorted.hasNext()) {
+                Binding b = sorted.next();
+                Binding k = spilledKey(b, groupVarExpr);
+                Binding row = spilledRow(b);
+                if ( !key.equals(k) ) {
+                    pending = row;
+                    pendingKey = k;
+                    break;
+                }
+                accumulate(accs, row, execCxt);
+            }
+            return result(key, accs);
+        }
+    }
+
     static private Binding genKey(VarExprList vars, Binding binding, ExecutionContext execCxt) {
         return copyProject(vars, binding, execCxt);
     }
@@ -21,22 +21,47 @@
 
 package org.apache.jena.sparql.engine.iterator;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
+import org.apache.jena.atlas.data.DataBag;
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.query.ARQ;
 import org.apache.jena.sparql.core.Var;
 import org.apache.jena.sparql.engine.ExecutionContext;
 import org.apache.jena.sparql.engine.QueryIterator;
 import org.apache.jena.sparql.engine.binding.Binding;
 import org.apache.jena.sparql.engine.index.IndexFactory;
 import org.apache.jena.sparql.engine.index.IndexTable;
+import org.apache.jena.sparql.engine.join.JoinKey;
+import org.apache.jena.sparql.engine.join.SpillPartitions;
 
-/** Minus by materializing the RHS - this is not streamed on the right */
+/**
+ * Minus by materializing the RHS - this is not streamed on the right.
+ * <p>
+ * If {@link ARQ#spillToDiskThreshold} is set and the RHS has more rows than the
+ * threshold, both sides are written to {@link SpillPartitions} by the hash of the
+ * common variables and the partitions are processed one at a time, with the index
+ * for one RHS partition in memory at a time. The results are then in partition
+ * order, not in the order of the LHS.
+ */
 public class QueryIterMinus extends QueryIter2 {
     private IndexTable tableRight = null;
     private final Supplier<IndexTable> tableRightMaker;
     private Binding          slot = null;
 
+    private final Set<Var> commonVars;
+    private final long threshold;
+    // Spill to disk.
+    private SpillPartitions leftPartitions = null;
+    private SpillPartitions rightPartitions = null;
+    private DataBag<Binding> leftUnkeyed = null;
+    private Iterator<Binding> spillResults = null;
+
     public static QueryIterator create(QueryIterator left, QueryIterator right, Set<Var> commonVars, ExecutionContext qCxt) {
         if ( ! right.hasNext() )
             // Empty MINUS -> return left
@@ -50,6 +75,8 @@ public class QueryIterMinus extends QueryIter2 {
         // Delay until the query starts executing started so it sees timeouts.
         // See JENA-2139.
         tableRightMaker = ()->IndexFactory.createIndex(commonVars, right);
+        this.commonVars = commonVars;
+        this.threshold = qCxt.getContext().getLong(ARQ.spillToDiskThreshold, -1);
     }
 
     protected Binding getNextSlot(Binding bindingLeft) {
@@ -61,8 +88,78 @@ public class QueryIterMinus extends QueryIter2 {
         return bindingLeft;
     }
 
+    // Read the RHS up to the threshold. If that is all of the RHS, build the index
+    // from the rows read, otherwise partition both sides.
+    private void initSpill() {
+        List<Binding> rows = new ArrayList<>();
+        QueryIterator right = getRight();
+        while ( rows.size() <= threshold && right.hasNext() )
+            rows.add(right.next());
+        if ( ! right.hasNext() ) {
+            tableRight = IndexFactory.createIndex(commonVars, QueryIterPlainWrapper.create(rows.iterator(), getExecContext()));
+            return;
+        }
+        JoinKey joinKey = JoinKey.create(commonVars);
+        int numPartitions = SpillPartitions.DefaultPartitions;
+        rightPartitions = new SpillPartitions(joinKey, numPartitions, threshold);
+        rows.forEach(rightPartitions::add);
+        rows = null;
+        right.forEachRemaining(rightPartitions::add);
+        right.close();
+        leftPartitions = new SpillPartitions(joinKey, numPartitions, threshold);
+        getLeft().forEachRemaining(leftPartitions::add);
+        getLeft().close();
+        if ( leftPartitions.hasUnkeyed() ) {
+            leftUnkeyed = SpillPartitions.newBag(threshold);
+            leftPartitions.unkeyed().forEachRemaining(leftUnkeyed::add);
+        }
+        // Partitions 0 to N-1, then the LHS rows that do not bind all the common variables.
+        spillResults = Iter.flatMap(IntStream.rangeClosed(0, numPartitions).iterator(), this::minusPartition);
+    }
+
+    private Iterator<Binding> minusPartition(int idx) {
+        if ( idx == leftPartitions.size() ) {
+            if ( leftUnkeyed == null )
+                return Iter.nullIterator();
+            return leftUnkeyed.iterator();
+        }
+        // The RHS rows that may be compatible with LHS rows in this partition.
+        Iterator<Binding> rightRows = rightPartitions.partition(idx);
+        if ( rightPartitions.hasUnkeyed() )
+            rightRows = Iter.concat(rightRows, rightPartitions.unkeyed());
+        if ( ! rightRows.hasNext() )
+            return leftPartitions.partition(idx);
+        IndexTable table = IndexFactory.createIndex(commonVars, QueryIterPlainWrapper.create(rightRows, getExecContext()));
+        if ( leftUnkeyed != null ) {
+            // A LHS row that does not bind all the common variables may be compatible
+            // with RHS rows in any partition: keep the rows not removed so far.
+            DataBag<Binding> remaining = SpillPartitions.newBag(threshold);
+            leftUnkeyed.iterator().forEachRemaining(row -> {
+                if ( ! table.containsCompatibleWithSharedDomain(row) )
+                    remaining.add(row);
+            });
+            leftUnkeyed.close();
+            leftUnkeyed = remaining;
+        }
+        return Iter.filter(leftPartitions.partition(idx), row -> ! table.containsCompatibleWithSharedDomain(row));
+    }
+
     @Override
-    protected final void closeSubIterator() {}
+    protected final void closeSubIterator() {
+        if ( leftPartitions != null ) {
+            leftPartitions.close();
+            leftPartitions = null;
+        }
+        if ( rightPartitions != null ) {
+            rightPartitions.close();
+            rightPartitions = null;
+        }
+        if ( leftUnkeyed != null ) {
+            leftUnkeyed.close();
+            leftUnkeyed = null;
+        }
+        spillResults = null;
+    }
 
     @Override
     protected void requestSubCancel() {}
@@ -71,6 +168,14 @@ public class QueryIterMinus extends QueryIter2 {
     protected final boolean hasNextBinding() {
         if ( slot != null )
             return true;
+        if ( threshold >= 0 && tableRight == null && spillResults == null )
+            initSpill();
+        if ( spillResults != null ) {
+            if ( ! spillResults.hasNext() )
+                return false;
+            slot = spillResults.next();
+            return true;
+        }
 
         while (getLeft().hasNext()) {
             Binding bindingLeft = getLeft().nextBinding();
@@ -29,14 +29,17 @@ import org.apache.jena.atlas.data.BagFactory;
 import org.apache.jena.atlas.data.SortedDataBag;
 import org.apache.jena.atlas.data.ThresholdPolicy;
 import org.apache.jena.atlas.data.ThresholdPolicyFactory;
+import org.apache.jena.atlas.iterator.Iter;
 import org.apache.jena.atlas.iterator.IteratorDelayedInitialization;
 import org.apache.jena.atlas.lib.Closeable;
+import org.apache.jena.query.ARQ;
 import org.apache.jena.query.QueryCancelledException;
 import org.apache.jena.query.SortCondition;
 import org.apache.jena.sparql.engine.ExecutionContext;
 import org.apache.jena.sparql.engine.QueryIterator;
 import org.apache.jena.sparql.engine.binding.Binding;
 import org.apache.jena.sparql.engine.binding.BindingComparator;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
 import org.apache.jena.sparql.system.SerializationFactoryFinder;
 
 /**
@@ -48,21 +51,36 @@ import org.apache.jena.sparql.system.SerializationFactoryFinder;
 
 public class QueryIterSort extends QueryIterPlainWrapper {
     private final QueryIterator inputIterator;
+    private final boolean parallel;
     /*package*/ final SortedDataBag<Binding> dataBag;
 
     public static QueryIterator create(QueryIterator qIter, List<SortCondition> conditions, ExecutionContext context) {
-        return create(qIter, new BindingComparator(conditions, context), context);
+        return new QueryIterSort(qIter, new BindingComparator(conditions, context), parallelism(conditions, context), context);
     }
 
     public static  QueryIterator create(QueryIterator qIter, Comparator<Binding> comparator, ExecutionContext context) {
-        return new QueryIterSort(qIter, comparator, context);
+        return new QueryIterSort(qIter, comparator, context.getContext().getInt(ARQ.parallelSort, 1), context);
     }
 
-    private QueryIterSort(QueryIterator qIter, Comparator<Binding> comparator, ExecutionContext context) {
+    /**
+     * The number of threads to sort by the conditions: one unless every condition is
+     * a variable. Conditions that are expressions, which may use EXISTS or custom
+     * functions, are only evaluated on the thread executing the query.
+     */
+    /*package*/ static int parallelism(List<SortCondition> conditions, ExecutionContext context) {
+        for ( SortCondition condition : conditions ) {
+            if ( ! condition.getExpression().isVariable() )
+                return 1;
+        }
+        return context.getContext().getInt(ARQ.parallelSort, 1);
+    }
+
+    private QueryIterSort(QueryIterator qIter, Comparator<Binding> comparator, int parallelism, ExecutionContext context) {
         super(null, context);
         this.inputIterator = qIter;
         ThresholdPolicy<Binding> policy = ThresholdPolicyFactory.policyFromContext(context.getContext());
-        this.dataBag = BagFactory.newSortedBag(policy, SerializationFactoryFinder.bindingSerializationFactory(), comparator);
+        this.parallel = parallelism > 1;
+        this.dataBag = BagFactory.newSortedBag(policy, SerializationFactoryFinder.bindingSerializationFactory(), comparator, parallelism);
         this.setIterator(new SortedBindingIterator(qIter));
     }
 
@@ -90,7 +108,13 @@ public class QueryIterSort extends QueryIterPlainWrapper {
         @Override
         protected Iterator<Binding> initializeIterator() {
             try {
-                dataBag.addAll(qIter);
+                // Bindings may refer to storage (e.g. TDB2 BindingTDB) that can only be
+                // read on this thread, inside the transaction. A parallel sort compares and
+                // writes them on other threads so copy them first.
+                if ( parallel )
+                    dataBag.addAll(Iter.map(qIter, BindingFactory::copy));
+                else
+                    dataBag.addAll(qIter);
                 return dataBag.iterator();
             }
             // Should we catch other exceptions too? Theoretically
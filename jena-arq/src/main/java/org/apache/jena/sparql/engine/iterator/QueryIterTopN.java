@@ -31,6 +31,7 @@ import java.util.PriorityQueue;
 
 import org.apache.jena.atlas.iterator.Iter;
 import org.apache.jena.atlas.iterator.IteratorDelayedInitialization;
+import org.apache.jena.query.ARQ;
 import org.apache.jena.query.Query;
 import org.apache.jena.query.QueryCancelledException;
 import org.apache.jena.query.QueryExecException;
@@ -39,6 +40,7 @@ import org.apache.jena.sparql.engine.ExecutionContext;
 import org.apache.jena.sparql.engine.QueryIterator;
 import org.apache.jena.sparql.engine.binding.Binding;
 import org.apache.jena.sparql.engine.binding.BindingComparator;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
 
 public class QueryIterTopN extends QueryIterPlainWrapper
 {
@@ -47,21 +49,31 @@ public class QueryIterTopN extends QueryIterPlainWrapper
      * To do that we keep a priority heap of upto N elements, ordered descending.
      * To keep another element, it must be less than the max so far.
      * This leaves the least N in the heap.
+     *
+     * For a large N with ARQ.parallelSort set, and no DISTINCT, bindings are kept in an
+     * array of up to 2N elements instead. When the array is full, it is sorted with
+     * Arrays.parallelSort and cut back to the least N. Any binding that is not less
+     * than the current Nth is not kept.
      */
 	private final QueryIterator inputIterator;      // Keep a record of the unsorted underlying source for .cancel.
     private PriorityQueue<Binding> heap;
     private long limit;
     private final boolean distinct;
 
+    // Below this, Arrays.parallelSort does not sort in parallel.
+    private static final long ParallelMinLimit = 1 << 13;
+
     public static QueryIterator create(QueryIterator qIter, List<SortCondition> conditions, long numItems, boolean distinct, ExecutionContext context) {
-        return create(qIter, new BindingComparator(conditions, context), numItems, distinct, context);
+        boolean parallel = QueryIterSort.parallelism(conditions, context) > 1;
+        return new QueryIterTopN(qIter, new BindingComparator(conditions, context), numItems, distinct, parallel, context);
     }
 
     public static QueryIterator create(QueryIterator qIter, Comparator<Binding> comparator, long numItems, boolean distinct, ExecutionContext context) {
-        return new QueryIterTopN(qIter, comparator, numItems, distinct, context);
+        boolean parallel = context.getContext().getInt(ARQ.parallelSort, 1) > 1;
+        return new QueryIterTopN(qIter, comparator, numItems, distinct, parallel, context);
     }
 
-    private QueryIterTopN(QueryIterator qIter, Comparator<Binding> comparator, long numItems, boolean distinct, ExecutionContext context) {
+    private QueryIterTopN(QueryIterator qIter, Comparator<Binding> comparator, long numItems, boolean distinct, boolean parallel, ExecutionContext context) {
         super(null, context);
         this.inputIterator = qIter;
         this.distinct = distinct;
@@ -81,6 +93,11 @@ public class QueryIterTopN extends QueryIterPlainWrapper
             return;
         }
 
+        if ( parallel && !distinct && limit >= ParallelMinLimit && limit <= Integer.MAX_VALUE / 4 ) {
+            this.setIterator(sortTopNParallel(qIter, comparator));
+            return;
+        }
+
         // Keep heap with maximum accessible.
         this.heap = new PriorityQueue<>((int)numItems, comparator.reversed());
         this.setIterator(sortTopN(qIter, comparator));
@@ -128,6 +145,48 @@ public class QueryIterTopN extends QueryIterPlainWrapper
         };
     }
 
+    private Iterator<Binding> sortTopNParallel(final QueryIterator qIter, final Comparator<Binding> comparator) {
+        return new IteratorDelayedInitialization<Binding>() {
+            @Override
+            protected Iterator<Binding> initializeIterator() {
+                try {
+                    int n = (int)limit;
+                    // Grows to 2N.
+                    Binding[] array = new Binding[Math.min(2 * n, 1024)];
+                    int size = 0;
+                    // The Nth least binding so far, once there have been N bindings.
+                    Binding currentMaxLeastN = null;
+                    while ( qIter.hasNext() ) {
+                        Binding binding = qIter.next();
+                        if ( currentMaxLeastN != null && comparator.compare(binding, currentMaxLeastN) >= 0 )
+                            continue;
+                        if ( size == array.length && array.length < 2 * n )
+                            array = Arrays.copyOf(array, Math.min(2 * n, 2 * array.length));
+                        if ( size == array.length ) {
+                            Arrays.parallelSort(array, 0, size, comparator);
+                            Arrays.fill(array, n, size, null);
+                            size = n;
+                            currentMaxLeastN = array[n - 1];
+                            if ( comparator.compare(binding, currentMaxLeastN) >= 0 )
+                                continue;
+                        }
+                        // Arrays.parallelSort compares on other threads, outside any
+                        // transaction of the storage the binding is read from.
+                        array[size++] = BindingFactory.copy(binding);
+                    }
+                    qIter.close();
+                    Arrays.parallelSort(array, 0, size, comparator);
+                    return asList(array).subList(0, Math.min(size, n)).iterator();
+                }
+                catch (QueryCancelledException e) {
+                    QueryIterTopN.this.close();
+                    this.close();
+                    throw e;
+                }
+            }
+        };
+    }
+
     private void add(Binding binding) {
         if ( distinct && heap.contains(binding) )
             return;
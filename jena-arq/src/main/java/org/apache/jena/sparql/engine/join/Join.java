@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.List ;
 
 import org.apache.jena.atlas.iterator.Iter ;
+import org.apache.jena.query.ARQ ;
 import org.apache.jena.sparql.algebra.Algebra ;
 import org.apache.jena.sparql.algebra.Table ;
 import org.apache.jena.sparql.algebra.TableFactory ;
@@ -129,7 +130,7 @@ public class Join {
      */
     public static QueryIterator hashJoin(QueryIterator left, QueryIterator right, ExecutionContext execCxt) {
         //return new QueryIterNestedLoopJoin(left, right, conditions, execCxt) ;
-        return QueryIterHashJoin.create(left, right, execCxt) ;
+        return hashJoin(null, left, right, execCxt) ;
     }
 
     /** Evaluate using a hash join.
@@ -141,6 +142,12 @@ public class Join {
      * @return          QueryIterator
      */
     public static QueryIterator hashJoin(JoinKey joinKey, QueryIterator left, QueryIterator right, ExecutionContext execCxt) {
+        int partitions = ( execCxt == null ) ? 0 : execCxt.getContext().getInt(ARQ.parallelHashJoin, 0) ;
+        if ( partitions > 1 )
+            return QueryIterParallelHashJoin.create(joinKey, left, right, partitions, execCxt) ;
+        long threshold = ( execCxt == null ) ? -1 : execCxt.getContext().getLong(ARQ.spillToDiskThreshold, -1) ;
+        if ( threshold >= 0 )
+            return QueryIterSpillHashJoin.create(joinKey, left, right, threshold, execCxt) ;
         return QueryIterHashJoin.create(joinKey, left, right, execCxt) ;
     }
 
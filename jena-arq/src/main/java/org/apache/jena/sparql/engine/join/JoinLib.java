@@ -71,5 +71,16 @@ class JoinLib {
               return noKeyHash ;
           return x ;
       }
-}
 
+    /** The partition for a row, or -1 if the row does not bind every join key variable. */
+    public static int partition(JoinKey joinKey, int numPartitions, Binding row) {
+        for ( Var v : joinKey ) {
+            if ( ! row.contains(v) )
+                return -1;
+        }
+        Object hash = hash(joinKey, row);
+        if ( hash == noKeyHash )
+            return -1;
+        return (int)Math.floorMod((Long)hash, (long)numPartitions);
+    }
+}
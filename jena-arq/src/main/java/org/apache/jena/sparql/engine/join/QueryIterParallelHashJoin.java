@@ -0,0 +1,279 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.sparql.engine.join;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.query.QueryCancelledException;
+import org.apache.jena.sparql.algebra.Algebra;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.ExecutionContext;
+import org.apache.jena.sparql.engine.QueryIterator;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.engine.iterator.QueryIter2;
+import org.apache.jena.sparql.engine.iterator.QueryIterNullIterator;
+import org.apache.jena.sparql.engine.iterator.QueryIterPeek;
+
+/** Hash join using several threads.
+ * <p>
+ * The left is materialized, as for {@link QueryIterHashJoin}, into a number of
+ * {@link MultiHashProbeTable} partitions by the hash of the {@link JoinKey}, and the
+ * partitions are built in parallel. Rows that do not bind every join key variable
+ * go into a separate table that every lookup uses.
+ * <p>
+ * The right is read in chunks. The rows of a chunk are split by partition (a row
+ * that does not bind every join key variable goes to every partition) and each
+ * partition probes its rows in its own task, so a probe table is only used by one
+ * thread at a time. Tasks run in the common {@link ForkJoinPool}.
+ * <p>
+ * The results of a chunk are in partition order, not in the order of the right.
+ * <p>
+ * Rows from both sides are copied on the calling thread before other threads see
+ * them. A binding may read its storage when a value is needed (e.g. TDB2), and that
+ * is only possible on the thread of the transaction.
+ *
+ * @see org.apache.jena.query.ARQ#parallelHashJoin
+ */
+public class QueryIterParallelHashJoin extends QueryIter2 {
+    // Number of rows from the right probed together.
+    private static final int ChunkSize = 1024;
+
+    /**
+     * Create a parallel hash join QueryIterator.
+     * @param joinKey  Join key - if null, one is guessed by snooping the input QueryIterators
+     * @param left
+     * @param right
+     * @param partitions Number of partitions of the hash table.
+     * @param execCxt
+     * @return QueryIterator
+     */
+    public static QueryIterator create(JoinKey joinKey, QueryIterator left, QueryIterator right, int partitions, ExecutionContext execCxt) {
+        // Easy cases.
+        if ( ! left.hasNext() || ! right.hasNext() ) {
+            left.close() ;
+            right.close() ;
+            return QueryIterNullIterator.create(execCxt) ;
+        }
+        return new QueryIterParallelHashJoin(joinKey, left, right, partitions, execCxt) ;
+    }
+
+    private final int numPartitions;
+    private final AtomicBoolean signalCancel;
+    private JoinKey joinKey;
+    private QueryIterator iterStream;
+    // Null until the first call of hasNextBinding.
+    private MultiHashProbeTable[] partitions = null;
+    // Left rows that do not bind all the join key variables.
+    private MultiHashProbeTable unkeyed = null;
+    private boolean hasUnkeyed = false;
+    private Iterator<Binding> iterCurrent = Iter.nullIterator();
+
+    private QueryIterParallelHashJoin(JoinKey joinKey, QueryIterator left, QueryIterator right, int partitions, ExecutionContext execCxt) {
+        super(left, right, execCxt);
+        if ( partitions <= 0 )
+            throw new IllegalArgumentException("Number of partitions must be positive: " + partitions);
+        this.numPartitions = partitions;
+        this.joinKey = joinKey;
+        this.iterStream = right;
+        this.signalCancel = execCxt.getCancelSignal();
+    }
+
+    @Override
+    protected boolean hasNextBinding() {
+        if ( isFinished() )
+            return false;
+        if ( partitions == null )
+            build();
+        while ( ! iterCurrent.hasNext() ) {
+            if ( ! iterStream.hasNext() )
+                return false;
+            iterCurrent = probeChunk();
+        }
+        return true;
+    }
+
+    @Override
+    protected Binding moveToNextBinding() {
+        return iterCurrent.next();
+    }
+
+    private void build() {
+        QueryIterator probeIter = getLeft();
+        try {
+            if ( joinKey == null ) {
+                // As AbstractIterHashJoin: the common variables of the first binding of each side.
+                ExecutionContext execCxt = getExecContext();
+                QueryIterPeek pProbe = QueryIterPeek.create(probeIter, execCxt);
+                probeIter = pProbe;
+                QueryIterPeek pStream = QueryIterPeek.create(iterStream, execCxt);
+                iterStream = pStream;
+                List<Var> varsLeft = Iter.toList(pProbe.peek().vars());
+                List<Var> varsRight = Iter.toList(pStream.peek().vars());
+                joinKey = JoinKey.create(varsLeft, varsRight);
+            }
+
+            List<List<Binding>> rows = new ArrayList<>(numPartitions);
+            for ( int i = 0 ; i < numPartitions ; i++ )
+                rows.add(new ArrayList<>());
+            List<Binding> unkeyedRows = new ArrayList<>();
+            long count = 0;
+            while ( probeIter.hasNext() ) {
+                Binding row = BindingFactory.copy(probeIter.next());
+                int idx = partition(row);
+                if ( idx < 0 )
+                    unkeyedRows.add(row);
+                else
+                    rows.get(idx).add(row);
+                if ( ++count % ChunkSize == 0 )
+                    checkCancelled();
+            }
+
+            partitions = new MultiHashProbeTable[numPartitions];
+            List<Callable<Void>> tasks = new ArrayList<>(numPartitions);
+            for ( int i = 0 ; i < numPartitions ; i++ ) {
+                int idx = i;
+                tasks.add(() -> {
+                    partitions[idx] = buildTable(rows.get(idx));
+                    return null;
+                });
+            }
+            invokeAll(tasks);
+            unkeyed = buildTable(unkeyedRows);
+            hasUnkeyed = ! unkeyedRows.isEmpty();
+        } finally {
+            probeIter.close();
+        }
+    }
+
+    private MultiHashProbeTable buildTable(List<Binding> rows) {
+        MultiHashProbeTable table = new MultiHashProbeTable(null, joinKey);
+        for ( Binding row : rows )
+            table.put(row);
+        return table;
+    }
+
+    /** The partition for a row, or -1 if the row does not bind every join key variable. */
+    private int partition(Binding row) {
+        return JoinLib.partition(joinKey, numPartitions, row);
+    }
+
+    private Iterator<Binding> probeChunk() {
+        List<List<Binding>> rows = new ArrayList<>(numPartitions);
+        for ( int i = 0 ; i < numPartitions ; i++ )
+            rows.add(new ArrayList<>());
+        List<Binding> chunk = new ArrayList<>(ChunkSize);
+        while ( chunk.size() < ChunkSize && iterStream.hasNext() ) {
+            Binding row = BindingFactory.copy(iterStream.next());
+            chunk.add(row);
+            int idx = partition(row);
+            if ( idx >= 0 )
+                rows.get(idx).add(row);
+            else {
+                for ( List<Binding> x : rows )
+                    x.add(row);
+            }
+        }
+        checkCancelled();
+
+        List<Callable<List<Binding>>> tasks = new ArrayList<>(numPartitions+1);
+        for ( int i = 0 ; i < numPartitions ; i++ ) {
+            List<Binding> x = rows.get(i);
+            if ( ! x.isEmpty() ) {
+                MultiHashProbeTable table = partitions[i];
+                tasks.add(() -> probe(table, x));
+            }
+        }
+        if ( hasUnkeyed )
+            tasks.add(() -> probe(unkeyed, chunk));
+        List<List<Binding>> results = invokeAll(tasks);
+        return Iter.flatMap(results.iterator(), List::iterator);
+    }
+
+    private static List<Binding> probe(MultiHashProbeTable table, List<Binding> rows) {
+        List<Binding> results = new ArrayList<>();
+        for ( Binding rowStream : rows ) {
+            Iterator<Binding> iter = table.getCandidates(rowStream);
+            while ( iter.hasNext() ) {
+                Binding r = Algebra.merge(iter.next(), rowStream);
+                if ( r != null )
+                    results.add(r);
+            }
+        }
+        return results;
+    }
+
+    private static <X> List<X> invokeAll(List<Callable<X>> tasks) {
+        List<Future<X>> futures = ForkJoinPool.commonPool().invokeAll(tasks);
+        List<X> results = new ArrayList<>(futures.size());
+        try {
+            for ( Future<X> f : futures )
+                results.add(f.get());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new QueryCancelledException();
+        } catch (ExecutionException ex) {
+            if ( ex.getCause() instanceof RuntimeException rex )
+                throw rex;
+            if ( ex.getCause() instanceof Error err )
+                throw err;
+            throw new RuntimeException(ex.getCause());
+        }
+        return results;
+    }
+
+    private void checkCancelled() {
+        if ( signalCancel != null && signalCancel.get() ) {
+            this.cancel();
+            throw new QueryCancelledException();
+        }
+    }
+
+    @Override
+    protected void closeSubIterator() {
+        // In case it's a peek iterator.
+        iterStream.close();
+        if ( partitions != null ) {
+            for ( MultiHashProbeTable table : partitions ) {
+                if ( table != null )
+                    table.clear();
+            }
+            partitions = null;
+        }
+        if ( unkeyed != null ) {
+            unkeyed.clear();
+            unkeyed = null;
+        }
+        iterCurrent = Iter.nullIterator();
+    }
+
+    @Override
+    protected void requestSubCancel() {}
+}
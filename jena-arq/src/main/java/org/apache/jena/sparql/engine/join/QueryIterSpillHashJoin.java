@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.sparql.engine.join;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.query.QueryCancelledException;
+import org.apache.jena.sparql.algebra.Algebra;
+import org.apache.jena.sparql.engine.ExecutionContext;
+import org.apache.jena.sparql.engine.QueryIterator;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.iterator.QueryIter2;
+import org.apache.jena.sparql.engine.iterator.QueryIterNullIterator;
+import org.apache.jena.sparql.engine.iterator.QueryIterPeek;
+import org.apache.jena.sparql.engine.iterator.QueryIterPlainWrapper;
+
+/**
+ * Hash join for when the left side may be too large to keep in memory.
+ * <p>
+ * {@link #create} reads the left side up to the spill threshold. If that is all of
+ * the left side, the join is a {@link QueryIterHashJoin}. Otherwise both sides are
+ * written to {@link SpillPartitions} by the hash of the {@link JoinKey}, and the
+ * partitions are joined one at a time, with a {@link MultiHashProbeTable} for one
+ * left partition in memory at a time ("grace hash join").
+ * <p>
+ * Rows that do not bind every join key variable can join with rows in any partition:
+ * right rows of this kind are probed against every left partition, and left rows of
+ * this kind are put in one probe table that every right row is probed against.
+ * <p>
+ * The results are in partition order, not in the order of the right.
+ *
+ * @see org.apache.jena.query.ARQ#spillToDiskThreshold
+ */
+public class QueryIterSpillHashJoin extends QueryIter2 {
+    // Check for cancellation every this many rows when partitioning.
+    private static final int CancelCheck = 1024;
+
+    /**
+     * Create a hash join QueryIterator that spills to disk.
+     * @param joinKey  Join key - if null, one is guessed by snooping the input QueryIterators
+     * @param left
+     * @param right
+     * @param threshold Number of rows of the left side to keep in memory.
+     * @param execCxt
+     * @return QueryIterator
+     */
+    public static QueryIterator create(JoinKey joinKey, QueryIterator left, QueryIterator right, long threshold, ExecutionContext execCxt) {
+        List<Binding> rows = new ArrayList<>();
+        while ( rows.size() <= threshold && left.hasNext() )
+            rows.add(left.next());
+        if ( ! left.hasNext() ) {
+            left.close();
+            QueryIterator leftRows = QueryIterPlainWrapper.create(rows.iterator(), execCxt);
+            return QueryIterHashJoin.create(joinKey, leftRows, right, execCxt);
+        }
+        if ( ! right.hasNext() ) {
+            left.close();
+            right.close();
+            return QueryIterNullIterator.create(execCxt);
+        }
+        if ( joinKey == null ) {
+            // As AbstractIterHashJoin: the common variables of the first binding of each side.
+            QueryIterPeek pStream = QueryIterPeek.create(right, execCxt);
+            right = pStream;
+            joinKey = JoinKey.create(Iter.toList(rows.get(0).vars()), Iter.toList(pStream.peek().vars()));
+        }
+        return new QueryIterSpillHashJoin(joinKey, rows, left, right, threshold, execCxt);
+    }
+
+    private final JoinKey joinKey;
+    private final long threshold;
+    private final AtomicBoolean signalCancel;
+    private List<Binding> leftRows;
+    private SpillPartitions leftPartitions = null;
+    private SpillPartitions rightPartitions = null;
+    // Null until the first call of hasNextBinding.
+    private Iterator<Binding> results = null;
+
+    private QueryIterSpillHashJoin(JoinKey joinKey, List<Binding> leftRows, QueryIterator left, QueryIterator right,
+                                   long threshold, ExecutionContext execCxt) {
+        super(left, right, execCxt);
+        this.joinKey = joinKey;
+        this.leftRows = leftRows;
+        this.threshold = threshold;
+        this.signalCancel = execCxt.getCancelSignal();
+    }
+
+    @Override
+    protected boolean hasNextBinding() {
+        if ( isFinished() )
+            return false;
+        if ( results == null )
+            results = partitionAndJoin();
+        return results.hasNext();
+    }
+
+    @Override
+    protected Binding moveToNextBinding() {
+        return results.next();
+    }
+
+    private Iterator<Binding> partitionAndJoin() {
+        int numPartitions = SpillPartitions.DefaultPartitions;
+        leftPartitions = new SpillPartitions(joinKey, numPartitions, threshold);
+        long count = 0;
+        for ( Binding row : leftRows ) {
+            leftPartitions.add(row);
+            if ( ++count % CancelCheck == 0 )
+                checkCancelled();
+        }
+        leftRows = null;
+        count = partition(getLeft(), leftPartitions, count);
+        rightPartitions = new SpillPartitions(joinKey, numPartitions, threshold);
+        partition(getRight(), rightPartitions, count);
+
+        // Partitions 0 to N-1, then the left rows that do not bind all the join key variables.
+        return Iter.flatMap(IntStream.rangeClosed(0, numPartitions).iterator(), this::joinPartition);
+    }
+
+    private long partition(QueryIterator input, SpillPartitions partitions, long count) {
+        try {
+            while ( input.hasNext() ) {
+                partitions.add(input.next());
+                if ( ++count % CancelCheck == 0 )
+                    checkCancelled();
+            }
+        } finally {
+            input.close();
+        }
+        return count;
+    }
+
+    private Iterator<Binding> joinPartition(int idx) {
+        checkCancelled();
+        if ( idx < leftPartitions.size() ) {
+            MultiHashProbeTable table = buildTable(leftPartitions.partition(idx));
+            if ( table == null )
+                return Iter.nullIterator();
+            Iterator<Binding> stream = rightPartitions.partition(idx);
+            if ( rightPartitions.hasUnkeyed() )
+                stream = Iter.concat(stream, rightPartitions.unkeyed());
+            return probe(table, stream);
+        }
+        if ( ! leftPartitions.hasUnkeyed() )
+            return Iter.nullIterator();
+        MultiHashProbeTable table = buildTable(leftPartitions.unkeyed());
+        Iterator<Binding> stream = Iter.flatMap(IntStream.range(0, rightPartitions.size()).iterator(), rightPartitions::partition);
+        if ( rightPartitions.hasUnkeyed() )
+            stream = Iter.concat(stream, rightPartitions.unkeyed());
+        return probe(table, stream);
+    }
+
+    // Return null for no rows.
+    private MultiHashProbeTable buildTable(Iterator<Binding> rows) {
+        if ( ! rows.hasNext() )
+            return null;
+        MultiHashProbeTable table = new MultiHashProbeTable(null, joinKey);
+        rows.forEachRemaining(table::put);
+        return table;
+    }
+
+    private static Iterator<Binding> probe(MultiHashProbeTable table, Iterator<Binding> stream) {
+        return Iter.flatMap(stream, rowStream -> {
+            Iterator<Binding> iter = Iter.map(table.getCandidates(rowStream), rowLeft -> Algebra.merge(rowLeft, rowStream));
+            return Iter.filter(iter, Objects::nonNull);
+        });
+    }
+
+    private void checkCancelled() {
+        if ( signalCancel != null && signalCancel.get() ) {
+            this.cancel();
+            throw new QueryCancelledException();
+        }
+    }
+
+    @Override
+    protected void closeSubIterator() {
+        if ( leftPartitions != null ) {
+            leftPartitions.close();
+            leftPartitions = null;
+        }
+        if ( rightPartitions != null ) {
+            rightPartitions.close();
+            rightPartitions = null;
+        }
+        leftRows = null;
+        results = null;
+    }
+
+    @Override
+    protected void requestSubCancel() {}
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.sparql.engine.join;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.sparql.ARQConstants;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.ExecutionContext;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.util.Context;
+import org.apache.jena.sparql.util.Symbol;
+import org.apache.jena.sparql.util.VarUtils;
+
+/**
+ * The values of the join variables from the build side of a hash join, for removing
+ * rows of the other side that can not join while that side is being evaluated.
+ * <p>
+ * A variable is used only if it is bound in every row of the build side, otherwise
+ * the rows where it is unbound join with any value. A binding passes the filter if,
+ * for each variable, it is unbound or bound to one of the values.
+ * <p>
+ * The filter is passed to basic graph pattern matching in the {@link Context} of the
+ * {@link ExecutionContext} (see {@link #execCxt}); pattern matching applies it after
+ * the first triple pattern that binds one of the variables.
+ */
+public class SemiJoinFilter implements Predicate<Binding> {
+
+    private static final Symbol symSemiJoinFilter = Symbol.create(ARQConstants.systemVarNS+"semiJoinFilter");
+
+    private final Map<Var, Set<Node>> keys;
+
+    /**
+     * Create a filter from the rows of the build side of a join.
+     * Variables with more than {@code maxKeys} values are not used.
+     * Return null if there is no variable to filter on.
+     */
+    public static SemiJoinFilter create(List<Binding> rows, Collection<Var> vars, int maxKeys) {
+        Map<Var, Set<Node>> keys = new LinkedHashMap<>();
+        for ( Var var : vars )
+            keys.put(var, new HashSet<>());
+        for ( Binding row : rows ) {
+            Iterator<Map.Entry<Var, Set<Node>>> iter = keys.entrySet().iterator();
+            while ( iter.hasNext() ) {
+                Map.Entry<Var, Set<Node>> e = iter.next();
+                Node value = row.get(e.getKey());
+                if ( value == null ) {
+                    iter.remove();
+                    continue;
+                }
+                Set<Node> values = e.getValue();
+                values.add(value);
+                if ( values.size() > maxKeys )
+                    iter.remove();
+            }
+            if ( keys.isEmpty() )
+                return null;
+        }
+        if ( keys.isEmpty() )
+            return null;
+        return new SemiJoinFilter(keys);
+    }
+
+    private SemiJoinFilter(Map<Var, Set<Node>> keys) {
+        this.keys = keys;
+    }
+
+    /** The variables filtered on. */
+    public Set<Var> vars() {
+        return Collections.unmodifiableSet(keys.keySet());
+    }
+
+    /** The values for a variable. */
+    public Set<Node> values(Var var) {
+        return Collections.unmodifiableSet(keys.get(var));
+    }
+
+    @Override
+    public boolean test(Binding binding) {
+        for ( Map.Entry<Var, Set<Node>> e : keys.entrySet() ) {
+            Node value = binding.get(e.getKey());
+            if ( value != null && ! e.getValue().contains(value) )
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Add a filter to a chain of partial solutions after the step that matches
+     * {@code triple} if it is the first step to bind one of the variables.
+     * {@code bound} is the variables bound by earlier steps and is updated.
+     */
+    public <X> Iterator<X> filterAfter(Iterator<X> chain, Set<Var> bound, Triple triple, Predicate<X> filter) {
+        Set<Var> before = Set.copyOf(bound);
+        VarUtils.addVarsFromTriple(bound, triple);
+        for ( Var var : keys.keySet() ) {
+            if ( ! before.contains(var) && bound.contains(var) )
+                return Iter.filter(chain, filter);
+        }
+        return chain;
+    }
+
+    /**
+     * Return an {@link ExecutionContext} for evaluating the other side of the join,
+     * with the filter in its context.
+     */
+    public ExecutionContext execCxt(ExecutionContext execCxt) {
+        Context cxt = execCxt.getContext().copy();
+        cxt.set(symSemiJoinFilter, this);
+        return ExecutionContext.copyChangeContext(execCxt, cxt);
+    }
+
+    /** The filter for the current evaluation, or null. */
+    public static SemiJoinFilter get(ExecutionContext execCxt) {
+        if ( execCxt == null )
+            return null;
+        return execCxt.getContext().get(symSemiJoinFilter);
+    }
+}
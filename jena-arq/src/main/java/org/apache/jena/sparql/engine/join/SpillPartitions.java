@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.sparql.engine.join;
+
+import java.util.Iterator;
+
+import org.apache.jena.atlas.data.BagFactory;
+import org.apache.jena.atlas.data.DataBag;
+import org.apache.jena.atlas.data.ThresholdPolicy;
+import org.apache.jena.atlas.data.ThresholdPolicyFactory;
+import org.apache.jena.atlas.lib.Closeable;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.system.SerializationFactoryFinder;
+
+/**
+ * Rows partitioned by the hash of the values of the {@link JoinKey} variables into
+ * {@link DataBag DataBags} that spill to disk, for joins and MINUS on inputs too
+ * large to keep in memory ("grace hash join"). Rows that do not bind every key
+ * variable go into a separate bag.
+ * <p>
+ * Two rows that bind every key variable and are compatible are in the same partition.
+ */
+public class SpillPartitions implements Closeable {
+    /** Number of partitions used by the spilling hash join and MINUS. */
+    public static final int DefaultPartitions = 32;
+
+    private final JoinKey joinKey;
+    private final DataBag<Binding>[] partitions;
+    private final DataBag<Binding> unkeyed;
+    private long unkeyedCount = 0;
+
+    /**
+     * Partitions for rows. The threshold is the number of rows kept in memory,
+     * across all the partitions, before spilling to disk.
+     */
+    public SpillPartitions(JoinKey joinKey, int numPartitions, long threshold) {
+        this.joinKey = joinKey;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        DataBag<Binding>[] bags = new DataBag[numPartitions];
+        for ( int i = 0 ; i < numPartitions ; i++ )
+            bags[i] = newBag(Math.max(1, threshold / numPartitions));
+        this.partitions = bags;
+        this.unkeyed = newBag(Math.max(1, threshold / numPartitions));
+    }
+
+    /** A bag of rows that spills to disk after {@code threshold} rows. */
+    public static DataBag<Binding> newBag(long threshold) {
+        ThresholdPolicy<Binding> policy = ThresholdPolicyFactory.count(threshold);
+        return BagFactory.newDefaultBag(policy, SerializationFactoryFinder.bindingSerializationFactory());
+    }
+
+    /** Add a row. */
+    public void add(Binding row) {
+        int idx = JoinLib.partition(joinKey, partitions.length, row);
+        if ( idx < 0 ) {
+            unkeyed.add(row);
+            unkeyedCount++;
+        } else
+            partitions[idx].add(row);
+    }
+
+    /** Number of partitions. */
+    public int size() {
+        return partitions.length;
+    }
+
+    /** The rows of a partition. No more rows can be added after this is called. */
+    public Iterator<Binding> partition(int idx) {
+        return partitions[idx].iterator();
+    }
+
+    /** Whether there are rows that do not bind every key variable. */
+    public boolean hasUnkeyed() {
+        return unkeyedCount > 0;
+    }
+
+    /** The rows that do not bind every key variable. No more rows can be added after this is called. */
+    public Iterator<Binding> unkeyed() {
+        return unkeyed.iterator();
+    }
+
+    /** Release the bags and delete any temporary files. */
+    @Override
+    public void close() {
+        for ( DataBag<Binding> bag : partitions )
+            bag.close();
+        unkeyed.close();
+    }
+}
@@ -43,6 +43,7 @@ import org.apache.jena.sparql.engine.QueryIterator;
 import org.apache.jena.sparql.engine.binding.Binding;
 import org.apache.jena.sparql.engine.iterator.*;
 import org.apache.jena.sparql.engine.join.Join;
+import org.apache.jena.sparql.engine.join.SemiJoinFilter;
 import org.apache.jena.sparql.engine.main.iterator.QueryIterGraph;
 import org.apache.jena.sparql.engine.main.iterator.QueryIterOptionalIndex;
 import org.apache.jena.sparql.engine.main.iterator.QueryIterUnion;
@@ -115,7 +116,9 @@ public class OpExecutor {
     // ---- The recursive step.
     protected QueryIterator exec(Op op, QueryIterator input) {
         level++;
-        QueryIterator qIter = dispatcher.exec(op, input);
+        QueryIterator qIter = SharedScans.isShareable(op, input, execCxt)
+            ? SharedScans.get().execute(op, input, execCxt, ()->dispatcher.exec(op, input))
+            : dispatcher.exec(op, input);
         // Intentionally not try/finally so exceptions leave some evidence
         // around.
         level--;
@@ -214,12 +217,31 @@ public class OpExecutor {
             return qIter;
         }
         QueryIterator left = exec(opJoin.getLeft(), input);
+        int maxKeys = execCxt.getContext().getInt(ARQ.semiJoinFilter, 0);
+        if ( maxKeys > 0 && ( opJoin.getRight() instanceof OpBGP || opJoin.getRight() instanceof OpQuadPattern ) )
+            return semiJoin(left, opJoin.getRight(), maxKeys);
         QueryIterator right = exec(opJoin.getRight(), root());
         // Join key.
         QueryIterator qIter = Join.join(left, right, execCxt);
         return qIter;
     }
 
+    // Join where the values of the join variables from the left side are used to
+    // remove rows while the right side pattern is being matched.
+    private QueryIterator semiJoin(QueryIterator left, Op opRight, int maxKeys) {
+        List<Binding> rows = all(left);
+        left.close();
+        QueryIterator leftRows = QueryIterPlainWrapper.create(rows.iterator(), execCxt);
+        if ( rows.isEmpty() )
+            return leftRows;
+        SemiJoinFilter filter = SemiJoinFilter.create(rows, OpVars.visibleVars(opRight), maxKeys);
+        if ( filter == null )
+            return Join.join(leftRows, exec(opRight, root()), execCxt);
+        ExecutionContext execCxtRight = filter.execCxt(execCxt);
+        QueryIterator right = QC.execute(opRight, createRootQueryIterator(execCxtRight), execCxtRight);
+        return Join.join(leftRows, right, execCxt);
+    }
+
     // Pass iterator from one step directly into the next.
     protected QueryIterator execute(OpSequence opSequence, QueryIterator input) {
         QueryIterator qIter = input;
@@ -313,8 +335,13 @@ public class OpExecutor {
         Op base = opFilter.getSubOp();
         QueryIterator qIter = exec(base, input);
 
-        for ( Expr expr : exprs )
-            qIter = new QueryIterFilterExpr(qIter, expr, execCxt);
+        int batchSize = batchSize();
+        for ( Expr expr : exprs ) {
+            if ( batchSize > 0 )
+                qIter = QueryIterBatch.create(qIter, QueryIterBatch.filter(expr), batchSize, execCxt);
+            else
+                qIter = new QueryIterFilterExpr(qIter, expr, execCxt);
+        }
         return qIter;
     }
 
@@ -402,6 +429,9 @@ public class OpExecutor {
 
         if ( input instanceof QueryIterRoot ) {
             QueryIterator qIter = exec(opProject.getSubOp(), input);
+            int batchSize = batchSize();
+            if ( batchSize > 0 )
+                return QueryIterBatch.create(qIter, QueryIterBatch.project(opProject.getVars()), batchSize, execCxt);
             qIter = QueryIterProject.create(qIter, opProject.getVars(), execCxt);
             return qIter;
         }
@@ -448,6 +478,9 @@ public class OpExecutor {
 
     protected QueryIterator execute(OpAssign opAssign, QueryIterator input) {
         QueryIterator qIter = exec(opAssign.getSubOp(), input);
+        int batchSize = batchSize();
+        if ( batchSize > 0 )
+            return QueryIterBatch.create(qIter, QueryIterBatch.assign(opAssign.getVarExprList()), batchSize, execCxt);
         qIter = new QueryIterAssign(qIter, opAssign.getVarExprList(), execCxt, false);
         return qIter;
     }
@@ -457,10 +490,18 @@ public class OpExecutor {
         // the query so we can use QueryIterAssign knowing that it behaves
         // the same as extend. The boolean should only be a check.
         QueryIterator qIter = exec(opExtend.getSubOp(), input);
+        int batchSize = batchSize();
+        if ( batchSize > 0 )
+            return QueryIterBatch.create(qIter, QueryIterBatch.assign(opExtend.getVarExprList()), batchSize, execCxt);
         qIter = new QueryIterAssign(qIter, opExtend.getVarExprList(), execCxt, true);
         return qIter;
     }
 
+    /** Batch size for FILTER, BIND, LET and projection steps: 0 for one binding at a time. */
+    protected int batchSize() {
+        return execCxt.getContext().getInt(ARQ.executionBatchSize, 0);
+    }
+
     protected QueryIterator execute(OpUnfold opUnfold, QueryIterator input) {
         QueryIterator qIter = exec(opUnfold.getSubOp(), input);
         qIter = new QueryIterUnfold(qIter, opUnfold.getExpr(), opUnfold.getVar1(), opUnfold.getVar2(), execCxt);
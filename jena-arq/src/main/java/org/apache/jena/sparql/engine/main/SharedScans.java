@@ -0,0 +1,306 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.sparql.engine.main;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.query.ARQ;
+import org.apache.jena.query.QueryCancelledException;
+import org.apache.jena.sparql.ARQConstants;
+import org.apache.jena.sparql.algebra.Op;
+import org.apache.jena.sparql.algebra.op.OpBGP;
+import org.apache.jena.sparql.algebra.op.OpQuadPattern;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.GraphView;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.engine.ExecutionContext;
+import org.apache.jena.sparql.engine.QueryIterator;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.engine.iterator.QueryIter;
+import org.apache.jena.sparql.engine.join.SemiJoinFilter;
+
+/**
+ * Sharing the evaluation of basic graph patterns between queries running at the
+ * same time.
+ * <p>
+ * When {@link ARQ#sharedScans} is set, a basic graph pattern or quad pattern that is
+ * evaluated with no input bindings is registered while it is being evaluated. A query
+ * that evaluates the same pattern, on the same dataset and the same version of the
+ * data, waits for that evaluation and uses its results instead of scanning the
+ * indexes itself.
+ * <p>
+ * Queries only share evaluations when the storage sets
+ * {@link ARQConstants#sysDataVersion} for the execution to say which version of the
+ * data the query sees, as TDB2 does for read transactions.
+ * <p>
+ * The query that is evaluating the pattern gets each row as it is produced, and a
+ * copy of the row is kept in memory for the waiting queries, up to the number of rows
+ * given by {@link ARQ#sharedScans}. If there are more rows, or the evaluating query
+ * does not read all the rows, the waiting queries evaluate the pattern themselves.
+ * <p>
+ * A query evaluates the pattern itself if the other evaluation has not started when
+ * it needs the results, or if it is itself evaluating a pattern for other queries, so
+ * that two queries never wait for each other.
+ */
+public class SharedScans {
+    private static final SharedScans global = new SharedScans();
+
+    /** The registry of evaluations in progress. */
+    public static SharedScans get() { return global; }
+
+    // How often to check for cancellation while waiting.
+    private static final long WaitMillis = 100;
+
+    private record Key(DatasetGraph dataset, Object dataVersion, Object activeGraph, Op op, boolean hideBNodeVars) {}
+
+    private static class Scan {
+        final Thread thread = Thread.currentThread();
+        final CompletableFuture<List<Binding>> results = new CompletableFuture<>();
+        volatile boolean started = false;
+    }
+
+    private final Map<Key, Scan> scans = new ConcurrentHashMap<>();
+
+    /** Whether an evaluation of {@code op} on {@code input} may be shared. */
+    public static boolean isShareable(Op op, QueryIterator input, ExecutionContext execCxt) {
+        if ( execCxt.getContext().getLong(ARQ.sharedScans, 0) <= 0 )
+            return false;
+        if ( execCxt.getContext().get(ARQConstants.sysDataVersion) == null )
+            return false;
+        if ( ! ( op instanceof OpBGP ) && ! ( op instanceof OpQuadPattern ) )
+            return false;
+        if ( ! input.isJoinIdentity() )
+            return false;
+        // Pattern matching restricted by rows from another part of the query.
+        return SemiJoinFilter.get(execCxt) == null;
+    }
+
+    /**
+     * Evaluate {@code op}, or use the results of an evaluation of the same pattern
+     * in progress in another query.
+     * @param op        The pattern
+     * @param input     The input : must be the join identity.
+     * @param execCxt   ExecutionContext
+     * @param evaluate  Evaluate {@code op} on {@code input} in this query.
+     * @return QueryIterator
+     */
+    public QueryIterator execute(Op op, QueryIterator input, ExecutionContext execCxt, Supplier<QueryIterator> evaluate) {
+        Object dataVersion = execCxt.getContext().get(ARQConstants.sysDataVersion);
+        boolean hideBNodeVars = execCxt.getContext().isTrue(ARQ.hideNonDistiguishedVariables);
+        Key key = new Key(execCxt.getDataset(), dataVersion, graphKey(op, execCxt), op, hideBNodeVars);
+        Scan scan = new Scan();
+        Scan existing = scans.putIfAbsent(key, scan);
+        if ( existing == null ) {
+            long limit = execCxt.getContext().getLong(ARQ.sharedScans, 0);
+            return new QueryIterScan(key, scan, limit, evaluate, execCxt);
+        }
+        // The same query evaluates the same pattern twice.
+        if ( existing.thread == Thread.currentThread() )
+            return evaluate.get();
+        return new QueryIterShared(existing, input, evaluate, execCxt);
+    }
+
+    // The graph that a basic graph pattern is matched against. A graph that is a view
+    // of the dataset may be a different object in each query.
+    private static Object graphKey(Op op, ExecutionContext execCxt) {
+        if ( ! ( op instanceof OpBGP ) )
+            return null;
+        Graph graph = execCxt.getActiveGraph();
+        if ( graph instanceof GraphView view && view.getDataset() == execCxt.getDataset() )
+            return ( view.getGraphName() == null ) ? Quad.defaultGraphIRI : view.getGraphName();
+        return graph;
+    }
+
+    /** Number of evaluations in progress that can be shared. */
+    public int size() {
+        return scans.size();
+    }
+
+    // Whether the thread is evaluating a pattern that other queries may wait for.
+    private boolean isScanning(Thread thread) {
+        for ( Scan scan : scans.values() ) {
+            if ( scan.thread == thread )
+                return true;
+        }
+        return false;
+    }
+
+    private void finish(Key key, Scan scan, List<Binding> rows) {
+        scans.remove(key, scan);
+        scan.results.complete(rows);
+    }
+
+    /** The evaluation of a pattern, making the results available to other queries. */
+    private class QueryIterScan extends QueryIter {
+        private final Key key;
+        private final Scan scan;
+        private final long limit;
+        private final Supplier<QueryIterator> evaluate;
+        private QueryIterator qIter = null;
+        // The rows to share, or null when finished.
+        private List<Binding> rows = new ArrayList<>();
+
+        QueryIterScan(Key key, Scan scan, long limit, Supplier<QueryIterator> evaluate, ExecutionContext execCxt) {
+            super(execCxt);
+            this.key = key;
+            this.scan = scan;
+            this.limit = limit;
+            this.evaluate = evaluate;
+        }
+
+        @Override
+        protected boolean hasNextBinding() {
+            try {
+                if ( qIter == null ) {
+                    scan.started = true;
+                    qIter = evaluate.get();
+                }
+                if ( qIter.hasNext() )
+                    return true;
+            } catch (RuntimeException ex) {
+                giveUp();
+                throw ex;
+            }
+            if ( rows != null ) {
+                finish(key, scan, rows);
+                rows = null;
+            }
+            return false;
+        }
+
+        @Override
+        protected Binding moveToNextBinding() {
+            Binding binding = qIter.next();
+            if ( rows != null ) {
+                if ( rows.size() < limit )
+                    rows.add(BindingFactory.copy(binding));
+                else
+                    // Too many rows to share.
+                    giveUp();
+            }
+            return binding;
+        }
+
+        private void giveUp() {
+            if ( rows != null ) {
+                finish(key, scan, null);
+                rows = null;
+            }
+        }
+
+        @Override
+        protected void closeIterator() {
+            // Not started, or not all rows read.
+            giveUp();
+            if ( qIter != null )
+                qIter.close();
+        }
+
+        @Override
+        protected void requestCancel() {
+            if ( qIter != null )
+                qIter.cancel();
+        }
+    }
+
+    /** Use the results of an evaluation in another query. */
+    private class QueryIterShared extends QueryIter {
+        private final Scan scan;
+        private final QueryIterator input;
+        private final Supplier<QueryIterator> evaluate;
+        private final AtomicBoolean signalCancel;
+        private QueryIterator qIter = null;
+        private Iterator<Binding> results = null;
+
+        QueryIterShared(Scan scan, QueryIterator input, Supplier<QueryIterator> evaluate, ExecutionContext execCxt) {
+            super(execCxt);
+            this.scan = scan;
+            this.input = input;
+            this.evaluate = evaluate;
+            this.signalCancel = execCxt.getCancelSignal();
+        }
+
+        @Override
+        protected boolean hasNextBinding() {
+            if ( results == null ) {
+                boolean wait = scan.started && ! isScanning(Thread.currentThread());
+                List<Binding> rows = wait ? await() : null;
+                if ( rows != null ) {
+                    input.close();
+                    results = rows.iterator();
+                } else {
+                    qIter = evaluate.get();
+                    results = qIter;
+                }
+            }
+            return results.hasNext();
+        }
+
+        // The shared results, or null if they are not available.
+        private List<Binding> await() {
+            for ( ;; ) {
+                try {
+                    return scan.results.get(WaitMillis, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException ex) {
+                    if ( signalCancel != null && signalCancel.get() )
+                        throw new QueryCancelledException();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new QueryCancelledException();
+                } catch (ExecutionException ex) {
+                    return null;
+                }
+            }
+        }
+
+        @Override
+        protected Binding moveToNextBinding() {
+            return results.next();
+        }
+
+        @Override
+        protected void closeIterator() {
+            if ( qIter != null )
+                qIter.close();
+            else
+                input.close();
+        }
+
+        @Override
+        protected void requestCancel() {
+            if ( qIter != null )
+                qIter.cancel();
+        }
+    }
+}
@@ -22,8 +22,10 @@
 package org.apache.jena.sparql.engine.main.solver;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Predicate;
 
 import org.apache.jena.graph.Graph;
@@ -32,11 +34,13 @@ import org.apache.jena.graph.Triple;
 import org.apache.jena.sparql.core.BasicPattern;
 import org.apache.jena.sparql.core.DatasetGraph;
 import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.core.Var;
 import org.apache.jena.sparql.engine.ExecutionContext;
 import org.apache.jena.sparql.engine.QueryIterator;
 import org.apache.jena.sparql.engine.binding.Binding;
 import org.apache.jena.sparql.engine.iterator.Abortable;
 import org.apache.jena.sparql.engine.iterator.QueryIterAbortable;
+import org.apache.jena.sparql.engine.join.SemiJoinFilter;
 
 /**
  * Match a graph node + basic graph pattern.
@@ -55,6 +59,8 @@ public class PatternMatchData {
 
         Iterator<Binding> chain = input;
         List<Abortable> killList = new ArrayList<>();
+        SemiJoinFilter semiJoin = SemiJoinFilter.get(execCxt);
+        Set<Var> bound = new HashSet<>();
 
         for ( Triple triple : triples ) {
             // Plain, no RDF triple terms.
@@ -62,6 +68,8 @@ public class PatternMatchData {
 
             // [Match] Missing filter.
             chain = SolverRX3.rdfStarTriple(chain, triple, execCxt);
+            if ( semiJoin != null )
+                chain = semiJoin.filterAfter(chain, bound, triple, semiJoin);
             chain = SolverLib.makeAbortable(chain, killList, execCxt.getCancelSignal());
         }
 
@@ -94,6 +102,8 @@ public class PatternMatchData {
 
         Iterator<Binding> chain = input;
         List<Abortable> killList = new ArrayList<>();
+        SemiJoinFilter semiJoin = SemiJoinFilter.get(execCxt);
+        Set<Var> bound = new HashSet<>();
 
         for ( Triple triple : triples ) {
             // Plain - no triple terms with variables.
@@ -101,6 +111,8 @@ public class PatternMatchData {
 
             // [Match] Missing filter.
             chain = SolverRX4.rdfStarQuad(chain, graphNode, triple, execCxt);
+            if ( semiJoin != null )
+                chain = semiJoin.filterAfter(chain, bound, triple, semiJoin);
             chain = SolverLib.makeAbortable(chain, killList, execCxt.getCancelSignal());
         }
 
@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.sparql.engine.optimizer;
+
+import java.util.*;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.Query;
+import org.apache.jena.sparql.algebra.Op;
+import org.apache.jena.sparql.algebra.OpVars;
+import org.apache.jena.sparql.algebra.op.*;
+import org.apache.jena.sparql.core.BasicPattern;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.util.VarUtils;
+
+/**
+ * Estimate the number of results of an algebra expression so that the parts of a
+ * join can be put in a good order.
+ * <p>
+ * Triple and quad patterns are estimated by counting their matches in the dataset,
+ * stopping at a limit. This uses the indexes of the storage so it is cheap for
+ * patterns with constants. Other operators combine the estimates of their
+ * sub-expressions.
+ * <p>
+ * The estimates are only for comparing alternatives; they are not accurate.
+ */
+public class CardinalityEstimator {
+    /** Default limit on the number of matches counted for one pattern. */
+    public static final long DefaultLimit = 10_000;
+
+    private final DatasetGraph dsg;
+    private final long limit;
+    private final Map<Object, Long> counts = new HashMap<>();
+
+    public CardinalityEstimator(DatasetGraph dsg) {
+        this(dsg, DefaultLimit);
+    }
+
+    public CardinalityEstimator(DatasetGraph dsg, long limit) {
+        this.dsg = Objects.requireNonNull(dsg);
+        this.limit = limit;
+    }
+
+    /** The estimate for an expression where nothing better is known. */
+    public double unknown() {
+        return limit;
+    }
+
+    /** Estimate the number of results of an algebra expression. */
+    public double estimate(Op op) {
+        if ( op instanceof OpBGP opBGP )
+            return estimate(null, opBGP.getPattern());
+        if ( op instanceof OpQuadPattern opQuadPattern )
+            return estimate(opQuadPattern.getGraphNode(), opQuadPattern.getBasicPattern());
+        if ( op instanceof OpTriple opTriple )
+            return count(null, opTriple.getTriple());
+        if ( op instanceof OpQuad opQuad )
+            return count(opQuad.getQuad().getGraph(), opQuad.getQuad().asTriple());
+        if ( op instanceof OpTable opTable )
+            return opTable.getTable().size();
+        if ( op instanceof OpNull )
+            return 0;
+        if ( op instanceof OpJoin opJoin )
+            return join(opJoin.getLeft(), opJoin.getRight());
+        if ( op instanceof OpSequence || op instanceof OpDisjunction || op instanceof OpUnion )
+            return estimateN(op);
+        if ( op instanceof OpLeftJoin opLeftJoin )
+            return Math.max(estimate(opLeftJoin.getLeft()), join(opLeftJoin.getLeft(), opLeftJoin.getRight()));
+        if ( op instanceof OpConditional opCondition )
+            return Math.max(estimate(opCondition.getLeft()), join(opCondition.getLeft(), opCondition.getRight()));
+        if ( op instanceof OpMinus opMinus )
+            return estimate(opMinus.getLeft());
+        if ( op instanceof OpSlice opSlice ) {
+            double x = estimate(opSlice.getSubOp());
+            if ( opSlice.getLength() != Query.NOLIMIT )
+                x = Math.min(x, opSlice.getLength());
+            return x;
+        }
+        if ( op instanceof OpGroup opGroup && opGroup.getGroupVars().isEmpty() )
+            return 1;
+        if ( op instanceof OpService || op instanceof OpPath || op instanceof OpPropFunc || op instanceof OpProcedure )
+            return unknown();
+        // Filters, projections, graph, modifiers: the sub-expression is an upper bound.
+        if ( op instanceof Op1 op1 )
+            return estimate(op1.getSubOp());
+        return unknown();
+    }
+
+    // OpSequence, OpDisjunction, OpUnion.
+    private double estimateN(Op op) {
+        if ( op instanceof OpUnion opUnion )
+            return estimate(opUnion.getLeft()) + estimate(opUnion.getRight());
+        if ( op instanceof OpDisjunction opDisjunction ) {
+            double x = 0;
+            for ( Op sub : opDisjunction.getElements() )
+                x += estimate(sub);
+            return x;
+        }
+        OpSequence opSequence = (OpSequence)op;
+        if ( opSequence.size() == 0 )
+            return 1;
+        Set<Var> vars = new HashSet<>();
+        double x = 1;
+        for ( Op sub : opSequence.getElements() ) {
+            Set<Var> subVars = OpVars.visibleVars(sub);
+            x = join(x, estimate(sub), ! vars.isEmpty() && ! Collections.disjoint(vars, subVars));
+            vars.addAll(subVars);
+        }
+        return x;
+    }
+
+    private double join(Op left, Op right) {
+        boolean shared = ! Collections.disjoint(OpVars.visibleVars(left), OpVars.visibleVars(right));
+        return join(estimate(left), estimate(right), shared);
+    }
+
+    /**
+     * Estimate of a join. When the two sides share variables, the smaller side bounds
+     * the result; otherwise the result is the cross product.
+     */
+    private static double join(double left, double right, boolean sharedVars) {
+        if ( sharedVars )
+            return Math.min(left, right);
+        return left * right;
+    }
+
+    /**
+     * Estimate a basic graph pattern by taking the triple patterns, most selective
+     * first, preferring ones that are connected to patterns already taken.
+     */
+    private double estimate(Node graphNode, BasicPattern pattern) {
+        List<Triple> remaining = new ArrayList<>(pattern.getList());
+        Set<Var> vars = new HashSet<>();
+        double result = 1;
+        double component = 1;
+        while ( ! remaining.isEmpty() ) {
+            Triple next = null;
+            boolean nextConnected = false;
+            long nextCount = 0;
+            for ( Triple triple : remaining ) {
+                long c = count(graphNode, triple);
+                boolean connected = connected(vars, triple);
+                if ( next == null || ( connected && ! nextConnected ) || ( connected == nextConnected && c < nextCount ) ) {
+                    next = triple;
+                    nextConnected = connected;
+                    nextCount = c;
+                }
+            }
+            remaining.remove(next);
+            if ( nextConnected )
+                component = Math.min(component, nextCount);
+            else {
+                result = result * component;
+                component = nextCount;
+            }
+            VarUtils.addVarsFromTriple(vars, next);
+        }
+        return result * component;
+    }
+
+    private static boolean connected(Set<Var> vars, Triple triple) {
+        return isVarIn(vars, triple.getSubject()) || isVarIn(vars, triple.getPredicate()) || isVarIn(vars, triple.getObject());
+    }
+
+    private static boolean isVarIn(Set<Var> vars, Node node) {
+        return Var.isVar(node) && vars.contains(Var.alloc(node));
+    }
+
+    /** Count the matches of a triple pattern, up to the limit. Results are cached. */
+    private long count(Node graphNode, Triple triple) {
+        Node g = ( graphNode == null ) ? null : anyIfVar(graphNode);
+        Node s = anyIfVar(triple.getSubject());
+        Node p = anyIfVar(triple.getPredicate());
+        Node o = anyIfVar(triple.getObject());
+        Object key = ( g == null ) ? Triple.create(s, p, o) : List.of(g, s, p, o);
+        Long x = counts.get(key);
+        if ( x == null ) {
+            Iterator<?> iter = ( g == null ) ? dsg.getDefaultGraph().find(s, p, o) : dsg.find(g, s, p, o);
+            long n = 0;
+            try {
+                while ( n < limit && iter.hasNext() ) {
+                    iter.next();
+                    n++;
+                }
+            } finally { Iter.close(iter); }
+            x = n;
+            counts.put(key, x);
+        }
+        return x;
+    }
+
+    private static Node anyIfVar(Node node) {
+        return Var.isVar(node) ? Node.ANY : node;
+    }
+}
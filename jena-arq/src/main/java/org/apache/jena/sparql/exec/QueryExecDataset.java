@@ -34,6 +34,7 @@ import org.apache.jena.atlas.logging.Log;
 import org.apache.jena.graph.Graph;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.Triple;
+import org.apache.jena.query.ARQ;
 import org.apache.jena.query.Query;
 import org.apache.jena.query.QueryCancelledException;
 import org.apache.jena.query.QueryExecException;
@@ -477,7 +478,7 @@ public class QueryExecDataset implements QueryExec
 
         if ( !isTimeoutSet(timeout1) && !isTimeoutSet(timeout2) ) {
             // Case -1,-1
-            queryIterator = getPlan().iterator();
+            queryIterator = planIterator();
             return;
         }
 
@@ -488,7 +489,7 @@ public class QueryExecDataset implements QueryExec
             // Case -1,N
             timeout2Alarm = alarmClock.add(callback, timeout2) ;
             // Start the query.
-            queryIterator = getPlan().iterator();
+            queryIterator = planIterator();
             // But don't add resetter.
             return ;
         }
@@ -502,11 +503,18 @@ public class QueryExecDataset implements QueryExec
 
         timeout1Alarm = alarmClock.add(callback, timeout1) ;
 
-        queryIterator = getPlan().iterator();
+        queryIterator = planIterator();
         // Add the timeout1->timeout2 resetter wrapper.
         queryIterator = new QueryIteratorTimer2(queryIterator);
     }
 
+    private QueryIterator planIterator() {
+        QueryIterator qIter = getPlan().iterator();
+        if ( ! context.isTrue(ARQ.queryResultCache) )
+            return qIter;
+        return QueryResultCache.get().results(query, dataset, initialBinding, qIter, context);
+    }
+
     private Plan getPlan() {
         if ( plan == null ) {
             Binding initial = ( initialBinding != null ) ? initialBinding : BindingFactory.root();
@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.sparql.exec;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+import org.apache.jena.atlas.lib.Cache;
+import org.apache.jena.atlas.lib.CacheFactory;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.ARQ;
+import org.apache.jena.query.Query;
+import org.apache.jena.sparql.ARQConstants;
+import org.apache.jena.sparql.algebra.Algebra;
+import org.apache.jena.sparql.algebra.Op;
+import org.apache.jena.sparql.algebra.OpVisitorBase;
+import org.apache.jena.sparql.algebra.op.OpBGP;
+import org.apache.jena.sparql.algebra.op.OpProcedure;
+import org.apache.jena.sparql.algebra.op.OpPropFunc;
+import org.apache.jena.sparql.algebra.op.OpService;
+import org.apache.jena.sparql.algebra.op.OpTriple;
+import org.apache.jena.sparql.algebra.walker.Walker;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.QueryIterator;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.engine.iterator.QueryIterPlainWrapper;
+import org.apache.jena.sparql.engine.iterator.QueryIteratorWrapper;
+import org.apache.jena.sparql.expr.*;
+import org.apache.jena.sparql.pfunction.PropertyFunctionRegistry;
+import org.apache.jena.sparql.util.Context;
+
+/**
+ * Cache of the results of query executions on local datasets.
+ * <p>
+ * Used when {@link ARQ#queryResultCache} is set. The cache key is the algebra of the
+ * query, the initial binding, the dataset and the version of the data the execution
+ * sees ({@link ARQConstants#sysDataVersion}). Results are only cached when the
+ * storage sets the data version, as TDB2 does for read transactions. After a commit,
+ * executions see a new version of the data, and the storage calls
+ * {@link #invalidate} to remove the entries for older versions.
+ * <p>
+ * The results of an execution are put in the cache when they have all been read.
+ * The size of the cache is the estimated number of bytes of the cached results; the
+ * results of one execution are not cached if they are more than a quarter of that.
+ * <p>
+ * Queries are not cached if they have a dataset description, or use SERVICE,
+ * property functions, procedures, custom functions, or functions that do not return
+ * the same value each time (NOW, RAND, UUID, STRUUID, BNODE).
+ */
+public class QueryResultCache {
+    /** Size of the default system cache, in bytes. */
+    public static final long DefaultMaxBytes = 64L * 1024 * 1024;
+
+    private static volatile QueryResultCache systemCache = new QueryResultCache(DefaultMaxBytes);
+
+    /** The cache used when {@link ARQ#queryResultCache} is set. */
+    public static QueryResultCache get() {
+        return systemCache;
+    }
+
+    /** Set the cache used when {@link ARQ#queryResultCache} is set. */
+    public static void set(QueryResultCache cache) {
+        systemCache = Objects.requireNonNull(cache);
+    }
+
+    private record Key(DatasetGraph dataset, Object dataVersion, Op op, Binding initial) {}
+    private record Entry(List<Binding> rows, int bytes) {}
+
+    private final long maxEntryBytes;
+    private final Cache<Key, Entry> cache;
+
+    /** A cache with a size, in bytes. */
+    public QueryResultCache(long maxBytes) {
+        this.maxEntryBytes = Math.min(maxBytes / 4, Integer.MAX_VALUE);
+        this.cache = CacheFactory.createWeightedCache(maxBytes, (key, entry) -> entry.bytes());
+    }
+
+    /**
+     * Return the results of an execution from the cache, or return {@code qIter}
+     * so that the results are put in the cache when they have all been read.
+     * @param query   The query
+     * @param dataset The dataset
+     * @param initial The initial binding or null
+     * @param qIter   The results of the execution plan : closed if not used.
+     * @param context The context of the execution, after the plan has been created.
+     * @return QueryIterator
+     */
+    public QueryIterator results(Query query, DatasetGraph dataset, Binding initial, QueryIterator qIter, Context context) {
+        Object dataVersion = context.get(ARQConstants.sysDataVersion);
+        if ( dataVersion == null )
+            return qIter;
+        if ( query.hasDatasetDescription() || context.isDefined(ARQConstants.sysDatasetDescription) )
+            return qIter;
+        Op op = Algebra.compile(query);
+        if ( ! isCacheable(op, context) )
+            return qIter;
+        Key key = new Key(dataset, dataVersion, op, ( initial == null ) ? BindingFactory.root() : initial);
+        Entry entry = cache.getIfPresent(key);
+        if ( entry == null )
+            return new QueryIterCacheResults(qIter, key);
+        qIter.close();
+        return QueryIterPlainWrapper.create(entry.rows().iterator());
+    }
+
+    /** Remove the entries for versions of the data that match the predicate. */
+    public void invalidate(Predicate<Object> dataVersion) {
+        List<Key> keys = new ArrayList<>();
+        cache.keys().forEachRemaining(key -> {
+            if ( dataVersion.test(key.dataVersion()) )
+                keys.add(key);
+        });
+        keys.forEach(cache::remove);
+    }
+
+    /** Remove all entries. */
+    public void clear() {
+        cache.clear();
+    }
+
+    /** Number of entries. */
+    public long size() {
+        return cache.size();
+    }
+
+    private static boolean isCacheable(Op op, Context context) {
+        boolean[] cacheable = { true };
+        // The op is the algebra before optimization, so property functions are
+        // still triple patterns : look for predicates that the execution will
+        // treat as property functions.
+        PropertyFunctionRegistry registry = PropertyFunctionRegistry.chooseRegistry(context);
+        boolean propertyFunctions = ( registry != null ) && context.isTrueOrUndef(ARQ.enablePropertyFunctions);
+        Predicate<Triple> isPropertyFunction = triple -> {
+            Node p = triple.getPredicate();
+            return propertyFunctions && p.isURI() && registry.manages(p.getURI());
+        };
+        OpVisitorBase opVisitor = new OpVisitorBase() {
+            @Override public void visit(OpService opService)    { cacheable[0] = false; }
+            @Override public void visit(OpPropFunc opPropFunc)  { cacheable[0] = false; }
+            @Override public void visit(OpProcedure opProc)     { cacheable[0] = false; }
+            @Override public void visit(OpBGP opBGP) {
+                if ( opBGP.getPattern().getList().stream().anyMatch(isPropertyFunction) )
+                    cacheable[0] = false;
+            }
+            @Override public void visit(OpTriple opTriple) {
+                if ( isPropertyFunction.test(opTriple.getTriple()) )
+                    cacheable[0] = false;
+            }
+        };
+        ExprVisitor exprVisitor = new ExprVisitorBase() {
+            // NOW, RAND, UUID, STRUUID, BNODE()
+            @Override public void visit(ExprFunction0 func) { cacheable[0] = false; }
+            @Override public void visit(ExprFunction1 func) { check(func); }
+            @Override public void visit(ExprFunctionN func) { check(func); }
+
+            private void check(ExprFunction func) {
+                if ( func instanceof Unstable || func instanceof E_Function || func instanceof E_Call )
+                    cacheable[0] = false;
+            }
+        };
+        Walker.walk(op, opVisitor, exprVisitor);
+        return cacheable[0];
+    }
+
+    // Estimated size in bytes.
+    private static long size(Binding binding) {
+        long x = 48;
+        for ( Iterator<Var> iter = binding.vars() ; iter.hasNext() ; ) {
+            Node node = binding.get(iter.next());
+            x += 32 + size(node);
+        }
+        return x;
+    }
+
+    private static long size(Node node) {
+        if ( node.isURI() )
+            return 40 + 2L * node.getURI().length();
+        if ( node.isLiteral() )
+            return 56 + 2L * node.getLiteralLexicalForm().length();
+        return 48;
+    }
+
+    /** Pass through the results of an execution and put them in the cache at the end. */
+    private class QueryIterCacheResults extends QueryIteratorWrapper {
+        private final Key key;
+        private List<Binding> rows = new ArrayList<>();
+        private long bytes = 0;
+
+        QueryIterCacheResults(QueryIterator qIter, Key key) {
+            super(qIter);
+            this.key = key;
+        }
+
+        @Override
+        protected boolean hasNextBinding() {
+            boolean b = super.hasNextBinding();
+            if ( ! b && rows != null ) {
+                cache.put(key, new Entry(rows, (int)bytes));
+                rows = null;
+            }
+            return b;
+        }
+
+        @Override
+        protected Binding moveToNextBinding() {
+            Binding binding = super.moveToNextBinding();
+            if ( rows != null ) {
+                Binding row = BindingFactory.copy(binding);
+                bytes += size(row);
+                if ( bytes > maxEntryBytes )
+                    // Too large to cache.
+                    rows = null;
+                else
+                    rows.add(row);
+            }
+            return binding;
+        }
+    }
+}
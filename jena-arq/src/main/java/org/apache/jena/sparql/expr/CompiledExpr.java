@@ -0,0 +1,361 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.apache.jena.sparql.expr;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.expr.nodevalue.XSDFuncOp;
+import org.apache.jena.sparql.function.FunctionEnv;
+
+/**
+ * An {@link Expr} compiled for evaluation over many bindings, as in FILTER and BIND.
+ * <p>
+ * The expression tree is turned into a tree of lambdas once, so evaluation does not
+ * go through {@link Expr#eval} for each node of the expression. Some forms have fast
+ * paths:
+ * <ul>
+ * <li>{@code = != < <= > >=} of variables and constants compare the lexical forms
+ *     when both are xsd:string or both are xsd:integer (of up to 18 digits), without
+ *     making {@link NodeValue}s
+ * <li>{@code && || !} and {@code BOUND(?x)} are evaluated to true, false or error
+ *     without throwing {@link ExprEvalException} between the parts
+ * <li>functions that evaluate all their arguments call the function on the compiled
+ *     arguments
+ * </ul>
+ * Other expressions, and fast paths that do not apply to the values in a binding, are
+ * evaluated in the usual way, so the outcome is the same as evaluating the expression.
+ *
+ * @see org.apache.jena.query.ARQ#compileExpressions
+ */
+public class CompiledExpr {
+
+    /** Compile an expression. */
+    public static CompiledExpr compile(Expr expr) {
+        return new CompiledExpr(expr);
+    }
+
+    private interface Eval {
+        NodeValue eval(Binding binding, FunctionEnv env);
+    }
+
+    /** Evaluation as a condition: TRUE, FALSE or ERROR. */
+    private interface Cond {
+        int test(Binding binding, FunctionEnv env);
+    }
+
+    /** A node from a binding or a constant, or null. */
+    private interface Term {
+        Node get(Binding binding);
+    }
+
+    private static final int TRUE = 1;
+    private static final int FALSE = 0;
+    private static final int ERROR = -1;
+
+    private final Expr expr;
+    private final Cond cond;
+    private final Eval eval;
+
+    private CompiledExpr(Expr expr) {
+        this.expr = expr;
+        this.cond = compileCond(expr);
+        this.eval = ( cond != null ) ? evalOf(cond) : compileEval(expr);
+    }
+
+    public Expr getExpr() {
+        return expr;
+    }
+
+    /** As {@link Expr#eval}. */
+    public NodeValue eval(Binding binding, FunctionEnv env) {
+        return eval.eval(binding, env);
+    }
+
+    /** As {@link Expr#isSatisfied}. */
+    public boolean isSatisfied(Binding binding, FunctionEnv env) {
+        if ( cond != null )
+            return cond.test(binding, env) == TRUE;
+        try {
+            return XSDFuncOp.effectiveBooleanValue(eval.eval(binding, env));
+        } catch (ExprEvalException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return expr.toString();
+    }
+
+    // ---- Compile
+
+    private static Eval compileEval(Expr expr) {
+        Cond cond = compileCond(expr);
+        if ( cond != null )
+            return evalOf(cond);
+        if ( expr instanceof NodeValue nv )
+            return (binding, env) -> nv;
+        if ( ! evalsArgs.get(expr.getClass()) )
+            return expr::eval;
+        switch (expr) {
+            case ExprFunction1 func -> {
+                Eval arg = compileEval(func.getArg());
+                return (binding, env) -> func.eval(arg.eval(binding, env), env);
+            }
+            case ExprFunction2 func -> {
+                Eval arg1 = compileEval(func.getArg1());
+                Eval arg2 = compileEval(func.getArg2());
+                return (binding, env) -> func.eval(arg1.eval(binding, env), arg2.eval(binding, env), env);
+            }
+            case ExprFunction3 func -> {
+                Eval arg1 = compileEval(func.getArg1());
+                Eval arg2 = compileEval(func.getArg2());
+                Eval arg3 = compileEval(func.getArg3());
+                return (binding, env) -> func.eval(arg1.eval(binding, env), arg2.eval(binding, env), arg3.eval(binding, env), env);
+            }
+            case ExprFunctionN func -> {
+                Eval[] args = new Eval[func.numArgs()];
+                for ( int i = 0 ; i < args.length ; i++ )
+                    args[i] = compileEval(func.getArg(i + 1));
+                return (binding, env) -> {
+                    List<NodeValue> argsEval = new ArrayList<>(args.length);
+                    for ( Eval arg : args )
+                        argsEval.add(arg.eval(binding, env));
+                    return func.eval(argsEval, env);
+                };
+            }
+            default -> {
+                return expr::eval;
+            }
+        }
+    }
+
+    // Return null if the expression is not compiled as a condition.
+    private static Cond compileCond(Expr expr) {
+        switch (expr) {
+            case E_LogicalAnd and -> {
+                Cond cond1 = condOf(and.getArg1());
+                Cond cond2 = condOf(and.getArg2());
+                // false && error is false.
+                return (binding, env) -> {
+                    int x1 = cond1.test(binding, env);
+                    if ( x1 == FALSE )
+                        return FALSE;
+                    int x2 = cond2.test(binding, env);
+                    if ( x2 == FALSE )
+                        return FALSE;
+                    return ( x1 == ERROR || x2 == ERROR ) ? ERROR : TRUE;
+                };
+            }
+            case E_LogicalOr or -> {
+                Cond cond1 = condOf(or.getArg1());
+                Cond cond2 = condOf(or.getArg2());
+                // true || error is true.
+                return (binding, env) -> {
+                    int x1 = cond1.test(binding, env);
+                    if ( x1 == TRUE )
+                        return TRUE;
+                    int x2 = cond2.test(binding, env);
+                    if ( x2 == TRUE )
+                        return TRUE;
+                    return ( x1 == ERROR || x2 == ERROR ) ? ERROR : FALSE;
+                };
+            }
+            case E_LogicalNot not -> {
+                Cond cond = condOf(not.getArg());
+                return (binding, env) -> {
+                    int x = cond.test(binding, env);
+                    return switch (x) {
+                        case TRUE -> FALSE;
+                        case FALSE -> TRUE;
+                        default -> ERROR;
+                    };
+                };
+            }
+            case E_Bound bound when bound.getArg().isVariable() -> {
+                Var var = bound.getArg().asVar();
+                return (binding, env) -> binding.contains(var) ? TRUE : FALSE;
+            }
+            case ExprFunction2 func -> {
+                return compileCompare(func);
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    private static Cond condOf(Expr expr) {
+        Cond cond = compileCond(expr);
+        if ( cond != null )
+            return cond;
+        return condOf(compileEval(expr));
+    }
+
+    private static Cond condOf(Eval eval) {
+        return (binding, env) -> {
+            try {
+                return XSDFuncOp.effectiveBooleanValue(eval.eval(binding, env)) ? TRUE : FALSE;
+            } catch (ExprEvalException ex) {
+                return ERROR;
+            }
+        };
+    }
+
+    private static Eval evalOf(Cond cond) {
+        return (binding, env) -> {
+            int x = cond.test(binding, env);
+            return switch (x) {
+                case TRUE -> NodeValue.TRUE;
+                case FALSE -> NodeValue.FALSE;
+                default -> throw new ExprEvalException();
+            };
+        };
+    }
+
+    // ---- Comparisons
+
+    private enum Op { EQ, NE, LT, LE, GT, GE }
+
+    private static Cond compileCompare(ExprFunction2 func) {
+        Op op = switch (func) {
+            case E_Equals x -> Op.EQ;
+            case E_NotEquals x -> Op.NE;
+            case E_LessThan x -> Op.LT;
+            case E_LessThanOrEqual x -> Op.LE;
+            case E_GreaterThan x -> Op.GT;
+            case E_GreaterThanOrEqual x -> Op.GE;
+            default -> null;
+        };
+        if ( op == null )
+            return null;
+        Eval arg1 = compileEval(func.getArg1());
+        Eval arg2 = compileEval(func.getArg2());
+        Cond general = condOf((binding, env) -> func.eval(arg1.eval(binding, env), arg2.eval(binding, env), env));
+        Term term1 = term(func.getArg1());
+        Term term2 = term(func.getArg2());
+        if ( term1 == null || term2 == null )
+            return general;
+        return (binding, env) -> {
+            Node node1 = term1.get(binding);
+            Node node2 = term2.get(binding);
+            if ( node1 != null && node2 != null ) {
+                int cmp = compareLiterals(node1, node2);
+                if ( cmp != NOT_HANDLED )
+                    return compareResult(op, cmp) ? TRUE : FALSE;
+            }
+            return general.test(binding, env);
+        };
+    }
+
+    private static Term term(Expr expr) {
+        if ( expr.isVariable() ) {
+            Var var = expr.asVar();
+            return binding -> ( binding == null ) ? null : binding.get(var);
+        }
+        if ( expr.isConstant() ) {
+            Node node = expr.getConstant().asNode();
+            return binding -> node;
+        }
+        return null;
+    }
+
+    private static boolean compareResult(Op op, int cmp) {
+        return switch (op) {
+            case EQ -> cmp == 0;
+            case NE -> cmp != 0;
+            case LT -> cmp < 0;
+            case LE -> cmp <= 0;
+            case GT -> cmp > 0;
+            case GE -> cmp >= 0;
+        };
+    }
+
+    private static final int NOT_HANDLED = Integer.MIN_VALUE;
+
+    // Compare two literals that are both xsd:string or both xsd:integer by their
+    // lexical forms. This is the same as comparing by value for these cases.
+    private static int compareLiterals(Node node1, Node node2) {
+        if ( ! node1.isLiteral() || ! node2.isLiteral() )
+            return NOT_HANDLED;
+        RDFDatatype dt = node1.getLiteralDatatype();
+        if ( dt != node2.getLiteralDatatype() )
+            return NOT_HANDLED;
+        if ( dt == XSDDatatype.XSDstring )
+            return Integer.signum(node1.getLiteralLexicalForm().compareTo(node2.getLiteralLexicalForm()));
+        if ( dt == XSDDatatype.XSDinteger ) {
+            long x1 = parseInteger(node1.getLiteralLexicalForm());
+            long x2 = parseInteger(node2.getLiteralLexicalForm());
+            if ( x1 == NOT_LONG || x2 == NOT_LONG )
+                return NOT_HANDLED;
+            return Long.compare(x1, x2);
+        }
+        return NOT_HANDLED;
+    }
+
+    private static final long NOT_LONG = Long.MIN_VALUE;
+
+    // An optional sign and up to 18 digits, else NOT_LONG.
+    private static long parseInteger(String lex) {
+        int len = lex.length();
+        int i = 0;
+        boolean negative = false;
+        if ( len > 0 && ( lex.charAt(0) == '-' || lex.charAt(0) == '+' ) ) {
+            negative = ( lex.charAt(0) == '-' );
+            i = 1;
+        }
+        if ( i == len || len - i > 18 )
+            return NOT_LONG;
+        long x = 0;
+        for ( ; i < len ; i++ ) {
+            char ch = lex.charAt(i);
+            if ( ch < '0' || ch > '9' )
+                return NOT_LONG;
+            x = 10 * x + ( ch - '0' );
+        }
+        return negative ? -x : x;
+    }
+
+    // Whether a function class evaluates all its arguments and then calls the
+    // function on the values, i.e. it does not have a special form evaluation.
+    private static final ClassValue<Boolean> evalsArgs = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            for ( Class<?> c = type ; c != null ; c = c.getSuperclass() ) {
+                if ( c == ExprFunction1.class || c == ExprFunction2.class || c == ExprFunction3.class || c == ExprFunctionN.class )
+                    return true;
+                try {
+                    c.getDeclaredMethod("evalSpecial", Binding.class, FunctionEnv.class);
+                    return false;
+                } catch (NoSuchMethodException ex) {}
+            }
+            return false;
+        }
+    };
+}
@@ -22,6 +22,7 @@
 package org.apache.jena.atlas.data;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.File ;
@@ -53,7 +54,30 @@ public class TestSortedDataBag
         testSorting(500, 10);
     }
 
+    @Test
+    public void testSortingParallel() {
+        testSorting(500, 10, 4);
+        testSorting(500, 1000, 4);
+        testSorting(5000, 100, 4);
+        testSorting(10000, 100000, 4);
+    }
+
+    @Test
+    public void testSortingParallelWithPreMerge() {
+        int origMaxSpillFiles = SortedDataBag.MAX_SPILL_FILES;
+        try {
+            SortedDataBag.MAX_SPILL_FILES = 5;
+            testSorting(1000, 10, 3);
+        } finally {
+            SortedDataBag.MAX_SPILL_FILES = origMaxSpillFiles;
+        }
+    }
+
     private void testSorting(int numBindings, int threshold) {
+        testSorting(numBindings, threshold, 1);
+    }
+
+    private void testSorting(int numBindings, int threshold, int parallelism) {
         List<Binding> unsorted = randomBindings(numBindings);
 
         List<SortCondition> conditions = new ArrayList<>();
@@ -65,7 +89,7 @@ public class TestSortedDataBag
         List<Binding> sorted = new ArrayList<>();
 
         SortedDataBag<Binding> db = new SortedDataBag<>(new ThresholdPolicyCount<Binding>(threshold),
-                                                        SerializationFactoryFinder.bindingSerializationFactory(), comparator);
+                                                        SerializationFactoryFinder.bindingSerializationFactory(), comparator, parallelism);
         try {
             db.addAll(unsorted);
             Iterator<Binding> iter = db.iterator();
@@ -147,6 +171,33 @@ public class TestSortedDataBag
         assertEquals(0, count);
     }
 
+    @Test
+    public void testTemporaryFilesAreCleanedUpParallel() {
+        List<Binding> unsorted = randomBindings(500);
+
+        List<SortCondition> conditions = new ArrayList<>();
+        conditions.add(new SortCondition(new ExprVar("8"), Query.ORDER_ASCENDING));
+        BindingComparator comparator = new BindingComparator(conditions);
+
+        SortedDataBag<Binding> db = new SortedDataBag<>(new ThresholdPolicyCount<Binding>(10),
+                                                        SerializationFactoryFinder.bindingSerializationFactory(), comparator, 4);
+        List<File> spillFiles = new ArrayList<>();
+        try {
+            db.addAll(unsorted);
+            spillFiles.addAll(db.getSpillFiles());
+            assertEquals(49, spillFiles.size());
+            // Read part of the results.
+            Iterator<Binding> iter = db.iterator();
+            for ( int i = 0 ; i < 100 ; i++ )
+                iter.next();
+        } finally {
+            db.close();
+        }
+
+        for ( File file : spillFiles )
+            assertFalse(file.exists());
+    }
+
     private List<Binding> randomBindings(int numBindings) {
         random = new Random();
         Var[] vars = new Var[]{Var.alloc("1"), Var.alloc("2"), Var.alloc("3"), Var.alloc("4"), Var.alloc("5"), Var.alloc("6"),
@@ -31,6 +31,7 @@ import org.junit.platform.suite.api.Suite;
     , TestSyntaxDetermination.class
     , TestJenaReaderRIOT.class
     , TestReadData.class
+    , TestReadMappedFile.class
     , TestRiotParserIterators.class
     , TestParserRegistry.class
     , TestRDFParser.class
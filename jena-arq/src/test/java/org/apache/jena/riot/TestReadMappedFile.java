@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.apache.jena.riot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.atlas.io.InputStreamByteBuffer;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.riot.system.streammgr.LocatorFile;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.sparql.util.IsoMatcher;
+
+/** Parsing from memory-mapped files ({@link RIOT#symParserMapFiles}). */
+public class TestReadMappedFile {
+
+    private static Graph graph;
+
+    @BeforeAll public static void beforeClass() {
+        // Big enough to be mapped.
+        graph = GraphFactory.createDefaultGraph();
+        Node p = NodeFactory.createURI("http://example/p");
+        for ( int i = 0 ; i < 2000 ; i++ ) {
+            Node s = NodeFactory.createURI("http://example/s"+i);
+            graph.add(s, p, NodeFactory.createLiteralString("Literal "+i+" é中"));
+            graph.add(s, p, NodeFactory.createBlankNode("b"+(i%10)));
+        }
+    }
+
+    @AfterAll public static void afterClass() {
+        graph = null;
+    }
+
+    @Test public void mapped_nt()       { test(Lang.NTRIPLES, ".nt"); }
+    @Test public void mapped_ttl()      { test(Lang.TURTLE, ".ttl"); }
+    @Test public void mapped_thrift()   { test(Lang.RDFTHRIFT, ".trdf"); }
+    @Test public void mapped_protobuf() { test(Lang.RDFPROTO, ".rpb"); }
+
+    @Test public void mapped_nt_parallel() {
+        Path path = write(Lang.NTRIPLES, ".nt");
+        try {
+            Graph g = RDFParser.source(path)
+                    .set(RIOT.symParserMapFiles, true)
+                    .set(RIOT.symParserThreads, 4)
+                    .toGraph();
+            assertTrue(IsoMatcher.isomorphic(graph, g));
+        } finally { delete(path); }
+    }
+
+    // The global setting applies to reading files by name.
+    @Test public void mapped_locator() {
+        Path path = write(Lang.NTRIPLES, ".nt");
+        boolean b = RIOT.getContext().isTrue(RIOT.symParserMapFiles);
+        try {
+            RIOT.getContext().set(RIOT.symParserMapFiles, true);
+            Graph g = RDFDataMgr.loadGraph(path.toString());
+            assertTrue(IsoMatcher.isomorphic(graph, g));
+        } finally {
+            RIOT.getContext().set(RIOT.symParserMapFiles, b);
+            delete(path);
+        }
+    }
+
+    @Test public void mapped_open() throws IOException {
+        Path path = write(Lang.NTRIPLES, ".nt");
+        try ( InputStream in = LocatorFile.openMapped(path.toString()) ) {
+            assertTrue(in instanceof InputStreamByteBuffer);
+            assertEquals(Files.size(path), in.available());
+        } finally { delete(path); }
+    }
+
+    // Small files are not mapped.
+    @Test public void mapped_open_small() throws IOException {
+        Path path = Files.createTempFile("jena-mapped", ".nt");
+        try {
+            Files.writeString(path, "<http://example/s> <http://example/p> <http://example/o> .\n");
+            assertNull(LocatorFile.openMapped(path.toString()));
+        } finally { delete(path); }
+    }
+
+    private static void test(Lang lang, String suffix) {
+        Path path = write(lang, suffix);
+        try {
+            Graph g = RDFParser.source(path).set(RIOT.symParserMapFiles, true).toGraph();
+            assertTrue(IsoMatcher.isomorphic(graph, g));
+        } finally { delete(path); }
+    }
+
+    private static Path write(Lang lang, String suffix) {
+        try {
+            Path path = Files.createTempFile("jena-mapped", suffix);
+            try ( OutputStream out = Files.newOutputStream(path) ) {
+                RDFDataMgr.write(out, graph, lang);
+            }
+            assertTrue(Files.size(path) >= 64 * 1024, "File too small to be mapped");
+            return path;
+        } catch (IOException ex) { throw new RuntimeException(ex); }
+    }
+
+    private static void delete(Path path) {
+        try { Files.deleteIfExists(path); } catch (IOException ex) {}
+    }
+}
@@ -39,6 +39,7 @@ import org.apache.jena.atlas.legacy.BaseTest2;
     , TestTurtleTerms.class
     , TestLangNTriples.class
     , TestLangNQuads.class
+    , TestReaderNTuplesParallel.class
     , TestLangTurtle.class
     , TestLangTrig.class
     , TestLangRdfJson.class
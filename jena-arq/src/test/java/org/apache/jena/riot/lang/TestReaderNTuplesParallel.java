@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.apache.jena.riot.lang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.RIOT;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.system.ErrorHandler;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.graph.GraphFactory;
+
+public class TestReaderNTuplesParallel {
+    private static int chunkSize;
+
+    // Many chunks for small test data.
+    @BeforeAll public static void beforeClass() { chunkSize = ReaderNTuplesParallel.ChunkSize; ReaderNTuplesParallel.ChunkSize = 200; }
+    @AfterAll public static void afterClass()   { ReaderNTuplesParallel.ChunkSize = chunkSize; }
+
+    private static String dataNT(int n) {
+        StringBuilder sb = new StringBuilder();
+        for ( int i = 0 ; i < n ; i++ )
+            sb.append("<http://example/s").append(i).append("> <http://example/p> \"value ").append(i).append("\" .\n");
+        return sb.toString();
+    }
+
+    private static CollectorStreamRDF parse(String data, Lang lang, int threads, boolean unordered) {
+        CollectorStreamRDF collector = new CollectorStreamRDF();
+        RDFParser.create()
+            .source(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)))
+            .lang(lang)
+            .set(RIOT.symParserThreads, threads)
+            .set(RIOT.symParserUnordered, unordered)
+            .parse(collector);
+        return collector;
+    }
+
+    @Test public void parallel_nt_01() {
+        String data = dataNT(1000);
+        List<Triple> expected = parse(data, Lang.NTRIPLES, 1, false).getTriples();
+        List<Triple> actual = parse(data, Lang.NTRIPLES, 4, false).getTriples();
+        assertEquals(1000, expected.size());
+        assertEquals(expected, actual);
+    }
+
+    @Test public void parallel_nt_bytes() {
+        String data = dataNT(1000);
+        List<Triple> expected = parse(data, Lang.NTRIPLES, 1, false).getTriples();
+        CollectorStreamRDF collector = new CollectorStreamRDF();
+        RDFParser.create()
+            .source(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)))
+            .lang(Lang.NTRIPLES)
+            .set(RIOT.symParserThreads, 4)
+            .set(RIOT.symParserByteTokenizer, true)
+            .parse(collector);
+        assertEquals(expected, collector.getTriples());
+    }
+
+    // Chunks share the interning cache: the same predicate is one Node.
+    @Test public void parallel_nt_intern() {
+        String data = dataNT(1000);
+        List<Triple> expected = parse(data, Lang.NTRIPLES, 1, false).getTriples();
+        CollectorStreamRDF collector = new CollectorStreamRDF();
+        RDFParser.create()
+            .source(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)))
+            .lang(Lang.NTRIPLES)
+            .set(RIOT.symParserThreads, 4)
+            .set(RIOT.symParserInternNodes, true)
+            .parse(collector);
+        List<Triple> triples = collector.getTriples();
+        assertEquals(expected, triples);
+        assertSame(triples.get(0).getPredicate(), triples.get(triples.size()-1).getPredicate());
+    }
+
+    @Test public void parallel_nt_02() {
+        String data = dataNT(1000);
+        List<Triple> expected = parse(data, Lang.NTRIPLES, 1, false).getTriples();
+        List<Triple> actual = parse(data, Lang.NTRIPLES, 4, true).getTriples();
+        assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+        assertEquals(expected.size(), actual.size());
+    }
+
+    // No line end at the end of the input, and a line longer than a chunk.
+    @Test public void parallel_nt_03() {
+        String data = dataNT(100) + "<http://example/s> <http://example/p> \"" + "x".repeat(1000) + "\" .\n" + dataNT(10).strip();
+        List<Triple> expected = parse(data, Lang.NTRIPLES, 1, false).getTriples();
+        List<Triple> actual = parse(data, Lang.NTRIPLES, 3, false).getTriples();
+        assertEquals(111, actual.size());
+        assertEquals(expected, actual);
+    }
+
+    // The same blank node label in different chunks is the same blank node.
+    @Test public void parallel_nt_bnodes() {
+        StringBuilder sb = new StringBuilder();
+        for ( int i = 0 ; i < 500 ; i++ )
+            sb.append("_:b").append(i % 10).append(" <http://example/p> _:b").append((i + 1) % 10).append(" .\n");
+        String data = sb.toString();
+        List<Triple> actual = parse(data, Lang.NTRIPLES, 4, false).getTriples();
+        Set<Node> bnodes = new HashSet<>();
+        actual.forEach(t -> { bnodes.add(t.getSubject()); bnodes.add(t.getObject()); });
+        assertEquals(10, bnodes.size());
+
+        Graph expected = GraphFactory.createDefaultGraph();
+        Graph graph = GraphFactory.createDefaultGraph();
+        parse(data, Lang.NTRIPLES, 1, false).getTriples().forEach(expected::add);
+        actual.forEach(graph::add);
+        assertTrue(expected.isIsomorphicWith(graph));
+    }
+
+    // A label policy other than the default is kept: the input is parsed sequentially.
+    @Test public void parallel_nt_labelToNode() {
+        StringBuilder sb = new StringBuilder();
+        for ( int i = 0 ; i < 500 ; i++ )
+            sb.append("_:b").append(i % 10).append(" <http://example/p> _:b").append((i + 1) % 10).append(" .\n");
+        String data = sb.toString();
+        List<Triple> expected = parseLabelAsGiven(data, 1);
+        List<Triple> actual = parseLabelAsGiven(data, 4);
+        assertEquals(500, actual.size());
+        assertEquals(expected, actual);
+    }
+
+    private static List<Triple> parseLabelAsGiven(String data, int threads) {
+        CollectorStreamRDF collector = new CollectorStreamRDF();
+        RDFParser.create()
+            .source(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)))
+            .lang(Lang.NTRIPLES)
+            .labelToNode(LabelToNode.createUseLabelAsGiven())
+            .set(RIOT.symParserThreads, threads)
+            .parse(collector);
+        return collector.getTriples();
+    }
+
+    @Test public void parallel_nq_01() {
+        StringBuilder sb = new StringBuilder();
+        for ( int i = 0 ; i < 1000 ; i++ )
+            sb.append("<http://example/s").append(i).append("> <http://example/p> \"").append(i).append("\" <http://example/g").append(i % 3).append("> .\n");
+        String data = sb.toString();
+        List<Quad> expected = parse(data, Lang.NQUADS, 1, false).getQuads();
+        List<Quad> actual = parse(data, Lang.NQUADS, 4, false).getQuads();
+        assertEquals(1000, actual.size());
+        assertEquals(expected, actual);
+    }
+
+    // Errors report the line in the input.
+    @Test public void parallel_nt_error() {
+        String data = dataNT(700) + "<http://example/s> <http://example/p> .\n" + dataNT(300);
+        long[] lines = new long[1];
+        ErrorHandler errorHandler = new ErrorHandler() {
+            @Override public void warning(String message, long line, long col) {}
+            @Override public void error(String message, long line, long col) {}
+            @Override public void fatal(String message, long line, long col) {
+                lines[0] = line;
+                throw new RiotException(message);
+            }
+        };
+        assertThrows(RiotException.class, ()->
+            RDFParser.create()
+                .source(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)))
+                .lang(Lang.NTRIPLES)
+                .errorHandler(errorHandler)
+                .set(RIOT.symParserThreads, 4)
+                .parse(StreamRDFLib.sinkNull()));
+        assertEquals(701, lines[0]);
+    }
+}
@@ -30,6 +30,7 @@ import org.junit.platform.suite.api.Suite;
     , TestStreamRDF.class
     , TestFactoryRDF.class
     , TestFactoryRDFCaching.class
+    , TestFactoryRDFInterning.class
 
     // Prefix Map implementations
     , TestPrefixMap.class
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.apache.jena.riot.system;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.RIOT;
+import org.apache.jena.riot.lang.LabelToNode;
+
+public class TestFactoryRDFInterning extends TestFactoryRDF {
+
+    public TestFactoryRDFInterning() {
+        super.factory = new FactoryRDFInterning(100, LabelToNode.createUseLabelAsGiven());
+    }
+
+    @Test public void factory_intern_01() {
+        Node n1 = factory.createURI("http://test/n1");
+        Node n2 = factory.createURI("http://test/n2");
+        Node n3 = factory.createURI("http://test/n1");
+        assertSame(n1, n3);
+        assertNotSame(n1, n2);
+    }
+
+    @Test public void factory_intern_02() {
+        Node n1 = factory.createStringLiteral("abc");
+        Node n2 = factory.createStringLiteral("abc");
+        assertSame(n1, n2);
+    }
+
+    @Test public void factory_intern_03() {
+        Node n1 = factory.createLangLiteral("abc", "en");
+        Node n2 = factory.createLangLiteral("abc", "en");
+        Node n3 = factory.createLangLiteral("abc", "fr");
+        Node n4 = factory.createStringLiteral("abc");
+        assertSame(n1, n2);
+        assertNotSame(n1, n3);
+        assertNotSame(n1, n4);
+    }
+
+    @Test public void factory_intern_04() {
+        Node n1 = factory.createTypedLiteral("123", XSDDatatype.XSDinteger);
+        Node n2 = factory.createTypedLiteral("123", XSDDatatype.XSDinteger);
+        Node n3 = factory.createTypedLiteral("123", XSDDatatype.XSDint);
+        assertSame(n1, n2);
+        assertNotSame(n1, n3);
+        assertEquals(XSDDatatype.XSDint, n3.getLiteralDatatype());
+    }
+
+    @Test public void factory_intern_05() {
+        Node n1 = factory.createLangDirLiteral("abc", "en", "ltr");
+        Node n2 = factory.createLangDirLiteral("abc", "en", "ltr");
+        Node n3 = factory.createLangDirLiteral("abc", "en", "rtl");
+        assertSame(n1, n2);
+        assertNotSame(n1, n3);
+    }
+
+    // Long literals are not interned.
+    @Test public void factory_intern_06() {
+        String lex = "a".repeat(FactoryRDFInterning.MaxLiteralLength + 1);
+        Node n1 = factory.createStringLiteral(lex);
+        Node n2 = factory.createStringLiteral(lex);
+        assertEquals(n1, n2);
+        assertNotSame(n1, n2);
+    }
+
+    // A copy has the same cache and its own blank node labels.
+    @Test public void factory_intern_07() {
+        FactoryRDFInterning factory1 = new FactoryRDFInterning(100, LabelToNode.createScopeByDocumentHash());
+        FactoryRDFInterning factory2 = factory1.copy(LabelToNode.createScopeByDocumentHash());
+        assertSame(factory1.createURI("http://test/n"), factory2.createURI("http://test/n"));
+        assertNotSame(factory1.createBlankNode("b"), factory2.createBlankNode("b"));
+    }
+
+    @Test public void factory_intern_parse() {
+        String data = "<http://test/s1> <http://test/p> 'abc' . <http://test/s2> <http://test/p> 'abc' .";
+        Graph graph = RDFParser.fromString(data, Lang.NTRIPLES).set(RIOT.symParserInternNodes, true).toGraph();
+        Triple[] triples = graph.find().toList().toArray(new Triple[0]);
+        assertEquals(2, triples.length);
+        assertSame(triples[0].getPredicate(), triples[1].getPredicate());
+        assertSame(triples[0].getObject(), triples[1].getObject());
+    }
+
+    // Interning across parser runs.
+    @Test public void factory_intern_parse_shared() {
+        String data = "<http://test/s> <http://test/p> 'abc'@en .";
+        Graph graph1 = RDFParser.fromString(data, Lang.NTRIPLES).set(RIOT.symParserInternNodes, true).toGraph();
+        Graph graph2 = RDFParser.fromString(data, Lang.NTRIPLES).set(RIOT.symParserInternNodes, true).toGraph();
+        Triple t1 = graph1.find().next();
+        Triple t2 = graph2.find().next();
+        assertSame(t1.getSubject(), t2.getSubject());
+        assertSame(t1.getObject(), t2.getObject());
+        assertTrue(t1.getObject().isLiteral());
+    }
+}
@@ -28,6 +28,7 @@ import org.junit.platform.suite.api.Suite;
 @SelectClasses({
       TestTokenForNode.class
     , TestTokenizerText.class
+    , TestTokenizerBytes.class
     , TestTokenizerTextNoSurrogates.class
     , TestTokenizerTextAllowEscSurrogates.class
 })
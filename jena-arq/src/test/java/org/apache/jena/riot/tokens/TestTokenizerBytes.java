@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.apache.jena.riot.tokens;
+
+import static org.apache.jena.riot.system.ErrorHandlerFactory.errorHandlerExceptions;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.atlas.io.PeekReader;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.RIOT;
+import org.apache.jena.riot.RiotParseException;
+
+/** Tokenizing on bytes gives the same tokens, with the same locations, as {@link TokenizerText}. */
+public class TestTokenizerBytes {
+
+    // An InputStream that returns one byte at a time, so every token crosses a buffer refill.
+    private static class InputStreamTrickle extends ByteArrayInputStream {
+        InputStreamTrickle(byte[] bytes) { super(bytes); }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, 1));
+        }
+    }
+
+    private static List<String> tokens(Tokenizer tokenizer) {
+        List<String> results = new ArrayList<>();
+        try {
+            while ( tokenizer.hasNext() )
+                results.add(tokenizer.next().toString(true));
+        } catch (RiotParseException ex) {
+            results.add("Error: [" + ex.getLine() + "," + ex.getCol() + "] " + ex.getOriginalMessage());
+        }
+        return results;
+    }
+
+    private static List<String> tokensText(String input) {
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        return tokens(TokenizerText.create().source(PeekReader.makeUTF8(new ByteArrayInputStream(bytes)))
+                          .errorHandler(errorHandlerExceptions()).build());
+    }
+
+    private static List<String> tokensBytes(InputStream input) {
+        return tokens(TokenizerText.create().source(input).byteLevel(true).errorHandler(errorHandlerExceptions()).build());
+    }
+
+    private static List<String> tokensBytes(ByteBuffer input) {
+        return tokens(TokenizerText.create().source(input).errorHandler(errorHandlerExceptions()).build());
+    }
+
+    private static void test(String input) {
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        List<String> expected = tokensText(input);
+        assertEquals(expected, tokensBytes(new ByteArrayInputStream(bytes)), "InputStream");
+        assertEquals(expected, tokensBytes(new InputStreamTrickle(bytes)), "InputStream, one byte at a time");
+        assertEquals(expected, tokensBytes(ByteBuffer.wrap(bytes)), "ByteBuffer");
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        assertEquals(expected, tokensBytes(direct), "Direct ByteBuffer");
+        assertEquals(0, direct.position());
+    }
+
+    @Test public void tokenizer_bytes_iri_01()      { test("<http://example/abc>"); }
+    @Test public void tokenizer_bytes_iri_02()      { test("<http://example/ab\\u00E9c> <http://example/abé>"); }
+    @Test public void tokenizer_bytes_iri_03()      { test("<http://example/a😀b>"); }
+    @Test public void tokenizer_bytes_iri_04()      { test("<http://example/abc"); }
+    @Test public void tokenizer_bytes_iri_05()      { test("<http://example/a b>"); }
+    @Test public void tokenizer_bytes_iri_06()      { test("<http://example/a{b}>"); }
+
+    @Test public void tokenizer_bytes_string_01()   { test("'abc' \"def\""); }
+    @Test public void tokenizer_bytes_string_02()   { test("'a\\tb\\u0041c' \"d\\\"e\""); }
+    @Test public void tokenizer_bytes_string_03()   { test("'àéî' \"é😀x\""); }
+    @Test public void tokenizer_bytes_string_04()   { test("'''a\nb'c''d''' \"\"\"x\"\"\" ''"); }
+    @Test public void tokenizer_bytes_string_05()   { test("'abc\n'"); }
+    @Test public void tokenizer_bytes_string_06()   { test("'abc"); }
+    @Test public void tokenizer_bytes_string_07()   { test("'abc'@en-GB 'x'@en--ltr '1'^^<http://example/dt> '2'^^xsd:int"); }
+
+    @Test public void tokenizer_bytes_pname_01()    { test("ex:abc ex:a.b.c. :x ex: a"); }
+    @Test public void tokenizer_bytes_pname_02()    { test("ex:a%20b ex:a\\-b ex:a:b:c ex:é.x ex:x-1_2"); }
+    @Test public void tokenizer_bytes_pname_03()    { test("true false prefix PREFIX @prefix @base"); }
+
+    @Test public void tokenizer_bytes_bnode_01()    { test("_:abc _:a.b. _:1 _:bé [] _"); }
+
+    @Test public void tokenizer_bytes_number_01()   { test("123 -4.5 +.6 7e8 1.0E-3 0x1F 123. ."); }
+
+    @Test public void tokenizer_bytes_symbols_01()  { test("<< <<( )>> {| |} ( ) [ ] { } ; , = / \\ | & * ! ~ > >> ?x $y"); }
+
+    @Test public void tokenizer_bytes_lines_01() {
+        test("# Comment\n<http://example/s> <http://example/p> 'o' .\r\n\t_:b <http://example/p> \"é\" . # Comment\n\n  ex:s ex:p 1 .");
+    }
+
+    @Test public void tokenizer_bytes_lines_02() {
+        // Location after non-ASCII characters and a surrogate pair.
+        test("'é😀' <x> .\n<é> 'a' 'b");
+    }
+
+    @Test public void tokenizer_bytes_bom() {
+        test("\uFEFF<http://example/s> 'a' .");
+    }
+
+    @Test public void tokenizer_bytes_long() {
+        StringBuilder sb = new StringBuilder();
+        for ( int i = 0 ; i < 20_000 ; i++ )
+            sb.append("<http://example/s").append(i).append("> ex:p 'value ").append(i).append("'@en .\n");
+        String data = sb.toString();
+        List<String> expected = tokensText(data);
+        byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+        assertEquals(expected, tokensBytes(new ByteArrayInputStream(bytes)));
+    }
+
+    // Bad UTF-8 is U+FFFD, as for the character decoder of TokenizerText.
+    @Test public void tokenizer_bytes_bad_utf8() {
+        byte[] bytes = { '\'', 'a', (byte)0xC3, 'b', (byte)0xFF, (byte)0xE2, (byte)0x82, '\'' };
+        Tokenizer tokenizer = TokenizerText.create().source(ByteBuffer.wrap(bytes)).build();
+        assertTrue(tokenizer.hasNext());
+        assertEquals("a\uFFFDb\uFFFD\uFFFD", tokenizer.next().getImage());
+        assertFalse(tokenizer.hasNext());
+    }
+
+    @Test public void tokenizer_bytes_line_mode() {
+        Tokenizer tokenizer = TokenizerText.create().fromString("<x> .\n<y>").byteLevel(true).lineMode(true).build();
+        assertEquals(TokenType.IRI, tokenizer.next().getType());
+        assertEquals(TokenType.DOT, tokenizer.next().getType());
+        assertEquals(TokenType.NL, tokenizer.next().getType());
+        assertEquals(TokenType.IRI, tokenizer.next().getType());
+        assertFalse(tokenizer.hasNext());
+    }
+
+    @Test public void tokenizer_bytes_parser() {
+        String data = "PREFIX : <http://example/> :s :p 'é', 1.5, [ :q _:b ] ; :r \"\"\"a\nb\"\"\"@en . _:b :p :o .";
+        Graph expected = RDFParser.fromString(data, Lang.TURTLE).toGraph();
+        Graph graph = RDFParser.create()
+                .source(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)))
+                .lang(Lang.TURTLE)
+                .set(RIOT.symParserByteTokenizer, true)
+                .toGraph();
+        assertTrue(expected.isIsomorphicWith(graph));
+    }
+
+    // Repeated plain IRIs and strings are the same String.
+    @Test public void tokenizer_bytes_same_string() {
+        Tokenizer tokenizer = TokenizerText.create().fromString("<http://example/x> 'abc' <http://example/x> 'abc' 'abd'").byteLevel(true).build();
+        String iri1 = tokenizer.next().getImage();
+        String str1 = tokenizer.next().getImage();
+        assertSame(iri1, tokenizer.next().getImage());
+        assertSame(str1, tokenizer.next().getImage());
+        assertEquals("abd", tokenizer.next().getImage());
+        assertFalse(tokenizer.hasNext());
+    }
+
+    @Test public void tokenizer_bytes_error() {
+        Tokenizer tokenizer = TokenizerText.create().fromString("<x>\n  'abc").byteLevel(true).errorHandler(errorHandlerExceptions()).build();
+        tokenizer.next();
+        RiotParseException ex = assertThrows(RiotParseException.class, tokenizer::next);
+        assertEquals(2, ex.getLine());
+    }
+}
@@ -34,6 +34,7 @@ import org.junit.platform.suite.api.Suite;
     , TestTurtleWriter.class
     , TestTrigWriter.class
     , TestTurtleFormats.class
+    , TestWriterStreamRDFPretty.class
 
     , TestWriterRDFXML.class
     , TestWriterRDFXML_Properties.class
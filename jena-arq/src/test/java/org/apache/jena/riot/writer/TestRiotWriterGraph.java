@@ -58,6 +58,7 @@ public class TestRiotWriterGraph extends AbstractWriterTest {
                  Arguments.of(RDFFormat.TURTLE_BLOCKS),
                  Arguments.of(RDFFormat.TURTLE_FLAT),
                  Arguments.of(RDFFormat.TURTLE_LONG),
+                 Arguments.of(RDFFormat.TURTLE_STREAMING),
                  Arguments.of(RDFFormat.RDFXML),
                  Arguments.of(RDFFormat.RDFXML_PRETTY),
                  Arguments.of(RDFFormat.RDFXML_PLAIN),
@@ -77,6 +78,7 @@ public class TestRiotWriterGraph extends AbstractWriterTest {
                  Arguments.of(RDFFormat.TRIG_BLOCKS),
                  Arguments.of(RDFFormat.TRIG_FLAT),
                  Arguments.of(RDFFormat.TRIG_LONG),
+                 Arguments.of(RDFFormat.TRIG_STREAMING),
                  Arguments.of(RDFFormat.NQUADS_UTF8),
                  Arguments.of(RDFFormat.NQUADS_ASCII),
                  Arguments.of(RDFFormat.NQUADS_PRETTY),
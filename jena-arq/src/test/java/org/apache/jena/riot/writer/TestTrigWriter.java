@@ -46,11 +46,13 @@ public class TestTrigWriter {
                  Arguments.of("Turtle/Blocks", RDFFormat.TURTLE_BLOCKS),
                  Arguments.of("Turtle/Flat", RDFFormat.TURTLE_FLAT),
                  Arguments.of("Turtle/Long", RDFFormat.TURTLE_LONG),
+                 Arguments.of("Turtle/Streaming", RDFFormat.TURTLE_STREAMING),
                  Arguments.of("Trig", RDFFormat.TRIG),
                  Arguments.of("Trig/Pretty", RDFFormat.TRIG_PRETTY),
                  Arguments.of("Trig/Blocks", RDFFormat.TRIG_BLOCKS),
                  Arguments.of("Trig/Flat", RDFFormat.TRIG_FLAT),
-                 Arguments.of("Trig/Long", RDFFormat.TRIG_LONG)
+                 Arguments.of("Trig/Long", RDFFormat.TRIG_LONG),
+                 Arguments.of("Trig/Streaming", RDFFormat.TRIG_STREAMING)
                         );
         return x.stream();
     }
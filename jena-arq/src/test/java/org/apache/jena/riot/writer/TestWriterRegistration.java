@@ -69,6 +69,8 @@ public class TestWriterRegistration
     @Test public void registration_34() { testregistration(RDFFormat.RDFXML_PLAIN); }
     @Test public void registration_35() { testregistration(RDFFormat.RDFJSON); }
     @Test public void registration_36() { testregistration(RDFFormat.RDFNULL); }
+    @Test public void registration_37() { testregistration(RDFFormat.TURTLE_STREAMING); }
+    @Test public void registration_38() { testregistration(RDFFormat.TRIG_STREAMING); }
 
     private void testregistration(Lang lang) {
         assertTrue(RDFWriterRegistry.contains(lang), "No writer registered for language " + lang);
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.riot.writer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiPredicate;
+
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.atlas.io.IndentedWriter;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.riot.*;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFOps;
+import org.apache.jena.riot.system.StreamRDFWriter;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.util.IsoMatcher;
+import org.apache.jena.vocabulary.RDF;
+
+/** Tests for {@link WriterStreamRDFPretty}: the output is near-pretty and reads back to the same data. */
+public class TestWriterStreamRDFPretty {
+
+    private static final String PREFIXES = "PREFIX : <http://example/> PREFIX rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#>\n";
+
+    private static String writeGraph(String data) {
+        return writeGraph(data, Graph::isIsomorphicWith);
+    }
+
+    private static String writeGraph(String data, BiPredicate<Graph, Graph> isomorphic) {
+        Graph graph = RDFParser.fromString(PREFIXES + data, Lang.TURTLE).toGraph();
+        String output = RDFWriter.source(graph).format(RDFFormat.TURTLE_STREAMING).asString();
+        Graph graph2 = RDFParser.fromString(output, Lang.TURTLE).toGraph();
+        assertTrue(isomorphic.test(graph, graph2), () -> "Not isomorphic:\n" + output);
+        return output;
+    }
+
+    private static String writeDataset(String data) {
+        DatasetGraph dsg = RDFParser.fromString(PREFIXES + data, Lang.TRIG).toDatasetGraph();
+        String output = RDFWriter.source(dsg).format(RDFFormat.TRIG_STREAMING).asString();
+        DatasetGraph dsg2 = RDFParser.fromString(output, Lang.TRIG).toDatasetGraph();
+        assertTrue(IsoMatcher.isomorphic(dsg, dsg2), () -> "Not isomorphic:\n" + output);
+        return output;
+    }
+
+    @Test public void streaming_pretty_objects() {
+        String x = writeGraph(":s :p :o1 , :o2 ; :q 1 ; a :T .");
+        assertTrue(x.contains(" , "), x);
+        // rdf:type first.
+        assertTrue(x.indexOf("rdf:type") < x.indexOf(":p"), x);
+    }
+
+    @Test public void streaming_pretty_nested() {
+        String x = writeGraph(":s :p [ :q [ :r 1 ] ; :q2 2 ] .");
+        assertFalse(x.contains("_:"), x);
+        assertTrue(x.contains("["), x);
+    }
+
+    @Test public void streaming_pretty_nested_empty() {
+        String x = writeGraph(":s :p [] .");
+        assertTrue(x.contains("[]"), x);
+    }
+
+    @Test public void streaming_pretty_list() {
+        String x = writeGraph(":s :p (1 2 (3 [ :q 4 ])) ; :q () .");
+        assertFalse(x.contains("_:"), x);
+        assertFalse(x.contains("rdf:first"), x);
+        assertTrue(x.contains("()"), x);
+    }
+
+    @Test public void streaming_pretty_list_bad() {
+        // Extra triple on a list cell.
+        String x = writeGraph(":s :p _:a . _:a rdf:first 1 ; rdf:rest _:b . _:b rdf:first 2 ; rdf:rest rdf:nil ; :q 3 .");
+        assertTrue(x.contains("rdf:first"), x);
+    }
+
+    @Test public void streaming_pretty_shared() {
+        String x = writeGraph(":s1 :p _:b . :s2 :p _:b . _:b :q 1 .");
+        assertTrue(x.contains("_:"), x);
+    }
+
+    @Test public void streaming_pretty_cycle_1() {
+        String x = writeGraph("_:a :p _:b . _:b :q _:a .");
+        assertTrue(x.contains("_:"), x);
+    }
+
+    @Test public void streaming_pretty_cycle_2() {
+        writeGraph(":s :p _:a . _:a :p _:b . _:b :q _:c . _:c :q _:b .");
+    }
+
+    @Test public void streaming_pretty_deep() {
+        StringBuilder sb = new StringBuilder(":s :p _:b0 .\n");
+        for ( int i = 0 ; i < WriterStreamRDFPretty.MaxDepth + 10 ; i++ )
+            sb.append("_:b").append(i).append(" :p _:b").append(i+1).append(" .\n");
+        writeGraph(sb.toString());
+    }
+
+    @Test public void streaming_pretty_triple_term() {
+        // Graph.isIsomorphicWith does not look inside triple terms.
+        String x = writeGraph(":s :p _:b . _:b :q 1 . :x :r <<( _:b :q 1 )>> .", IsoMatcher::isomorphic);
+        assertTrue(x.contains("_:"), x);
+    }
+
+    @Test public void streaming_pretty_triple_term_referrer() {
+        String x = writeGraph(":s :p _:b . _:b :q 1 . :x :r <<( :s :p _:b )>> .", IsoMatcher::isomorphic);
+        assertTrue(x.contains("_:"), x);
+    }
+
+    @Test public void streaming_pretty_triple_term_annotation() {
+        String x = writeGraph(":s :p _:b {| :source :x |} . _:b :q 1 .", IsoMatcher::isomorphic);
+        assertTrue(x.contains("rdf:reifies"), x);
+    }
+
+    // Unasserted triple term, written after the triple that refers to the blank node.
+    @Test public void streaming_pretty_triple_term_reifies_later() {
+        Graph graph = RDFParser.fromString(PREFIXES + ":s :p _:b . _:b :q :o . :r rdf:reifies <<( _:b :q2 :z )>> .", Lang.TURTLE).toGraph();
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        IndentedWriter out = new IndentedWriter(bout);
+        StreamRDF writer = new WriterStreamRDFPretty(out, RIOT.getContext(), DatasetGraphFactory.wrap(graph));
+        writer.start();
+        graph.find(null, NodeFactory.createURI("http://example/p"), null).forEach(writer::triple);
+        graph.find(null, NodeFactory.createURI("http://example/q"), null).forEach(writer::triple);
+        graph.find(null, RDF.reifies.asNode(), null).forEach(writer::triple);
+        writer.finish();
+        out.flush();
+        String output = bout.toString(StandardCharsets.UTF_8);
+        Graph graph2 = RDFParser.fromString(output, Lang.TURTLE).toGraph();
+        assertTrue(IsoMatcher.isomorphic(graph, graph2), () -> "Not isomorphic:\n" + output);
+    }
+
+    // More blank nodes than the writer caches.
+    @Test public void streaming_pretty_many() {
+        int N = 12_000;
+        StringBuilder sb = new StringBuilder();
+        for ( int i = 0 ; i < N ; i++ )
+            sb.append(":s").append(i).append(" :p [ :q [ :r ").append(i).append(" ] ] .\n");
+        Graph graph = RDFParser.fromString(PREFIXES + sb, Lang.TURTLE).toGraph();
+        String output = RDFWriter.source(graph).format(RDFFormat.TURTLE_STREAMING).asString();
+        assertFalse(output.contains("_:"));
+        Graph graph2 = RDFParser.fromString(output, Lang.TURTLE).toGraph();
+        assertEquals(graph.size(), graph2.size());
+    }
+
+    @Test public void streaming_pretty_trig_nested() {
+        String x = writeDataset(":g { :s :p [ :q (1 2) ] } :s :p [ :q 1 ] .");
+        assertFalse(x.contains("_:"), x);
+    }
+
+    @Test public void streaming_pretty_trig_shared() {
+        // Same blank node in two graphs.
+        String x = writeDataset(":g1 { :s :p _:b . _:b :q 1 } :g2 { _:b :q 2 }");
+        assertTrue(x.contains("_:"), x);
+    }
+
+    @Test public void streaming_pretty_trig_graph_name() {
+        writeDataset(":s :p _:g . _:g { :x :y :z }");
+    }
+
+    @Test public void streaming_pretty_stream() {
+        // No source dataset: grouping only.
+        Graph graph = RDFParser.fromString(PREFIXES + ":s :p :o1 , :o2 , [ :q 1 ] .", Lang.TURTLE).toGraph();
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        StreamRDF stream = StreamRDFWriter.getWriterStream(bout, RDFFormat.TURTLE_STREAMING);
+        StreamRDFOps.graphToStream(graph, stream);
+        String x = bout.toString(StandardCharsets.UTF_8);
+        assertTrue(x.contains(" , "), x);
+        assertTrue(x.contains("_:"), x);
+        Graph graph2 = RDFParser.fromString(x, Lang.TURTLE).toGraph();
+        assertTrue(graph.isIsomorphicWith(graph2), x);
+    }
+}
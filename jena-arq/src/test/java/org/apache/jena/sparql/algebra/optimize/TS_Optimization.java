@@ -36,6 +36,7 @@ import org.junit.platform.suite.api.Suite;
     , TestTransformFilterPlacement.class
     , TestTransformPathFlatten.class
     , TestTransformMergeBGPs.class
+    , TestTransformJoinOrder.class
     , TestTransformPromoteTableEmpty.class
     , TestTransformEliminateAssignments.class
     , TestTransformTopN.class
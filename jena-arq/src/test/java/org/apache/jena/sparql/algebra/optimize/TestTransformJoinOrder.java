@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.sparql.algebra.optimize;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.query.ARQ;
+import org.apache.jena.sparql.algebra.Op;
+import org.apache.jena.sparql.algebra.Transformer;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.optimizer.CardinalityEstimator;
+import org.apache.jena.sparql.exec.QueryExec;
+import org.apache.jena.sparql.exec.RowSet;
+import org.apache.jena.sparql.sse.SSE;
+import org.apache.jena.system.Txn;
+
+public class TestTransformJoinOrder
+{
+    // :a has 1 :p triple, 3 :q triples, 20 :r triples.
+    private static DatasetGraph dsg = SSE.parseDatasetGraph(data());
+
+    private static String data() {
+        StringBuilder sb = new StringBuilder("(prefix ((: <http://example/>)) (dataset (graph ");
+        sb.append("(:a :p 1)");
+        for ( int i = 0 ; i < 3 ; i++ )
+            sb.append("(:a :q "+i+")");
+        for ( int i = 0 ; i < 20 ; i++ )
+            sb.append("(:x"+i+" :r :a)");
+        sb.append(")))");
+        return sb.toString();
+    }
+
+    private static String pre = "(prefix ((: <http://example/>))";
+    private static String post =  ")";
+
+    @Test public void joinOrder_01() { test("(bgp (?s :r ?o))"); }
+
+    @Test public void joinOrder_02() {
+        test("(join (bgp (?s :r ?o)) (bgp (?o :p ?v)))",
+             "(join (bgp (?o :p ?v)) (bgp (?s :r ?o)))");
+    }
+
+    @Test public void joinOrder_03() {
+        // Already in order.
+        test("(join (bgp (?o :p ?v)) (bgp (?s :r ?o)))");
+    }
+
+    @Test public void joinOrder_04() {
+        test("(join (join (bgp (?s :r ?o)) (bgp (?o :q ?w))) (bgp (?o :p ?v)))",
+             "(join (join (bgp (?o :p ?v)) (bgp (?o :q ?w))) (bgp (?s :r ?o)))");
+    }
+
+    @Test public void joinOrder_05() {
+        // Connected parts before cross products.
+        test("(join (join (bgp (?s :r ?o)) (bgp (?x :q ?y))) (bgp (?o :p ?v)))",
+             "(join (join (bgp (?o :p ?v)) (bgp (?s :r ?o))) (bgp (?x :q ?y)))");
+    }
+
+    @Test public void joinOrder_06() {
+        // OPTIONAL and VALUES
+        test("(join (leftjoin (bgp (?s :r ?o)) (bgp (?o :q ?w))) (table (vars ?o) (row [?o :a])))",
+             "(join (table (vars ?o) (row [?o :a])) (leftjoin (bgp (?s :r ?o)) (bgp (?o :q ?w))))");
+    }
+
+    @Test public void joinOrder_07() {
+        // UNION
+        test("(join (union (bgp (?s :r ?o)) (bgp (?o :q ?s))) (bgp (?o :q ?w)))",
+             "(join (bgp (?o :q ?w)) (union (bgp (?s :r ?o)) (bgp (?o :q ?s))))");
+    }
+
+    @Test public void joinStrategy_01() {
+        // Right side smaller : hash join.
+        Op op = SSE.parseOp(pre+"(join (table (vars ?o) (row [?o :a])) (bgp (?o :q ?w)))"+post);
+        Op op1 = Transformer.transform(new TransformJoinStrategy(new CardinalityEstimator(dsg)), op);
+        Op expected = SSE.parseOp(pre+"(sequence (table (vars ?o) (row [?o :a])) (bgp (?o :q ?w)))"+post);
+        assertEquals(expected, op1);
+
+        op = SSE.parseOp(pre+"(join (bgp (?s :r ?o)) (bgp (?o :p ?v)))"+post);
+        op1 = Transformer.transform(new TransformJoinStrategy(new CardinalityEstimator(dsg)), op);
+        assertEquals(op, op1);
+    }
+
+    @Test public void joinOrder_query_01() {
+        String qs = "PREFIX : <http://example/> SELECT * { ?s :r ?o . OPTIONAL { ?s :q ?z } { ?o :q ?w } UNION { ?o :p ?w } }";
+        List<String> results1 = execute(qs, false);
+        List<String> results2 = execute(qs, true);
+        assertEquals(80, results1.size());
+        assertEquals(results1, results2);
+    }
+
+    private static List<String> execute(String qs, boolean joinOrder) {
+        List<String> results = new ArrayList<>();
+        Txn.executeRead(dsg, ()->{
+            RowSet rowSet = QueryExec.dataset(dsg).query(qs).set(ARQ.optJoinOrder, joinOrder).select();
+            rowSet.forEachRemaining(b->{
+                // Binding.toString depends on how the binding was built.
+                StringBuilder sb = new StringBuilder();
+                for ( Var v : rowSet.getResultVars() )
+                    sb.append(v).append("=").append(b.get(v)).append(" ");
+                results.add(sb.toString());
+            });
+        });
+        Collections.sort(results);
+        return results;
+    }
+
+    // Input = output
+    private static void test(String input) {
+        test(input, input);
+    }
+
+    private static void test(String input, String expected) {
+        Op op = SSE.parseOp(pre+input+post);
+        Op op1 = Transformer.transform(new TransformJoinOrder(new CardinalityEstimator(dsg)), op);
+        Op op2 = SSE.parseOp(pre+expected+post);
+        assertEquals(op2, op1);
+    }
+}
@@ -30,6 +30,7 @@ import org.junit.platform.suite.api.Suite;
       , TestQueryEngineFromContext.class
       , TestQueryEngine.class
       , TestJsonEval.class
+      , TestSharedScans.class
 })
 
 public class TS_Engine {}
@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.sparql.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.ARQ;
+import org.apache.jena.sparql.ARQConstants;
+import org.apache.jena.sparql.algebra.Op;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.engine.iterator.QueryIterPlainWrapper;
+import org.apache.jena.sparql.engine.iterator.QueryIterRoot;
+import org.apache.jena.sparql.engine.iterator.QueryIterSingleton;
+import org.apache.jena.sparql.engine.main.SharedScans;
+import org.apache.jena.sparql.exec.QueryExec;
+import org.apache.jena.sparql.exec.RowSet;
+import org.apache.jena.sparql.sse.SSE;
+import org.apache.jena.sparql.util.Context;
+
+public class TestSharedScans {
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+    @AfterAll public static void afterClass() { executor.shutdown(); }
+
+    private static final DatasetGraph dsg = SSE.parseDatasetGraph("(dataset (graph (<http://example/s> <http://example/p> 1) (<http://example/s> <http://example/p> 2)))");
+    private static final Op op = SSE.parseOp("(bgp (?s <http://example/p> ?o))");
+    private static final Var o = Var.alloc("o");
+
+    @Test public void shared_scan_01() throws Exception {
+        SharedScans scans = new SharedScans();
+        ExecutionContext execCxt1 = execCxt(10);
+        ExecutionContext execCxt2 = execCxt(10);
+        AtomicInteger count1 = new AtomicInteger();
+        AtomicInteger count2 = new AtomicInteger();
+        QueryIterator qIter1 = scans.execute(op, root(execCxt1), execCxt1, rows(3, count1, execCxt1));
+        QueryIterator qIter2 = executor.submit(() -> scans.execute(op, root(execCxt2), execCxt2, rows(3, count2, execCxt2))).get();
+        assertEquals(1, scans.size());
+        assertEquals(3, Iter.count(qIter1));
+        assertEquals(0, scans.size());
+        assertEquals(3, Iter.count(qIter2));
+        assertEquals(1, count1.get());
+        assertEquals(0, count2.get());
+    }
+
+    @Test public void shared_scan_02() throws Exception {
+        // Not started : do not wait.
+        SharedScans scans = new SharedScans();
+        ExecutionContext execCxt1 = execCxt(10);
+        ExecutionContext execCxt2 = execCxt(10);
+        AtomicInteger count1 = new AtomicInteger();
+        AtomicInteger count2 = new AtomicInteger();
+        QueryIterator qIter1 = scans.execute(op, root(execCxt1), execCxt1, rows(3, count1, execCxt1));
+        QueryIterator qIter2 = executor.submit(() -> scans.execute(op, root(execCxt2), execCxt2, rows(3, count2, execCxt2))).get();
+        assertEquals(3, Iter.count(qIter2));
+        assertEquals(1, count2.get());
+        assertEquals(3, Iter.count(qIter1));
+        assertEquals(1, count1.get());
+    }
+
+    @Test public void shared_scan_03() throws Exception {
+        // Too many rows to share.
+        SharedScans scans = new SharedScans();
+        ExecutionContext execCxt1 = execCxt(2);
+        ExecutionContext execCxt2 = execCxt(2);
+        AtomicInteger count1 = new AtomicInteger();
+        AtomicInteger count2 = new AtomicInteger();
+        QueryIterator qIter1 = scans.execute(op, root(execCxt1), execCxt1, rows(3, count1, execCxt1));
+        QueryIterator qIter2 = executor.submit(() -> scans.execute(op, root(execCxt2), execCxt2, rows(3, count2, execCxt2))).get();
+        assertTrue(qIter1.hasNext());
+        assertEquals(3, Iter.count(qIter1));
+        assertEquals(0, scans.size());
+        assertEquals(3, Iter.count(qIter2));
+        assertEquals(1, count2.get());
+    }
+
+    @Test public void shared_scan_04() {
+        // Same thread.
+        SharedScans scans = new SharedScans();
+        ExecutionContext execCxt1 = execCxt(10);
+        AtomicInteger count1 = new AtomicInteger();
+        AtomicInteger count2 = new AtomicInteger();
+        QueryIterator qIter1 = scans.execute(op, root(execCxt1), execCxt1, rows(3, count1, execCxt1));
+        QueryIterator qIter2 = scans.execute(op, root(execCxt1), execCxt1, rows(3, count2, execCxt1));
+        assertEquals(3, Iter.count(qIter2));
+        assertEquals(3, Iter.count(qIter1));
+        assertEquals(1, count1.get());
+        assertEquals(1, count2.get());
+    }
+
+    @Test public void shared_scan_05() {
+        // Closed without being used.
+        SharedScans scans = new SharedScans();
+        ExecutionContext execCxt1 = execCxt(10);
+        QueryIterator qIter1 = scans.execute(op, root(execCxt1), execCxt1, rows(3, new AtomicInteger(), execCxt1));
+        assertEquals(1, scans.size());
+        qIter1.close();
+        assertEquals(0, scans.size());
+    }
+
+    @Test public void shared_scan_06() throws Exception {
+        // Rows are returned as they are produced, and shared at the end.
+        SharedScans scans = new SharedScans();
+        ExecutionContext execCxt1 = execCxt(10);
+        ExecutionContext execCxt2 = execCxt(10);
+        AtomicInteger produced = new AtomicInteger();
+        AtomicInteger count2 = new AtomicInteger();
+        QueryIterator qIter1 = scans.execute(op, root(execCxt1), execCxt1, rows(3, produced, execCxt1, true));
+        QueryIterator qIter2 = executor.submit(() -> scans.execute(op, root(execCxt2), execCxt2, rows(3, count2, execCxt2))).get();
+        qIter1.next();
+        assertEquals(1, produced.get());
+        assertEquals(1, scans.size());
+        assertEquals(2, Iter.count(qIter1));
+        assertEquals(3, produced.get());
+        assertEquals(0, scans.size());
+        assertEquals(3, Iter.count(qIter2));
+        assertEquals(0, count2.get());
+    }
+
+    @Test public void shared_scan_07() throws Exception {
+        // A query evaluating a pattern for others does not wait for another query.
+        SharedScans scans = new SharedScans();
+        Op op2 = SSE.parseOp("(bgp (?s <http://example/q> ?o))");
+        ExecutionContext execCxt1 = execCxt(10);
+        ExecutionContext execCxt2 = execCxt(10);
+        QueryIterator qIter1 = scans.execute(op2, root(execCxt1), execCxt1, rows(3, new AtomicInteger(), execCxt1));
+        try {
+            qIter1.next();
+            AtomicInteger count2 = new AtomicInteger();
+            long x = executor.submit(() -> {
+                QueryIterator qIter2 = scans.execute(op, root(execCxt2), execCxt2, rows(3, new AtomicInteger(), execCxt2));
+                qIter2.next();
+                QueryIterator qIter3 = scans.execute(op2, root(execCxt2), execCxt2, rows(3, count2, execCxt2));
+                long n = Iter.count(qIter3);
+                qIter2.close();
+                return n;
+            }).get(10, TimeUnit.SECONDS);
+            assertEquals(3, x);
+            assertEquals(1, count2.get());
+        } finally {
+            qIter1.close();
+        }
+    }
+
+    @Test public void shared_scan_shareable() {
+        ExecutionContext execCxt = execCxt(10);
+        assertTrue(SharedScans.isShareable(op, root(execCxt), execCxt));
+        Binding binding = BindingFactory.binding(o, NodeFactory.createLiteralString("x"));
+        assertFalse(SharedScans.isShareable(op, QueryIterSingleton.create(binding, execCxt), execCxt));
+        assertFalse(SharedScans.isShareable(SSE.parseOp("(table unit)"), root(execCxt), execCxt));
+        // No data version.
+        ExecutionContext execCxt2 = ExecutionContext.create(dsg, new Context().set(ARQ.sharedScans, 10));
+        assertFalse(SharedScans.isShareable(op, root(execCxt2), execCxt2));
+    }
+
+    @Test public void shared_scan_query() {
+        String qs = "SELECT * { ?s <http://example/p> ?o . ?s <http://example/p> ?o2 }";
+        try ( QueryExec qExec = QueryExec.dataset(dsg).query(qs)
+                                         .set(ARQ.sharedScans, 10).set(ARQConstants.sysDataVersion, 1L)
+                                         .build() ) {
+            RowSet rs = qExec.select();
+            assertEquals(4, Iter.count(rs));
+        }
+        assertEquals(0, SharedScans.get().size());
+    }
+
+    private static ExecutionContext execCxt(long limit) {
+        Context cxt = new Context();
+        cxt.set(ARQ.sharedScans, limit);
+        cxt.set(ARQConstants.sysDataVersion, 1L);
+        return ExecutionContext.create(dsg, cxt);
+    }
+
+    private static QueryIterator root(ExecutionContext execCxt) {
+        return QueryIterRoot.create(execCxt);
+    }
+
+    private static Supplier<QueryIterator> rows(int n, AtomicInteger counter, ExecutionContext execCxt) {
+        return rows(n, counter, execCxt, false);
+    }
+
+    // Count evaluations, or, if countRows, rows produced.
+    private static Supplier<QueryIterator> rows(int n, AtomicInteger counter, ExecutionContext execCxt, boolean countRows) {
+        return () -> {
+            if ( ! countRows )
+                counter.incrementAndGet();
+            List<Binding> rows = new ArrayList<>();
+            for ( int i = 0 ; i < n ; i++ )
+                rows.add(BindingFactory.binding(o, NodeFactory.createLiteralString("v"+i)));
+            Iterator<Binding> iter = countRows ? Iter.map(rows.iterator(), b -> { counter.incrementAndGet(); return b; }) : rows.iterator();
+            return QueryIterPlainWrapper.create(iter, execCxt);
+        };
+    }
+}
@@ -33,6 +33,9 @@ import org.junit.platform.suite.api.Suite;
     , TestDataBagDistinctOrder.class
     , TestCancelDistinct.class
     , TestSortedDataBagCancellation.class
+    , TestQueryIterGroup.class
+    , TestQueryIterBatch.class
+    , TestQueryIterMinus.class
 })
 public class TS_QueryIterators {
 
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.sparql.engine.iterator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.query.ARQ;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.core.VarExprList;
+import org.apache.jena.sparql.engine.ExecutionContext;
+import org.apache.jena.sparql.engine.QueryIterator;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.exec.QueryExec;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.sparql.sse.SSE;
+import org.apache.jena.sparql.util.Context;
+
+/** Batch execution of FILTER, BIND and projection gives the same results. */
+public class TestQueryIterBatch {
+
+    private static final String PREFIX = "PREFIX : <http://example/> ";
+
+    private static Graph data() {
+        Graph graph = GraphFactory.createDefaultGraph();
+        for ( int i = 0 ; i < 50 ; i++ ) {
+            graph.add(SSE.parseTriple("(:s"+i+" :p "+i+")"));
+            if ( i % 4 == 0 )
+                graph.add(SSE.parseTriple("(:s"+i+" :q 'x"+i+"')"));
+        }
+        return graph;
+    }
+
+    @Test public void batch_01() { test("SELECT * { ?s :p ?o FILTER(?o > 10) } ORDER BY ?o", 39); }
+    @Test public void batch_02() { test("SELECT ?s ?z { ?s :p ?o BIND(?o * 2 AS ?z) FILTER(?z < 20) } ORDER BY ?z", 10); }
+    @Test public void batch_03() { test("SELECT ?s { ?s :p ?o FILTER(?o > 10) FILTER(?o < 40) } ORDER BY ?s", 29); }
+    @Test public void batch_04() { test("SELECT * { ?s :p ?o OPTIONAL { ?s :q ?q } BIND(CONCAT(?q, '!') AS ?z) } ORDER BY ?o", 50); }
+    // Expression errors.
+    @Test public void batch_05() { test("SELECT * { ?s :p ?o OPTIONAL { ?s :q ?q } FILTER(STRLEN(?q) > 2) } ORDER BY ?o", 10); }
+    @Test public void batch_06() { test("SELECT (?o + 1 AS ?x) { ?s :p ?o } ORDER BY ?x", 50); }
+    @Test public void batch_07() { test("SELECT * { ?s :p ?o FILTER(?o > 10) } LIMIT 5", 5); }
+    @Test public void batch_08() { test("SELECT * { ?s :p ?o FILTER EXISTS { ?s :q ?q } } ORDER BY ?o", 13); }
+    @Test public void batch_09() { test("SELECT ?z { ?s :p ?o { SELECT ?s (STR(?s) AS ?z) { ?s :q ?q } } } ORDER BY ?z", 13); }
+
+    @Test public void batch_10() {
+        // Steps are added to one iterator.
+        List<Binding> data = new ArrayList<>();
+        for ( int i = 0 ; i < 10 ; i++ )
+            data.add(BindingFactory.binding(Var.alloc("x"), SSE.parseNode(Integer.toString(i))));
+        ExecutionContext execCxt = ExecutionContext.create(new Context());
+        QueryIterator qIter0 = QueryIterPlainWrapper.create(data.iterator());
+        QueryIterator qIter1 = QueryIterBatch.create(qIter0, QueryIterBatch.filter(SSE.parseExpr("(> ?x 2)")), 3, execCxt);
+        VarExprList vel = new VarExprList(Var.alloc("y"), SSE.parseExpr("(* ?x 10)"));
+        QueryIterator qIter2 = QueryIterBatch.create(qIter1, QueryIterBatch.assign(vel), 3, execCxt);
+        QueryIterator qIter3 = QueryIterBatch.create(qIter2, QueryIterBatch.project(List.of(Var.alloc("y"))), 3, execCxt);
+        assertTrue(qIter1 instanceof QueryIterBatch);
+        assertSame(qIter1, qIter2);
+        assertSame(qIter1, qIter3);
+        List<Binding> results = Iter.toList(qIter3);
+        assertEquals(7, results.size());
+        assertEquals(SSE.parseNode("30"), results.get(0).get(Var.alloc("y")));
+        assertEquals(1, results.get(0).size());
+    }
+
+    private static void test(String queryString, int expectedSize) {
+        Graph graph = data();
+        String qs = PREFIX+queryString;
+        List<Binding> expected = Iter.toList(QueryExec.graph(graph).query(qs).select());
+        assertEquals(expectedSize, expected.size());
+        for ( int batchSize : new int[] {1, 3, 100} ) {
+            List<Binding> results = Iter.toList(QueryExec.graph(graph).query(qs).set(ARQ.executionBatchSize, batchSize).select());
+            assertEquals(expected, results, "Batch size: "+batchSize);
+        }
+    }
+}
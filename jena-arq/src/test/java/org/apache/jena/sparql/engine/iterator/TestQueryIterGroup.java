@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.sparql.engine.iterator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.collections4.MultiSet;
+import org.apache.commons.collections4.multiset.HashMultiSet;
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.query.ARQ;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.core.VarExprList;
+import org.apache.jena.sparql.engine.ExecutionContext;
+import org.apache.jena.sparql.engine.QueryIterator;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.exec.QueryExec;
+import org.apache.jena.sparql.expr.ExprAggregator;
+import org.apache.jena.sparql.expr.aggregate.AggCount;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.sparql.sse.SSE;
+import org.apache.jena.sparql.util.Context;
+
+/** GROUP BY, in memory and spilling to disk. */
+public class TestQueryIterGroup {
+
+    private static Graph data() {
+        Graph graph = GraphFactory.createDefaultGraph();
+        for ( int i = 0 ; i < 100 ; i++ ) {
+            graph.add(SSE.parseTriple("(:s"+i+" :p "+(i%7)+")"));
+            graph.add(SSE.parseTriple("(:s"+i+" :q "+i+")"));
+            if ( i % 3 == 0 )
+                graph.add(SSE.parseTriple("(:s"+i+" :r 'x"+(i%5)+"')"));
+        }
+        return graph;
+    }
+
+    private static final String PREFIX = "PREFIX : <http://example/> ";
+
+    @Test public void group_spill_01() { test("SELECT ?o (COUNT(*) AS ?c) { ?s :p ?o } GROUP BY ?o", 7); }
+    @Test public void group_spill_02() { test("SELECT ?o (SUM(?v) AS ?sum) (MIN(?v) AS ?min) (MAX(?v) AS ?max) (AVG(?v) AS ?avg) { ?s :p ?o ; :q ?v } GROUP BY ?o", 7); }
+    @Test public void group_spill_03() { test("SELECT ?o (COUNT(DISTINCT ?r) AS ?c) (SAMPLE(?o) AS ?x) { ?s :p ?o OPTIONAL { ?s :r ?r } } GROUP BY ?o", 7); }
+    // Unbound group key.
+    @Test public void group_spill_04() { test("SELECT ?r (COUNT(*) AS ?c) { ?s :p ?o OPTIONAL { ?s :r ?r } } GROUP BY ?r", 6); }
+    // Group by expression, including errors.
+    @Test public void group_spill_05() { test("SELECT ?k (COUNT(*) AS ?c) { ?s :q ?v OPTIONAL { ?s :r ?r } } GROUP BY (STRLEN(CONCAT(?r, STR(?v))) AS ?k)", 3); }
+    // No aggregators.
+    @Test public void group_spill_06() { test("SELECT ?o { ?s :p ?o } GROUP BY ?o", 7); }
+    @Test public void group_spill_07() { test("SELECT ?o ?r { ?s :p ?o OPTIONAL { ?s :r ?r } } GROUP BY ?o ?r", 41); }
+    // No GROUP BY
+    @Test public void group_spill_08() { test("SELECT (COUNT(*) AS ?c) (GROUP_CONCAT(?o) AS ?x) { ?s :r ?o }", 1); }
+    @Test public void group_spill_09() { test("SELECT ?o (COUNT(*) AS ?c) { ?s :p ?o } GROUP BY ?o HAVING (COUNT(*) > 14)", 2); }
+
+    @Test public void group_spill_10() {
+        List<Binding> data = new ArrayList<>();
+        for ( int i = 0 ; i < 10 ; i++ )
+            data.add(BindingFactory.binding(Var.alloc("x"), SSE.parseNode(Integer.toString(i%4))));
+        VarExprList groupVars = new VarExprList();
+        groupVars.add(Var.alloc("x"));
+        List<ExprAggregator> aggregators = List.of(new ExprAggregator(Var.alloc("c"), new AggCount()));
+
+        QueryIterGroup qIter1 = new QueryIterGroup(QueryIterPlainWrapper.create(data.iterator()), groupVars, aggregators, execCxt(-1));
+        List<Binding> x1 = Iter.toList(qIter1);
+        assertNull(qIter1.dataBag);
+
+        QueryIterGroup qIter2 = new QueryIterGroup(QueryIterPlainWrapper.create(data.iterator()), groupVars, aggregators, execCxt(2));
+        List<Binding> x2 = Iter.toList(qIter2);
+        assertNotNull(qIter2.dataBag);
+        qIter2.close();
+
+        assertEquals(4, x1.size());
+        assertEquals(new HashMultiSet<>(x1), new HashMultiSet<>(x2));
+    }
+
+    // Group keys that can be different each time they are evaluated.
+    @Test public void group_spill_11() { testRandomKey("FLOOR(RAND()*2)", 2); }
+    @Test public void group_spill_12() { testRandomKey("SUBSTR(STRUUID(), 1, 1)", 16); }
+
+    // Each row is in one group, and no two groups have the same key.
+    private static void testRandomKey(String keyExpr, int maxGroups) {
+        Graph graph = data();
+        String qs = PREFIX+"SELECT ?k (COUNT(*) AS ?c) { ?s :q ?v } GROUP BY ("+keyExpr+" AS ?k)";
+        for ( long threshold : new long[] {-1, 0, 1, 2, 5} ) {
+            List<Binding> x = Iter.toList(QueryExec.graph(graph).query(qs).set(ARQ.spillToDiskThreshold, threshold).select());
+            Set<Node> keys = new HashSet<>();
+            int count = 0;
+            for ( Binding b : x ) {
+                keys.add(b.get("k"));
+                count += ((Number)b.get("c").getLiteralValue()).intValue();
+            }
+            assertEquals(100, count, "Threshold: "+threshold);
+            assertEquals(x.size(), keys.size(), "Threshold: "+threshold);
+            assertTrue(x.size() <= maxGroups, "Threshold: "+threshold);
+        }
+    }
+
+    private static ExecutionContext execCxt(long threshold) {
+        Context cxt = new Context();
+        cxt.set(ARQ.spillToDiskThreshold, threshold);
+        return ExecutionContext.create(cxt);
+    }
+
+    private static void test(String queryString, int expectedSize) {
+        Graph graph = data();
+        String qs = PREFIX+queryString;
+        MultiSet<Binding> expected = results(graph, qs, -1);
+        assertEquals(expectedSize, expected.size());
+        for ( long threshold : new long[] {0, 1, 2, 5} )
+            assertEquals(expected, results(graph, qs, threshold), "Threshold: "+threshold);
+    }
+
+    private static MultiSet<Binding> results(Graph graph, String qs, long threshold) {
+        List<Binding> x = Iter.toList(QueryExec.graph(graph).query(qs).set(ARQ.spillToDiskThreshold, threshold).select());
+        return new HashMultiSet<>(x);
+    }
+}
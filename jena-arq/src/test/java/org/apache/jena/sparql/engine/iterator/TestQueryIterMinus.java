@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.sparql.engine.iterator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.ARQ;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.ExecutionContext;
+import org.apache.jena.sparql.engine.QueryIterator;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.util.Context;
+
+public class TestQueryIterMinus {
+    private static final Var x = Var.alloc("x");
+    private static final Var y = Var.alloc("y");
+
+    @Test public void minus_01() {
+        List<Binding> left = List.of(row(1, 1), row(2, 2), row(3, 3));
+        List<Binding> right = List.of(BindingFactory.binding(x, node(2)));
+        List<Binding> results = minus(left, right, execCxt(-1));
+        assertEquals(List.of(row(1, 1), row(3, 3)), results);
+    }
+
+    @Test public void minus_02() {
+        // Within the spill threshold.
+        List<Binding> left = List.of(row(1, 1), row(2, 2), row(3, 3));
+        List<Binding> right = List.of(BindingFactory.binding(x, node(2)));
+        List<Binding> results = minus(left, right, execCxt(10));
+        assertEquals(List.of(row(1, 1), row(3, 3)), results);
+    }
+
+    @Test public void minus_spill_01() {
+        List<Binding> left = new ArrayList<>();
+        List<Binding> right = new ArrayList<>();
+        for ( int i = 0 ; i < 2000 ; i++ ) {
+            left.add(row(i, i));
+            if ( i % 3 == 0 )
+                right.add(row(i, i));
+        }
+        testSpill(left, right, 1333);
+    }
+
+    @Test public void minus_spill_02() {
+        // Rows that do not bind all the common variables on both sides.
+        List<Binding> left = new ArrayList<>();
+        List<Binding> right = new ArrayList<>();
+        for ( int i = 0 ; i < 2000 ; i++ ) {
+            left.add(row(i, i % 50));
+            if ( i % 10 == 0 )
+                left.add(rowY(i));
+            if ( i % 3 == 0 )
+                right.add(row(i, i % 50));
+            if ( i % 7 == 0 )
+                right.add(rowY(i % 100));
+            if ( i % 500 == 0 )
+                right.add(BindingFactory.binding(x, node(i+1)));
+        }
+        testSpill(left, right, -1);
+    }
+
+    private static void testSpill(List<Binding> left, List<Binding> right, int expectedSize) {
+        List<String> expected = toSortedList(minus(left, right, execCxt(-1)));
+        List<String> results = toSortedList(minus(left, right, execCxt(20)));
+        if ( expectedSize >= 0 )
+            assertEquals(expectedSize, expected.size());
+        assertEquals(expected, results);
+    }
+
+    private static List<Binding> minus(List<Binding> left, List<Binding> right, ExecutionContext execCxt) {
+        Set<Var> commonVars = new LinkedHashSet<>(List.of(x, y));
+        QueryIterator qIter = QueryIterMinus.create(QueryIterPlainWrapper.create(left.iterator(), execCxt),
+                                                    QueryIterPlainWrapper.create(right.iterator(), execCxt),
+                                                    commonVars, execCxt);
+        return Iter.toList(qIter);
+    }
+
+    private static ExecutionContext execCxt(long threshold) {
+        Context cxt = new Context();
+        if ( threshold >= 0 )
+            cxt.set(ARQ.spillToDiskThreshold, threshold);
+        return ExecutionContext.create(cxt);
+    }
+
+    // The string form of a binding depends on how it was built.
+    private static List<String> toSortedList(List<Binding> rows) {
+        return rows.stream().map(row -> "x="+row.get(x)+" y="+row.get(y)).sorted().toList();
+    }
+
+    private static Binding row(int i, int j) {
+        return BindingFactory.binding(x, node(i), y, node(j));
+    }
+
+    private static Binding rowY(int j) {
+        return BindingFactory.binding(y, node(j));
+    }
+
+    private static Node node(int i) {
+        return NodeFactory.createLiteralString(Integer.toString(i));
+    }
+}
@@ -47,6 +47,7 @@ import org.apache.jena.sparql.engine.QueryIterator;
 import org.apache.jena.sparql.engine.binding.Binding;
 import org.apache.jena.sparql.engine.binding.BindingBuilder;
 import org.apache.jena.sparql.engine.binding.BindingComparator;
+import org.apache.jena.sparql.expr.E_Str;
 import org.apache.jena.sparql.expr.ExprVar;
 import org.apache.jena.sparql.serializer.SerializationContext;
 import org.apache.jena.sparql.util.Context;
@@ -294,6 +295,68 @@ public class TestQueryIterSort {
         assertTrue(iterator.isClosed());
     }
 
+    @Test
+    public void testTopNParallel() {
+        List<Binding> input = randomBindings(30000);
+        Context context = new Context();
+        context.set(ARQ.parallelSort, 4);
+        ExecutionContext ec = createExecutionContext(context);
+        QueryIterator tn = QueryIterTopN.create(QueryIterPlainWrapper.create(input.iterator()), comparator, 10000, false, ec);
+        List<Binding> results = new ArrayList<>();
+        tn.forEachRemaining(results::add);
+        tn.close();
+
+        input.sort(comparator);
+        assertEquals(input.subList(0, 10000), results);
+    }
+
+    @Test
+    public void testSortParallel() {
+        List<Binding> input = randomBindings(5000);
+        Context context = new Context();
+        context.set(ARQ.parallelSort, 4);
+        context.set(ARQ.spillToDiskThreshold, 100L);
+        ExecutionContext ec = createExecutionContext(context);
+        QueryIterSort qIter = (QueryIterSort)QueryIterSort.create(QueryIterPlainWrapper.create(input.iterator()), comparator, ec);
+        List<Binding> results = new ArrayList<>();
+        try {
+            results.add(qIter.next());
+            assertTrue(DataBagExaminer.countTemporaryFiles(qIter.dataBag) > 0);
+            qIter.forEachRemaining(results::add);
+        } finally {
+            qIter.close();
+        }
+        assertEquals(0, DataBagExaminer.countTemporaryFiles(qIter.dataBag));
+
+        input.sort(comparator);
+        assertEquals(input, results);
+    }
+
+    // Only ORDER BY of variables is sorted on other threads.
+    @Test
+    public void testSortParallelConditions() {
+        Context context = new Context();
+        context.set(ARQ.parallelSort, 4);
+        ExecutionContext ec = createExecutionContext(context);
+        Var x = Var.alloc("x");
+        SortCondition varCondition = new SortCondition(x, Query.ORDER_ASCENDING);
+        SortCondition exprCondition = new SortCondition(new E_Str(new ExprVar(x)), Query.ORDER_DESCENDING);
+        assertEquals(4, QueryIterSort.parallelism(List.of(varCondition), ec));
+        assertEquals(1, QueryIterSort.parallelism(List.of(varCondition, exprCondition), ec));
+        assertEquals(1, QueryIterSort.parallelism(List.of(exprCondition), createExecutionContext(new Context())));
+    }
+
+    private List<Binding> randomBindings(int numBindings) {
+        Var[] vars = new Var[]{
+            Var.alloc("1"), Var.alloc("2"), Var.alloc("3"), Var.alloc("4"), Var.alloc("5"),
+            Var.alloc("6"), Var.alloc("7"), Var.alloc("8"), Var.alloc("9"), Var.alloc("0")
+        };
+        List<Binding> bindings = new ArrayList<>();
+        for ( int i = 0; i < numBindings; i++ )
+            bindings.add(randomBinding(vars));
+        return bindings;
+    }
+
     private Binding randomBinding(Var[] vars) {
         BindingBuilder builder = Binding.builder();
         builder.add(vars[0], NodeFactory.createBlankNode());
@@ -30,6 +30,9 @@ import org.junit.platform.suite.api.Suite;
     , TestJoinNestedLoopSimple.class    // Real simple materializing version.
     , TestJoinNestedLoop.class
     , TestHashJoin.class
+    , TestParallelHashJoin.class
+    , TestSpillHashJoin.class
+    , TestSemiJoinFilter.class
 
     , TestLeftJoinSimple.class
     , TestLeftJoinNestedLoopSimple.class    // Real simple materializing version.
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.sparql.engine.join;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.ARQ;
+import org.apache.jena.sparql.algebra.Table;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.ExecutionContext;
+import org.apache.jena.sparql.engine.QueryIterator;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingBuilder;
+import org.apache.jena.sparql.engine.iterator.QueryIterPlainWrapper;
+import org.apache.jena.sparql.expr.ExprList;
+import org.apache.jena.sparql.util.Context;
+
+public class TestParallelHashJoin extends AbstractTestInnerJoin {
+    @Override
+    public QueryIterator join(JoinKey joinKey, Table left, Table right, ExprList conditions) {
+        ExecutionContext execCxt = execCxt(3);
+        return QueryIterParallelHashJoin.create(joinKey, left.iterator(execCxt), right.iterator(execCxt), 3, execCxt);
+    }
+
+    private static ExecutionContext execCxt(int partitions) {
+        Context cxt = new Context();
+        cxt.set(ARQ.parallelHashJoin, partitions);
+        return ExecutionContext.create(cxt);
+    }
+
+    private static final Var x = Var.alloc("x");
+    private static final Var y = Var.alloc("y");
+    private static final Var z = Var.alloc("z");
+
+    // Larger inputs, with some rows that do not bind the join variables, in several chunks.
+    @Test public void parallel_hash_join_01() {
+        List<Binding> left = new ArrayList<>();
+        List<Binding> right = new ArrayList<>();
+        for ( int i = 0 ; i < 3000 ; i++ ) {
+            left.add(row(x, i % 500, y, i));
+            right.add(row(x, i % 700, z, i));
+            if ( i % 100 == 0 ) {
+                left.add(row(y, -i));
+                right.add(row(z, -i));
+            }
+        }
+        List<String> expected = toSortedList(Join.hashJoin(iter(left), iter(right), null));
+        List<String> results = toSortedList(Join.hashJoin(iter(left), iter(right), execCxt(4)));
+        assertTrue(expected.size() > 3000);
+        assertEquals(expected, results);
+    }
+
+    @Test public void parallel_hash_join_02() {
+        // No common variables.
+        List<Binding> left = new ArrayList<>();
+        List<Binding> right = new ArrayList<>();
+        for ( int i = 0 ; i < 50 ; i++ ) {
+            left.add(row(x, i));
+            right.add(row(y, i));
+        }
+        List<Binding> results = Iter.toList(Join.hashJoin(iter(left), iter(right), execCxt(4)));
+        assertEquals(2500, results.size());
+    }
+
+    private static List<String> toSortedList(QueryIterator qIter) {
+        return Iter.iter(qIter).map(Binding::toString).toList().stream().sorted().toList();
+    }
+
+    private static QueryIterator iter(List<Binding> rows) {
+        return QueryIterPlainWrapper.create(rows.iterator());
+    }
+
+    private static Binding row(Var v1, int i1) {
+        return row(v1, i1, null, 0);
+    }
+
+    private static Binding row(Var v1, int i1, Var v2, int i2) {
+        BindingBuilder builder = Binding.builder();
+        builder.add(v1, node(i1));
+        if ( v2 != null )
+            builder.add(v2, node(i2));
+        return builder.build();
+    }
+
+    private static Node node(int i) {
+        return NodeFactory.createLiteralString(Integer.toString(i));
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.sparql.engine.join;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.query.ARQ;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.ExecutionContext;
+import org.apache.jena.sparql.engine.QueryIterator;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.iterator.QueryIterRoot;
+import org.apache.jena.sparql.engine.main.solver.PatternMatchData;
+import org.apache.jena.sparql.exec.QueryExec;
+import org.apache.jena.sparql.exec.RowSet;
+import org.apache.jena.sparql.sse.SSE;
+
+public class TestSemiJoinFilter {
+    private static DatasetGraph dsg = SSE.parseDatasetGraph(data());
+
+    private static String data() {
+        StringBuilder sb = new StringBuilder("(prefix ((: <http://example/>)) (dataset (graph ");
+        for ( int i = 0 ; i < 10 ; i++ )
+            sb.append("(:s"+i+" :q :o"+i+") (:o"+i+" :r "+i+")");
+        sb.append("(:s1 :p 1) (:s2 :p 2)");
+        sb.append(")))");
+        return sb.toString();
+    }
+
+    private static Var x = Var.alloc("x");
+    private static Var y = Var.alloc("y");
+
+    @Test public void semiJoin_create_01() {
+        List<Binding> rows = List.of(SSE.parseBinding("(row (?x <http://example/s1>) (?y 1))"),
+                                     SSE.parseBinding("(row (?x <http://example/s2>))"));
+        SemiJoinFilter filter = SemiJoinFilter.create(rows, List.of(x, y), 10);
+        assertNotNull(filter);
+        // ?y is not bound in every row.
+        assertEquals(Set.of(x), filter.vars());
+        assertEquals(2, filter.values(x).size());
+    }
+
+    @Test public void semiJoin_create_02() {
+        List<Binding> rows = List.of(SSE.parseBinding("(row (?x <http://example/s1>))"),
+                                     SSE.parseBinding("(row (?x <http://example/s2>))"));
+        assertNull(SemiJoinFilter.create(rows, List.of(x), 1));
+        assertNull(SemiJoinFilter.create(rows, List.of(y), 10));
+    }
+
+    @Test public void semiJoin_pattern_01() {
+        List<Binding> rows = List.of(SSE.parseBinding("(row (?x <http://example/s1>))"));
+        SemiJoinFilter filter = SemiJoinFilter.create(rows, List.of(x), 10);
+        ExecutionContext execCxt = filter.execCxt(ExecutionContext.create(dsg));
+        QueryIterator qIter = PatternMatchData.execute(dsg.getDefaultGraph(),
+                                                       SSE.parseBGP("(bgp (?x <http://example/q> ?o) (?o <http://example/r> ?z))"),
+                                                       QueryIterRoot.create(execCxt), null, execCxt);
+        assertEquals(1, Iter.count(qIter));
+    }
+
+    @Test public void semiJoin_query_01() {
+        String qs = "PREFIX : <http://example/> SELECT * { { SELECT ?x { ?x :p ?v } } ?x :q ?o . ?o :r ?z }";
+        List<String> results1 = execute(qs, 0);
+        List<String> results2 = execute(qs, 100);
+        assertEquals(2, results1.size());
+        assertEquals(results1, results2);
+    }
+
+    private static List<String> execute(String qs, int semiJoin) {
+        List<String> results = new ArrayList<>();
+        RowSet rowSet = QueryExec.dataset(dsg).query(qs)
+                .set(ARQ.optIndexJoinStrategy, false)
+                .set(ARQ.semiJoinFilter, semiJoin)
+                .select();
+        rowSet.forEachRemaining(b->{
+            StringBuilder sb = new StringBuilder();
+            for ( Var v : rowSet.getResultVars() )
+                sb.append(v).append("=").append(b.get(v)).append(" ");
+            results.add(sb.toString());
+        });
+        Collections.sort(results);
+        return results;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.sparql.engine.join;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.ARQ;
+import org.apache.jena.sparql.algebra.Table;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.ExecutionContext;
+import org.apache.jena.sparql.engine.QueryIterator;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingBuilder;
+import org.apache.jena.sparql.engine.iterator.QueryIterPlainWrapper;
+import org.apache.jena.sparql.expr.ExprList;
+import org.apache.jena.sparql.util.Context;
+
+public class TestSpillHashJoin extends AbstractTestInnerJoin {
+    @Override
+    public QueryIterator join(JoinKey joinKey, Table left, Table right, ExprList conditions) {
+        ExecutionContext execCxt = execCxt(1);
+        return QueryIterSpillHashJoin.create(joinKey, left.iterator(execCxt), right.iterator(execCxt), 1, execCxt);
+    }
+
+    private static ExecutionContext execCxt(long threshold) {
+        Context cxt = new Context();
+        cxt.set(ARQ.spillToDiskThreshold, threshold);
+        return ExecutionContext.create(cxt);
+    }
+
+    private static final Var x = Var.alloc("x");
+    private static final Var y = Var.alloc("y");
+    private static final Var z = Var.alloc("z");
+
+    // Larger inputs, with some rows that do not bind the join variables, spilled to disk.
+    @Test public void spill_hash_join_01() {
+        List<Binding> left = new ArrayList<>();
+        List<Binding> right = new ArrayList<>();
+        for ( int i = 0 ; i < 3000 ; i++ ) {
+            left.add(row(x, i % 500, y, i));
+            right.add(row(x, i % 700, z, i));
+            if ( i % 100 == 0 ) {
+                left.add(row(y, -i));
+                right.add(row(z, -i));
+            }
+        }
+        List<String> expected = toSortedList(Join.hashJoin(iter(left), iter(right), null));
+        List<String> results = toSortedList(Join.hashJoin(iter(left), iter(right), execCxt(100)));
+        assertTrue(expected.size() > 3000);
+        assertEquals(expected, results);
+    }
+
+    @Test public void spill_hash_join_02() {
+        // No common variables.
+        List<Binding> left = new ArrayList<>();
+        List<Binding> right = new ArrayList<>();
+        for ( int i = 0 ; i < 50 ; i++ ) {
+            left.add(row(x, i));
+            right.add(row(y, i));
+        }
+        List<Binding> results = Iter.toList(Join.hashJoin(iter(left), iter(right), execCxt(10)));
+        assertEquals(2500, results.size());
+    }
+
+    @Test public void spill_hash_join_03() {
+        // Left side within the threshold: no spilling.
+        List<Binding> left = List.of(row(x, 1), row(x, 2));
+        List<Binding> right = List.of(row(x, 1, z, 1), row(x, 2, z, 2), row(x, 3, z, 3));
+        List<String> results = toSortedList(Join.hashJoin(iter(left), iter(right), execCxt(10)));
+        assertEquals(List.of("x=\"1\" z=\"1\"", "x=\"2\" z=\"2\""), results);
+    }
+
+    // The string form of a binding depends on how it was built.
+    private static List<String> toSortedList(QueryIterator qIter) {
+        return Iter.iter(qIter).map(TestSpillHashJoin::str).toList().stream().sorted().toList();
+    }
+
+    private static String str(Binding row) {
+        StringBuilder sb = new StringBuilder();
+        for ( Var v : List.of(x, y, z) ) {
+            Node n = row.get(v);
+            if ( n == null )
+                continue;
+            if ( ! sb.isEmpty() )
+                sb.append(' ');
+            sb.append(v.getVarName()).append('=').append(n);
+        }
+        return sb.toString();
+    }
+
+    private static QueryIterator iter(List<Binding> rows) {
+        return QueryIterPlainWrapper.create(rows.iterator());
+    }
+
+    private static Binding row(Var v1, int i1) {
+        return row(v1, i1, null, 0);
+    }
+
+    private static Binding row(Var v1, int i1, Var v2, int i2) {
+        BindingBuilder builder = Binding.builder();
+        builder.add(v1, node(i1));
+        if ( v2 != null )
+            builder.add(v2, node(i2));
+        return builder.build();
+    }
+
+    private static Node node(int i) {
+        return NodeFactory.createLiteralString(Integer.toString(i));
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.sparql.exec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.query.ARQ;
+import org.apache.jena.sparql.ARQConstants;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.sse.SSE;
+
+public class TestQueryResultCache {
+    private QueryResultCache systemCache;
+    private QueryResultCache cache;
+    private DatasetGraph dsg;
+
+    @BeforeEach public void before() {
+        systemCache = QueryResultCache.get();
+        cache = new QueryResultCache(1024 * 1024);
+        QueryResultCache.set(cache);
+        dsg = SSE.parseDatasetGraph("(dataset (graph (:s :p 1) (:s :p 2)))");
+    }
+
+    @AfterEach public void after() {
+        QueryResultCache.set(systemCache);
+    }
+
+    private static final String queryString = "SELECT * { ?s ?p ?o }";
+
+    @Test public void resultCache_01() {
+        assertEquals(2, count(queryString, 1L));
+        assertEquals(1, cache.size());
+        dsg.add(SSE.parseQuad("(_ :s :p 3)"));
+        // Same data version : cached results.
+        assertEquals(2, count(queryString, 1L));
+        // Changed data version.
+        assertEquals(3, count(queryString, 2L));
+        assertEquals(2, cache.size());
+    }
+
+    @Test public void resultCache_02() {
+        // No data version.
+        assertEquals(2, count(queryString, null));
+        assertEquals(0, cache.size());
+    }
+
+    @Test public void resultCache_03() {
+        // Not all results read.
+        try ( QueryExec qExec = build(queryString, 1L) ) {
+            qExec.select().next();
+        }
+        assertEquals(0, cache.size());
+    }
+
+    @Test public void resultCache_04() {
+        assertEquals(2, count("SELECT * { ?s ?p ?o BIND(RAND() AS ?r) }", 1L));
+        assertEquals(2, count("SELECT * { ?s ?p ?o FILTER(NOW() > '2000-01-01T00:00:00Z'^^<http://www.w3.org/2001/XMLSchema#dateTime>) }", 1L));
+        assertEquals(2, count("SELECT * { ?s ?p ?o BIND(STRUUID() AS ?r) }", 1L));
+        assertEquals(0, count("SELECT * FROM <http://example/g> { ?s ?p ?o }", 1L));
+        assertEquals(0, cache.size());
+    }
+
+    @Test public void resultCache_05() {
+        assertEquals(2, count(queryString, 1L));
+        assertEquals(2, count(queryString, 2L));
+        assertEquals(2, cache.size());
+        cache.invalidate(v -> v.equals(1L));
+        assertEquals(1, cache.size());
+        dsg.add(SSE.parseQuad("(_ :s :p 3)"));
+        assertEquals(3, count(queryString, 1L));
+    }
+
+    @Test public void resultCache_06() {
+        // Results larger than the cache.
+        QueryResultCache.set(new QueryResultCache(100));
+        assertEquals(2, count(queryString, 1L));
+        assertEquals(0, QueryResultCache.get().size());
+    }
+
+    @Test public void resultCache_07() {
+        // Other query forms.
+        String qs = "CONSTRUCT { ?s ?p ?o } WHERE { ?s ?p ?o }";
+        try ( QueryExec qExec = build(qs, 1L) ) {
+            assertEquals(2, qExec.construct().size());
+        }
+        dsg.add(SSE.parseQuad("(_ :s :p 3)"));
+        try ( QueryExec qExec = build(qs, 1L) ) {
+            assertEquals(2, qExec.construct().size());
+        }
+    }
+
+    @Test public void resultCache_08() {
+        // Property functions are not cached.
+        String qs = "PREFIX apf: <http://jena.apache.org/ARQ/property#> SELECT * { ?s ?p ?o . ?x apf:strSplit ('a b' ' ') }";
+        assertEquals(4, count(qs, 1L));
+        assertEquals(0, cache.size());
+        // Not a property function when they are disabled.
+        try ( QueryExec qExec = QueryExec.dataset(dsg).query(qs)
+                                         .set(ARQ.queryResultCache, true)
+                                         .set(ARQ.enablePropertyFunctions, false)
+                                         .set(ARQConstants.sysDataVersion, 1L).build() ) {
+            assertEquals(0, Iter.count(qExec.select()));
+        }
+        assertEquals(1, cache.size());
+    }
+
+    private long count(String qs, Object dataVersion) {
+        try ( QueryExec qExec = build(qs, dataVersion) ) {
+            return Iter.count(qExec.select());
+        }
+    }
+
+    private QueryExec build(String qs, Object dataVersion) {
+        QueryExecBuilder builder = QueryExec.dataset(dsg).query(qs).set(ARQ.queryResultCache, true);
+        if ( dataVersion != null )
+            builder.set(ARQConstants.sysDataVersion, dataVersion);
+        return builder.build();
+    }
+}
@@ -59,6 +59,7 @@ import org.apache.jena.sparql.expr.nodevalue.TestNodeValueSortKey;
     , TestNodeValueSortKey.class
     , TestExprFunctionOp_NodeTransform.class
     , TestExprFunctionOp_ExprTransform.class
+    , TestCompiledExpr.class
 })
 
 public class TS_Expr
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.apache.jena.sparql.expr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.query.ARQ;
+import org.apache.jena.shared.PrefixMapping;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.exec.QueryExec;
+import org.apache.jena.sparql.exec.RowSet;
+import org.apache.jena.sparql.function.FunctionEnvBase;
+import org.apache.jena.sparql.sse.SSE;
+import org.apache.jena.sparql.util.Context;
+import org.apache.jena.sparql.util.ExprUtils;
+import org.apache.jena.sys.JenaSystem;
+
+/** Compiled expressions give the same outcome as evaluating the expression. */
+public class TestCompiledExpr {
+    static { JenaSystem.init(); }
+
+    private static final Var x = Var.alloc("x");
+    private static final Var y = Var.alloc("y");
+
+    private static final String[] values = {
+        null, "1", "2", "-3", "'+05'^^xsd:integer", "'0002'^^xsd:integer", "1234567890123456789012",
+        "2.5", "1.0e0", "'abc'", "'abd'", "'1'", "'abc'@en", "'x'^^xsd:int", "'0'^^xsd:integer",
+        "true", "<http://example/x>", "_:b", "'2024-01-01'^^xsd:date"
+    };
+
+    @Test public void compiled_cmp_01()     { test("?x = 1"); }
+    @Test public void compiled_cmp_02()     { test("?x != 1"); }
+    @Test public void compiled_cmp_03()     { test("?x < 2"); }
+    @Test public void compiled_cmp_04()     { test("?x <= 2"); }
+    @Test public void compiled_cmp_05()     { test("?x > -3"); }
+    @Test public void compiled_cmp_06()     { test("2 >= ?x"); }
+    @Test public void compiled_cmp_07()     { test("?x < ?y"); }
+    @Test public void compiled_cmp_08()     { test("?x = ?y"); }
+    @Test public void compiled_cmp_09()     { test("?x = 'abc'"); }
+    @Test public void compiled_cmp_10()     { test("?x < 'abd'"); }
+    @Test public void compiled_cmp_11()     { test("?x != 'abc'"); }
+    @Test public void compiled_cmp_12()     { test("?x > 1234567890123456789012"); }
+    @Test public void compiled_cmp_13()     { test("?x = '2024-01-01'^^xsd:date"); }
+
+    @Test public void compiled_logic_01()   { test("?x > 1 && ?y < 2"); }
+    @Test public void compiled_logic_02()   { test("?x > 1 || ?y < 2"); }
+    @Test public void compiled_logic_03()   { test("! ( ?x = 'abc' )"); }
+    @Test public void compiled_logic_04()   { test("! bound(?x) || ?x = ?y"); }
+    @Test public void compiled_logic_05()   { test("?x && ?y"); }
+    @Test public void compiled_logic_06()   { test("! ?x"); }
+
+    @Test public void compiled_func_01()    { test("?x + 1"); }
+    @Test public void compiled_func_02()    { test("?x + ?y > 2"); }
+    @Test public void compiled_func_03()    { test("strlen(str(?x)) = 3"); }
+    @Test public void compiled_func_04()    { test("concat(str(?x), '-', str(?y))"); }
+    @Test public void compiled_func_05()    { test("substr(str(?x), 1, 2)"); }
+    @Test public void compiled_func_06()    { test("if(?x > 1, ?x, ?y)"); }
+    @Test public void compiled_func_07()    { test("coalesce(?x, ?y)"); }
+    @Test public void compiled_func_08()    { test("?x in (1, 'abc')"); }
+    @Test public void compiled_func_09()    { test("str(?x < 2)"); }
+    @Test public void compiled_func_10()    { test("isLiteral(?x) && lang(?x) = ''"); }
+
+    // Compare the outcome of the compiled expression and the expression for
+    // bindings of ?x and ?y to combinations of values.
+    private static void test(String exprString) {
+        Expr expr = ExprUtils.parse(exprString, PrefixMapping.Standard);
+        CompiledExpr compiled = CompiledExpr.compile(expr);
+        FunctionEnvBase env = new FunctionEnvBase();
+        for ( String xs : values ) {
+            for ( String ys : values ) {
+                Binding binding = binding(xs, ys);
+                assertEquals(outcome(expr, binding, env), outcome(compiled, binding, env), () -> exprString + " : " + binding);
+                assertEquals(expr.isSatisfied(binding, env), compiled.isSatisfied(binding, env), () -> exprString + " : " + binding);
+            }
+        }
+    }
+
+    private static String outcome(Expr expr, Binding binding, FunctionEnvBase env) {
+        try {
+            return expr.eval(binding, env).asNode().toString();
+        } catch (ExprEvalException ex) {
+            return "error";
+        }
+    }
+
+    private static String outcome(CompiledExpr compiled, Binding binding, FunctionEnvBase env) {
+        try {
+            return compiled.eval(binding, env).asNode().toString();
+        } catch (ExprEvalException ex) {
+            return "error";
+        }
+    }
+
+    private static Binding binding(String xs, String ys) {
+        Binding binding = BindingFactory.binding();
+        if ( xs != null )
+            binding = BindingFactory.binding(binding, x, node(xs));
+        if ( ys != null )
+            binding = BindingFactory.binding(binding, y, node(ys));
+        return binding;
+    }
+
+    private static Node node(String string) {
+        return SSE.parseNode(string, PrefixMapping.Standard);
+    }
+
+    @Test public void compiled_query_01() {
+        DatasetGraph dsg = SSE.parseDatasetGraph("""
+            (dataset (graph
+               (:s :p 1) (:s :p 2) (:s :p 10) (:s :p 'abc') (:s :p 'abd') (:s :p 2.5)
+               (:s :q 1) (:s :q 'abc')
+            ))
+            """);
+        String qs = """
+            PREFIX : <http://example/>
+            SELECT * {
+              ?s :p ?o
+              OPTIONAL { ?s :q ?z FILTER(?z = ?o) }
+              BIND(?o + 1 AS ?o1)
+              FILTER(?o > 1 || ?o < 'abd')
+            }""";
+        assertEquals(rows(dsg, qs, false), rows(dsg, qs, true));
+        assertEquals(4, rows(dsg, qs, true).size());
+    }
+
+    private static List<String> rows(DatasetGraph dsg, String queryString, boolean compile) {
+        Context cxt = ARQ.getContext().copy();
+        cxt.set(ARQ.compileExpressions, compile);
+        List<String> rows = new ArrayList<>();
+        try ( QueryExec qExec = QueryExec.dataset(dsg).query(queryString).context(cxt).build() ) {
+            RowSet rowSet = qExec.select();
+            rowSet.forEachRemaining(row -> {
+                List<String> strs = new ArrayList<>();
+                row.forEach((v, n) -> strs.add(v + "=" + n));
+                strs.sort(null);
+                rows.add(strs.toString());
+            });
+        }
+        rows.sort(null);
+        return rows;
+    }
+}
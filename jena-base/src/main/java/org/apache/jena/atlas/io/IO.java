@@ -402,6 +402,8 @@ public class IO
             return input;
         if ( input instanceof ByteArrayInputStream )
             return input;
+        if ( input instanceof InputStreamByteBuffer )
+            return input;
         return new BufferedInputStream(input, BUFSIZE_IN);
     }
 
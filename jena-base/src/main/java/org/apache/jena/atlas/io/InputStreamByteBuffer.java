@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.apache.jena.atlas.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An {@link InputStream} over the bytes of a {@link ByteBuffer}, such as a
+ * memory-mapped file.
+ * <p>
+ * Code that can work on bytes in memory can use {@link #getByteBuffer()} instead of
+ * reading the stream, and so avoid copying the bytes.
+ */
+public final class InputStreamByteBuffer extends InputStream {
+
+    private final ByteBuffer byteBuffer;
+
+    /**
+     * Memory-map a file, read-only. The file must be less than 2G bytes, the limit
+     * of a {@code ByteBuffer}; larger files throw an {@code IOException}.
+     * The mapping is released when the {@code ByteBuffer} is garbage collected.
+     */
+    public static InputStreamByteBuffer mapFile(Path path) throws IOException {
+        try ( FileChannel channel = FileChannel.open(path, StandardOpenOption.READ) ) {
+            long size = channel.size();
+            if ( size > Integer.MAX_VALUE )
+                throw new IOException("File too large to map: " + path);
+            return new InputStreamByteBuffer(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    /** An {@code InputStream} of the bytes from the position to the limit of the {@code ByteBuffer}. */
+    public InputStreamByteBuffer(ByteBuffer byteBuffer) {
+        this.byteBuffer = byteBuffer.slice();
+    }
+
+    /**
+     * The bytes not yet read from this stream. Reading from the returned
+     * {@code ByteBuffer} does not change this stream.
+     */
+    public ByteBuffer getByteBuffer() {
+        return byteBuffer.slice();
+    }
+
+    @Override
+    public int read() {
+        if ( !byteBuffer.hasRemaining() )
+            return -1;
+        return byteBuffer.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int off, int len) {
+        if ( len == 0 )
+            return 0;
+        int n = Math.min(len, byteBuffer.remaining());
+        if ( n == 0 )
+            return -1;
+        byteBuffer.get(bytes, off, n);
+        return n;
+    }
+
+    @Override
+    public long skip(long n) {
+        int x = (int)Math.max(0, Math.min(n, byteBuffer.remaining()));
+        byteBuffer.position(byteBuffer.position() + x);
+        return x;
+    }
+
+    @Override
+    public int available() {
+        return byteBuffer.remaining();
+    }
+}
@@ -24,6 +24,7 @@ package org.apache.jena.atlas.lib ;
 import org.apache.jena.atlas.lib.cache.*;
 
 import java.util.function.BiConsumer;
+import java.util.function.ToIntBiFunction;
 
 public class CacheFactory {
     /**
@@ -60,12 +61,52 @@ public class CacheFactory {
         return new CacheCaffeine<>(maxSize, dropHandler, initialCapacityFactor) ;
     }
 
+    /**
+     * Create a cache limited by the total weight of its entries, not the number of entries.
+     * The weight of an entry is calculated when it is added.
+     * This is an LRU cache, or similar.
+     * The cache returns null for a cache miss.
+     * The cache is thread-safe for single operations.
+     */
+    public static <Key, Value> Cache<Key, Value> createWeightedCache(long maxWeight, ToIntBiFunction<Key, Value> weigher) {
+        com.github.benmanes.caffeine.cache.Cache<Key, Value> caffeine =
+            com.github.benmanes.caffeine.cache.Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .<Key, Value>weigher(weigher::applyAsInt)
+                // Eviction immediately using the caller thread.
+                .executor(c->c.run())
+                .build();
+        return wrap(caffeine) ;
+    }
+
     /** Wrap an existing Caffeine cache */
     public static <Key, Value> Cache<Key, Value> wrap(com.github.benmanes.caffeine.cache.Cache<Key,Value> caffeine) {
         // Use a configured and built Caffeine cache with this API.
         return new CacheCaffeine<>(caffeine) ;
     }
 
+    /**
+     * Create a cache that stores entries outside the Java heap,
+     * limited by a number of bytes, not the number of entries.
+     * Keys and values are held in their encoded form.
+     * The cache is thread-safe.
+     * @see CacheOffHeap
+     */
+    public static <Key, Value> Cache<Key, Value> createOffHeapCache(long maxBytes,
+                                                                    CacheOffHeap.Codec<Key> keyCodec,
+                                                                    CacheOffHeap.Codec<Value> valueCodec) {
+        return new CacheOffHeap<>(maxBytes, keyCodec, valueCodec) ;
+    }
+
+    /**
+     * Create a two level cache where the first level is in front of the second level.
+     * Updates go to both caches.
+     * @see CacheTiered
+     */
+    public static <Key, Value> Cache<Key, Value> createTieredCache(Cache<Key, Value> level1, Cache<Key, Value> level2) {
+        return new CacheTiered<>(level1, level2) ;
+    }
+
     /**
      * Create a null cache.
      * <p>
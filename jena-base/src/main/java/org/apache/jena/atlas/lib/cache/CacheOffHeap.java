@@ -0,0 +1,414 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.atlas.lib.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.apache.jena.atlas.lib.Cache;
+import org.apache.jena.atlas.lib.Closeable;
+
+/**
+ * A cache that keeps its entries outside the Java heap, in direct
+ * {@link ByteBuffer ByteBuffers}, and is bounded by a number of bytes, not a number of entries.
+ * <p>
+ * Keys and values are stored in their encoded form, as given by a {@link Codec}.
+ * There are no per-entry Java objects, so a large cache does not add to garbage collection work;
+ * the cost is encoding on {@code put} and decoding on a cache hit.
+ * <p>
+ * The space is split into segments, selected by key hash. Each segment is an append-only
+ * ring of entries with an open-addressed index of slots. When a segment is full, the
+ * oldest entries are overwritten (FIFO eviction). Entries larger than a quarter of a
+ * segment are not cached.
+ * <p>
+ * Direct memory is limited by the JVM setting {@code -XX:MaxDirectMemorySize}.
+ * {@link #close} drops the buffers, and the garbage collector frees the direct memory;
+ * after that, the cache is empty and does not keep any new entries.
+ * <p>
+ * This cache is thread-safe.
+ */
+public class CacheOffHeap<K, V> implements Cache<K, V>, Closeable {
+
+    /** Conversion of keys and values to and from bytes. */
+    public interface Codec<X> {
+        public byte[] encode(X x);
+        public X decode(byte[] bytes);
+    }
+
+    /** Smallest total size. */
+    public static final long MinSize                = 64*1024;
+    // A ByteBuffer is indexed by int.
+    private static final long MaxSegmentSize        = 1L<<30;
+    // Segments are split for concurrency down to this size.
+    private static final long MinSplitSegmentSize   = 16*1024*1024;
+    private static final int  MaxConcurrency        = 16;
+    // Average bytes of entry space per index slot.
+    private static final int  BytesPerSlot          = 64;
+    private static final int  ProbeLimit            = 8;
+    // Entry header: hash, key length, value length.
+    private static final int  HeaderLen             = 3*Integer.BYTES;
+
+    private final Segment[] segments;
+    private final int segmentBits;
+    private final Codec<K> keyCodec;
+    private final Codec<V> valueCodec;
+
+    /**
+     * Create an off-heap cache using up to {@code maxBytes} of direct memory
+     * for entries and the index.
+     */
+    public CacheOffHeap(long maxBytes, Codec<K> keyCodec, Codec<V> valueCodec) {
+        Objects.requireNonNull(keyCodec);
+        Objects.requireNonNull(valueCodec);
+        if ( maxBytes < MinSize )
+            throw new IllegalArgumentException("Off-heap cache size too small: "+maxBytes+" (min: "+MinSize+")");
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        int n = 1;
+        while ( maxBytes / n > MaxSegmentSize )
+            n = n * 2;
+        while ( n < MaxConcurrency && maxBytes / (2L*n) >= MinSplitSegmentSize )
+            n = n * 2;
+        this.segmentBits = Integer.numberOfTrailingZeros(n);
+        this.segments = new Segment[n];
+        for ( int i = 0 ; i < n ; i++ )
+            segments[i] = new Segment(maxBytes / n);
+    }
+
+    private static int hash(byte[] key) {
+        // Spread the bits (murmur3 finalizer).
+        int h = Arrays.hashCode(key);
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private Segment segment(int hash) {
+        if ( segmentBits == 0 )
+            return segments[0];
+        // Use different bits from the slot index within a segment.
+        return segments[(hash * 0x9E3779B9) >>> (32 - segmentBits)];
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        Objects.requireNonNull(key);
+        byte[] k = keyCodec.encode(key);
+        int hash = hash(k);
+        return segment(hash).get(hash, k) != null;
+    }
+
+    @Override
+    public V getIfPresent(K key) {
+        Objects.requireNonNull(key);
+        byte[] k = keyCodec.encode(key);
+        int hash = hash(k);
+        byte[] v = segment(hash).get(hash, k);
+        if ( v == null )
+            return null;
+        return valueCodec.decode(v);
+    }
+
+    @Override
+    public V get(K key, Function<K, V> function) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(function);
+        byte[] k = keyCodec.encode(key);
+        int hash = hash(k);
+        Segment segment = segment(hash);
+        byte[] v = segment.get(hash, k);
+        if ( v != null )
+            return valueCodec.decode(v);
+        V value = function.apply(key);
+        if ( value != null )
+            segment.put(hash, k, valueCodec.encode(value));
+        return value;
+    }
+
+    @Override
+    public void put(K key, V thing) {
+        Objects.requireNonNull(key);
+        if ( thing == null ) {
+            remove(key);
+            return;
+        }
+        byte[] k = keyCodec.encode(key);
+        int hash = hash(k);
+        segment(hash).put(hash, k, valueCodec.encode(thing));
+    }
+
+    @Override
+    public void remove(K key) {
+        Objects.requireNonNull(key);
+        byte[] k = keyCodec.encode(key);
+        int hash = hash(k);
+        segment(hash).remove(hash, k);
+    }
+
+    @Override
+    public Iterator<K> keys() {
+        List<K> keys = new ArrayList<>();
+        for ( Segment segment : segments )
+            segment.forEachKey(k->keys.add(keyCodec.decode(k)));
+        return keys.iterator();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for ( Segment segment : segments ) {
+            if ( segment.size() > 0 )
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        for ( Segment segment : segments )
+            segment.clear();
+    }
+
+    /** Release the direct memory of the cache to the garbage collector. */
+    @Override
+    public void close() {
+        for ( Segment segment : segments )
+            segment.release();
+    }
+
+    /** Current number of entries. This is calculated by scanning the cache index. */
+    @Override
+    public long size() {
+        long x = 0;
+        for ( Segment segment : segments )
+            x += segment.size();
+        return x;
+    }
+
+    /**
+     * A segment : a ring of entries in a direct ByteBuffer, and an index of slots
+     * (also direct memory) holding the logical position of an entry plus one (zero is "unused").
+     * <p>
+     * Logical positions increase monotonically; the physical offset is the
+     * logical position modulo the capacity. An entry is live if it has not been
+     * overwritten by a later entry.
+     */
+    private static class Segment {
+        private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+        // Set to null when released.
+        private ByteBuffer slab;
+        private LongBuffer index;
+        private boolean released = false;
+        private final int capacity;
+        private final int indexMask;
+        private long writePosn = 0;
+
+        Segment(long segmentSize) {
+            // Split between index and entry space.
+            int slots = Integer.highestOneBit((int)(segmentSize / (BytesPerSlot + Long.BYTES)));
+            this.indexMask = slots - 1;
+            this.capacity = (int)(segmentSize - (long)slots * Long.BYTES);
+            this.slab = ByteBuffer.allocateDirect(capacity);
+            this.index = ByteBuffer.allocateDirect(slots * Long.BYTES).asLongBuffer();
+        }
+
+        void release() {
+            rwLock.writeLock().lock();
+            try {
+                if ( released )
+                    return;
+                released = true;
+                slab = null;
+                index = null;
+            } finally { rwLock.writeLock().unlock(); }
+        }
+
+        byte[] get(int hash, byte[] key) {
+            rwLock.readLock().lock();
+            try {
+                if ( released )
+                    return null;
+                int slot = findSlot(hash, key);
+                if ( slot < 0 )
+                    return null;
+                int offset = offset(index.get(slot) - 1);
+                int keyLen = slab.getInt(offset + Integer.BYTES);
+                int valueLen = slab.getInt(offset + 2 * Integer.BYTES);
+                byte[] value = new byte[valueLen];
+                slab.get(offset + HeaderLen + keyLen, value);
+                return value;
+            } finally { rwLock.readLock().unlock(); }
+        }
+
+        void put(int hash, byte[] key, byte[] value) {
+            int len = HeaderLen + key.length + value.length;
+            if ( len > capacity / 4 ) {
+                // Too large to cache. Remove any old entry.
+                remove(hash, key);
+                return;
+            }
+            rwLock.writeLock().lock();
+            try {
+                if ( released )
+                    return;
+                // Use the slot for the key if it is present, else the first free slot
+                // else evict the entry in the home slot.
+                int target = -1;
+                for ( int i = 0 ; i < ProbeLimit ; i++ ) {
+                    int slot = (hash + i) & indexMask;
+                    long x = index.get(slot);
+                    if ( x == 0 || !isLive(x - 1) ) {
+                        if ( target < 0 )
+                            target = slot;
+                        continue;
+                    }
+                    if ( matches(x - 1, hash, key) ) {
+                        target = slot;
+                        break;
+                    }
+                }
+                if ( target < 0 )
+                    target = hash & indexMask;
+                long posn = allocate(len);
+                int offset = offset(posn);
+                slab.putInt(offset, hash);
+                slab.putInt(offset + Integer.BYTES, key.length);
+                slab.putInt(offset + 2 * Integer.BYTES, value.length);
+                slab.put(offset + HeaderLen, key);
+                slab.put(offset + HeaderLen + key.length, value);
+                index.put(target, posn + 1);
+            } finally { rwLock.writeLock().unlock(); }
+        }
+
+        void remove(int hash, byte[] key) {
+            rwLock.writeLock().lock();
+            try {
+                if ( released )
+                    return;
+                int slot = findSlot(hash, key);
+                if ( slot >= 0 )
+                    index.put(slot, 0);
+            } finally { rwLock.writeLock().unlock(); }
+        }
+
+        void clear() {
+            rwLock.writeLock().lock();
+            try {
+                if ( released )
+                    return;
+                for ( int i = 0 ; i <= indexMask ; i++ )
+                    index.put(i, 0);
+                writePosn = 0;
+            } finally { rwLock.writeLock().unlock(); }
+        }
+
+        long size() {
+            rwLock.readLock().lock();
+            try {
+                if ( released )
+                    return 0;
+                long count = 0;
+                for ( int i = 0 ; i <= indexMask ; i++ ) {
+                    long x = index.get(i);
+                    if ( x != 0 && isLive(x - 1) )
+                        count++;
+                }
+                return count;
+            } finally { rwLock.readLock().unlock(); }
+        }
+
+        void forEachKey(Consumer<byte[]> action) {
+            rwLock.readLock().lock();
+            try {
+                if ( released )
+                    return;
+                for ( int i = 0 ; i <= indexMask ; i++ ) {
+                    long x = index.get(i);
+                    if ( x == 0 || !isLive(x - 1) )
+                        continue;
+                    int offset = offset(x - 1);
+                    byte[] key = new byte[slab.getInt(offset + Integer.BYTES)];
+                    slab.get(offset + HeaderLen, key);
+                    action.accept(key);
+                }
+            } finally { rwLock.readLock().unlock(); }
+        }
+
+        // Lock held.
+        private int findSlot(int hash, byte[] key) {
+            for ( int i = 0 ; i < ProbeLimit ; i++ ) {
+                int slot = (hash + i) & indexMask;
+                long x = index.get(slot);
+                if ( x == 0 || !isLive(x - 1) )
+                    continue;
+                if ( matches(x - 1, hash, key) )
+                    return slot;
+            }
+            return -1;
+        }
+
+        // Lock held.
+        private boolean matches(long posn, int hash, byte[] key) {
+            int offset = offset(posn);
+            if ( slab.getInt(offset) != hash )
+                return false;
+            if ( slab.getInt(offset + Integer.BYTES) != key.length )
+                return false;
+            int start = offset + HeaderLen;
+            for ( int i = 0 ; i < key.length ; i++ ) {
+                if ( slab.get(start + i) != key[i] )
+                    return false;
+            }
+            return true;
+        }
+
+        // Lock held. Entries are contiguous : skip to the start if the entry does not fit at the end.
+        private long allocate(int len) {
+            int offset = offset(writePosn);
+            if ( offset + len > capacity )
+                writePosn += capacity - offset;
+            long posn = writePosn;
+            writePosn += len;
+            return posn;
+        }
+
+        // Lock held. Anything before (writePosn - capacity) has been overwritten.
+        private boolean isLive(long posn) {
+            return posn >= writePosn - capacity;
+        }
+
+        private int offset(long posn) {
+            return (int)(posn % capacity);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.atlas.lib.cache;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.atlas.lib.Cache;
+
+/**
+ * A two level cache: a small, fast, first level cache in front of a larger second
+ * level cache (e.g. {@link CacheOffHeap}).
+ * <p>
+ * Updates are written to both levels. A hit in the second level is copied into the first level.
+ * <p>
+ * This cache is thread-safe if both the underlying caches are thread-safe.
+ */
+public class CacheTiered<K, V> implements Cache<K, V> {
+    private final Cache<K, V> level1;
+    private final Cache<K, V> level2;
+
+    public CacheTiered(Cache<K, V> level1, Cache<K, V> level2) {
+        this.level1 = Objects.requireNonNull(level1);
+        this.level2 = Objects.requireNonNull(level2);
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return level1.containsKey(key) || level2.containsKey(key);
+    }
+
+    @Override
+    public V getIfPresent(K key) {
+        V value = level1.getIfPresent(key);
+        if ( value != null )
+            return value;
+        value = level2.getIfPresent(key);
+        if ( value != null )
+            level1.put(key, value);
+        return value;
+    }
+
+    @Override
+    public V get(K key, Function<K, V> function) {
+        Objects.requireNonNull(function);
+        V value = getIfPresent(key);
+        if ( value != null )
+            return value;
+        value = function.apply(key);
+        if ( value != null )
+            put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(K key, V thing) {
+        level1.put(key, thing);
+        level2.put(key, thing);
+    }
+
+    @Override
+    public void remove(K key) {
+        level1.remove(key);
+        level2.remove(key);
+    }
+
+    @Override
+    public Iterator<K> keys() {
+        return Iter.distinct(Iter.concat(level1.keys(), level2.keys()));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return level1.isEmpty() && level2.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        level1.clear();
+        level2.clear();
+    }
+
+    /** Size of the cache. This is the size of the larger of the two levels. */
+    @Override
+    public long size() {
+        return Math.max(level1.size(), level2.size());
+    }
+
+    public Cache<K, V> getLevel1() {
+        return level1;
+    }
+
+    public Cache<K, V> getLevel2() {
+        return level2;
+    }
+}
@@ -31,6 +31,7 @@ import org.junit.platform.suite.api.Suite;
     , TestStreamUTF8.class
     , TestBlockUTF8.class
     , TestInputStreamBuffered.class
+    , TestInputStreamByteBuffer.class
 
     // Peek readers.
     , TestPeekReaderSource.class
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.apache.jena.atlas.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+public class TestInputStreamByteBuffer {
+    @Test
+    public void test_01() throws IOException {
+        InputStream in = new InputStreamByteBuffer(ByteBuffer.allocate(0));
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    public void test_02() throws IOException {
+        InputStream in = new InputStreamByteBuffer(ByteBuffer.wrap(new byte[] {1, 2, 3, (byte)0xFF}));
+        assertEquals(1, in.read());
+        assertEquals(2, in.read());
+        assertEquals(3, in.read());
+        assertEquals(0xFF, in.read());
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    public void test_03() throws IOException {
+        ByteBuffer bb = ByteBuffer.wrap(new byte[] {1, 2, 3, 4, 5});
+        bb.position(1);
+        InputStreamByteBuffer in = new InputStreamByteBuffer(bb);
+        assertEquals(2, in.read());
+        assertEquals(3, in.getByteBuffer().get(0));
+        assertEquals(3, in.getByteBuffer().remaining());
+        byte[] b = new byte[10];
+        assertEquals(3, in.read(b, 0, 10));
+        assertEquals(5, b[2]);
+        assertEquals(-1, in.read(b, 0, 10));
+        // The argument ByteBuffer is not changed.
+        assertEquals(1, bb.position());
+    }
+
+    @Test
+    public void test_mapFile() throws IOException {
+        Path path = Files.createTempFile("jena", ".bin");
+        try {
+            byte[] bytes = {10, 20, 30};
+            Files.write(path, bytes);
+            try ( InputStream in = InputStreamByteBuffer.mapFile(path) ) {
+                assertArrayEquals(bytes, in.readAllBytes());
+            }
+        } finally {
+            // Ignore failure e.g. MS Windows if the mapping is still in use.
+            path.toFile().delete();
+        }
+    }
+}
@@ -23,6 +23,7 @@ package org.apache.jena.atlas.lib;
 
 import org.apache.jena.atlas.lib.cache.TestCache;
 import org.apache.jena.atlas.lib.cache.TestCache2;
+import org.apache.jena.atlas.lib.cache.TestCacheOffHeap;
 import org.apache.jena.atlas.lib.cache.TestCacheSimple;
 
 import org.junit.platform.suite.api.SelectClasses;
@@ -54,6 +55,7 @@ import org.junit.platform.suite.api.Suite;
     , TestNumberUtils.class
     , TestDateTimeUtils.class
     , TestCacheSimple.class
+    , TestCacheOffHeap.class
     , TestRefCountingMap.class
     , TestVersion.class
     , TestPowerSet.class
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.atlas.lib.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.atlas.lib.Cache;
+import org.apache.jena.atlas.lib.CacheFactory;
+
+/**
+ * Tests of CacheOffHeap and CacheTiered
+ */
+public class TestCacheOffHeap {
+
+    private static CacheOffHeap.Codec<String> codec = new CacheOffHeap.Codec<>() {
+        @Override
+        public byte[] encode(String x) { return x.getBytes(StandardCharsets.UTF_8); }
+        @Override
+        public String decode(byte[] bytes) { return new String(bytes, StandardCharsets.UTF_8); }
+    };
+
+    private static Cache<String, String> create(long size) {
+        return CacheFactory.createOffHeapCache(size, codec, codec);
+    }
+
+    @Test public void offHeap_01() {
+        Cache<String, String> cache = create(CacheOffHeap.MinSize);
+        assertTrue(cache.isEmpty());
+        cache.put("key", "value");
+        assertFalse(cache.isEmpty());
+        assertEquals(1, cache.size());
+        assertTrue(cache.containsKey("key"));
+        assertEquals("value", cache.getIfPresent("key"));
+        assertNull(cache.getIfPresent("other"));
+    }
+
+    @Test public void offHeap_02() {
+        Cache<String, String> cache = create(CacheOffHeap.MinSize);
+        cache.put("key", "value1");
+        cache.put("key", "value2");
+        assertEquals(1, cache.size());
+        assertEquals("value2", cache.getIfPresent("key"));
+        cache.remove("key");
+        assertNull(cache.getIfPresent("key"));
+        assertTrue(cache.isEmpty());
+    }
+
+    @Test public void offHeap_03() {
+        Cache<String, String> cache = create(CacheOffHeap.MinSize);
+        String x = cache.get("key", k->"value");
+        assertEquals("value", x);
+        String y = cache.get("key", k->{ throw new RuntimeException(); });
+        assertEquals("value", y);
+        cache.clear();
+        assertTrue(cache.isEmpty());
+        assertFalse(cache.containsKey("key"));
+    }
+
+    // Fill beyond the byte limit : old entries are evicted, new ones are retained.
+    @Test public void offHeap_04() {
+        Cache<String, String> cache = create(CacheOffHeap.MinSize);
+        int N = 10_000;
+        for ( int i = 0 ; i < N ; i++ )
+            cache.put("key-"+i, "value-"+i);
+        assertTrue(cache.size() < N);
+        assertEquals("value-"+(N-1), cache.getIfPresent("key-"+(N-1)));
+        assertNull(cache.getIfPresent("key-0"));
+        // All present entries are correct.
+        cache.keys().forEachRemaining(k->{
+            String v = cache.getIfPresent(k);
+            assertEquals(k.replace("key-", "value-"), v);
+        });
+    }
+
+    // Too large to cache.
+    @Test public void offHeap_05() {
+        Cache<String, String> cache = create(CacheOffHeap.MinSize);
+        String big = "x".repeat((int)CacheOffHeap.MinSize);
+        cache.put("key", "value");
+        cache.put("key", big);
+        assertNull(cache.getIfPresent("key"));
+    }
+
+    @Test public void offHeap_06() {
+        assertThrows(IllegalArgumentException.class, ()->create(1000));
+    }
+
+    // Closed: the direct memory is released and the cache no longer keeps entries.
+    @Test public void offHeap_07() {
+        CacheOffHeap<String, String> cache = new CacheOffHeap<>(CacheOffHeap.MinSize, codec, codec);
+        cache.put("key", "value");
+        cache.close();
+        assertNull(cache.getIfPresent("key"));
+        assertTrue(cache.isEmpty());
+        cache.put("key", "value");
+        assertNull(cache.getIfPresent("key"));
+        assertFalse(cache.keys().hasNext());
+        // Close again is a no-op.
+        cache.close();
+    }
+
+    @Test public void tiered_01() {
+        Cache<String, String> level1 = CacheFactory.createCache(2);
+        Cache<String, String> level2 = create(CacheOffHeap.MinSize);
+        Cache<String, String> cache = CacheFactory.createTieredCache(level1, level2);
+        cache.put("key", "value");
+        assertEquals("value", level1.getIfPresent("key"));
+        assertEquals("value", level2.getIfPresent("key"));
+        level1.clear();
+        assertEquals("value", cache.getIfPresent("key"));
+        // Promoted
+        assertEquals("value", level1.getIfPresent("key"));
+        assertEquals(1, Iter.count(cache.keys()));
+    }
+}
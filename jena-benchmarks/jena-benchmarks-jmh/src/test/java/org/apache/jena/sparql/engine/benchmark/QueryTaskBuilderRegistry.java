@@ -34,6 +34,7 @@ public class QueryTaskBuilderRegistry {
 
     static {
         INSTANCE.put("current", QueryTaskBuilderCurrent::new);
+        INSTANCE.put("current-parallel", () -> new QueryTaskBuilderCurrent(Runtime.getRuntime().availableProcessors()));
         INSTANCE.put("5.6.0", QueryTaskBuilder560::new);
     }
 
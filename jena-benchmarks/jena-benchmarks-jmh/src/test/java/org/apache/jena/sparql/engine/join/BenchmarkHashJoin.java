@@ -42,6 +42,7 @@ import org.openjdk.jmh.runner.options.TimeValue;
 public class BenchmarkHashJoin {
     @Param({
         "current",
+        "current-parallel",
         "5.6.0"
     })
     public String param0_jenaVersion;
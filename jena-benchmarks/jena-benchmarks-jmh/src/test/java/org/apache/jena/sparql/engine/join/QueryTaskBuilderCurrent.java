@@ -26,8 +26,19 @@ import org.apache.jena.sparql.engine.benchmark.QueryTaskBuilder;
 public class QueryTaskBuilderCurrent
     extends QueryTaskBuilder
 {
+    private final int parallelHashJoin;
+
+    public QueryTaskBuilderCurrent() {
+        this(0);
+    }
+
+    /** Builder for tasks that use the parallel hash join with the given number of partitions. */
+    public QueryTaskBuilderCurrent(int parallelHashJoin) {
+        this.parallelHashJoin = parallelHashJoin;
+    }
+
     @Override
     public QueryTask build() {
-        return new QueryTaskCurrent(queryString, expectedResultSetSize, skipExecution, skipValidation);
+        return new QueryTaskCurrent(queryString, expectedResultSetSize, skipExecution, skipValidation, parallelHashJoin);
     }
 }
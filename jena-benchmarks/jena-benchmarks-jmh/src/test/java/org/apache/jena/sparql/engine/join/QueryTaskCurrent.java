@@ -39,8 +39,15 @@ import org.apache.jena.sparql.util.Context;
 public class QueryTaskCurrent
     extends QueryTask
 {
+    private final int parallelHashJoin;
+
     public QueryTaskCurrent(String queryString, long expectedResultSetSize, boolean skipExecution, boolean skipValidation) {
+        this(queryString, expectedResultSetSize, skipExecution, skipValidation, 0);
+    }
+
+    public QueryTaskCurrent(String queryString, long expectedResultSetSize, boolean skipExecution, boolean skipValidation, int parallelHashJoin) {
         super(queryString, expectedResultSetSize, skipExecution, skipValidation);
+        this.parallelHashJoin = parallelHashJoin;
     }
 
     @Override
@@ -50,6 +57,8 @@ public class QueryTaskCurrent
             ops[0] = origOp;
             ops[1] = optimizedOp;
         });
+        if ( parallelHashJoin > 1 )
+            cxt.set(ARQ.parallelHashJoin, parallelHashJoin);
 
         long resultCount;
         try (QueryExec qe = QueryExec.newBuilder()
@@ -44,6 +44,12 @@ public interface BlockMgr extends Sync, Closeable /*UnitMgr<Block>*/
     /** Fetch a block, use for read only */
     public Block getRead(long id);
 
+    /**
+     * Hint that the blocks will be read soon, so they can be fetched in the background.
+     * The default does nothing.
+     */
+    public default void prefetch(long... ids) {}
+
     /** Fetch a block, use for write and read - only inside "update" */
     public Block getWrite(long id);
 
@@ -22,6 +22,7 @@
 package org.apache.jena.dboe.base.block;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.function.BiConsumer;
@@ -141,6 +142,22 @@ public class BlockMgrCache extends BlockMgrSync {
         return blk;
     }
 
+    @Override
+    synchronized public void prefetch(long... ids) {
+        // Only the blocks that are not in a cache.
+        long[] misses = new long[ids.length];
+        int n = 0;
+        for ( long id : ids ) {
+            if ( readCache.containsKey(id) )
+                continue;
+            if ( writeCache != null && writeCache.containsKey(id) )
+                continue;
+            misses[n++] = id;
+        }
+        if ( n > 0 )
+            super.prefetch(Arrays.copyOf(misses, n));
+    }
+
     @Override
     synchronized public Block getWrite(long _id) {
         Long id = _id;
@@ -90,6 +90,8 @@ public class BlockMgrFactory {
                 return createMMapFile(filename, blockSize);
             case direct :
                 return createStdFile(filename, blockSize, readBlockCacheSize, writeBlockCacheSize);
+            case directAsync :
+                return createStdFileAsync(filename, blockSize, readBlockCacheSize, writeBlockCacheSize);
         }
         throw new DBOpEnvException("Unknown file mode: " + fileMode);
     }
@@ -109,6 +111,14 @@ public class BlockMgrFactory {
         return track(blockMgr);
     }
 
+    /** Create a Block Manager using direct access with read-ahead (and a cache) */
+    public static BlockMgr createStdFileAsync(String filename, int blockSize, int readBlockCacheSize, int writeBlockCacheSize) {
+        BlockAccess file = new BlockAccessDirectAsync(filename, blockSize);
+        BlockMgr blockMgr = wrapFileAccess(file, blockSize);
+        blockMgr = addCache(blockMgr, readBlockCacheSize, writeBlockCacheSize);
+        return track(blockMgr);
+    }
+
     /** Create a Block Manager using direct access, no caching, no nothing. */
     public static BlockMgr createStdFileNoCache(String filename, int blockSize) {
         BlockAccess blockAccess = new BlockAccessDirect(filename, blockSize);
@@ -69,6 +69,13 @@ final public class BlockMgrFileAccess extends BlockMgrBase {
         return getBlock(id, false);
     }
 
+    @Override
+    public void prefetch(long... ids) {
+        if ( closed )
+            return;
+        file.prefetch(ids);
+    }
+
     private Block getBlock(long id, boolean readOnly) {
         checkNotClosed();
         Block block = file.read(id);
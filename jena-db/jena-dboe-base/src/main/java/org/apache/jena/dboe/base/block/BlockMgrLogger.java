@@ -21,6 +21,8 @@
 
 package org.apache.jena.dboe.base.block;
 
+import java.util.Arrays;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -86,6 +88,12 @@ public class BlockMgrLogger implements BlockMgr // extends BlockMgrWrapper
         return blockMgr.getRead(id);
     }
 
+    @Override
+    public void prefetch(long... ids) {
+        info("prefetch(" + Arrays.toString(ids) + ")");
+        blockMgr.prefetch(ids);
+    }
+
     @Override
     public Block getWrite(long id) {
         info("getWrite(" + id + ")");
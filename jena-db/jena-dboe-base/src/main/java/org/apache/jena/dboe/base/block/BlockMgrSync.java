@@ -47,6 +47,12 @@ public class BlockMgrSync implements BlockMgr {
         return blockMgr.getRead(id);
     }
 
+    // Not synchronized: prefetch does not change the state seen through this BlockMgr.
+    @Override
+    public void prefetch(long... ids) {
+        blockMgr.prefetch(ids);
+    }
+
     @Override
     synchronized public Block getWrite(long id) {
         return blockMgr.getWrite(id);
@@ -49,6 +49,11 @@ public class BlockMgrWrapper implements BlockMgr {
         return blockMgr.getRead(id);
     }
 
+    @Override
+    public void prefetch(long... ids) {
+        blockMgr.prefetch(ids);
+    }
+
     @Override
     public Block getWrite(long id) {
         return blockMgr.getWrite(id);
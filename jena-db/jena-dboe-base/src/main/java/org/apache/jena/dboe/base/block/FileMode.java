@@ -26,5 +26,7 @@ public enum FileMode
     /** Use memory mapped files */
     mapped,
     /** Use in-JVM caching */
-    direct;
+    direct,
+    /** Use in-JVM caching, and read blocks ahead with several outstanding reads. */
+    directAsync;
 }
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.dboe.base.buffer;
+
+import static java.lang.String.format;
+
+import java.nio.ByteBuffer;
+
+import org.apache.jena.dboe.base.record.RecordException;
+
+/**
+ * Prefix (front) encoding of the sorted, fixed length records of a {@link RecordBuffer}.
+ * <p>
+ * Each record is written as one byte, the length of the prefix it shares with the
+ * previous record, followed by the rest of the record. The first record shares nothing.
+ * Records in a B+Tree leaf are sorted so neighbouring records often have a long
+ * common prefix (e.g. the same subject in an SPO index).
+ * <p>
+ * Inserting a record into a sorted sequence never makes the encoding of its
+ * successor longer, and removing a record never makes the whole encoding longer.
+ */
+public final class RecordBufferPrefixEncoding {
+    private RecordBufferPrefixEncoding() {}
+
+    /** The longest record that can be encoded : the prefix length is held in one byte. */
+    public static final int MaxRecordLength = 255;
+
+    /** Space needed for one record in the worst case, when it shares no prefix with the previous record. */
+    public static int maxEntryLength(int recordLength) {
+        return 1 + recordLength;
+    }
+
+    /** Length, in bytes, of the encoding of all the records in the buffer. */
+    public static int encodedLength(RecordBuffer rBuff) {
+        return encodedLength(rBuff, 0, rBuff.numSlot);
+    }
+
+    /** Length, in bytes, of the encoding of records [start, finish) as a sequence on their own. */
+    public static int encodedLength(RecordBuffer rBuff, int start, int finish) {
+        int len = 0;
+        for ( int i = start ; i < finish ; i++ )
+            len += entryLength(rBuff, start, i);
+        return len;
+    }
+
+    /**
+     * The index of the last record of the lower half when splitting the buffer into
+     * two parts with approximately equal encoded lengths. Both parts are not empty.
+     * The buffer must have at least two records.
+     */
+    public static int splitIndex(RecordBuffer rBuff) {
+        int num = rBuff.numSlot;
+        if ( num < 2 )
+            throw new RecordException("splitIndex: too few records: "+num);
+        int half = encodedLength(rBuff) / 2;
+        int len = 0;
+        for ( int i = 0 ; i < num - 1 ; i++ ) {
+            len += entryLength(rBuff, 0, i);
+            if ( len >= half )
+                return i;
+        }
+        return num - 2;
+    }
+
+    /**
+     * Encode the records of the buffer into {@code dst}, starting at {@code offset}.
+     * Return the number of bytes written.
+     */
+    public static int encode(RecordBuffer rBuff, ByteBuffer dst, int offset) {
+        checkRecordLength(rBuff.slotLen);
+        ByteBuffer bb = rBuff.bb;
+        int recLen = rBuff.slotLen;
+        int posn = offset;
+        for ( int i = 0 ; i < rBuff.numSlot ; i++ ) {
+            int prefix = ( i == 0 ) ? 0 : commonPrefix(bb, (i - 1) * recLen, i * recLen, recLen);
+            dst.put(posn, (byte)prefix);
+            posn++;
+            dst.put(posn, bb, i * recLen + prefix, recLen - prefix);
+            posn += recLen - prefix;
+        }
+        return posn - offset;
+    }
+
+    /**
+     * Decode {@code count} records from {@code src}, starting at {@code offset},
+     * into the start of the record buffer and set the buffer size.
+     */
+    public static void decode(ByteBuffer src, int offset, int count, RecordBuffer rBuff) {
+        checkRecordLength(rBuff.slotLen);
+        if ( count > rBuff.maxSlot )
+            throw new RecordException(format("decode: too many records: %d (max %d)", count, rBuff.maxSlot));
+        ByteBuffer bb = rBuff.bb;
+        int recLen = rBuff.slotLen;
+        int posn = offset;
+        for ( int i = 0 ; i < count ; i++ ) {
+            int prefix = src.get(posn) & 0xFF;
+            posn++;
+            if ( prefix > recLen || ( i == 0 && prefix != 0 ) )
+                throw new RecordException(format("decode: bad prefix length %d at record %d", prefix, i));
+            if ( prefix > 0 )
+                bb.put(i * recLen, bb, (i - 1) * recLen, prefix);
+            bb.put(i * recLen + prefix, src, posn, recLen - prefix);
+            posn += recLen - prefix;
+        }
+        rBuff.numSlot = count;
+    }
+
+    private static int entryLength(RecordBuffer rBuff, int start, int i) {
+        int recLen = rBuff.slotLen;
+        if ( i == start )
+            return 1 + recLen;
+        return 1 + recLen - commonPrefix(rBuff.bb, (i - 1) * recLen, i * recLen, recLen);
+    }
+
+    private static int commonPrefix(ByteBuffer bb, int offset1, int offset2, int len) {
+        for ( int i = 0 ; i < len ; i++ ) {
+            if ( bb.get(offset1 + i) != bb.get(offset2 + i) )
+                return i;
+        }
+        return len;
+    }
+
+    private static void checkRecordLength(int recordLength) {
+        if ( recordLength > MaxRecordLength )
+            throw new RecordException(format("Record too long for prefix encoding: %d (max %d)", recordLength, MaxRecordLength));
+    }
+}
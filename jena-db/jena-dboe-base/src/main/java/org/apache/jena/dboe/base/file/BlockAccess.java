@@ -43,6 +43,13 @@ public interface BlockAccess extends Sync, Closeable
 
     public Block read(long id);
 
+    /**
+     * Hint that the blocks will be read soon. An implementation may start reading them
+     * in the background. This does not change the blocks that {@link #read} returns.
+     * The default does nothing.
+     */
+    public default void prefetch(long... ids) {}
+
     public void write(Block block);
 
     public void overwrite(Block block);
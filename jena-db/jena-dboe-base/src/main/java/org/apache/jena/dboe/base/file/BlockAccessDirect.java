@@ -73,7 +73,7 @@ public class BlockAccessDirect extends BlockAccessBase
         { throw new FileException("FileAccessDirect", ex); }
     }
 
-    private final long filePosition(long id) {
+    protected final long filePosition(long id) {
         return id*blockSize;
     }
 
@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.dboe.base.file;
+
+import static java.lang.String.format;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.jena.atlas.lib.FileOps;
+import org.apache.jena.dboe.base.block.Block;
+import org.apache.jena.dboe.sys.SystemIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link BlockAccessDirect} with read-ahead.
+ * <p>
+ * {@link #prefetch} starts reading blocks on a pool of threads, so several reads are
+ * outstanding at once. Runs of consecutive blocks are read with one positional read.
+ * A later {@link #read} of a block uses the block read ahead if there is one, waiting
+ * for the read to finish if necessary.
+ * <p>
+ * Blocks read ahead are dropped when they are written, and the oldest blocks read ahead
+ * are dropped if there are more than {@link SystemIndex#ReadAheadBlocks}.
+ */
+public class BlockAccessDirectAsync extends BlockAccessDirect
+{
+    private static Logger log = LoggerFactory.getLogger(BlockAccessDirectAsync.class);
+
+    // Longest run of consecutive blocks read with one request.
+    private static final int MaxRun = 32;
+
+    private static final ExecutorService executor = Executors.newFixedThreadPool(SystemIndex.ReadAheadThreads, daemonThreads());
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger(0);
+        return r -> {
+            Thread thread = new Thread(r, "DBOE-read-"+counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Blocks read, or being read, ahead. Insertion order, for dropping the oldest.
+    // Access is synchronized on the map.
+    private final Map<Long, CompletableFuture<ByteBuffer>> readAhead = new LinkedHashMap<>(16, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, CompletableFuture<ByteBuffer>> eldest) {
+            return size() > SystemIndex.ReadAheadBlocks;
+        }
+    };
+
+    public BlockAccessDirectAsync(String filename, int blockSize) {
+        super(filename, blockSize);
+    }
+
+    @Override
+    public void prefetch(long... ids) {
+        if ( isClosed() || ids.length == 0 )
+            return;
+        long[] blocks = ids.clone();
+        Arrays.sort(blocks);
+        List<CompletableFuture<ByteBuffer>> run = new ArrayList<>();
+        long runStart = -1;
+        synchronized(readAhead) {
+            for ( long id : blocks ) {
+                if ( !valid(id) || readAhead.containsKey(id) )
+                    continue;
+                if ( run.size() > 0 && ( id != runStart + run.size() || run.size() >= MaxRun ) ) {
+                    submit(runStart, run);
+                    run = new ArrayList<>();
+                }
+                if ( run.isEmpty() )
+                    runStart = id;
+                CompletableFuture<ByteBuffer> future = new CompletableFuture<>();
+                readAhead.put(id, future);
+                run.add(future);
+            }
+        }
+        if ( !run.isEmpty() )
+            submit(runStart, run);
+    }
+
+    private void submit(long start, List<CompletableFuture<ByteBuffer>> run) {
+        FileChannel channel = file;
+        long position = filePosition(start);
+        executor.execute(()->readRun(channel, position, run));
+    }
+
+    private void readRun(FileChannel channel, long position, List<CompletableFuture<ByteBuffer>> run) {
+        try {
+            int length = run.size() * blockSize;
+            ByteBuffer bb = ByteBuffer.allocate(length);
+            while ( bb.hasRemaining() ) {
+                int len = channel.read(bb, position + bb.position());
+                if ( len < 0 )
+                    throw new FileException(format("prefetch: short read (%d, not %d)", bb.position(), length));
+            }
+            for ( int i = 0 ; i < run.size() ; i++ ) {
+                ByteBuffer blockBB = ByteBuffer.allocate(blockSize);
+                blockBB.put(0, bb, i * blockSize, blockSize);
+                run.get(i).complete(blockBB);
+            }
+        } catch (IOException | RuntimeException ex) {
+            run.forEach(f -> f.completeExceptionally(ex));
+        }
+    }
+
+    @Override
+    public Block read(long id) {
+        CompletableFuture<ByteBuffer> future;
+        synchronized(readAhead) {
+            future = readAhead.remove(id);
+        }
+        if ( future != null ) {
+            check(id);
+            checkIfClosed();
+            try {
+                return new Block(id, future.join());
+            } catch (CompletionException ex) {
+                // Read ahead failed. Read the block directly and report any error from that.
+                log.debug("Read ahead failed: "+id, ex.getCause());
+            }
+        }
+        return super.read(id);
+    }
+
+    @Override
+    public void write(Block block) {
+        // Write then drop: a read ahead scheduled before the write completes may
+        // have read the old contents; one scheduled after the drop reads the new.
+        super.write(block);
+        drop(block.getId());
+    }
+
+    private void drop(long id) {
+        synchronized(readAhead) {
+            readAhead.remove(id);
+        }
+    }
+
+    private void dropAll() {
+        synchronized(readAhead) {
+            readAhead.clear();
+        }
+    }
+
+    // overwrite() calls write().
+
+    @Override
+    protected void _resetAllocBoundary(long boundary) {
+        dropAll();
+        super._resetAllocBoundary(boundary);
+    }
+
+    @Override
+    protected void _close() {
+        dropAll();
+        super._close();
+    }
+
+    @Override
+    protected Logger getLog() {
+        return log;
+    }
+
+    @Override
+    public String toString() { return "DirectAsync:"+FileOps.basename(filename); }
+}
@@ -55,6 +55,9 @@ public final class RecordBufferPage extends RecordBufferPageBase
 
     @Override
     protected void _reset(Block block) {
+        // Compressed: the decoded records are the current state; they are encoded into the new block when written.
+        if ( compressed )
+            return;
         // Print this
         super.rebuild(block, this.getCount());
     }
@@ -67,19 +70,27 @@ public final class RecordBufferPage extends RecordBufferPageBase
 
     /** The construction methods */
     public static RecordBufferPage createBlank(Block block,RecordFactory factory) {
+        return createBlank(block, factory, false);
+    }
+
+    public static RecordBufferPage createBlank(Block block, RecordFactory factory, boolean compressed) {
         int count = 0;
         int linkId = NO_ID;
-        return new RecordBufferPage(block, factory, count, linkId);
+        return new RecordBufferPage(block, factory, count, linkId, compressed);
     }
 
     public static RecordBufferPage format(Block block, RecordFactory factory) {
+        return format(block, factory, false);
+    }
+
+    public static RecordBufferPage format(Block block, RecordFactory factory, boolean compressed) {
         int count = block.getByteBuffer().getInt(COUNT);
         int linkId = block.getByteBuffer().getInt(LINK);
-        return new RecordBufferPage(block, factory, count, linkId);
+        return new RecordBufferPage(block, factory, count, linkId, compressed);
     }
 
-    private RecordBufferPage(Block block, RecordFactory factory, int count, int linkId) {
-        super(block, FIELD_LENGTH, factory, count);
+    private RecordBufferPage(Block block, RecordFactory factory, int count, int linkId, boolean compressed) {
+        super(block, FIELD_LENGTH, factory, count, compressed);
         this.link = linkId;
     }
 
@@ -26,7 +26,9 @@ import java.nio.ByteBuffer;
 import org.apache.jena.atlas.io.IndentedWriter;
 import org.apache.jena.dboe.base.block.Block;
 import org.apache.jena.dboe.base.buffer.RecordBuffer;
+import org.apache.jena.dboe.base.buffer.RecordBufferPrefixEncoding;
 import org.apache.jena.dboe.base.page.PageBase;
+import org.apache.jena.dboe.base.record.RecordException;
 import org.apache.jena.dboe.base.record.RecordFactory;
 import org.apache.jena.dboe.sys.SysDB;
 
@@ -34,6 +36,10 @@ import org.apache.jena.dboe.sys.SysDB;
  * The on-disk form of a block of a single RecordBuffer
  * (i.e. this is not part of a BTree/BPlusTree branch node).
  * This must be compatible with B+Tree records nodes and hashbuckets.
+ * <p>
+ * The records may be stored compressed (see {@link RecordBufferPrefixEncoding}).
+ * In that case, the {@link RecordBuffer} is a decoded copy of the records in the block
+ * and {@link #encodeToBlock} must be called to update the block.
  */
 
 public abstract class RecordBufferPageBase extends PageBase // implements Page
@@ -43,7 +49,14 @@ public abstract class RecordBufferPageBase extends PageBase // implements Page
     // Length due to this class - subclasses may use more overhead.
     final private static int    FIELD_LENGTH = SysDB.SizeOfInt;
 
+    /**
+     * For compressed records, the maximum number of records in a page
+     * as a multiple of the number of uncompressed records that fit in a block.
+     */
+    final public static int     CompressedCapacityFactor = 4;
+
     protected final int         headerLength;
+    protected final boolean     compressed;
 
     // Interface: "Page" - id, byteBuffer, count
     protected RecordBuffer      recBuff;
@@ -66,10 +79,15 @@ public abstract class RecordBufferPageBase extends PageBase // implements Page
     }
 
     protected RecordBufferPageBase(Block block, int offset, RecordFactory factory, int count) {
+        this(block, offset, factory, count, false);
+    }
+
+    protected RecordBufferPageBase(Block block, int offset, RecordFactory factory, int count, boolean compressed) {
         // This code knows the alignment of the records in the ByteBuffer.
         super(block);
         this.headerLength = FIELD_LENGTH + offset; // NB +4 for the count field
         this.factory = factory;
+        this.compressed = compressed;
         rebuild(block, count);
     }
 
@@ -78,9 +96,92 @@ public abstract class RecordBufferPageBase extends PageBase // implements Page
         bb.clear();
         bb.position(headerLength);
         bb = bb.slice();
+        if ( compressed ) {
+            // Decode to a separate buffer. The block is updated by encodeToBlock.
+            int entryLength = RecordBufferPrefixEncoding.maxEntryLength(factory.recordLength());
+            if ( bb.capacity() < MinCompressedEntries * entryLength )
+                throw new RecordException("Block too small for compressed records: "+block.getByteBuffer().capacity());
+            int maxRecords = CompressedCapacityFactor * (bb.capacity() / factory.recordLength());
+            RecordBuffer rb = new RecordBuffer(factory, maxRecords);
+            RecordBufferPrefixEncoding.decode(bb, 0, count, rb);
+            this.recBuff = rb;
+            return;
+        }
         this.recBuff = new RecordBuffer(bb, factory, count);
     }
 
+    // Splitting a full compressed page must leave room for an insert in each half.
+    private static final int MinCompressedEntries = 4;
+
+    /** Whether the records are stored compressed in the block. */
+    public final boolean isCompressed() {
+        return compressed;
+    }
+
+    /** Space for records in the block. */
+    protected final int recordSpace() {
+        return getBackingBlock().getByteBuffer().capacity() - headerLength;
+    }
+
+    /**
+     * Write the records to the block.
+     * The records of an uncompressed page are always in the block and this operation does nothing.
+     */
+    public void encodeToBlock() {
+        if ( !compressed )
+            return;
+        int len = RecordBufferPrefixEncoding.encodedLength(recBuff);
+        if ( len > recordSpace() )
+            throw new RecordException(String.format("Compressed records do not fit in the block: %d > %d", len, recordSpace()));
+        ByteBuffer bb = getBackingBlock().getByteBuffer();
+        RecordBufferPrefixEncoding.encode(recBuff, bb, headerLength);
+    }
+
+    /**
+     * Test whether there is space for another record.
+     * For a compressed page, this allows for the record not sharing a prefix with
+     * its neighbours.
+     */
+    public boolean isFull() {
+        int count = recBuff.size();
+        if ( count >= recBuff.maxSize() )
+            return true;
+        if ( !compressed )
+            return false;
+        int entryLength = RecordBufferPrefixEncoding.maxEntryLength(factory.recordLength());
+        // Avoid calculating the encoded length when even uncompressed records fit.
+        if ( (count + 1) * entryLength <= recordSpace() )
+            return false;
+        return RecordBufferPrefixEncoding.encodedLength(recBuff) + entryLength > recordSpace();
+    }
+
+    /**
+     * The number of records that can be added to the page whatever the records are.
+     * This is zero if the page is full.
+     */
+    public int spaceForRecords() {
+        int space = recBuff.maxSize() - recBuff.size();
+        if ( !compressed || space == 0 )
+            return space;
+        int entryLength = RecordBufferPrefixEncoding.maxEntryLength(factory.recordLength());
+        int len = RecordBufferPrefixEncoding.encodedLength(recBuff);
+        return Math.min(space, (recordSpace() - len) / entryLength);
+    }
+
+    /**
+     * Test whether the page is at, or below, the minimum size.
+     * Two pages of minimum size can be merged into one page.
+     */
+    public boolean isMinSize() {
+        // 50% packing minimum.
+        if ( recBuff.size() > recBuff.maxSize() / 2 )
+            return false;
+        if ( !compressed )
+            return true;
+        int entryLength = RecordBufferPrefixEncoding.maxEntryLength(factory.recordLength());
+        return 2 * RecordBufferPrefixEncoding.encodedLength(recBuff) <= recordSpace() - entryLength;
+    }
+
     public final RecordBuffer getRecordBuffer() {
         return recBuff;
     }
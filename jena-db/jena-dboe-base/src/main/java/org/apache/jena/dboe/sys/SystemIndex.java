@@ -66,6 +66,12 @@ public class SystemIndex
     /** Size of read block cache (32 bit systems only).  Increase JVM size as necessary. Per file. */
     public static final int BlockReadCacheSize      = intValue("BlockReadCacheSize", 10*1000);
 
+    /** Number of threads reading blocks ahead in {@link FileMode#directAsync} mode (shared by all files). */
+    public static final int ReadAheadThreads        = intValue("ReadAheadThreads", 8);
+
+    /** Maximum number of blocks, per file, read ahead and not yet used in {@link FileMode#directAsync} mode. */
+    public static final int ReadAheadBlocks         = intValue("ReadAheadBlocks", 1024);
+
     private static int intValue(String name, int dft) { return dft; }
 
     public static void setNullOut(boolean nullOut)
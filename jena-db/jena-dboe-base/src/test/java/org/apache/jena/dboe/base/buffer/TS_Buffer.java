@@ -27,6 +27,7 @@ import org.junit.platform.suite.api.Suite;
 @Suite
 @SelectClasses({
     TestRecordBuffer.class
+    , TestRecordBufferPrefixEncoding.class
     , TestPtrBuffer.class
 })
 
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.dboe.base.buffer;
+
+import static org.apache.jena.dboe.test.RecordLib.r;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.dboe.base.record.RecordFactory;
+import org.apache.jena.dboe.test.RecordLib;
+
+public class TestRecordBufferPrefixEncoding
+{
+    static RecordFactory recordFactory = new RecordFactory(RecordLib.TestRecordLength, 0);
+
+    @Test public void prefixEncoding01() {
+        RecordBuffer rb = make();
+        assertEquals(0, RecordBufferPrefixEncoding.encodedLength(rb));
+        RecordBuffer rb2 = roundTrip(rb);
+        assertEquals(0, rb2.size());
+    }
+
+    @Test public void prefixEncoding02() {
+        RecordBuffer rb = make(1, 2, 3, 300, 70000);
+        // 1+4, then 1+1 twice, then 1+2 and 1+3
+        assertEquals(5+2+2+3+4, RecordBufferPrefixEncoding.encodedLength(rb));
+        RecordBuffer rb2 = roundTrip(rb);
+        same(rb, rb2);
+    }
+
+    @Test public void prefixEncoding03() {
+        int N = 100;
+        RecordBuffer rb = new RecordBuffer(recordFactory, N);
+        for ( int i = 0 ; i < N ; i++ )
+            rb.add(r(i*7));
+        assertTrue(RecordBufferPrefixEncoding.encodedLength(rb) < N * RecordLib.TestRecordLength);
+        same(rb, roundTrip(rb));
+    }
+
+    @Test public void prefixEncoding04() {
+        int N = 10;
+        RecordBuffer rb = new RecordBuffer(recordFactory, N);
+        for ( int i = 0 ; i < N ; i++ )
+            rb.add(r(i));
+        int idx = RecordBufferPrefixEncoding.splitIndex(rb);
+        // Records are the same encoded length except the first.
+        assertEquals(3, idx);
+        int len1 = RecordBufferPrefixEncoding.encodedLength(rb, 0, idx+1);
+        int len2 = RecordBufferPrefixEncoding.encodedLength(rb, idx+1, N);
+        assertEquals(RecordBufferPrefixEncoding.encodedLength(rb), len1 + len2 - RecordBufferPrefixEncoding.maxEntryLength(4) + 2);
+    }
+
+    private static RecordBuffer roundTrip(RecordBuffer rb) {
+        ByteBuffer bb = ByteBuffer.allocate(100 + RecordBufferPrefixEncoding.encodedLength(rb));
+        int len = RecordBufferPrefixEncoding.encode(rb, bb, 10);
+        assertEquals(RecordBufferPrefixEncoding.encodedLength(rb), len);
+        RecordBuffer rb2 = new RecordBuffer(recordFactory, rb.maxSize());
+        RecordBufferPrefixEncoding.decode(bb, 10, rb.size(), rb2);
+        return rb2;
+    }
+
+    private static void same(RecordBuffer rb1, RecordBuffer rb2) {
+        assertEquals(rb1.size(), rb2.size());
+        for ( int i = 0 ; i < rb1.size() ; i++ )
+            assertEquals(rb1.get(i), rb2.get(i));
+    }
+
+    private static RecordBuffer make(int... values) {
+        RecordBuffer rb = new RecordBuffer(recordFactory, values.length+1);
+        for ( int v : values )
+            rb.add(r(v));
+        return rb;
+    }
+}
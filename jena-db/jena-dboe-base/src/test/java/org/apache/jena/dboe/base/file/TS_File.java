@@ -34,6 +34,7 @@ import org.junit.platform.suite.api.Suite;
     , TestBlockAccessMem.class
     , TestBlockAccessByteArray.class
     , TestBlockAccessDirect.class
+    , TestBlockAccessDirectAsync.class
     , TestBlockAccessMapped.class
     , TestBlockAccessMappedSegmentState.class
 
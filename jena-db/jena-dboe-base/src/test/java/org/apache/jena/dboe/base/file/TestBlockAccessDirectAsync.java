@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.dboe.base.file;
+
+import static org.apache.jena.dboe.test.BufferTestLib.sameValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.atlas.lib.FileOps;
+import org.apache.jena.dboe.ConfigTestDBOE;
+import org.apache.jena.dboe.base.block.Block;
+
+public class TestBlockAccessDirectAsync extends AbstractTestBlockAccessFixedSize
+{
+    static String filename = ConfigTestDBOE.getTestingDir()+"/test-file-access-direct-async";
+
+    static final int BlockSize = 50;
+    public TestBlockAccessDirectAsync() {
+        super(BlockSize);
+    }
+
+    @AfterAll public static void cleanup() { FileOps.deleteSilent(filename); }
+
+    @Override
+    protected BlockAccess make() {
+        FileOps.deleteSilent(filename);
+        return new BlockAccessDirectAsync(filename, BlockSize);
+    }
+
+    private static List<Block> fill(BlockAccess file, int N) {
+        List<Block> blocks = new ArrayList<>();
+        for ( int i = 0 ; i < N ; i++ ) {
+            Block b = data(file, BlockSize);
+            b.getByteBuffer().put(0, (byte)i);
+            file.write(b);
+            blocks.add(b);
+        }
+        return blocks;
+    }
+
+    // Prefetch runs and single blocks, including invalid ids.
+    @Test public void fileaccess_async_01() {
+        BlockAccess file = make();
+        try {
+            List<Block> blocks = fill(file, 100);
+            file.prefetch(5, 3, 4, 50, 99, 10, 11, 1000);
+            for ( Block b : blocks ) {
+                Block b2 = file.read(b.getId());
+                assertEquals(b.getId(), b2.getId());
+                assertTrue(sameValue(b, b2));
+            }
+        } finally { file.close(); }
+    }
+
+    // A block written after it has been prefetched.
+    @Test public void fileaccess_async_02() {
+        BlockAccess file = make();
+        try {
+            List<Block> blocks = fill(file, 10);
+            file.prefetch(0, 1, 2, 3);
+            Block b = blocks.get(2);
+            Block bNew = new Block(b.getId(), ByteBuffer.allocate(BlockSize));
+            bNew.getByteBuffer().put(0, (byte)99);
+            file.overwrite(bNew);
+            Block b2 = file.read(b.getId());
+            assertEquals(99, b2.getByteBuffer().get(0));
+            assertTrue(sameValue(blocks.get(3), file.read(3)));
+        } finally { file.close(); }
+    }
+}
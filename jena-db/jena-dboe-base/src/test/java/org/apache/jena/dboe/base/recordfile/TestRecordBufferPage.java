@@ -22,6 +22,7 @@
 package org.apache.jena.dboe.base.recordfile;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -35,6 +36,7 @@ import org.apache.jena.dboe.base.record.RecordFactory;
 import org.apache.jena.dboe.base.recordbuffer.RecordBufferPage;
 import org.apache.jena.dboe.base.recordbuffer.RecordBufferPageMgr;
 import org.apache.jena.dboe.sys.SystemIndex;
+import org.apache.jena.dboe.test.RecordLib;
 
 public class TestRecordBufferPage
 {
@@ -89,6 +91,37 @@ public class TestRecordBufferPage
         blkMgr.endRead();
     }
 
+    // Compressed: more records than fit uncompressed, written and read back.
+    @Test public void recBufferPage03() {
+        // Long keys so neighbouring keys share a prefix.
+        RecordFactory factory8 = new RecordFactory(8, 0);
+        int numRecords = 20;
+        BlockMgr blkMgr = BlockMgrFactory.createMem("RecordBuffer", RecordBufferPage.calcBlockSize(factory8, numRecords));
+        blkMgr.beginUpdate();
+        RecordBufferPageMgr rpm = new RecordBufferPageMgr(factory8, blkMgr, true);
+        int x = -99;
+        int count = 0; {
+            RecordBufferPage page1 = rpm.create();
+            assertTrue(page1.isCompressed());
+            while ( !page1.isFull() ) {
+                page1.getRecordBuffer().add(RecordLib.intToRecord(1000+count, factory8));
+                count++;
+            }
+            assertTrue(count > numRecords);
+            x = page1.getId();
+            rpm.put(page1);
+        }
+        blkMgr.endUpdate();
+        blkMgr.beginRead(); {
+            RecordBufferPage page2 = rpm.getRead(x);
+            assertEquals(count, page2.getCount());
+            for ( int i = 0 ; i < count ; i++ )
+                assertEquals(RecordLib.intToRecord(1000+i, factory8), page2.getRecordBuffer().get(i));
+            rpm.release(page2);
+        }
+        blkMgr.endRead();
+    }
+
     private static void fill(RecordBuffer rb, int ... nums) {
         for ( int num : nums ) {
             Record rec = record( num );
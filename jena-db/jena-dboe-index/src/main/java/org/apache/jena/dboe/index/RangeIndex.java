@@ -22,6 +22,7 @@
 package org.apache.jena.dboe.index;
 
 import java.util.Iterator;
+import java.util.List;
 
 import org.apache.jena.dboe.base.record.Record;
 import org.apache.jena.dboe.base.record.RecordMapper;
@@ -38,4 +39,14 @@ public interface RangeIndex extends Index
 
     /** Return the record containing the greatest key - may or may not have the associated value */
     public Record maxKey();
+
+    /**
+     * Keys that divide the range min (inclusive) to max (exclusive) into at most
+     * {@code maxRanges} sub-ranges, for scanning the sub-ranges separately, for example in parallel.
+     * The sub-ranges are [min, key1), [key1, key2), ... [keyN, max).
+     * The list is empty if the range is not divided.
+     */
+    public default List<Record> splitRange(Record recordMin, Record recordMax, int maxRanges) {
+        return List.of();
+    }
 }
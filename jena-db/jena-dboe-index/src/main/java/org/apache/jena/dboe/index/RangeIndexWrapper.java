@@ -22,6 +22,7 @@
 package org.apache.jena.dboe.index;
 
 import java.util.Iterator;
+import java.util.List;
 
 import org.apache.jena.dboe.base.record.Record;
 import org.apache.jena.dboe.base.record.RecordFactory;
@@ -76,6 +77,10 @@ public class RangeIndexWrapper implements RangeIndex
     public <X> Iterator<X> iterator(Record minRec, Record maxRec, RecordMapper<X> mapper)
     { return rIndex.iterator(minRec, maxRec, mapper); }
 
+    @Override
+    public List<Record> splitRange(Record minRec, Record maxRec, int maxRanges)
+    { return rIndex.splitRange(minRec, maxRec, maxRanges); }
+
     @Override
     public boolean isEmpty()
     { return rIndex.isEmpty(); }
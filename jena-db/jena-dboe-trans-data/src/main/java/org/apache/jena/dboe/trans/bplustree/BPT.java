@@ -57,6 +57,15 @@ public final class BPT {
         CheckingNode = onOrOff;
     }
 
+    /**
+     * Number of leaf blocks a range scan asks to be read ahead (see {@code BlockMgr.prefetch}).
+     * 0 means no read ahead: the leaf blocks under a node are read when the scan reaches the node.
+     */
+    public static int ReadAheadLeaves = 0;
+
+    /** Number of records a range scan returns before it starts to read ahead. */
+    public static int ReadAheadAfter = 1000;
+
     /** Dump before and after top level update operations **/
     public static boolean DumpTree = false;
 
@@ -266,6 +266,42 @@ public final class BPTreeNode extends BPTreePage
      * @return Iterator&lt;BPTreePage&gt;
      */
     Iterator<BPTreePage> iterator(Record minRec, Record maxRec) {
+        int[] slots = slotRange(minRec, maxRec);
+        if ( slots == null )
+            return null;
+        int x1 = slots[0];
+        int x2 = slots[1];
+        List<BPTreePage> x = new ArrayList<>(x2-x1+1);
+        for ( int i = x1; i <= x2 ; i++ )
+            x.add(get(i));
+
+        return x.iterator();
+    }
+
+    /**
+     * Iterator over the sub-pages for records from minRec (inclusive) to maxRec (exclusive).
+     * Pages are read as the iterator reaches them, not when the iterator is created.
+     */
+    BPTreePageIterator pageIterator(Record minRec, Record maxRec) {
+        int[] slots = slotRange(minRec, maxRec);
+        if ( slots == null )
+            return null;
+        return new BPTreePageIterator(this, slots[0], slots[1]);
+    }
+
+    /** Ask for the sub-pages in pointer slots [start, finish) to be read ahead. */
+    void prefetch(int start, int finish) {
+        finish = Math.min(finish, count+1);
+        if ( start >= finish )
+            return;
+        long[] ids = new long[finish-start];
+        for ( int i = start ; i < finish ; i++ )
+            ids[i-start] = ptrs.get(i);
+        getPageBlockMgr().getBlockMgr().prefetch(ids);
+    }
+
+    /** The pointer slots, inclusive, for records from minRec (inclusive) to maxRec (exclusive). Null for none. */
+    private int[] slotRange(Record minRec, Record maxRec) {
         if ( minRec != null && maxRec != null && Record.keyGE(minRec, maxRec) )
             return null;//throw new IllegalArgumentException("minRec >= maxRec: "+minRec+" >= "+maxRec ) ;
 
@@ -289,12 +325,7 @@ public final class BPTreeNode extends BPTreePage
         }
         // Pages from pointer slots x1 to x2 (inc because while we exclude maxRec,
         // keys are only a max of the subtree they mark out.
-
-        List<BPTreePage> x = new ArrayList<>(x2-x1+1);
-        for ( int i = x1; i <= x2 ; i++ )
-            x.add(get(i));
-
-        return x.iterator();
+        return new int[] {x1, x2};
     }
 
 //    // OUT OF DATE WITH MVCC
@@ -331,6 +362,44 @@ public final class BPTreeNode extends BPTreePage
 //        return id;
 //    }
 
+    /**
+     * Keys of branch nodes that are strictly between minRec and maxRec (null means
+     * unbounded), in order, taken from the highest level of the tree that has at least
+     * {@code target} such keys, or from the lowest level of branch nodes.
+     */
+    static List<Record> splitKeys(BPTreeNode root, Record minRec, Record maxRec, int target) {
+        List<BPTreeNode> level = List.of(root);
+        List<Record> keys = keysInRange(level, minRec, maxRec);
+        while ( keys.size() < target && !level.get(0).isLeaf() ) {
+            List<BPTreeNode> nextLevel = new ArrayList<>();
+            for ( BPTreeNode n : level ) {
+                Iterator<BPTreePage> iter = n.iterator(minRec, maxRec);
+                if ( iter != null )
+                    iter.forEachRemaining(p -> nextLevel.add((BPTreeNode)p));
+            }
+            if ( nextLevel.isEmpty() )
+                break;
+            level = nextLevel;
+            keys = keysInRange(level, minRec, maxRec);
+        }
+        return keys;
+    }
+
+    private static List<Record> keysInRange(List<BPTreeNode> nodes, Record minRec, Record maxRec) {
+        List<Record> keys = new ArrayList<>();
+        for ( BPTreeNode n : nodes ) {
+            for ( int i = 0 ; i < n.getCount() ; i++ ) {
+                Record key = n.records.get(i);
+                if ( minRec != null && !keyGT(key, minRec) )
+                    continue;
+                if ( maxRec != null && !keyLT(key, maxRec) )
+                    continue;
+                keys.add(n.keyRecord(key));
+            }
+        }
+        return keys;
+    }
+
     final static Record minRecord(BPTreeNode root) {
         AccessPath path = new AccessPath(root);
         return root.internalMinRecord(path);
@@ -971,7 +1040,9 @@ public final class BPTreeNode extends BPTreePage
                 // (it's already there, with its value).
                 // Size is N+N and max could be odd so N+N and N+N+1 are
                 // possible.
-                if ( left.getCount() + 1 != left.getMaxSize() && left.getCount() != left.getMaxSize() )
+                // Compressed data blocks are merged by encoded length, not count.
+                if ( !((BPTreeRecords)left).isCompressed()
+                     && left.getCount() + 1 != left.getMaxSize() && left.getCount() != left.getMaxSize() )
                     BPT.error("Inconsistent data node size: %d/%d", left.getCount(), left.getMaxSize());
             } else if ( !left.isFull() ) {
                 // If not two data blocks, the left side should now be full
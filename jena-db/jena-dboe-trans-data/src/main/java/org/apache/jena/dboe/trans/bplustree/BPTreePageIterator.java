@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.dboe.trans.bplustree;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator over the sub-pages of a {@link BPTreeNode} in a range of pointer slots.
+ * Each page is read when the iterator reaches it.
+ * <p>
+ * After {@link #startReadAhead} has been called, the iterator asks for the next
+ * {@link BPT#ReadAheadLeaves} pages to be read ahead of their use, topping up the
+ * read ahead when half of it has been used.
+ */
+class BPTreePageIterator implements Iterator<BPTreePage> {
+    private final BPTreeNode node;
+    private final int finish;       // Inclusive.
+    private int idx;
+    // Slots below this have been read ahead.
+    private int readAheadLimit;
+    private boolean readAhead = false;
+
+    BPTreePageIterator(BPTreeNode node, int start, int finish) {
+        this.node = node;
+        this.idx = start;
+        this.finish = finish;
+        this.readAheadLimit = start;
+    }
+
+    /** Start reading ahead. Only leaf pages (records blocks) are read ahead. */
+    void startReadAhead() {
+        if ( node.isLeaf() )
+            readAhead = true;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return idx <= finish;
+    }
+
+    @Override
+    public BPTreePage next() {
+        if ( !hasNext() )
+            throw new NoSuchElementException();
+        if ( readAhead )
+            readAhead();
+        node.bpTree.startReadBlkMgr();
+        try {
+            return node.get(idx++);
+        } finally {
+            node.bpTree.finishReadBlkMgr();
+        }
+    }
+
+    private void readAhead() {
+        int n = BPT.ReadAheadLeaves;
+        if ( n <= 0 || idx + n / 2 < readAheadLimit )
+            return;
+        int start = Math.max(idx + 1, readAheadLimit);
+        int end = Math.min(idx + 1 + n, finish + 1);
+        if ( start < end )
+            node.prefetch(start, end);
+        readAheadLimit = end;
+    }
+}
@@ -47,6 +47,10 @@ class BPTreeRangeIterator implements Iterator<Record> {
     private Iterator<Record> current;
     private Record slot = null;
     private boolean finished = false;
+    // Read ahead: use iterators that read pages when reached, and start reading ahead
+    // after a number of records.
+    private final boolean readAhead = BPT.ReadAheadLeaves > 0;
+    private long count = 0;
 
     BPTreeRangeIterator(BPTreeNode node, Record minRec, Record maxRec ) {
         this.minRecord = minRec;
@@ -115,7 +119,7 @@ class BPTreeRangeIterator implements Iterator<Record> {
         List<AccessStep> steps = path.getPath();
         for ( AccessStep step : steps ) {
             BPTreeNode n = step.node;
-            Iterator<BPTreePage> it = n.iterator(minRecord, maxRecord);
+            Iterator<BPTreePage> it = readAhead ? pageIterator(n) : n.iterator(minRecord, maxRecord);
             if ( it == null || ! it.hasNext() )
                 continue;
             BPTreePage p = it.next();
@@ -128,6 +132,21 @@ class BPTreeRangeIterator implements Iterator<Record> {
         return (BPTreeRecords)p;
     }
 
+    private BPTreePageIterator pageIterator(BPTreeNode n) {
+        BPTreePageIterator it = n.pageIterator(minRecord, maxRecord);
+        if ( it != null && count >= BPT.ReadAheadAfter )
+            it.startReadAhead();
+        return it;
+    }
+
+    // Start reading ahead on the iterators in the stack.
+    private void startReadAhead() {
+        for ( Iterator<BPTreePage> it : stack ) {
+            if ( it instanceof BPTreePageIterator pageIter )
+                pageIter.startReadAhead();
+        }
+    }
+
     // ----
 
     private void end() {
@@ -150,6 +169,8 @@ class BPTreeRangeIterator implements Iterator<Record> {
         if ( r == null )
             throw new InternalErrorException("Null slot after hasNext is true");
         slot = null;
+        if ( readAhead && ++count == BPT.ReadAheadAfter )
+            startReadAhead();
         return r;
     }
 }
@@ -55,6 +55,10 @@ class BPTreeRangeIteratorMapper<X> implements Iterator<X> {
     private X slot = null;
     final private byte[] keySlot;
     private boolean finished = false;
+    // Read ahead: use iterators that read pages when reached, and start reading ahead
+    // after a number of records.
+    private final boolean readAhead = BPT.ReadAheadLeaves > 0;
+    private long count = 0;
 
     BPTreeRangeIteratorMapper(BPTreeNode node, Record minRec, Record maxRec, int keyLength, RecordMapper<X> mapper) {
         this.minRecord = minRec;
@@ -126,7 +130,7 @@ class BPTreeRangeIteratorMapper<X> implements Iterator<X> {
         List<AccessStep> steps = path.getPath();
         for ( AccessStep step : steps ) {
             BPTreeNode n = step.node;
-            Iterator<BPTreePage> it = n.iterator(minRecord, maxRecord);
+            Iterator<BPTreePage> it = readAhead ? pageIterator(n) : n.iterator(minRecord, maxRecord);
             if ( it == null || ! it.hasNext() )
                 continue;
             BPTreePage p = it.next();
@@ -139,6 +143,21 @@ class BPTreeRangeIteratorMapper<X> implements Iterator<X> {
         return (BPTreeRecords)p;
     }
 
+    private BPTreePageIterator pageIterator(BPTreeNode n) {
+        BPTreePageIterator it = n.pageIterator(minRecord, maxRecord);
+        if ( it != null && count >= BPT.ReadAheadAfter )
+            it.startReadAhead();
+        return it;
+    }
+
+    // Start reading ahead on the iterators in the stack.
+    private void startReadAhead() {
+        for ( Iterator<BPTreePage> it : stack ) {
+            if ( it instanceof BPTreePageIterator pageIter )
+                pageIter.startReadAhead();
+        }
+    }
+
     // ----
 
     private void end() {
@@ -161,6 +180,8 @@ class BPTreeRangeIteratorMapper<X> implements Iterator<X> {
         if ( r == null )
             throw new InternalErrorException("Null slot after hasNext is true");
         slot = null;
+        if ( readAhead && ++count == BPT.ReadAheadAfter )
+            startReadAhead();
         return r;
     }
 }
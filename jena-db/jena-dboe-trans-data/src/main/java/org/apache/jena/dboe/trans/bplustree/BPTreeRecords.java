@@ -31,6 +31,7 @@ import org.apache.jena.dboe.base.StorageException;
 import org.apache.jena.dboe.base.block.Block;
 import org.apache.jena.dboe.base.block.BlockMgr;
 import org.apache.jena.dboe.base.buffer.RecordBuffer;
+import org.apache.jena.dboe.base.buffer.RecordBufferPrefixEncoding;
 import org.apache.jena.dboe.base.page.Page;
 import org.apache.jena.dboe.base.record.Record;
 import org.apache.jena.dboe.base.recordbuffer.RecordBufferPage;
@@ -95,7 +96,7 @@ public final class BPTreeRecords extends BPTreePage {
 
     @Override
     public boolean isFull() {
-        return (rBuff.size() >= rBuff.maxSize());
+        return rBuffPage.isFull();
     }
 
     @Override
@@ -107,7 +108,13 @@ public final class BPTreeRecords extends BPTreePage {
     public boolean isMinSize() {
         // 50% packing minimum.
         // If of max length 5 (i.e. odd), min size is 2. Integer division works.
-        return (rBuff.size() <= rBuff.maxSize() / 2);
+        // Compressed pages also take the encoded length into account.
+        return rBuffPage.isMinSize();
+    }
+
+    /** Whether the records are held compressed in the block. */
+    boolean isCompressed() {
+        return rBuffPage.isCompressed();
     }
 
     @Override
@@ -194,11 +201,19 @@ public final class BPTreeRecords extends BPTreePage {
 
     @Override
     public Record getSplitKey() {
-        int splitIdx = rBuff.size() / 2 - 1;
+        int splitIdx = splitIndex();
         Record r = rBuff.get(splitIdx);
         return r;
     }
 
+    /** Index of the high record of the low half after a split. */
+    private int splitIndex() {
+        // Compressed : split by encoded length so that both halves have space for an insert.
+        if ( rBuffPage.isCompressed() )
+            return RecordBufferPrefixEncoding.splitIndex(rBuff);
+        return rBuff.size() / 2 - 1;
+    }
+
     /**
      * Split: place old high half in 'other'. Return the new (upper)
      * BPTreeRecords(BPTreePage).
@@ -207,7 +222,7 @@ public final class BPTreeRecords extends BPTreePage {
     @Override
     public BPTreePage split() {
         BPTreeRecords other = insertNewPage();
-        int splitIdx = rBuff.size() / 2 - 1;
+        int splitIdx = splitIndex();
         Record r = CheckingNode ? rBuff.get(splitIdx) : null;   // Only need key for checking later.
         int moveLen = rBuff.size() - (splitIdx + 1);            // Number to move.
         // Copy high end to new.
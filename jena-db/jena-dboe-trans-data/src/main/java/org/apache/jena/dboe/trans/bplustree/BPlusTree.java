@@ -22,7 +22,9 @@
 package org.apache.jena.dboe.trans.bplustree;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import org.apache.jena.atlas.io.IndentedWriter;
 import org.apache.jena.atlas.iterator.Iter;
@@ -321,6 +323,32 @@ public class BPlusTree extends TransactionalComponentLifecycle<BptTxnState> impl
         //return iterator(fromRec, toRec, RecordFactory.mapperRecord);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The keys are taken from the branch nodes of the tree so sub-ranges are
+     * aligned with records blocks and have similar numbers of blocks.
+     */
+    @Override
+    public List<Record> splitRange(Record minRec, Record maxRec, int maxRanges) {
+        if ( maxRanges < 2 )
+            return List.of();
+        if ( minRec != null && maxRec != null && Record.keyGE(minRec, maxRec) )
+            return List.of();
+        startReadBlkMgr();
+        BPTreeNode root = getRootRead();
+        List<Record> keys = BPTreeNode.splitKeys(root, minRec, maxRec, maxRanges-1);
+        releaseRootRead(root);
+        finishReadBlkMgr();
+        if ( keys.size() <= maxRanges-1 )
+            return keys;
+        // Choose evenly spaced keys.
+        List<Record> x = new ArrayList<>(maxRanges-1);
+        for ( int i = 1 ; i < maxRanges ; i++ )
+            x.add(keys.get(i*keys.size()/maxRanges));
+        return x;
+    }
+
     public Iterator<Record> distinctByKeyPrefix(int keyPrefixLength) {
         startReadBlkMgr();
         BPTreeNode root = getRootRead();
@@ -39,6 +39,7 @@ final public class BPlusTreeParams
     public static final String ParamKeyLength      = NS+".keyLength";
     public static final String ParamValueLength    = NS+".valueLength";
     public static final String ParamBlockSize      = NS+".blockSize";
+    public static final String ParamCompressedLeaves = NS+".compressedLeaves";
 
     /* The gap is extra space in a node - some books have node size as 2*N
      * (often for the classic insertion algorithm where it's easier to implement
@@ -64,6 +65,9 @@ final public class BPlusTreeParams
     /** Factory for key-only records */
     final RecordFactory keyFactory;
 
+    /** Whether records blocks (the leaves) are stored prefix compressed */
+    final boolean compressedLeaves;
+
     // ---- Derived constants.
 
     /** Maximum number of keys per non-leaf block */
@@ -94,13 +98,14 @@ final public class BPlusTreeParams
 
     @Override
     public String toString() {
-        return String.format("Order=%d : Records [key=%d, value=%d] : records=[%d,%d] : pointers=[%d,%d] : split=%d",
+        return String.format("Order=%d : Records [key=%d, value=%d] : records=[%d,%d] : pointers=[%d,%d] : split=%d%s",
                              order,
                              keyFactory.keyLength() ,
                              recordFactory.valueLength() ,
                              MinRec, MaxRec,
                              MinPtr, MaxPtr,
-                             SplitIndex
+                             SplitIndex,
+                             compressedLeaves ? " : compressed leaves" : ""
                              );
     }
 
@@ -109,7 +114,8 @@ final public class BPlusTreeParams
             int pOrder = mf.getPropertyAsInteger(ParamOrder);
             int pKeyLen = mf.getPropertyAsInteger(ParamKeyLength);
             int pRecLen = mf.getPropertyAsInteger(ParamValueLength);
-            return new BPlusTreeParams(pOrder, pKeyLen, pRecLen);
+            boolean pCompressed = Boolean.parseBoolean(mf.getProperty(ParamCompressedLeaves, "false"));
+            return new BPlusTreeParams(pOrder, new RecordFactory(pKeyLen, pRecLen), pCompressed);
         } catch (NumberFormatException ex) {
             Log.error(BPlusTreeParams.class, "Badly formed metadata for B+Tree");
             throw new DBOpEnvException("Failed to read metadata");
@@ -120,6 +126,8 @@ final public class BPlusTreeParams
         mf.setProperty(ParamOrder, order);
         mf.setProperty(ParamKeyLength, recordFactory.keyLength());
         mf.setProperty(ParamValueLength, recordFactory.valueLength());
+        if ( compressedLeaves )
+            mf.setProperty(ParamCompressedLeaves, "true");
         mf.flush();
     }
 
@@ -128,6 +136,16 @@ final public class BPlusTreeParams
     }
 
     public BPlusTreeParams(int order, RecordFactory factory) {
+        this(order, factory, false);
+    }
+
+    /**
+     * B+Tree parameters, with a choice of whether records blocks are stored compressed.
+     * The choice is part of the B+Tree metadata ({@link #addToMetaData}, {@link #readMeta}).
+     * The blocks themselves do not record it, so a B+Tree must be opened with the same
+     * choice it was created with; TDB2 keeps it in the store parameters.
+     */
+    public BPlusTreeParams(int order, RecordFactory factory, boolean compressedLeaves) {
         // BTrees of order one aren't strictly BTrees
         // Order 1 => Min size = 0 and max size = 2*N-1 = 1.
         // If there is a gap, then the code may be defensive enough
@@ -140,6 +158,7 @@ final public class BPlusTreeParams
         this.order = order;
         recordFactory = factory;
         keyFactory = factory.keyFactory();
+        this.compressedLeaves = compressedLeaves;
 
         // Derived constants.
         MaxRec  = 2*order-1 + Gap;
@@ -177,6 +196,10 @@ final public class BPlusTreeParams
         return keyFactory;
     }
 
+    public boolean isCompressedLeaves() {
+        return compressedLeaves;
+    }
+
     public int getCalcBlockSize() {
         return calcBlockSize(order, recordFactory);
     }
@@ -147,6 +147,12 @@ public class BlockTracker implements BlockMgr {
         return blockMgr.getRead(id);
     }
 
+    // Prefetch is a hint and does not change the blocks in use.
+    @Override
+    public void prefetch(long... ids) {
+        blockMgr.prefetch(ids);
+    }
+
     @Override
     public Block getWrite(long id) {
         synchronized (this) {
@@ -197,6 +197,9 @@ public class BPlusTreeRewriter {
                 System.out.printf("Rebalance Data [%s, %s] %d %d\n", id1, id2, x1, x2);
             }
             for ( int i = page2.getCount(); i < page1.getMaxSize() / 2 ; i++ ) {
+                // Compressed pages: stop at half the space of the block.
+                if ( page2.isCompressed() && !page2.isMinSize() )
+                    break;
                 Record r = page1.getRecordBuffer().getHigh();
                 page1.getRecordBuffer().removeTop();
                 page2.getRecordBuffer().add(0, r);
@@ -66,9 +66,15 @@ class RecordBufferPagePacker implements Iterator<RecordBufferPage> {
             recordBufferPage = rbMgr.create();
 
             RecordBuffer rb = recordBufferPage.getRecordBuffer();
-            while (!rb.isFull() && records.hasNext()) {
-                Record r = records.next();
-                rb.add(r);
+            // Add records in batches that are known to fit.
+            // (Compressed pages: this avoids calculating the encoded size for each record.)
+            int space = recordBufferPage.spaceForRecords();
+            while (space > 0 && records.hasNext()) {
+                for ( int i = 0 ; i < space && records.hasNext() ; i++ ) {
+                    Record r = records.next();
+                    rb.add(r);
+                }
+                space = recordBufferPage.spaceForRecords();
             }
             if ( !records.hasNext() )
                 records = null;
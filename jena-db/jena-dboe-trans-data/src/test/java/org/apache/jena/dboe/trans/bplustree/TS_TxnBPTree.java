@@ -31,10 +31,13 @@ import org.junit.platform.suite.api.Suite;
     TestBPTreeRecordsNonTxn.class,
     TestBPlusTreeIndexNonTxn.class,
     TestBPlusTreeNonTxn.class,
+    TestBPlusTreeCompressedNonTxn.class,
     TestBPTreeModes.class,
+    TestBPTreeReadAhead.class,
 
     // Transactional tests
     TestBPlusTreeTxn.class,
+    TestBPlusTreeCompressedTxn.class,
 
     // Rewriter
     TestBPlusTreeRewriterNonTxn.class
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.dboe.trans.bplustree;
+
+import static org.apache.jena.dboe.index.testlib.IndexTestLib.add;
+import static org.apache.jena.dboe.index.testlib.IndexTestLib.testIteration;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.dboe.base.block.BlockMgr;
+import org.apache.jena.dboe.base.block.BlockMgrFactory;
+import org.apache.jena.dboe.base.block.BlockMgrWrapper;
+import org.apache.jena.dboe.base.file.BufferChannelMem;
+import org.apache.jena.dboe.base.record.RecordFactory;
+import org.apache.jena.dboe.base.recordbuffer.RecordBufferPage;
+import org.apache.jena.dboe.test.RecordLib;
+
+/** Run the B+Tree tests with range scans reading leaf blocks ahead. */
+public class TestBPTreeReadAhead extends TestBPlusTreeNonTxn
+{
+    private static int readAheadLeaves;
+    private static int readAheadAfter;
+
+    @BeforeAll public static void setupReadAhead() {
+        readAheadLeaves = BPT.ReadAheadLeaves;
+        readAheadAfter = BPT.ReadAheadAfter;
+        BPT.ReadAheadLeaves = 3;
+        BPT.ReadAheadAfter = 2;
+    }
+
+    @AfterAll public static void resetReadAhead() {
+        BPT.ReadAheadLeaves = readAheadLeaves;
+        BPT.ReadAheadAfter = readAheadAfter;
+    }
+
+    // Leaf blocks are hinted to the records BlockMgr.
+    @Test public void bpt_readAhead_01() {
+        AtomicInteger prefetched = new AtomicInteger();
+        BPlusTreeParams params = new BPlusTreeParams(3, new RecordFactory(RecordLib.TestRecordLength, 0));
+        int blkSize = RecordBufferPage.calcBlockSize(params.getRecordFactory(), 4);
+        BlockMgr mgr1 = BlockMgrFactory.createMem("nodes", params.getCalcBlockSize());
+        BlockMgr mgr2 = new BlockMgrWrapper(BlockMgrFactory.createMem("records", blkSize)) {
+            @Override
+            public void prefetch(long... ids) {
+                prefetched.addAndGet(ids.length);
+                super.prefetch(ids);
+            }
+        };
+        BPlusTree bpt = BPlusTreeFactory.createNonTxn(params, BufferChannelMem.create("root"), mgr1, mgr2);
+        int N = 200;
+        int[] keys = new int[N];
+        for ( int i = 0; i < N ; i++ )
+            keys[i] = i;
+        add(bpt, keys);
+        testIteration(bpt, keys, N);
+        assertTrue(prefetched.get() > 0);
+        assertEquals(N, Iter.count(bpt.iterator()));
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.dboe.trans.bplustree;
+
+import static org.apache.jena.dboe.index.testlib.IndexTestLib.add;
+import static org.apache.jena.dboe.index.testlib.IndexTestLib.randTest;
+import static org.apache.jena.dboe.index.testlib.IndexTestLib.testIteration;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.dboe.index.testlib.AbstractTestRangeIndex;
+import org.apache.jena.dboe.sys.SystemIndex;
+import org.apache.jena.dboe.test.RecordLib;
+
+/** Run the tests for a tree with compressed records blocks in "non-transactional" mode */
+public class TestBPlusTreeCompressedNonTxn extends AbstractTestRangeIndex {
+
+    static boolean originalNullOut;
+    @BeforeAll
+    static public void beforeClass() {
+        BPT.CheckingNode = true;
+        originalNullOut = SystemIndex.getNullOut();
+        SystemIndex.setNullOut(true);
+    }
+
+    @AfterAll
+    static public void afterClass() {
+        SystemIndex.setNullOut(originalNullOut);
+    }
+
+    @Override
+    protected BPlusTree makeRangeIndex(int order, int minRecords) {
+        BPlusTree bpt = BPlusTreeFactory.makeMem(null, order, minRecords, RecordLib.TestRecordLength, 0, true);
+        bpt.nonTransactional();
+        return bpt;
+    }
+
+    // Compressed records blocks hold more records than uncompressed blocks of the same size.
+    @Test public void bpt_compressed_01() {
+        int N = 500;
+        int[] keys = new int[N];
+        for ( int i = 0; i < N ; i++ )
+            keys[i] = i;
+        BPlusTree bpt1 = BPlusTreeFactory.makeMem(null, 3, 8, RecordLib.TestRecordLength, 0, false);
+        BPlusTree bpt2 = BPlusTreeFactory.makeMem(null, 3, 8, RecordLib.TestRecordLength, 0, true);
+        bpt1.nonTransactional();
+        bpt2.nonTransactional();
+        add(bpt1, keys);
+        add(bpt2, keys);
+        assertEquals(N, bpt2.size());
+        testIteration(bpt2, keys, N);
+        long blocks1 = bpt1.getRecordsMgr().getBlockMgr().allocLimit();
+        long blocks2 = bpt2.getRecordsMgr().getBlockMgr().allocLimit();
+        assertTrue(blocks2 < blocks1, ()->"Compressed="+blocks2+" Uncompressed="+blocks1);
+    }
+
+    @Test public void bpt_compressed_02() {
+        BPlusTree bpt = makeRangeIndex(3, 4);
+        randTest(bpt, 5000, 2000);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.dboe.trans.bplustree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.dboe.base.file.Location;
+import org.apache.jena.dboe.base.file.MetaFile;
+import org.apache.jena.dboe.base.record.RecordFactory;
+import org.apache.jena.dboe.index.testlib.IndexTestLib;
+import org.apache.jena.dboe.sys.Names;
+import org.apache.jena.dboe.test.RecordLib;
+import org.apache.jena.dboe.transaction.Transactional;
+import org.apache.jena.dboe.transaction.TransactionalFactory;
+import org.apache.jena.query.ReadWrite;
+import org.apache.jena.system.Txn;
+
+/** Tests of B+Tree with compressed records blocks and transactions */
+public class TestBPlusTreeCompressedTxn {
+
+    static BPlusTree createBPTree() {
+        return BPlusTreeFactory.makeMem(null, 3, 4, RecordLib.TestRecordLength, 0, true);
+    }
+
+    static Transactional transactional(BPlusTree bpt) {
+        return TransactionalFactory.createTransactional(Location.mem(), bpt);
+    }
+
+    private static int[] keys(int start, int N) {
+        int[] keys = new int[N];
+        for ( int i = 0 ; i < N ; i++ )
+            keys[i] = start + i;
+        return keys;
+    }
+
+    // Commit, enough records to split blocks.
+    @Test public void bptree_compressed_txn_01() {
+        BPlusTree bpt = createBPTree();
+        Transactional thing = transactional(bpt);
+        int[] keys = keys(1, 200);
+        Txn.executeWrite(thing, () -> IndexTestLib.add(bpt, keys));
+        Txn.executeRead(thing, () -> {
+            IndexTestLib.testIndexContents(bpt, keys);
+            assertEquals(keys.length, bpt.size());
+        });
+    }
+
+    // Abort
+    @Test public void bptree_compressed_txn_02() {
+        BPlusTree bpt = createBPTree();
+        Transactional thing = transactional(bpt);
+        int[] keys = keys(1, 100);
+        Txn.executeWrite(thing, () -> IndexTestLib.add(bpt, keys));
+        thing.begin(ReadWrite.WRITE);
+        IndexTestLib.add(bpt, keys(1000, 100));
+        IndexTestLib.delete(bpt, keys(1, 50));
+        thing.abort();
+        thing.end();
+        Txn.executeRead(thing, () -> IndexTestLib.testIndexContents(bpt, keys));
+    }
+
+    // Several transactions of inserts and deletes.
+    @Test public void bptree_compressed_txn_03() {
+        BPlusTree bpt = createBPTree();
+        Transactional thing = transactional(bpt);
+        Txn.executeWrite(thing, () -> IndexTestLib.add(bpt, keys(1, 100)));
+        Txn.executeWrite(thing, () -> IndexTestLib.delete(bpt, keys(1, 50)));
+        Txn.executeWrite(thing, () -> IndexTestLib.add(bpt, keys(200, 50)));
+        int[] expected = new int[100];
+        System.arraycopy(keys(51, 50), 0, expected, 0, 50);
+        System.arraycopy(keys(200, 50), 0, expected, 50, 50);
+        Txn.executeRead(thing, () -> IndexTestLib.testIndexContents(bpt, expected));
+    }
+
+    // A reader sees the state at the start of its transaction.
+    @Test public void bptree_compressed_txn_04() {
+        BPlusTree bpt = createBPTree();
+        Transactional thing = transactional(bpt);
+        int[] keys = keys(1, 100);
+        Txn.executeWrite(thing, () -> IndexTestLib.add(bpt, keys));
+        thing.begin(ReadWrite.READ);
+        // Write on another thread.
+        CompletableFuture.runAsync(() -> Txn.executeWrite(thing, () -> IndexTestLib.add(bpt, keys(1000, 100)))).join();
+        IndexTestLib.testIndexContents(bpt, keys);
+        thing.end();
+        Txn.executeRead(thing, () -> assertEquals(200, bpt.size()));
+    }
+
+    // The choice of compressed records blocks is in the metadata.
+    @Test public void bptree_compressed_meta() {
+        BPlusTreeParams params = new BPlusTreeParams(3, new RecordFactory(RecordLib.TestRecordLength, 0), true);
+        MetaFile mf = new MetaFile("test", Names.memName);
+        params.addToMetaData(mf);
+        BPlusTreeParams params2 = BPlusTreeParams.readMeta(mf);
+        assertTrue(params2.isCompressedLeaves());
+    }
+}
@@ -23,14 +23,18 @@ package org.apache.jena.dboe.trans.bplustree;
 
 import static org.apache.jena.dboe.index.testlib.IndexTestLib.add;
 import static org.apache.jena.dboe.test.RecordLib.intToRecord;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
 
+import org.apache.jena.atlas.iterator.Iter;
 import org.apache.jena.atlas.logging.LogCtl;
 import org.apache.jena.dboe.base.block.BlockMgr;
 import org.apache.jena.dboe.base.record.Record;
@@ -80,6 +84,55 @@ public class TestBPlusTreeNonTxn extends AbstractTestRangeIndex {
         assertTrue(rIndex.isEmpty());
     }
 
+    @Test public void bpt_split_range_01() {
+        BPlusTree bpt = makeSplitTestTree();
+        testSplitRange(bpt, null, null, 4);
+        testSplitRange(bpt, null, null, 100);
+        testSplitRange(bpt, intToRecord(100), intToRecord(900), 3);
+        testSplitRange(bpt, intToRecord(100), null, 2);
+    }
+
+    @Test public void bpt_split_range_02() {
+        BPlusTree bpt = makeSplitTestTree();
+        assertTrue(bpt.splitRange(null, null, 1).isEmpty());
+        assertTrue(bpt.splitRange(intToRecord(500), intToRecord(100), 4).isEmpty());
+        // Too small to divide.
+        assertTrue(bpt.splitRange(intToRecord(500), intToRecord(501), 4).isEmpty());
+    }
+
+    @Test public void bpt_split_range_03() {
+        BPlusTree bpt = makeRangeIndex(3, 3);
+        assertTrue(bpt.splitRange(null, null, 4).isEmpty());
+        add(bpt, 1, 2);
+        assertTrue(bpt.splitRange(null, null, 4).isEmpty());
+    }
+
+    private BPlusTree makeSplitTestTree() {
+        int[] keys = new int[1000];
+        for ( int i = 0; i < keys.length ; i++ )
+            keys[i] = 2*i;
+        BPlusTree bpt = makeRangeIndex(3, 3);
+        add(bpt, keys);
+        return bpt;
+    }
+
+    private static void testSplitRange(BPlusTree bpt, Record minRec, Record maxRec, int maxRanges) {
+        List<Record> splits = bpt.splitRange(minRec, maxRec, maxRanges);
+        assertFalse(splits.isEmpty());
+        assertTrue(splits.size() < maxRanges);
+        List<Record> expected = Iter.toList(bpt.iterator(minRec, maxRec));
+        List<Record> actual = new ArrayList<>();
+        Record lower = minRec;
+        for ( Record split : splits ) {
+            if ( lower != null )
+                assertTrue(Record.keyLT(lower, split));
+            actual.addAll(Iter.toList(bpt.iterator(lower, split)));
+            lower = split;
+        }
+        actual.addAll(Iter.toList(bpt.iterator(lower, maxRec)));
+        assertEquals(expected, actual);
+    }
+
     @Override
     protected BPlusTree makeRangeIndex(int order, int minRecords) {
         BPlusTree bpt = BPlusTreeFactory.makeMem(order, minRecords, RecordLib.TestRecordLength, 0);
@@ -68,11 +68,20 @@ public class TestBPlusTreeRewriterNonTxn {
 
     @Test public void bpt_rewrite_99()  { runTest(5, 1000); }
 
+    // Compressed leaves. The blocks must be large enough for 4 uncompressed records.
+    @Test public void bpt_rewrite_compressed_01()  { runOneTest(3, 1, recordFactory, true, false); }
+    @Test public void bpt_rewrite_compressed_02()  { runOneTest(3, 100, recordFactory, true, false); }
+    @Test public void bpt_rewrite_compressed_03()  { runOneTest(5, 1000, recordFactory, true, false); }
+
     static void runTest(int order, int N)
     { runOneTest(order, N , recordFactory, false); }
 
     public static void runOneTest(int order, int N, RecordFactory recordFactory, boolean debug) {
-        BPlusTreeParams bptParams = new BPlusTreeParams(order, recordFactory);
+        runOneTest(order, N, recordFactory, false, debug);
+    }
+
+    public static void runOneTest(int order, int N, RecordFactory recordFactory, boolean compressedLeaves, boolean debug) {
+        BPlusTreeParams bptParams = new BPlusTreeParams(order, recordFactory, compressedLeaves);
         //BPlusTreeRewriter.debug = debug;
 
         // ---- Test data
@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.dboe.transaction.txn;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.jena.query.TxnType;
+import org.apache.jena.sparql.core.Transactional;
+
+/**
+ * Group commit: updates from different threads that arrive within a short window are
+ * executed in one write transaction, so they share one journal write and one set of
+ * file syncs.
+ * <p>
+ * A call of {@link #execute} returns only when the transaction containing the update
+ * has committed; the update is then as durable as if it had been executed in its own
+ * write transaction.
+ * <p>
+ * The first caller that finds no group in progress becomes the leader. It waits up to
+ * the window for other updates, up to the maximum group size, then executes the group.
+ * The other callers wait for the leader. Updates are executed in the order they arrived.
+ * <p>
+ * If an update in a group throws an exception, the group transaction is aborted and each
+ * update of the group is executed again in its own write transaction, so that only the
+ * failing update sees the exception. Updates must therefore be safe to execute again
+ * after an abort, which is the case for an update that only uses the transactional
+ * object.
+ * <p>
+ * An {@link Error} is not retried. The transaction is aborted, the error is thrown to
+ * the caller leading the group, and the updates of the group that have not been
+ * executed fail with the same error.
+ * <p>
+ * {@code execute} must not be called from inside a transaction.
+ */
+public class GroupCommit {
+
+    private final Transactional transactional;
+    private final long windowNanos;
+    private final int maxGroupSize;
+
+    private final Object lock = new Object();
+    // Protected by "lock".
+    private final ArrayDeque<Request> pending = new ArrayDeque<>();
+    private boolean leaderActive = false;
+
+    private static class Request {
+        final Runnable action;
+        boolean done = false;
+        // Committed, or failed with an exception of its own.
+        boolean executed = false;
+        Throwable failure = null;
+        Request(Runnable action) { this.action = action; }
+    }
+
+    /**
+     * Group commit for a {@link Transactional}.
+     * @param transactional The transactional object to update.
+     * @param window        The time, in milliseconds, the leader waits for more updates. May be 0.
+     * @param maxGroupSize  The maximum number of updates in one transaction.
+     */
+    public GroupCommit(Transactional transactional, long window, int maxGroupSize) {
+        if ( window < 0 )
+            throw new IllegalArgumentException("Negative window: "+window);
+        if ( maxGroupSize < 1 )
+            throw new IllegalArgumentException("Group size must be at least one: "+maxGroupSize);
+        this.transactional = Objects.requireNonNull(transactional);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(window);
+        this.maxGroupSize = maxGroupSize;
+    }
+
+    /**
+     * Execute an update in a write transaction, possibly shared with other updates, and
+     * return when the transaction has committed.
+     * Exceptions thrown by the update are rethrown to the caller.
+     */
+    public void execute(Runnable action) {
+        Objects.requireNonNull(action);
+        if ( transactional.isInTransaction() )
+            throw new TransactionException("Group commit: already in a transaction");
+        Request request = new Request(action);
+        boolean interrupted = false;
+        synchronized(lock) {
+            pending.add(request);
+            // Wake the leader if it is waiting for the group to fill.
+            lock.notifyAll();
+        }
+        for (;;) {
+            synchronized(lock) {
+                while ( !request.done && leaderActive ) {
+                    // The request is in the queue; it is executed even if this thread
+                    // is interrupted so carry on waiting.
+                    try { lock.wait(); }
+                    catch (InterruptedException ex) { interrupted = true; }
+                }
+                if ( request.done )
+                    break;
+                leaderActive = true;
+            }
+            try {
+                interrupted |= leadGroup();
+            } catch (Error err) {
+                synchronized(lock) {
+                    pending.remove(request);
+                }
+                throw err;
+            } finally {
+                synchronized(lock) {
+                    leaderActive = false;
+                    lock.notifyAll();
+                }
+            }
+        }
+        if ( interrupted )
+            Thread.currentThread().interrupt();
+        rethrow(request.failure);
+    }
+
+    /** Number of updates waiting to be executed. */
+    public int pending() {
+        synchronized(lock) {
+            return pending.size();
+        }
+    }
+
+    // Gather and execute one group. Return true if interrupted while waiting.
+    private boolean leadGroup() {
+        boolean interrupted = false;
+        List<Request> group = new ArrayList<>();
+        synchronized(lock) {
+            long deadline = System.nanoTime() + windowNanos;
+            long remaining = windowNanos;
+            while ( pending.size() < maxGroupSize && remaining > 0 ) {
+                try { TimeUnit.NANOSECONDS.timedWait(lock, remaining); }
+                catch (InterruptedException ex) { interrupted = true; break; }
+                remaining = deadline - System.nanoTime();
+            }
+            while ( !pending.isEmpty() && group.size() < maxGroupSize )
+                group.add(pending.poll());
+        }
+        try {
+            executeGroup(group);
+        } catch (Error err) {
+            group.forEach(r -> {
+                if ( !r.executed )
+                    r.failure = err;
+            });
+            throw err;
+        } finally {
+            synchronized(lock) {
+                group.forEach(r -> r.done = true);
+            }
+        }
+        return interrupted;
+    }
+
+    private void executeGroup(List<Request> group) {
+        if ( group.isEmpty() )
+            return;
+        if ( group.size() == 1 ) {
+            executeOne(group.get(0));
+            return;
+        }
+        try {
+            transactional.begin(TxnType.WRITE);
+            for ( Request r : group )
+                r.action.run();
+            transactional.commit();
+            group.forEach(r -> r.executed = true);
+            return;
+        } catch (RuntimeException ex) {
+            abort();
+        } catch (Error err) {
+            abort();
+            throw err;
+        } finally {
+            transactional.end();
+        }
+        // Something failed. Execute each update separately.
+        group.forEach(this::executeOne);
+    }
+
+    private void executeOne(Request request) {
+        try {
+            transactional.begin(TxnType.WRITE);
+            request.action.run();
+            transactional.commit();
+        } catch (RuntimeException ex) {
+            request.failure = ex;
+            abort();
+        } catch (Error err) {
+            request.failure = err;
+            abort();
+            throw err;
+        } finally {
+            request.executed = true;
+            transactional.end();
+        }
+    }
+
+    private void abort() {
+        if ( transactional.isInTransaction() )
+            transactional.abort();
+    }
+
+    private static void rethrow(Throwable th) {
+        if ( th == null )
+            return;
+        if ( th instanceof RuntimeException ex )
+            throw ex;
+        if ( th instanceof Error err )
+            throw err;
+        throw new TransactionException("Exception in group commit", th);
+    }
+}
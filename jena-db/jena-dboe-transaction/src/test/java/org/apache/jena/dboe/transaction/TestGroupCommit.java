@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.dboe.transaction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.dboe.base.file.Location;
+import org.apache.jena.dboe.transaction.txn.GroupCommit;
+import org.apache.jena.dboe.transaction.txn.TransactionCoordinator;
+import org.apache.jena.dboe.transaction.txn.TransactionException;
+import org.apache.jena.system.Txn;
+
+public class TestGroupCommit {
+    private final long InitValue = 7;
+    private TransactionCoordinator coord;
+    private TransactionalInteger integer;
+
+    @BeforeEach public void setup() {
+        coord = TransactionCoordinator.create(Location.mem());
+        integer = new TransactionalInteger(coord, InitValue);
+        coord.start();
+    }
+
+    @AfterEach public void clearup() {
+        integer.shutdown();
+    }
+
+    @Test public void groupCommit_01() {
+        GroupCommit groupCommit = new GroupCommit(integer, 0, 10);
+        groupCommit.execute(integer::inc);
+        assertEquals(InitValue+1, integer.value());
+        assertEquals(0, groupCommit.pending());
+    }
+
+    // Many threads: all updates committed, in fewer transactions.
+    @Test public void groupCommit_02() throws Exception {
+        GroupCommit groupCommit = new GroupCommit(integer, 20, 100);
+        int N = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(N);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for ( int i = 0 ; i < N ; i++ )
+                results.add(executor.submit(()->groupCommit.execute(integer::inc)));
+            for ( Future<?> f : results )
+                f.get();
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(InitValue+N, integer.value());
+        assertTrue(coord.countBeginWrite() < N, "Write transactions: "+coord.countBeginWrite());
+    }
+
+    // A failing update does not affect the others in the group.
+    @Test public void groupCommit_03() throws Exception {
+        GroupCommit groupCommit = new GroupCommit(integer, 50, 3);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<?> f1 = executor.submit(()->groupCommit.execute(integer::inc));
+            Future<?> f2 = executor.submit(()->groupCommit.execute(()->{ integer.inc(); throw new IllegalStateException(); }));
+            Future<?> f3 = executor.submit(()->groupCommit.execute(integer::inc));
+            f1.get();
+            f3.get();
+            Exception ex = assertThrows(Exception.class, ()->f2.get());
+            assertInstanceOf(IllegalStateException.class, ex.getCause());
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(InitValue+2, integer.value());
+    }
+
+    @Test public void groupCommit_04() {
+        GroupCommit groupCommit = new GroupCommit(integer, 0, 10);
+        assertThrows(IllegalStateException.class, ()->groupCommit.execute(()->{ throw new IllegalStateException(); }));
+        assertEquals(InitValue, integer.value());
+    }
+
+    // An Error is not retried.
+    @Test public void groupCommit_06() {
+        GroupCommit groupCommit = new GroupCommit(integer, 0, 10);
+        int[] calls = new int[1];
+        Error err = new Error("groupCommit_06");
+        Error ex = assertThrows(Error.class, ()->groupCommit.execute(()->{ calls[0]++; integer.inc(); throw err; }));
+        assertSame(err, ex);
+        assertEquals(1, calls[0]);
+        assertEquals(InitValue, integer.value());
+        assertFalse(integer.isInTransaction());
+        groupCommit.execute(integer::inc);
+        assertEquals(InitValue+1, integer.value());
+    }
+
+    // An Error in a group: every caller returns.
+    @Test public void groupCommit_07() throws Exception {
+        GroupCommit groupCommit = new GroupCommit(integer, 50, 3);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        AtomicInteger calls = new AtomicInteger();
+        try {
+            Future<?> f1 = executor.submit(()->groupCommit.execute(integer::inc));
+            Future<?> f2 = executor.submit(()->groupCommit.execute(()->{ calls.incrementAndGet(); integer.inc(); throw new Error("groupCommit_07"); }));
+            Future<?> f3 = executor.submit(()->groupCommit.execute(integer::inc));
+            Exception ex = assertThrows(Exception.class, ()->f2.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(Error.class, ex.getCause());
+            for ( Future<?> f : List.of(f1, f3) ) {
+                try { f.get(10, TimeUnit.SECONDS); }
+                catch (ExecutionException ex2) { assertInstanceOf(Error.class, ex2.getCause()); }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, calls.get());
+        assertEquals(0, groupCommit.pending());
+        groupCommit.execute(integer::inc);
+    }
+
+    @Test public void groupCommit_05() {
+        GroupCommit groupCommit = new GroupCommit(integer, 0, 10);
+        assertThrows(TransactionException.class, ()->Txn.executeRead(integer, ()->groupCommit.execute(integer::inc)));
+    }
+}
@@ -95,6 +95,7 @@ public class ActionCompact extends ActionAsyncTask
         static private final Logger log = Fuseki.compactLog;
 
         private final boolean shouldDeleteOld;
+        private final boolean online;
 
         public CompactTask(HttpAction action) {
             super(action);
@@ -103,6 +104,9 @@ public class ActionCompact extends ActionAsyncTask
 
             this.shouldDeleteOld = ( deleteOldParam != null
                                      && ( deleteOldParam.isEmpty() || deleteOldParam.equalsIgnoreCase("true") ) );
+            String onlineParam = action.getRequestParameter("online");
+            this.online = ( onlineParam != null
+                            && ( onlineParam.isEmpty() || onlineParam.equalsIgnoreCase("true") ) );
         }
 
         @Override
@@ -110,7 +114,10 @@ public class ActionCompact extends ActionAsyncTask
             try {
                 DatasetGraph dsg = getTDB2(dataset);
                 log.info(format("[%d] >>>> Start compact %s", actionId, datasetName));
-                DatabaseMgr.compact(dsg, this.shouldDeleteOld);
+                if ( online )
+                    DatabaseMgr.compactOnline(dsg, this.shouldDeleteOld);
+                else
+                    DatabaseMgr.compact(dsg, this.shouldDeleteOld);
                 log.info(format("[%d] <<<< Finish compact %s", actionId, datasetName));
             } catch (Throwable ex) {
                 log.warn(format("[%d] **** Exception in compact", actionId), ex);
@@ -95,6 +95,23 @@ public class DatabaseMgr {
         DatabaseOps.compact(dsg, shouldDeleteOld);
     }
 
+    /**
+     * Compact a dataset which must be a switchable TDB database, while readers and
+     * writers continue to use the database. Writers are only held up while the changes
+     * made during the copy are applied to the new database and the switch over is made.
+     * <p>
+     * Bulk loaders must not be used on the dataset during an online compaction.
+     * <p>
+     * Deletes old database after successful compaction if {@code shouldDeleteOld} is {@code true}.
+     *
+     * @param container
+     * @param shouldDeleteOld
+     */
+    public static void compactOnline(DatasetGraph container, boolean shouldDeleteOld) {
+        DatasetGraphSwitchable dsg = requireSwitchable(container);
+        DatabaseOps.compact(dsg, shouldDeleteOld, true);
+    }
+
     /**
      * Create a backup for a switchable TDB database. This is the normal dataset type for
      * on-disk TDB2 databases.
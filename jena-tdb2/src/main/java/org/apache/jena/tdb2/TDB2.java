@@ -93,6 +93,33 @@ public class TDB2 {
      */
     public static final Symbol  symUnionDefaultGraph             = symUnionDefaultGraph2;
 
+    /**
+     * Context setting: number of basic graph pattern results to convert from NodeIds
+     * to Nodes together. Each batch reads the node table in file order, turning random
+     * reads into mostly sequential ones for large results. All variables are
+     * converted, including any that are not used later.
+     * Default: not set - each node is fetched when it is first used.
+     */
+    public static final Symbol  symBatchResolveNodes             = SystemTDB.allocSymbol("batchResolveNodes");
+
+    /**
+     * Context setting: number of threads used to scan an index for the first pattern
+     * of a basic graph pattern. The index range is split into parts which are
+     * scanned in parallel and the results may not be in index order.
+     * This helps queries that read a large part of the database, such as aggregations.
+     * Default: not set - single threaded scans.
+     */
+    public static final Symbol  symParallelScan                  = SystemTDB.allocSymbol("parallelScan");
+
+    /**
+     * Context setting: evaluate FILTERs of basic graph patterns on NodeIds, before
+     * the NodeIds are converted to Nodes. Comparisons of a variable with a constant,
+     * {@code sameTerm} and {@code BOUND} are evaluated directly on inline values
+     * (numbers, dates, booleans) and only other terms are read from the node table.
+     * Default: true.
+     */
+    public static final Symbol  symFilterNodeIds                 = SystemTDB.allocSymbol("filterNodeIds");
+
     public static Context getContext() {
         return ARQ.getContext();
     }
@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.tdb2.lib;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.atlas.iterator.IteratorConcat;
+import org.apache.jena.atlas.iterator.IteratorSlotted;
+import org.apache.jena.tdb2.TDB2;
+import org.apache.jena.tdb2.TDBException;
+
+/**
+ * Consume a number of iterators on a pool of threads and return their results as one
+ * iterator. This is used for scanning sub-ranges of an index in parallel.
+ * <p>
+ * Results are passed across in chunks through bounded queues. If "ordered", all the results of
+ * one iterator are returned before the results of the next one so the order of the
+ * sub-ranges is preserved; the later iterators only run ahead by the queue size.
+ * Otherwise, chunks are returned as they are produced; the results of each iterator are
+ * in order but are interleaved with the results of the other iterators.
+ * <p>
+ * The iterators must be safe to use on another thread. The returned iterator should be closed
+ * if it is not used to the end; closing it stops the work.
+ * <p>
+ * The threads come from a bounded pool of daemon threads. The pool is created when
+ * it is first used and its size is the largest of the {@link TDB2#symParallelScan}
+ * setting of the system context, the number of iterators of that first scan, and
+ * the number of processors. A producer waits while its queue is full, so a scan
+ * only uses the pool if there is a thread for each of its iterators; otherwise the
+ * iterators are consumed one after another on the calling thread.
+ */
+public final class ParallelScan<X> extends IteratorSlotted<X> {
+
+    private static final int ChunkSize = 1000;
+    // Chunks queued for each iterator.
+    private static final int QueueLength = 4;
+
+    // Set on first use.
+    private static ExecutorService executor = null;
+    // One permit for each thread of the pool. A scan takes a permit for each
+    // iterator before any are started, so no producer waits for a thread.
+    private static Semaphore threads = null;
+
+    private static synchronized void initPool(int parallelism) {
+        if ( executor != null )
+            return;
+        int poolSize = Math.max(TDB2.getContext().getInt(TDB2.symParallelScan, 1),
+                                Math.max(parallelism, Runtime.getRuntime().availableProcessors()));
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                                                         new LinkedBlockingQueue<>(), daemonThreads());
+        pool.allowCoreThreadTimeOut(true);
+        threads = new Semaphore(poolSize);
+        executor = pool;
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger(0);
+        return r -> {
+            Thread thread = new Thread(r, "TDB2-scan-"+counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /** Iterate over the results of the iterators, in the order of the list. */
+    public static <X> Iterator<X> ordered(List<Iterator<X>> iterators) {
+        return create(iterators, true);
+    }
+
+    /** Iterate over the results of the iterators, in any order. */
+    public static <X> Iterator<X> unordered(List<Iterator<X>> iterators) {
+        return create(iterators, false);
+    }
+
+    private static <X> Iterator<X> create(List<Iterator<X>> iterators, boolean ordered) {
+        if ( iterators.isEmpty() )
+            return Iter.nullIterator();
+        if ( iterators.size() == 1 )
+            return iterators.get(0);
+        initPool(iterators.size());
+        if ( !threads.tryAcquire(iterators.size()) ) {
+            // Pool busy : no parallel scan.
+            IteratorConcat<X> concat = new IteratorConcat<>();
+            iterators.forEach(concat::add);
+            return concat;
+        }
+        ParallelScan<X> scan = new ParallelScan<>(iterators.size(), ordered);
+        for ( int i = 0 ; i < iterators.size() ; i++ ) {
+            Iterator<X> iter = iterators.get(i);
+            BlockingQueue<List<X>> queue = scan.queues.get(ordered ? i : 0);
+            executor.execute(()->{
+                try {
+                    scan.produce(iter, queue);
+                } finally {
+                    threads.release();
+                }
+            });
+        }
+        return scan;
+    }
+
+    // Marks the end of the results of one iterator. Compared by identity.
+    private final List<X> endMarker = new ArrayList<>(0);
+    private final List<BlockingQueue<List<X>>> queues;
+    private final int numSources;
+    private final boolean ordered;
+    private volatile boolean cancelled = false;
+    private volatile Throwable error = null;
+
+    // Consumer state.
+    private int currentQueue = 0;
+    private int finishedSources = 0;
+    private List<X> chunk = null;
+    private int chunkIdx = 0;
+
+    private ParallelScan(int numSources, boolean ordered) {
+        this.numSources = numSources;
+        this.ordered = ordered;
+        int numQueues = ordered ? numSources : 1;
+        this.queues = new ArrayList<>(numQueues);
+        int capacity = ordered ? QueueLength : QueueLength * numSources;
+        for ( int i = 0 ; i < numQueues ; i++ )
+            queues.add(new ArrayBlockingQueue<>(capacity));
+    }
+
+    // ---- Producer side.
+
+    private void produce(Iterator<X> source, BlockingQueue<List<X>> queue) {
+        try {
+            List<X> buffer = new ArrayList<>(ChunkSize);
+            while ( !cancelled && source.hasNext() ) {
+                buffer.add(source.next());
+                if ( buffer.size() >= ChunkSize ) {
+                    if ( !put(queue, buffer) )
+                        return;
+                    buffer = new ArrayList<>(ChunkSize);
+                }
+            }
+            if ( !buffer.isEmpty() )
+                put(queue, buffer);
+        } catch (Throwable th) {
+            if ( error == null )
+                error = th;
+        } finally {
+            Iter.close(source);
+            put(queue, endMarker);
+        }
+    }
+
+    // Return false if the scan has been cancelled.
+    private boolean put(BlockingQueue<List<X>> queue, List<X> item) {
+        try {
+            while ( !cancelled ) {
+                if ( queue.offer(item, 100, TimeUnit.MILLISECONDS) )
+                    return true;
+            }
+        } catch (InterruptedException ex) {
+            cancelled = true;
+        }
+        return false;
+    }
+
+    // ---- Consumer side.
+
+    @Override
+    protected boolean hasMore() {
+        while ( chunk == null || chunkIdx >= chunk.size() ) {
+            chunk = take();
+            chunkIdx = 0;
+            if ( chunk == null )
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    protected X moveToNext() {
+        return chunk.get(chunkIdx++);
+    }
+
+    private List<X> take() {
+        while ( currentQueue < queues.size() ) {
+            List<X> x;
+            try { x = queues.get(currentQueue).take(); }
+            catch (InterruptedException ex) {
+                close();
+                throw new TDBException("Interrupted", ex);
+            }
+            if ( x != endMarker )
+                return x;
+            Throwable th = error;
+            if ( th != null ) {
+                close();
+                if ( th instanceof RuntimeException ex )
+                    throw ex;
+                if ( th instanceof Error err )
+                    throw err;
+                throw new TDBException("Exception in parallel scan", th);
+            }
+            finishedSources++;
+            if ( ordered || finishedSources == numSources )
+                currentQueue++;
+        }
+        return null;
+    }
+
+    @Override
+    protected void closeIterator() {
+        cancelled = true;
+        for ( BlockingQueue<List<X>> queue : queues )
+            queue.clear();
+        chunk = null;
+    }
+}
@@ -22,6 +22,7 @@
 package org.apache.jena.tdb2.loader.base;
 
 import org.apache.jena.dboe.base.file.Location;
+import org.apache.jena.dboe.trans.data.TransBinaryDataFile;
 import org.apache.jena.dboe.transaction.txn.Transaction;
 import org.apache.jena.dboe.transaction.txn.TransactionCoordinator;
 import org.apache.jena.dboe.transaction.txn.journal.Journal;
@@ -39,6 +40,9 @@ public class CoLib {
 
     public static void add(TransactionCoordinator coordinator, NodeTable nodeTable) {
         coordinator.add(LoaderOps.ntDataFile(nodeTable));
+        TransBinaryDataFile dictionary = LoaderOps.ntDictionaryFile(nodeTable);
+        if ( dictionary != null )
+            coordinator.add(dictionary);
         coordinator.add(LoaderOps.ntBPTree(nodeTable));
     }
 
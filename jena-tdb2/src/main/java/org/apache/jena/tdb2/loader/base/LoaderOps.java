@@ -41,8 +41,10 @@ import org.apache.jena.riot.system.StreamRDFWrapper;
 import org.apache.jena.sparql.core.Quad;
 import org.apache.jena.system.progress.*;
 import org.apache.jena.tdb2.TDB2;
+import org.apache.jena.tdb2.TDBException;
 import org.apache.jena.tdb2.store.NodeId;
 import org.apache.jena.tdb2.store.nodetable.NodeTable;
+import org.apache.jena.tdb2.store.nodetable.NodeTableDictionary;
 import org.apache.jena.tdb2.store.nodetable.NodeTableTRDF;
 import org.apache.jena.tdb2.store.tupletable.TupleIndex;
 import org.apache.jena.tdb2.store.tupletable.TupleIndexRecord;
@@ -55,16 +57,29 @@ import org.slf4j.Logger;
 public class LoaderOps {
     /** Get the node storage for a {@Link NodeTable} */
     public static TransBinaryDataFile ntDataFile(NodeTable nt) {
-        NodeTableTRDF ntt = (NodeTableTRDF)(nt.baseNodeTable());
-        BinaryDataFile bdf = ntt.getData();
+        BinaryDataFile bdf = switch (nt.baseNodeTable()) {
+            case NodeTableTRDF ntt -> ntt.getData();
+            case NodeTableDictionary ntd -> ntd.getData();
+            default -> throw new TDBException("Not a native node table: "+nt.baseNodeTable());
+        };
         TransBinaryDataFile tbdf = (TransBinaryDataFile)bdf;
         return tbdf;
     }
 
+    /** Get the dictionary storage for a {@Link NodeTable}, or null if it does not have a dictionary. */
+    public static TransBinaryDataFile ntDictionaryFile(NodeTable nt) {
+        if ( nt.baseNodeTable() instanceof NodeTableDictionary ntd )
+            return (TransBinaryDataFile)ntd.getDictionary();
+        return null;
+    }
+
     /** Get the BPlusTree index for a {@Link NodeTable} */
     public static BPlusTree ntBPTree(NodeTable nt) {
-        NodeTableTRDF ntt = (NodeTableTRDF)(nt.baseNodeTable());
-        Index idx = ntt.getIndex();
+        Index idx = switch (nt.baseNodeTable()) {
+            case NodeTableTRDF ntt -> ntt.getIndex();
+            case NodeTableDictionary ntd -> ntd.getIndex();
+            default -> throw new TDBException("Not a native node table: "+nt.baseNodeTable());
+        };
         return (BPlusTree)idx;
     }
 
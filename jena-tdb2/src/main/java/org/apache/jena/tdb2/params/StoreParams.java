@@ -60,6 +60,8 @@ public class StoreParams implements IndexParams, BlockParams, StoreParamsDynamic
     /*package*/ final Item<Integer>            prefixNodeId2NodeCacheSize;
     /*package*/ final Item<Integer>            prefixNodeMissCacheSize;
     /*package*/ final Item<Double>             nodeCacheInitialCapacityFactor;
+    /*package*/ final Item<Long>               node2NodeIdOffHeapCacheSize;
+    /*package*/ final Item<Long>               nodeId2NodeOffHeapCacheSize;
 
     /*
      * These are items affect database layout and
@@ -69,6 +71,8 @@ public class StoreParams implements IndexParams, BlockParams, StoreParamsDynamic
      * you'll need to use the index tools.
      */
     /*package*/ final Item<Integer>            blockSize;
+    /*package*/ final Item<Boolean>            compressedIndexes;
+    /*package*/ final Item<Boolean>            compressedNodes;
 
     /*package*/ final Item<String>             nodeTableBaseName;
 
@@ -106,6 +110,10 @@ public class StoreParams implements IndexParams, BlockParams, StoreParamsDynamic
 
                             Item<Double> nodeCacheInitialCapacityFactor,
 
+                            Item<Long> node2NodeIdOffHeapCacheSize, Item<Long> nodeId2NodeOffHeapCacheSize,
+
+                            Item<Boolean> compressedIndexes, Item<Boolean> compressedNodes,
+
                             Item<String> nodeTableBaseName,
                             Item<String> primaryIndexTriples, Item<String[]> tripleIndexes,
                             Item<String> primaryIndexQuads, Item<String[]> quadIndexes,
@@ -128,6 +136,12 @@ public class StoreParams implements IndexParams, BlockParams, StoreParamsDynamic
 
         this.nodeCacheInitialCapacityFactor = nodeCacheInitialCapacityFactor;
 
+        this.node2NodeIdOffHeapCacheSize = node2NodeIdOffHeapCacheSize;
+        this.nodeId2NodeOffHeapCacheSize = nodeId2NodeOffHeapCacheSize;
+
+        this.compressedIndexes      = compressedIndexes;
+        this.compressedNodes        = compressedNodes;
+
         this.nodeTableBaseName      = nodeTableBaseName;
 
         this.primaryIndexTriples    = primaryIndexTriples;
@@ -275,6 +289,47 @@ public class StoreParams implements IndexParams, BlockParams, StoreParamsDynamic
         return nodeCacheInitialCapacityFactor.isSet;
     }
 
+    @Override
+    public Long getNode2NodeIdOffHeapCacheSize() {
+        return node2NodeIdOffHeapCacheSize.value;
+    }
+
+    @Override
+    public boolean isSetNode2NodeIdOffHeapCacheSize() {
+        return node2NodeIdOffHeapCacheSize.isSet;
+    }
+
+    @Override
+    public Long getNodeId2NodeOffHeapCacheSize() {
+        return nodeId2NodeOffHeapCacheSize.value;
+    }
+
+    @Override
+    public boolean isSetNodeId2NodeOffHeapCacheSize() {
+        return nodeId2NodeOffHeapCacheSize.isSet;
+    }
+
+    /** Whether the leaf blocks of the triple, quad and prefix indexes are stored compressed. */
+    public boolean isCompressedIndexes() {
+        return compressedIndexes.value;
+    }
+
+    public boolean isSetCompressedIndexes() {
+        return compressedIndexes.isSet;
+    }
+
+    /**
+     * Whether the node tables store IRI namespaces, datatypes and language tags
+     * in a dictionary rather than in each RDF term.
+     */
+    public boolean isCompressedNodes() {
+        return compressedNodes.value;
+    }
+
+    public boolean isSetCompressedNodes() {
+        return compressedNodes.isSet;
+    }
+
     public String getNodeTableBaseName() {
         return nodeTableBaseName.value;
     }
@@ -334,7 +389,11 @@ public class StoreParams implements IndexParams, BlockParams, StoreParamsDynamic
         fmt(buff, "prefixNodeId2NodeCacheSize", getPrefixNodeId2NodeCacheSize(), prefixNodeId2NodeCacheSize.isSet);
         fmt(buff, "prefixNodeMissCacheSize", getPrefixNodeMissCacheSize(), prefixNodeMissCacheSize.isSet);
         fmt(buff, "nodeCacheInitialCapacityFactor", getNodeCacheInitialCapacityFactor(), nodeCacheInitialCapacityFactor.isSet);
+        fmt(buff, "node2NodeIdOffHeapCacheSize", getNode2NodeIdOffHeapCacheSize(), node2NodeIdOffHeapCacheSize.isSet);
+        fmt(buff, "nodeId2NodeOffHeapCacheSize", getNodeId2NodeOffHeapCacheSize(), nodeId2NodeOffHeapCacheSize.isSet);
 
+        fmt(buff, "compressedIndexes", isCompressedIndexes(), compressedIndexes.isSet);
+        fmt(buff, "compressedNodes", isCompressedNodes(), compressedNodes.isSet);
         fmt(buff, "nodeTableBaseName", getNodeTableBaseName(), nodeTableBaseName.isSet);
         fmt(buff, "primaryIndexTriples", getPrimaryIndexTriples(), primaryIndexTriples.isSet);
         fmt(buff, "tripleIndexes", getTripleIndexes(), tripleIndexes.isSet);
@@ -369,6 +428,20 @@ public class StoreParams implements IndexParams, BlockParams, StoreParamsDynamic
         buff.append(String.format("%-20s   %s%s\n", name, dftStr, value));
     }
 
+    private void fmt(StringBuilder buff, String name, long value, boolean isSet) {
+        String dftStr = "";
+        if ( ! isSet )
+            dftStr = "dft:";
+        buff.append(String.format("%-20s   %s%s\n", name, dftStr, value));
+    }
+
+    private void fmt(StringBuilder buff, String name, boolean value, boolean isSet) {
+        String dftStr = "";
+        if ( ! isSet )
+            dftStr = "dft:";
+        buff.append(String.format("%-20s   %s%s\n", name, dftStr, value));
+    }
+
     private void fmt(StringBuilder buff, String name, double value, boolean isSet) {
         String dftStr = "";
         if ( ! isSet )
@@ -406,6 +479,14 @@ public class StoreParams implements IndexParams, BlockParams, StoreParamsDynamic
             return false;
         if ( !sameValues(params1.nodeCacheInitialCapacityFactor, params2.nodeCacheInitialCapacityFactor) )
             return false;
+        if ( !sameValues(params1.node2NodeIdOffHeapCacheSize, params2.node2NodeIdOffHeapCacheSize) )
+            return false;
+        if ( !sameValues(params1.nodeId2NodeOffHeapCacheSize, params2.nodeId2NodeOffHeapCacheSize) )
+            return false;
+        if ( !sameValues(params1.compressedIndexes, params2.compressedIndexes) )
+            return false;
+        if ( !sameValues(params1.compressedNodes, params2.compressedNodes) )
+            return false;
         if ( !sameValues(params1.nodeTableBaseName, params2.nodeTableBaseName) )
             return false;
         if ( !sameValues(params1.primaryIndexTriples, params2.primaryIndexTriples) )
@@ -440,8 +521,12 @@ public class StoreParams implements IndexParams, BlockParams, StoreParamsDynamic
         result = prime * result + ((prefixNodeId2NodeCacheSize == null) ? 0 : prefixNodeId2NodeCacheSize.hashCode());
         result = prime * result + ((prefixNodeMissCacheSize == null) ? 0 : prefixNodeMissCacheSize.hashCode());
         result = prime * result + ((nodeCacheInitialCapacityFactor == null) ? 0 : nodeCacheInitialCapacityFactor.hashCode());
+        result = prime * result + ((node2NodeIdOffHeapCacheSize == null) ? 0 : node2NodeIdOffHeapCacheSize.hashCode());
+        result = prime * result + ((nodeId2NodeOffHeapCacheSize == null) ? 0 : nodeId2NodeOffHeapCacheSize.hashCode());
         result = prime * result + ((blockReadCacheSize == null) ? 0 : blockReadCacheSize.hashCode());
         result = prime * result + ((blockSize == null) ? 0 : blockSize.hashCode());
+        result = prime * result + ((compressedIndexes == null) ? 0 : compressedIndexes.hashCode());
+        result = prime * result + ((compressedNodes == null) ? 0 : compressedNodes.hashCode());
         result = prime * result + ((blockWriteCacheSize == null) ? 0 : blockWriteCacheSize.hashCode());
         result = prime * result + ((fileMode == null) ? 0 : fileMode.hashCode());
         result = prime * result + ((nodeTableBaseName == null) ? 0 : nodeTableBaseName.hashCode());
@@ -499,6 +584,16 @@ public class StoreParams implements IndexParams, BlockParams, StoreParamsDynamic
                 return false;
         } else if ( !nodeCacheInitialCapacityFactor.equals(other.nodeCacheInitialCapacityFactor) )
             return false;
+        if ( node2NodeIdOffHeapCacheSize == null ) {
+            if ( other.node2NodeIdOffHeapCacheSize != null )
+                return false;
+        } else if ( !node2NodeIdOffHeapCacheSize.equals(other.node2NodeIdOffHeapCacheSize) )
+            return false;
+        if ( nodeId2NodeOffHeapCacheSize == null ) {
+            if ( other.nodeId2NodeOffHeapCacheSize != null )
+                return false;
+        } else if ( !nodeId2NodeOffHeapCacheSize.equals(other.nodeId2NodeOffHeapCacheSize) )
+            return false;
         if ( blockReadCacheSize == null ) {
             if ( other.blockReadCacheSize != null )
                 return false;
@@ -509,6 +604,16 @@ public class StoreParams implements IndexParams, BlockParams, StoreParamsDynamic
                 return false;
         } else if ( !blockSize.equals(other.blockSize) )
             return false;
+        if ( compressedIndexes == null ) {
+            if ( other.compressedIndexes != null )
+                return false;
+        } else if ( !compressedIndexes.equals(other.compressedIndexes) )
+            return false;
+        if ( compressedNodes == null ) {
+            if ( other.compressedNodes != null )
+                return false;
+        } else if ( !compressedNodes.equals(other.compressedNodes) )
+            return false;
         if ( blockWriteCacheSize == null ) {
             if ( other.blockWriteCacheSize != null )
                 return false;
@@ -88,10 +88,17 @@ public class StoreParamsBuilder {
 
     private Item<Double>             nodeCacheInitialCapacityFactor = new Item<>(StoreParamsConst.NodeCacheInitialCapacityFactor, false);
 
+    private Item<Long>               node2NodeIdOffHeapCacheSize = new Item<>(StoreParamsConst.Node2NodeIdOffHeapCacheSize, false);
+
+    private Item<Long>               nodeId2NodeOffHeapCacheSize = new Item<>(StoreParamsConst.NodeId2NodeOffHeapCacheSize, false);
+
     /** Database layout - ignored after a database is created */
 
     private Item<Integer>            blockSize             = new Item<>(StoreParamsConst.blockSize, false);
 
+    private Item<Boolean>            compressedIndexes     = new Item<>(StoreParamsConst.compressedIndexes, false);
+    private Item<Boolean>            compressedNodes       = new Item<>(StoreParamsConst.compressedNodes, false);
+
     private Item<String>             nodeTableBaseName     = new Item<>(StoreParamsConst.nodeTableBaseName, false);
 
     private Item<String>             primaryIndexTriples   = new Item<>(StoreParamsConst.primaryIndexTriples, false);
@@ -155,6 +162,12 @@ public class StoreParamsBuilder {
         if ( additionalParams.isSetNodeCacheInitialCapacityFactor() )
             b.nodeCacheInitialCapacityFactor(additionalParams.getNodeCacheInitialCapacityFactor());
 
+        if ( additionalParams.isSetNode2NodeIdOffHeapCacheSize() )
+            b.node2NodeIdOffHeapCacheSize(additionalParams.getNode2NodeIdOffHeapCacheSize());
+
+        if ( additionalParams.isSetNodeId2NodeOffHeapCacheSize() )
+            b.nodeId2NodeOffHeapCacheSize(additionalParams.getNodeId2NodeOffHeapCacheSize());
+
         return b.build();
     }
 
@@ -178,6 +191,12 @@ public class StoreParamsBuilder {
 
         this.nodeCacheInitialCapacityFactor = other.nodeCacheInitialCapacityFactor;
 
+        this.node2NodeIdOffHeapCacheSize = other.node2NodeIdOffHeapCacheSize;
+        this.nodeId2NodeOffHeapCacheSize = other.nodeId2NodeOffHeapCacheSize;
+
+        this.compressedIndexes      = other.compressedIndexes;
+        this.compressedNodes        = other.compressedNodes;
+
         this.nodeTableBaseName      = other.nodeTableBaseName;
 
         this.primaryIndexTriples    = other.primaryIndexTriples;
@@ -197,6 +216,8 @@ public class StoreParamsBuilder {
                  Node2NodeIdCacheSize, NodeId2NodeCacheSize, NodeMissCacheSize,
                  prefixNode2NodeIdCacheSize, prefixNodeId2NodeCacheSize, prefixNodeMissCacheSize,
                  nodeCacheInitialCapacityFactor,
+                 node2NodeIdOffHeapCacheSize, nodeId2NodeOffHeapCacheSize,
+                 compressedIndexes, compressedNodes,
                  nodeTableBaseName,
                  primaryIndexTriples, tripleIndexes,
                  primaryIndexQuads, quadIndexes,
@@ -231,6 +252,32 @@ public class StoreParamsBuilder {
         return this;
     }
 
+    public boolean isCompressedIndexes() {
+        return compressedIndexes.value;
+    }
+
+    /**
+     * Store the leaf blocks of the triple, quad and prefix indexes compressed.
+     * This only has an effect when a database is created.
+     */
+    public StoreParamsBuilder compressedIndexes(boolean compressedIndexes) {
+        this.compressedIndexes = new Item<>(compressedIndexes, true);
+        return this;
+    }
+
+    public boolean isCompressedNodes() {
+        return compressedNodes.value;
+    }
+
+    /**
+     * Store IRI namespaces, datatypes and language tags of the RDF terms in the node
+     * tables in a dictionary. This only has an effect when a database is created.
+     */
+    public StoreParamsBuilder compressedNodes(boolean compressedNodes) {
+        this.compressedNodes = new Item<>(compressedNodes, true);
+        return this;
+    }
+
     public int getBlockReadCacheSize() {
         return blockReadCacheSize.value;
     }
@@ -312,6 +359,24 @@ public class StoreParamsBuilder {
         return this;
     }
 
+    public long getNode2NodeIdOffHeapCacheSize() {
+        return node2NodeIdOffHeapCacheSize.value;
+    }
+
+    public StoreParamsBuilder node2NodeIdOffHeapCacheSize(long node2NodeIdOffHeapCacheSize) {
+        this.node2NodeIdOffHeapCacheSize = new Item<>(node2NodeIdOffHeapCacheSize, true);
+        return this;
+    }
+
+    public long getNodeId2NodeOffHeapCacheSize() {
+        return nodeId2NodeOffHeapCacheSize.value;
+    }
+
+    public StoreParamsBuilder nodeId2NodeOffHeapCacheSize(long nodeId2NodeOffHeapCacheSize) {
+        this.nodeId2NodeOffHeapCacheSize = new Item<>(nodeId2NodeOffHeapCacheSize, true);
+        return this;
+    }
+
     public String getNodeTableBaseName() {
         return nodeTableBaseName.value;
     }
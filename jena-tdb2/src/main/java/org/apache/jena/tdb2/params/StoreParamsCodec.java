@@ -101,6 +101,14 @@ public class StoreParamsCodec {
         encode(builder, key(fPrefixNodeId2NodeCacheSize),     params.getPrefixNodeId2NodeCacheSize());
         encode(builder, key(fPrefixNodeMissCacheSize),        params.getPrefixNodeMissCacheSize());
         encode(builder, key(fNodeCacheInitialCapacityFactor), params.getNodeCacheInitialCapacityFactor());
+        encode(builder, key(fNode2NodeIdOffHeapCacheSize),    params.getNode2NodeIdOffHeapCacheSize());
+        encode(builder, key(fNodeId2NodeOffHeapCacheSize),    params.getNodeId2NodeOffHeapCacheSize());
+        // Only written when set so that the file for an uncompressed database is unchanged.
+        // Older versions reject the unknown key rather than misread compressed indexes or nodes.
+        if ( params.isCompressedIndexes() )
+            encode(builder, key(fCompressedIndexes),          params.isCompressedIndexes());
+        if ( params.isCompressedNodes() )
+            encode(builder, key(fCompressedNodes),            params.isCompressedNodes());
         encode(builder, key(fNodeTableBaseName),              params.getNodeTableBaseName());
         encode(builder, key(fPrimaryIndexTriples),            params.getPrimaryIndexTriples());
         encode(builder, key(fTripleIndexes),                  params.getTripleIndexes());
@@ -148,7 +156,11 @@ public class StoreParamsCodec {
                 case fPrefixNodeId2NodeCacheSize:     builder.prefixNodeId2NodeCacheSize(getInt(json, key));        break ;
                 case fPrefixNodeMissCacheSize:        builder.prefixNodeMissCacheSize(getInt(json, key));           break ;
                 case fNodeCacheInitialCapacityFactor: builder.nodeCacheInitialCapacityFactor(getDouble(json, key)); break ;
+                case fNode2NodeIdOffHeapCacheSize:    builder.node2NodeIdOffHeapCacheSize(getLong(json, key));      break ;
+                case fNodeId2NodeOffHeapCacheSize:    builder.nodeId2NodeOffHeapCacheSize(getLong(json, key));      break ;
 
+                case fCompressedIndexes:              builder.compressedIndexes(getBoolean(json, key));             break ;
+                case fCompressedNodes:                builder.compressedNodes(getBoolean(json, key));               break ;
                 case fNodeTableBaseName:              builder.nodeTableBaseName(getString(json, key));              break ;
                 case fPrimaryIndexTriples:            builder.primaryIndexTriples(getString(json, key));            break ;
                 case fTripleIndexes:                  builder.tripleIndexes(getStringArray(json, key));             break ;
@@ -182,6 +194,20 @@ public class StoreParamsCodec {
         return x;
     }
 
+    private static Long getLong(JsonObject json, String key) {
+        if ( ! json.hasKey(key) )
+            throw new TDBException("StoreParamsCodec.getLong: no such key: "+key);
+        Long x = json.get(key).getAsNumber().value().longValue();
+        return x;
+    }
+
+    private static Boolean getBoolean(JsonObject json, String key) {
+        if ( ! json.hasKey(key) )
+            throw new TDBException("StoreParamsCodec.getBoolean: no such key: "+key);
+        Boolean x = json.get(key).getAsBoolean().value();
+        return x;
+    }
+
     private static Double getDouble(JsonObject json, String key) {
         if ( ! json.hasKey(key) )
             throw new TDBException("StoreParamsCodec.getDouble: no such key: "+key);
@@ -211,6 +237,10 @@ public class StoreParamsCodec {
             builder.key(name).value(x);
             return;
         }
+        if ( value instanceof Boolean bool ) {
+            builder.key(name).value(bool);
+            return;
+        }
         if ( value instanceof String str ) {
             builder.key(name).value(str);
             return;
@@ -64,10 +64,22 @@ public class StoreParamsConst {
     public static final String  fNodeCacheInitialCapacityFactor = "node_cache_initial_capacity_factor";
     public static final double  NodeCacheInitialCapacityFactor  = SystemTDB.NodeCacheInitialCapacityFactor;
 
+    public static final String  fNode2NodeIdOffHeapCacheSize = "node2nodeid_offheap_cache_size";
+    public static final long    Node2NodeIdOffHeapCacheSize  = SystemTDB.Node2NodeIdOffHeapCacheSize;
+
+    public static final String  fNodeId2NodeOffHeapCacheSize = "nodeid2node_offheap_cache_size";
+    public static final long    NodeId2NodeOffHeapCacheSize  = SystemTDB.NodeId2NodeOffHeapCacheSize;
+
     /** Database layout - ignored after a database is created */
     public static final String   fBlockSize            = "block_size";
     public static final int      blockSize             = SystemTDB.BlockSize;
 
+    public static final String   fCompressedIndexes    = "compressed_indexes";
+    public static final boolean  compressedIndexes     = false;
+
+    public static final String   fCompressedNodes      = "compressed_nodes";
+    public static final boolean  compressedNodes       = false;
+
     public static final String   fNodeTableBaseName    = "nodetable";
     public static final String   nodeTableBaseName     = Names.nodeTableBaseName;
 
@@ -80,4 +80,20 @@ public interface StoreParamsDynamic {
      */
     public Double getNodeCacheInitialCapacityFactor();
     public boolean isSetNodeCacheInitialCapacityFactor();
+
+    /**
+     * Size, in bytes, of the off-heap cache for Node{@literal ->}NodeId.
+     * When set, the on-heap node cache is a first level cache in front of the off-heap cache.
+     * Zero for no off-heap cache.
+     */
+    public Long getNode2NodeIdOffHeapCacheSize();
+    public boolean isSetNode2NodeIdOffHeapCacheSize();
+
+    /**
+     * Size, in bytes, of the off-heap cache for NodeId{@literal ->}Node.
+     * When set, the on-heap node cache is a first level cache in front of the off-heap cache.
+     * Zero for no off-heap cache.
+     */
+    public Long getNodeId2NodeOffHeapCacheSize();
+    public boolean isSetNodeId2NodeOffHeapCacheSize();
 }
@@ -44,13 +44,25 @@ public class BindingTDB extends BindingBase
     private static final boolean caching = false;
     // Whether the cache is worthwhile is unclear - the NodeTable keeps a cache.
     private final Map<Var,Node> cache = ( caching ? new HashMap<>() : null );
+    // NodeIds already resolved, e.g. for a batch of bindings. May be null.
+    private final Map<NodeId,Node> resolved;
 
     public BindingTDB(BindingNodeId idBinding, NodeTable nodeTable)
+    {
+        this(idBinding, nodeTable, null);
+    }
+
+    /**
+     * A binding where some or all NodeIds have already been turned into nodes.
+     * The map of resolved nodes may be shared between bindings.
+     */
+    public BindingTDB(BindingNodeId idBinding, NodeTable nodeTable, Map<NodeId, Node> resolved)
     {
         // BindingNodeId contains the bindings actually used  copied down when created.
         super(idBinding.getParentBinding());
         this.idBinding = idBinding;
         this.nodeTable = nodeTable;
+        this.resolved = resolved;
     }
 
     @Override
@@ -127,7 +139,10 @@ public class BindingTDB extends BindingBase
                 return null;
             if ( NodeId.isDoesNotExist(id) )
                 return null;
-            n = nodeTable.getNodeForNodeId(id);
+            if ( resolved != null )
+                n = resolved.get(id);
+            if ( n == null )
+                n = nodeTable.getNodeForNodeId(id);
             if ( n == null )
                 // But there was to put it in the BindingNodeId.
                 throw new TDBException("No node in NodeTable for NodeId "+id);
@@ -0,0 +1,311 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.tdb2.solver;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.apache.jena.atlas.logging.Log;
+import org.apache.jena.graph.Node;
+import org.apache.jena.query.QueryCancelledException;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.ExecutionContext;
+import org.apache.jena.sparql.expr.*;
+import org.apache.jena.tdb2.store.NodeId;
+import org.apache.jena.tdb2.store.NodeIdType;
+import org.apache.jena.tdb2.store.nodetable.NodeTable;
+import org.apache.jena.tdb2.store.value.IntegerNode;
+
+/**
+ * Evaluate FILTER expressions on a {@link BindingNodeId}, before NodeIds are turned
+ * into Nodes, so that rows that are rejected are never read from the node table.
+ * <p>
+ * Some common forms are evaluated on the NodeIds directly:
+ * <ul>
+ * <li>{@code BOUND(?x)}
+ * <li>{@code sameTerm} of variables and constants
+ * <li>{@code = != < <= > >=} of a variable and a constant when the variable is bound
+ *     to an inline value (integers, decimals, doubles, dates, booleans)
+ * <li>{@code && || !} of these
+ * </ul>
+ * When a NodeId test can not decide, for example the variable is bound to a NodeId
+ * for a term in the node table, the expression is evaluated in the usual way with
+ * the NodeIds turned into Nodes only as needed.
+ */
+class FilterNodeId implements Predicate<BindingNodeId> {
+
+    /** Evaluation on NodeIds: returns true, false or null for "can not decide". */
+    private interface Test {
+        Boolean eval(BindingNodeId binding);
+    }
+
+    private final List<Expr> exprs;
+    private final List<Test> tests;
+    private final NodeTable nodeTable;
+    private final ExecutionContext execCxt;
+
+    FilterNodeId(ExprList exprList, NodeTable nodeTable, ExecutionContext execCxt) {
+        this.exprs = exprList.getList();
+        this.nodeTable = nodeTable;
+        this.execCxt = execCxt;
+        this.tests = new ArrayList<>(exprs.size());
+        for ( Expr expr : exprs )
+            tests.add(compile(expr));
+    }
+
+    /** Return whether any expression is evaluated on NodeIds. */
+    boolean hasNodeIdTests() {
+        for ( Test test : tests ) {
+            if ( test != null )
+                return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean test(BindingNodeId binding) {
+        BindingTDB bindingTDB = null;
+        for ( int i = 0 ; i < exprs.size() ; i++ ) {
+            Test test = tests.get(i);
+            Boolean b = ( test == null ) ? null : test.eval(binding);
+            if ( b == null ) {
+                if ( bindingTDB == null )
+                    bindingTDB = new BindingTDB(binding, nodeTable);
+                b = isSatisfied(exprs.get(i), bindingTDB);
+            }
+            if ( ! b )
+                return false;
+        }
+        return true;
+    }
+
+    // As QueryIterFilterExpr.
+    private boolean isSatisfied(Expr expr, BindingTDB binding) {
+        try {
+            return expr.isSatisfied(binding, execCxt);
+        } catch (QueryCancelledException ex) {
+            throw ex;
+        } catch (ExprException ex) {
+            Log.warn(this, "Expression exception in " + expr, ex);
+            return false;
+        } catch (Exception ex) {
+            Log.warn(this, "General exception in " + expr, ex);
+            return false;
+        }
+    }
+
+    // ---- Compile
+
+    // Return null if the expression is not handled.
+    private Test compile(Expr expr) {
+        if ( expr instanceof E_Bound bound && bound.getArg().isVariable() ) {
+            Var var = bound.getArg().asVar();
+            return binding -> {
+                NodeId id = binding.get(var);
+                if ( NodeId.isDoesNotExist(id) )
+                    return null;
+                return id != null;
+            };
+        }
+        if ( expr instanceof E_LogicalNot not ) {
+            Test test = compile(not.getArg());
+            if ( test == null )
+                return null;
+            return binding -> {
+                Boolean b = test.eval(binding);
+                return ( b == null ) ? null : !b;
+            };
+        }
+        if ( expr instanceof E_LogicalAnd and ) {
+            Test test1 = compile(and.getArg1());
+            Test test2 = compile(and.getArg2());
+            if ( test1 == null || test2 == null )
+                return null;
+            // false && error is false.
+            return binding -> {
+                Boolean b1 = test1.eval(binding);
+                if ( Boolean.FALSE.equals(b1) )
+                    return false;
+                Boolean b2 = test2.eval(binding);
+                if ( Boolean.FALSE.equals(b2) )
+                    return false;
+                return ( b1 == null || b2 == null ) ? null : true;
+            };
+        }
+        if ( expr instanceof E_LogicalOr or ) {
+            Test test1 = compile(or.getArg1());
+            Test test2 = compile(or.getArg2());
+            if ( test1 == null || test2 == null )
+                return null;
+            // true || error is true.
+            return binding -> {
+                Boolean b1 = test1.eval(binding);
+                if ( Boolean.TRUE.equals(b1) )
+                    return true;
+                Boolean b2 = test2.eval(binding);
+                if ( Boolean.TRUE.equals(b2) )
+                    return true;
+                return ( b1 == null || b2 == null ) ? null : false;
+            };
+        }
+        if ( expr instanceof E_SameTerm sameTerm )
+            return compileSameTerm(sameTerm.getArg1(), sameTerm.getArg2());
+        if ( expr instanceof ExprFunction2 func )
+            return compileCompare(func);
+        return null;
+    }
+
+    private Test compileSameTerm(Expr expr1, Expr expr2) {
+        if ( expr1.isVariable() && expr2.isVariable() ) {
+            Var var1 = expr1.asVar();
+            Var var2 = expr2.asVar();
+            return binding -> {
+                NodeId id1 = value(binding, var1);
+                NodeId id2 = value(binding, var2);
+                if ( id1 == null || id2 == null )
+                    return null;
+                return id1.equals(id2);
+            };
+        }
+        if ( expr2.isVariable() && expr1.isConstant() )
+            return compileSameTerm(expr2, expr1);
+        if ( ! expr1.isVariable() || ! expr2.isConstant() )
+            return null;
+        Var var = expr1.asVar();
+        Node node = expr2.getConstant().asNode();
+        NodeId constId = constantNodeId(node);
+        if ( constId == null )
+            return null;
+        return binding -> {
+            NodeId id = value(binding, var);
+            if ( id == null )
+                return null;
+            return id.equals(constId);
+        };
+    }
+
+    // The NodeId for a constant, NodeDoesNotExist if it is not in the node table,
+    // or null if NodeId equality is not term equality for this constant.
+    private NodeId constantNodeId(Node node) {
+        NodeId inline = NodeId.inline(node);
+        if ( inline != null ) {
+            // Inline values are stored in canonical form.
+            if ( ! node.equals(NodeId.extract(inline)) )
+                return null;
+            return inline;
+        }
+        return nodeTable.getNodeIdForNode(node);
+    }
+
+    // The NodeId for a variable, or null if it is unbound or bound to a term that is not in the node table.
+    private static NodeId value(BindingNodeId binding, Var var) {
+        NodeId id = binding.get(var);
+        if ( id == null || NodeId.isDoesNotExist(id) )
+            return null;
+        return id;
+    }
+
+    private enum Op { EQ, NE, LT, LE, GT, GE }
+
+    private Test compileCompare(ExprFunction2 func) {
+        Op op = switch (func) {
+            case E_Equals x -> Op.EQ;
+            case E_NotEquals x -> Op.NE;
+            case E_LessThan x -> Op.LT;
+            case E_LessThanOrEqual x -> Op.LE;
+            case E_GreaterThan x -> Op.GT;
+            case E_GreaterThanOrEqual x -> Op.GE;
+            default -> null;
+        };
+        if ( op == null )
+            return null;
+        Expr expr1 = func.getArg1();
+        Expr expr2 = func.getArg2();
+        if ( expr1.isVariable() && expr2.isConstant() )
+            return compileCompare(op, expr1.asVar(), expr2.getConstant(), false);
+        if ( expr1.isConstant() && expr2.isVariable() )
+            return compileCompare(op, expr2.asVar(), expr1.getConstant(), true);
+        return null;
+    }
+
+    private static Test compileCompare(Op op, Var var, NodeValue constant, boolean reversed) {
+        Long constLong = asLong(constant);
+        return binding -> {
+            NodeId id = value(binding, var);
+            if ( id == null || ! id.isInline() )
+                return null;
+            if ( constLong != null && isIntegerType(id.type()) ) {
+                long v = IntegerNode.unpack56(id.getValue56());
+                return compareResult(op, Long.compare(v, constLong), reversed);
+            }
+            // Inline: no node table access.
+            Node node = NodeId.extract(id);
+            if ( node == null )
+                return null;
+            NodeValue nv = NodeValue.makeNode(node);
+            try {
+                return switch (op) {
+                    case EQ -> NodeValue.sameValueAs(nv, constant);
+                    case NE -> NodeValue.notSameValueAs(nv, constant);
+                    default -> compareResult(op, NodeValue.compare(nv, constant), reversed);
+                };
+            } catch (ExprEvalException ex) {
+                // Evaluate in the usual way to get the same outcome.
+                return null;
+            }
+        };
+    }
+
+    private static boolean compareResult(Op op, int cmp, boolean reversed) {
+        if ( reversed )
+            cmp = -cmp;
+        return switch (op) {
+            case EQ -> cmp == 0;
+            case NE -> cmp != 0;
+            case LT -> cmp < 0;
+            case LE -> cmp <= 0;
+            case GT -> cmp > 0;
+            case GE -> cmp >= 0;
+        };
+    }
+
+    private static Long asLong(NodeValue nv) {
+        if ( ! nv.isInteger() )
+            return null;
+        BigInteger i = nv.getInteger();
+        if ( i.bitLength() >= Long.SIZE )
+            return null;
+        return i.longValue();
+    }
+
+    private static boolean isIntegerType(NodeIdType type) {
+        return switch (type) {
+            case XSD_INTEGER,
+                 XSD_POSITIVE_INTEGER, XSD_NEGATIVE_INTEGER, XSD_NON_NEGATIVE_INTEGER, XSD_NON_POSITIVE_INTEGER,
+                 XSD_LONG, XSD_INT, XSD_SHORT, XSD_BYTE,
+                 XSD_UNSIGNEDLONG, XSD_UNSIGNEDINT, XSD_UNSIGNEDSHORT, XSD_UNSIGNEDBYTE -> true;
+            default -> false;
+        };
+    }
+}
@@ -47,6 +47,7 @@ import org.apache.jena.sparql.engine.optimizer.reorder.ReorderProc;
 import org.apache.jena.sparql.engine.optimizer.reorder.ReorderTransformation;
 import org.apache.jena.sparql.expr.ExprList;
 import org.apache.jena.sparql.mgt.Explain;
+import org.apache.jena.tdb2.TDB2;
 import org.apache.jena.tdb2.store.DatasetGraphTDB;
 import org.apache.jena.tdb2.store.GraphTDB;
 import org.apache.jena.tdb2.store.NodeId;
@@ -357,30 +358,59 @@ public class OpExecutorTDB2 extends OpExecutor
             filter = QC2.getFilter(execCxt.getContext());
         }
 
+        @Override
+        public QueryIterator execute(OpFilter opFilter, QueryIterator input) {
+            // (filter (bgp ...)) or (filter (quadpattern ...)) from filter placement.
+            // Evaluate the expressions before the NodeIds are turned into Nodes.
+            if ( execCxt.getContext().isTrueOrUndef(TDB2.symFilterNodeIds) ) {
+                ExprList exprs = opFilter.getExprs();
+                if ( opFilter.getSubOp() instanceof OpBGP opBGP && execCxt.getActiveGraph() instanceof GraphTDB )
+                    return executeBGP(opBGP, input, exprs);
+                if ( opFilter.getSubOp() instanceof OpQuadPattern opQuadPattern ) {
+                    QueryIterator qIter = executeQuadPattern(opQuadPattern, input, exprs);
+                    if ( qIter != null )
+                        return qIter;
+                }
+            }
+            return super.execute(opFilter, input);
+        }
+
         @Override
         public QueryIterator execute(OpBGP opBGP, QueryIterator input) {
             Graph g = execCxt.getActiveGraph();
-
-            if ( g instanceof GraphTDB gtdb ) {
-                BasicPattern bgp = opBGP.getPattern();
-                Explain.explain("Execute", bgp, execCxt.getContext());
-                // Triple-backed (but may be named as explicit default graph).
-                Node gn = decideGraphNode(gtdb.getGraphName(), execCxt);
-                return PatternMatchTDB2.execute(gtdb.getDSG(), gn, bgp, input, filter, execCxt);
-            }
+            if ( g instanceof GraphTDB )
+                return executeBGP(opBGP, input, null);
             Log.warn(this, "Non-GraphTDB passed to OpExecutorPlainTDB: " + g.getClass().getSimpleName());
             return super.execute(opBGP, input);
         }
 
         @Override
         public QueryIterator execute(OpQuadPattern opQuadPattern, QueryIterator input) {
+            QueryIterator qIter = executeQuadPattern(opQuadPattern, input, null);
+            if ( qIter != null )
+                return qIter;
+            Log.warn(this, "Non-DatasetGraphTDB passed to OpExecutorPlainTDB");
+            return super.execute(opQuadPattern, input);
+        }
+
+        private QueryIterator executeBGP(OpBGP opBGP, QueryIterator input, ExprList exprs) {
+            GraphTDB gtdb = (GraphTDB)execCxt.getActiveGraph();
+            BasicPattern bgp = opBGP.getPattern();
+            Explain.explain("Execute", bgp, execCxt.getContext());
+            // Triple-backed (but may be named as explicit default graph).
+            Node gn = decideGraphNode(gtdb.getGraphName(), execCxt);
+            return PatternMatchTDB2.execute(gtdb.getDSG(), gn, bgp, input, filter, exprs, execCxt);
+        }
+
+        // Return null if not a TDB2 dataset or graph.
+        private QueryIterator executeQuadPattern(OpQuadPattern opQuadPattern, QueryIterator input, ExprList exprs) {
             Node gn = opQuadPattern.getGraphNode();
             gn = decideGraphNode(gn, execCxt);
 
             if ( execCxt.getDataset() instanceof DatasetGraphTDB dsgtdb ) {
                 Explain.explain("Execute", opQuadPattern.getPattern(), execCxt.getContext());
                 BasicPattern bgp = opQuadPattern.getBasicPattern();
-                return PatternMatchTDB2.execute(dsgtdb, gn, bgp, input, filter, execCxt);
+                return PatternMatchTDB2.execute(dsgtdb, gn, bgp, input, filter, exprs, execCxt);
             }
             // Maybe a TDB named graph inside a non-TDB dataset.
             Graph g = execCxt.getActiveGraph();
@@ -390,10 +420,9 @@ public class OpExecutorTDB2 extends OpExecutor
                 BasicPattern bgp = opQuadPattern.getBasicPattern();
                 Explain.explain("Execute", bgp, execCxt.getContext());
                 // Don't pass in g -- gn may be different.
-                return PatternMatchTDB2.execute(gtdb.getDSG(), gn, bgp, input, filter, execCxt);
+                return PatternMatchTDB2.execute(gtdb.getDSG(), gn, bgp, input, filter, exprs, execCxt);
             }
-            Log.warn(this, "Non-DatasetGraphTDB passed to OpExecutorPlainTDB");
-            return super.execute(opQuadPattern, input);
+            return null;
         }
     }
 }
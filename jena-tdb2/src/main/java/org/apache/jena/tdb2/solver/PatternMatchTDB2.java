@@ -23,9 +23,7 @@ package org.apache.jena.tdb2.solver;
 
 import static org.apache.jena.sparql.engine.main.solver.SolverLib.makeAbortable;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.util.*;
 import java.util.function.Predicate;
 
 import org.apache.jena.atlas.iterator.Iter;
@@ -35,11 +33,15 @@ import org.apache.jena.graph.Node;
 import org.apache.jena.graph.Triple;
 import org.apache.jena.sparql.core.BasicPattern;
 import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.core.Var;
 import org.apache.jena.sparql.engine.ExecutionContext;
 import org.apache.jena.sparql.engine.QueryIterator;
 import org.apache.jena.sparql.engine.binding.Binding;
 import org.apache.jena.sparql.engine.iterator.Abortable;
 import org.apache.jena.sparql.engine.iterator.QueryIterAbortable;
+import org.apache.jena.sparql.engine.join.SemiJoinFilter;
+import org.apache.jena.sparql.expr.ExprList;
+import org.apache.jena.tdb2.TDB2;
 import org.apache.jena.tdb2.TDBException;
 import org.apache.jena.tdb2.store.DatasetGraphTDB;
 import org.apache.jena.tdb2.store.GraphTDB;
@@ -59,7 +61,7 @@ public class PatternMatchTDB2 {
     {
         // Maybe default graph or named graph.
         NodeTupleTable ntt = graph.getNodeTupleTable();
-        return execute(ntt, graph.getGraphName(), pattern, input, filter, execCxt);
+        return execute(ntt, graph.getGraphName(), pattern, input, filter, null, execCxt);
     }
 
     /**
@@ -70,18 +72,34 @@ public class PatternMatchTDB2 {
     public static QueryIterator execute(DatasetGraphTDB ds, Node graphNode, BasicPattern pattern,
                                         QueryIterator input, Predicate<Tuple<NodeId>> filter,
                                         ExecutionContext execCxt)
+    {
+        return execute(ds, graphNode, pattern, input, filter, null, execCxt);
+    }
+
+    /**
+     * Non-reordering execution of a quad pattern followed by FILTER expressions, given
+     * an iterator of bindings as input. The expressions are evaluated on NodeIds
+     * where possible, before the results are turned into Nodes.
+     * GraphNode is Node.ANY for execution over the union of named graphs.
+     * GraphNode is null for execution over the real default graph.
+     */
+    public static QueryIterator execute(DatasetGraphTDB ds, Node graphNode, BasicPattern pattern,
+                                        QueryIterator input, Predicate<Tuple<NodeId>> filter,
+                                        ExprList exprs, ExecutionContext execCxt)
     {
         NodeTupleTable ntt = ds.chooseNodeTupleTable(graphNode);
-        return execute(ntt, graphNode, pattern, input, filter, execCxt);
+        return execute(ntt, graphNode, pattern, input, filter, exprs, execCxt);
     }
 
     // The worker.  Callers choose the NodeTupleTable.
     //     graphNode may be Node.ANY, meaning we should make triples unique.
     //     graphNode may be null, meaning default graph
 
+    //     exprs may be null, meaning no FILTER.
+
     private static QueryIterator execute(NodeTupleTable nodeTupleTable, Node graphNode, BasicPattern pattern,
                                          QueryIterator input, Predicate<Tuple<NodeId>> filter,
-                                         ExecutionContext execCxt)
+                                         ExprList exprs, ExecutionContext execCxt)
     {
         if ( Quad.isUnionGraph(graphNode) )
             graphNode = Node.ANY;
@@ -104,6 +122,9 @@ public class PatternMatchTDB2 {
         NodeTable nodeTable = nodeTupleTable.getNodeTable();
         Iterator<BindingNodeId> chain = Iter.map(input, SolverLibTDB.convFromBinding(nodeTable));
         List<Abortable> killList = new ArrayList<>();
+        SemiJoinFilter semiJoin = SemiJoinFilter.get(execCxt);
+        Predicate<BindingNodeId> semiJoinNodeId = ( semiJoin == null ) ? null : semiJoinFilter(semiJoin, nodeTable);
+        Set<Var> bound = new HashSet<>();
 
         for ( Triple triple : triples ) {
             Tuple<Node> patternTuple = null;
@@ -118,17 +139,45 @@ public class PatternMatchTDB2 {
             // chain = solve(nodeTupleTable, tuple, anyGraph, chain, filter, execCxt);
 
             chain = matchQuadPattern(chain, graphNode, triple, nodeTupleTable, patternTuple, anyGraph, filter, execCxt);
+            if ( semiJoin != null )
+                chain = semiJoin.filterAfter(chain, bound, triple, semiJoinNodeId);
 
             chain = makeAbortable(chain, killList, execCxt.getCancelSignal());
         }
 
-        Iterator<Binding> iterBinding = SolverLibTDB.convertToNodes(chain, nodeTable);
+        if ( exprs != null && ! exprs.isEmpty() )
+            chain = Iter.filter(chain, new FilterNodeId(exprs, nodeTable, execCxt));
+
+        int batchSize = execCxt.getContext().getInt(TDB2.symBatchResolveNodes, 0);
+        Iterator<Binding> iterBinding = SolverLibTDB.convertToNodes(chain, nodeTable, batchSize);
 
         // "input" will be closed by QueryIterAbortable but is otherwise unused.
         // "killList" will be aborted on timeout.
         return new QueryIterAbortable(iterBinding, killList, input, execCxt);
     }
 
+    // The semi-join filter as a test on NodeIds. Values not in the node table can not match.
+    private static Predicate<BindingNodeId> semiJoinFilter(SemiJoinFilter semiJoin, NodeTable nodeTable) {
+        Map<Var, Set<NodeId>> keys = new HashMap<>();
+        for ( Var var : semiJoin.vars() ) {
+            Set<NodeId> ids = new HashSet<>();
+            for ( Node node : semiJoin.values(var) ) {
+                NodeId id = nodeTable.getNodeIdForNode(node);
+                if ( ! NodeId.isDoesNotExist(id) )
+                    ids.add(id);
+            }
+            keys.put(var, ids);
+        }
+        return binding -> {
+            for ( Map.Entry<Var, Set<NodeId>> e : keys.entrySet() ) {
+                NodeId id = binding.get(e.getKey());
+                if ( id != null && ! NodeId.isDoesNotExist(id) && ! e.getValue().contains(id) )
+                    return false;
+            }
+            return true;
+        };
+    }
+
     private static Iterator<BindingNodeId> matchQuadPattern(Iterator<BindingNodeId> chain, Node graphNode, Triple tPattern,
                                                             NodeTupleTable nodeTupleTable, Tuple<Node> patternTuple, boolean anyGraph,
                                                             Predicate<Tuple<NodeId>> filter, ExecutionContext execCxt) {
@@ -23,7 +23,12 @@ package org.apache.jena.tdb2.solver;
 
 
 import org.apache.jena.atlas.lib.Lib ;
+import org.apache.jena.dboe.transaction.txn.Transaction;
+import org.apache.jena.dboe.transaction.txn.TransactionCoordinator;
+import org.apache.jena.dboe.transaction.txn.TransactionListener;
 import org.apache.jena.query.Query ;
+import org.apache.jena.query.TxnType;
+import org.apache.jena.sparql.ARQConstants;
 import org.apache.jena.sparql.algebra.Algebra ;
 import org.apache.jena.sparql.algebra.Op ;
 import org.apache.jena.sparql.algebra.OpLib;
@@ -37,6 +42,7 @@ import org.apache.jena.sparql.engine.QueryEngineRegistry ;
 import org.apache.jena.sparql.engine.QueryIterator ;
 import org.apache.jena.sparql.engine.binding.Binding ;
 import org.apache.jena.sparql.engine.main.QueryEngineMain ;
+import org.apache.jena.sparql.exec.QueryResultCache;
 import org.apache.jena.sparql.mgt.Explain ;
 import org.apache.jena.sparql.util.Context ;
 import org.apache.jena.tdb2.TDB2;
@@ -108,10 +114,36 @@ public class QueryEngineTDB extends QueryEngineMain
             op = OpLib.unionDefaultGraphQuads(op) ;
             Explain.explain("REWRITE(Union default graph)", op, context);
         }
+        setDataVersion(dsg, context, isUnionDefaultGraph(context) && ! isDynamicDataset());
         QueryIterator results = super.eval(op, dsg, input, context);
         return results;
     }
 
+    /** The view of the database seen by a read transaction. */
+    private record DataVersion(TransactionCoordinator txnMgr, long version, boolean unionDefaultGraph) {}
+
+    // Read transactions with the same data version see the same data.
+    private static void setDataVersion(DatasetGraph dsg, Context context, boolean unionDefaultGraph) {
+        if ( ! ( dsg instanceof DatasetGraphTDB dsgtdb ) )
+            return;
+        Transaction txn = dsgtdb.getTxnSystem().getThreadTransaction();
+        if ( txn != null && txn.getTxnType() == TxnType.READ ) {
+            DataVersion dataVersion = new DataVersion(dsgtdb.getTxnSystem().getTxnMgr(), txn.getDataVersion(), unionDefaultGraph);
+            context.set(ARQConstants.sysDataVersion, dataVersion);
+        }
+    }
+
+    /** A listener that removes cached query results for old versions of the database after a commit. */
+    public static TransactionListener resultCacheInvalidator(TransactionCoordinator txnMgr) {
+        return new TransactionListener() {
+            @Override
+            public void notifyCommitFinish(Transaction transaction) {
+                if ( transaction.isWriteTxn() )
+                    QueryResultCache.get().invalidate(v -> v instanceof DataVersion dv && dv.txnMgr() == txnMgr);
+            }
+        };
+    }
+
     // ---- Factory
     protected static QueryEngineFactory factory = new QueryEngineFactoryTDB();
 
@@ -28,6 +28,7 @@ import java.util.function.Function;
 import java.util.function.Predicate;
 
 import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.atlas.iterator.IteratorCloseable;
 import org.apache.jena.atlas.lib.tuple.Tuple;
 import org.apache.jena.atlas.lib.tuple.TupleFactory;
 import org.apache.jena.dboe.trans.bplustree.BPlusTree;
@@ -67,6 +68,78 @@ public class SolverLibTDB
     static Iterator<Binding> convertToNodes(Iterator<BindingNodeId> iterBindingIds, NodeTable nodeTable)
     { return Iter.map(iterBindingIds, bindingNodeIds -> convToBinding(bindingNodeIds, nodeTable)); }
 
+    /**
+     * Convert from Iterator<BindingNodeId> to Iterator<Binding>, resolving
+     * the NodeIds of a batch of bindings together using {@link NodeTable#bulkNodeIdToNode},
+     * which reads the node table in file order.
+     * <p>
+     * This resolves every variable, even if it is not later used.
+     * If the batch size is less than 2, conversion is "on demand".
+     */
+    static Iterator<Binding> convertToNodes(Iterator<BindingNodeId> iterBindingIds, NodeTable nodeTable, int batchSize) {
+        if ( batchSize < 2 )
+            return convertToNodes(iterBindingIds, nodeTable);
+        return new IterBatchResolve(iterBindingIds, nodeTable, batchSize);
+    }
+
+    private static class IterBatchResolve implements IteratorCloseable<Binding> {
+        private final Iterator<BindingNodeId> input;
+        private final NodeTable nodeTable;
+        private final int batchSize;
+        private Iterator<Binding> current = Iter.nullIterator();
+
+        IterBatchResolve(Iterator<BindingNodeId> input, NodeTable nodeTable, int batchSize) {
+            this.input = input;
+            this.nodeTable = nodeTable;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if ( current.hasNext() )
+                return true;
+            if ( ! input.hasNext() )
+                return false;
+            current = nextBatch();
+            return current.hasNext();
+        }
+
+        @Override
+        public Binding next() {
+            if ( ! hasNext() )
+                throw new NoSuchElementException();
+            return current.next();
+        }
+
+        private Iterator<Binding> nextBatch() {
+            List<BindingNodeId> batch = new ArrayList<>(batchSize);
+            Set<NodeId> ids = new HashSet<>();
+            while ( batch.size() < batchSize && input.hasNext() ) {
+                BindingNodeId b = input.next();
+                batch.add(b);
+                for ( Var v : b ) {
+                    NodeId id = b.get(v);
+                    if ( id != null && ! NodeId.isDoesNotExist(id) )
+                        ids.add(id);
+                }
+            }
+            List<NodeId> idList = new ArrayList<>(ids);
+            List<Node> nodes = nodeTable.bulkNodeIdToNode(idList);
+            Map<NodeId, Node> resolved = new HashMap<>(2 * idList.size());
+            for ( int i = 0 ; i < idList.size() ; i++ ) {
+                Node n = nodes.get(i);
+                if ( n != null )
+                    resolved.put(idList.get(i), n);
+            }
+            return Iter.map(batch.iterator(), b -> new BindingTDB(b, nodeTable, resolved));
+        }
+
+        @Override
+        public void close() {
+            Iter.close(input);
+        }
+    }
+
     static Binding convToBinding(BindingNodeId bindingNodeIds, NodeTable nodeTable) {
         if ( true )
             return new BindingTDB(bindingNodeIds, nodeTable);
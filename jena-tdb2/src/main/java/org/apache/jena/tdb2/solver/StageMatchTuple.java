@@ -35,6 +35,7 @@ import org.apache.jena.graph.Node;
 import org.apache.jena.sparql.core.Var;
 import org.apache.jena.sparql.engine.ExecutionContext;
 import org.apache.jena.sparql.engine.iterator.IterAbortable;
+import org.apache.jena.tdb2.TDB2;
 import org.apache.jena.tdb2.store.NodeId;
 import org.apache.jena.tdb2.store.nodetable.NodeTable;
 import org.apache.jena.tdb2.store.nodetupletable.NodeTupleTable;
@@ -66,7 +67,11 @@ class StageMatchTuple {
             // Short cut - known unknown NodeId
             return Iter.nullIterator();
 
-        Iterator<Tuple<NodeId>> iterMatches = nodeTupleTable.find(TupleFactory.create(ids));
+        // Parallel scan for the first pattern. The order of results only matters for "anyGraph".
+        int parallelism = execCxt.getContext().getInt(TDB2.symParallelScan, 1);
+        Iterator<Tuple<NodeId>> iterMatches = ( parallelism > 1 && input.isEmpty() )
+            ? nodeTupleTable.findParallel(TupleFactory.create(ids), parallelism, anyGraph)
+            : nodeTupleTable.find(TupleFactory.create(ids));
         if ( false ) {
             List<Tuple<NodeId>> x = Iter.toList(iterMatches);
             System.out.println(x);
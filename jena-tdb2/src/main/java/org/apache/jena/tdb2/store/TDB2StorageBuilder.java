@@ -45,8 +45,10 @@ import org.apache.jena.sparql.engine.optimizer.reorder.ReorderTransformation;
 import org.apache.jena.tdb2.TDBException;
 import org.apache.jena.tdb2.params.StoreParams;
 import org.apache.jena.tdb2.solver.OpExecutorTDB2;
+import org.apache.jena.tdb2.solver.QueryEngineTDB;
 import org.apache.jena.tdb2.store.nodetable.NodeTable;
 import org.apache.jena.tdb2.store.nodetable.NodeTableCache;
+import org.apache.jena.tdb2.store.nodetable.NodeTableDictionary;
 import org.apache.jena.tdb2.store.nodetable.NodeTableInline;
 import org.apache.jena.tdb2.store.nodetable.NodeTableTRDF;
 import org.apache.jena.tdb2.store.nodetupletable.NodeTupleTable;
@@ -102,6 +104,7 @@ public class TDB2StorageBuilder {
         // Finalize.
         builder.components.forEach(txnCoord::add);
         builder.listeners.forEach(txnCoord::addListener);
+        txnCoord.addListener(QueryEngineTDB.resultCacheInvalidator(txnCoord));
         // Freezes the TransactionCoordinator components
         txnCoord.start();
         DatasetGraphTDB dsg = new DatasetGraphTDB(location, params, reorderTransform,
@@ -270,15 +273,15 @@ public class TDB2StorageBuilder {
     private TupleIndex makeTupleIndex(String primary, String index, String name) {
         TupleMap cmap = TupleMap.create(primary, index);
         RecordFactory rf = new RecordFactory(SystemTDB.SizeOfNodeId * cmap.length(), 0);
-        RangeIndex rIdx = makeRangeIndex(rf, index);
+        RangeIndex rIdx = makeRangeIndex(rf, index, params.isCompressedIndexes());
         TupleIndex tIdx = new TupleIndexRecord(primary.length(), cmap, index, rf, rIdx);
         return tIdx;
     }
 
-    private RangeIndex makeRangeIndex(RecordFactory recordFactory, String name) {
+    private RangeIndex makeRangeIndex(RecordFactory recordFactory, String name, boolean compressedLeaves) {
         ComponentId cid = componentIdMgr.getComponentId(name);
         FileSet fs = new FileSet(location, name);
-        BPlusTree bpt = BPlusTreeFactory.createBPTree(cid, fs, recordFactory);
+        BPlusTree bpt = BPlusTreeFactory.createBPTree(cid, fs, recordFactory, compressedLeaves);
         components.add(bpt);
         return bpt;
     }
@@ -300,18 +303,26 @@ public class TDB2StorageBuilder {
         int idToNodeCacheSize   = isData ? params.getNodeId2NodeCacheSize() : params.getPrefixNodeId2NodeCacheSize();
         int missCacheSize       = isData ? params.getNodeMissCacheSize()    : params.getPrefixNodeMissCacheSize();
         double nodeCacheInitialCapacityFactor = params.getNodeCacheInitialCapacityFactor();
+        long nodeToIdOffHeapCacheSize = isData ? params.getNode2NodeIdOffHeapCacheSize() : 0;
+        long idToNodeOffHeapCacheSize = isData ? params.getNodeId2NodeOffHeapCacheSize() : 0;
         nodeTable = NodeTableCache.create(nodeTable, nodeToIdCacheSize, idToNodeCacheSize, missCacheSize,
-                nodeCacheInitialCapacityFactor);
+                nodeCacheInitialCapacityFactor, nodeToIdOffHeapCacheSize, idToNodeOffHeapCacheSize);
         return nodeTable;
     }
 
     private NodeTable buildBaseNodeTable(String name) {
         RecordFactory recordFactory = new RecordFactory(SystemTDB.LenNodeHash, SystemTDB.SizeOfNodeId);
-        Index index = makeRangeIndex(recordFactory, name);
+        // Node table keys are hashes : no shared prefixes to compress.
+        Index index = makeRangeIndex(recordFactory, name, false);
 
         String dataname = name+"-data";
         TransBinaryDataFile transBinFile = makeBinaryDataFile(dataname);
         components.add(transBinFile);
+        if ( params.isCompressedNodes() ) {
+            TransBinaryDataFile transDictFile = makeBinaryDataFile(name+"-dict");
+            components.add(transDictFile);
+            return new NodeTableDictionary(index, transBinFile, transDictFile, SystemTDB.NodeDictionaryMaxSize);
+        }
         return new NodeTableTRDF(index, transBinFile);
     }
 
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.tdb2.store.nodetable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.jena.dboe.base.file.BinaryDataFile;
+import org.apache.jena.riot.thrift.TRDF;
+import org.apache.jena.tdb2.TDBException;
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TProtocol;
+
+/**
+ * Strings (IRI namespaces, datatype IRIs, language tags) shared by the RDF terms of a
+ * {@link NodeTableDictionary}. Each string is written once, to the end of a
+ * {@link BinaryDataFile}, and is identified by its position in the file.
+ * <p>
+ * The file is read when the dictionary is first used and the strings are kept in
+ * memory. The file is transactional; entries appended by a write transaction that
+ * aborts are removed from memory when the file is seen to be shorter than expected.
+ * <p>
+ * Not thread safe : access is synchronized by the node table.
+ */
+class NodeDictionary {
+    private final BinaryDataFile file;
+    private final TReadAppendFileTransport transport;
+    private final TProtocol protocol;
+    private final int maxSize;
+
+    private final Map<String, Long> stringToId = new HashMap<>();
+    private final Map<Long, String> idToString = new HashMap<>();
+    private boolean loaded = false;
+    // End of the last entry known to this object.
+    private long limit = 0;
+
+    NodeDictionary(BinaryDataFile file, int maxSize) {
+        this.file = file;
+        this.maxSize = maxSize;
+        try {
+            transport = new TReadAppendFileTransport(file);
+            if ( ! transport.isOpen() )
+                transport.open();
+            this.protocol = TRDF.protocol(transport);
+        }
+        catch (Exception ex) {
+            throw new TDBException("NodeDictionary", ex);
+        }
+    }
+
+    /** Return the id of a string, adding it to the dictionary if necessary; return -1 if the dictionary is full. */
+    long getAllocateId(String string) {
+        load();
+        checkLimit();
+        Long id = stringToId.get(string);
+        if ( id != null )
+            return id;
+        if ( stringToId.size() >= maxSize )
+            return -1;
+        try {
+            long x = file.length();
+            protocol.writeString(string);
+            limit = file.length();
+            stringToId.put(string, x);
+            idToString.put(x, string);
+            return x;
+        } catch (TException ex) {
+            throw new TDBException("NodeDictionary/Write", ex);
+        }
+    }
+
+    /** Return the string for an id. */
+    String getString(long id) {
+        load();
+        String string = idToString.get(id);
+        if ( string != null )
+            return string;
+        // Written by another transaction since the dictionary was loaded.
+        string = read(id);
+        idToString.put(id, string);
+        return string;
+    }
+
+    /** Number of strings in the dictionary. */
+    int size() {
+        load();
+        return stringToId.size();
+    }
+
+    void sync() {
+        try { transport.flush(); }
+        catch (Exception ex) { throw new TDBException("NodeDictionary", ex); }
+    }
+
+    void close() {
+        if ( transport.isOpen() ) {
+            try { transport.close(); }
+            catch (Exception ex) { throw new TDBException("NodeDictionary", ex); }
+        }
+    }
+
+    BinaryDataFile getData() { return file; }
+
+    private void load() {
+        if ( loaded )
+            return;
+        long length = file.length();
+        long posn = 0;
+        while ( posn < length ) {
+            String string = read(posn);
+            stringToId.putIfAbsent(string, posn);
+            idToString.put(posn, string);
+            posn = transport.readPosition();
+        }
+        limit = length;
+        loaded = true;
+    }
+
+    // A write transaction that appended entries aborted: the file has been truncated.
+    private void checkLimit() {
+        long length = file.length();
+        if ( length >= limit )
+            return;
+        stringToId.values().removeIf(id -> id >= length);
+        idToString.keySet().removeIf(id -> id >= length);
+        limit = length;
+    }
+
+    private String read(long posn) {
+        try {
+            transport.readPosition(posn);
+            return protocol.readString();
+        } catch (TException ex) {
+            throw new TDBException("NodeDictionary/Read", ex);
+        }
+    }
+}
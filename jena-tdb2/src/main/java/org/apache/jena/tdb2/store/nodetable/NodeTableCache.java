@@ -29,13 +29,21 @@ import org.apache.jena.atlas.iterator.Iter;
 import org.apache.jena.atlas.lib.Cache;
 import org.apache.jena.atlas.lib.CacheFactory;
 import org.apache.jena.atlas.lib.Pair;
+import org.apache.jena.atlas.lib.cache.CacheOffHeap;
 import org.apache.jena.atlas.logging.Log;
 import org.apache.jena.dboe.transaction.txn.Transaction;
 import org.apache.jena.dboe.transaction.txn.TransactionListener;
 import org.apache.jena.graph.Node;
+import org.apache.jena.riot.thrift.ThriftConvert;
+import org.apache.jena.riot.thrift.wire.RDF_Term;
 import org.apache.jena.tdb2.TDBException;
 import org.apache.jena.tdb2.params.StoreParams;
 import org.apache.jena.tdb2.store.NodeId;
+import org.apache.jena.tdb2.store.NodeIdFactory;
+import org.apache.thrift.TDeserializer;
+import org.apache.thrift.TException;
+import org.apache.thrift.TSerializer;
+import org.apache.thrift.protocol.TCompactProtocol;
 
 /**
  * Cache wrapper around a NodeTable. Assumes all access goes through this
@@ -64,9 +72,16 @@ public class NodeTableCache implements NodeTable, TransactionListener {
     // not-present cache is only a speed-up and does not have to be correct
     // for missing nodes (it can't have entries for nodes that do exist in visible
     // data).
+    //
+    // If there are off-heap cache sizes, the main (committed) caches are two
+    // level: the on-heap cache is in front of a larger off-heap cache. Entries
+    // only reach the off-heap cache when the ThreadBufferingCache is flushed on
+    // commit, so aborted NodeIds never get into either cache level.
 
     private ThreadBufferingCache<Node, NodeId> node2id_Cache = null;
     private ThreadBufferingCache<NodeId, Node> id2node_Cache = null;
+    // Off-heap caches, to release the direct memory on close.
+    private final List<CacheOffHeap<?, ?>> offHeapCaches = new ArrayList<>();
 
     // A small cache of "known unknowns" to speed up searching for impossible things.
     private Cache<Node, Object> notPresent    = null;
@@ -80,35 +95,123 @@ public class NodeTableCache implements NodeTable, TransactionListener {
         int nodeToIdCacheSize   = isData ? params.getNode2NodeIdCacheSize() : params.getPrefixNode2NodeIdCacheSize();
         int idToNodeCacheSize   = isData ? params.getNodeId2NodeCacheSize() : params.getPrefixNodeId2NodeCacheSize();
         int missCacheSize       = isData ? params.getNodeMissCacheSize()    : params.getPrefixNodeMissCacheSize();
+        long nodeToIdOffHeapSize = isData ? params.getNode2NodeIdOffHeapCacheSize() : 0;
+        long idToNodeOffHeapSize = isData ? params.getNodeId2NodeOffHeapCacheSize() : 0;
         return create(nodeTable, nodeToIdCacheSize, idToNodeCacheSize, missCacheSize,
-                params.getNodeCacheInitialCapacityFactor());
+                params.getNodeCacheInitialCapacityFactor(), nodeToIdOffHeapSize, idToNodeOffHeapSize);
     }
 
     /** Build a node table cache. */
     public static NodeTable create(NodeTable nodeTable, int nodeToIdCacheSize, int idToNodeCacheSize, int nodeMissesCacheSize,
                                    double nodeCacheInitialCapacityFactor) {
-        if ( nodeToIdCacheSize <= 0 && idToNodeCacheSize <= 0 )
+        return create(nodeTable, nodeToIdCacheSize, idToNodeCacheSize, nodeMissesCacheSize, nodeCacheInitialCapacityFactor, 0, 0);
+    }
+
+    /**
+     * Build a node table cache, with optional off-heap caches.
+     * The off-heap cache sizes are in bytes; zero means no off-heap cache.
+     */
+    public static NodeTable create(NodeTable nodeTable, int nodeToIdCacheSize, int idToNodeCacheSize, int nodeMissesCacheSize,
+                                   double nodeCacheInitialCapacityFactor,
+                                   long nodeToIdOffHeapCacheSize, long idToNodeOffHeapCacheSize) {
+        if ( nodeToIdCacheSize <= 0 && idToNodeCacheSize <= 0 && nodeToIdOffHeapCacheSize <= 0 && idToNodeOffHeapCacheSize <= 0 )
             return nodeTable;
-        return new NodeTableCache(nodeTable, nodeToIdCacheSize, idToNodeCacheSize, nodeMissesCacheSize, nodeCacheInitialCapacityFactor);
+        return new NodeTableCache(nodeTable, nodeToIdCacheSize, idToNodeCacheSize, nodeMissesCacheSize, nodeCacheInitialCapacityFactor,
+                                  nodeToIdOffHeapCacheSize, idToNodeOffHeapCacheSize);
     }
 
     private NodeTableCache(NodeTable baseTable, int nodeToIdCacheSize, int idToNodeCacheSize, int nodeMissesCacheSize,
-                           double nodeCacheInitialCapacityFactor) {
+                           double nodeCacheInitialCapacityFactor,
+                           long nodeToIdOffHeapCacheSize, long idToNodeOffHeapCacheSize) {
         this.baseTable = baseTable;
-        if ( nodeToIdCacheSize > 0 )
-            node2id_Cache = createCache("nodeToId", nodeToIdCacheSize, nodeCacheInitialCapacityFactor, 1000);
-        if ( idToNodeCacheSize > 0 )
-            id2node_Cache = createCache("idToNode", idToNodeCacheSize, nodeCacheInitialCapacityFactor, 1000);
+        if ( nodeToIdCacheSize > 0 || nodeToIdOffHeapCacheSize > 0 )
+            node2id_Cache = createCache("nodeToId", nodeToIdCacheSize, nodeCacheInitialCapacityFactor, 1000,
+                                        nodeToIdOffHeapCacheSize, nodeCodec, nodeIdCodec);
+        if ( idToNodeCacheSize > 0 || idToNodeOffHeapCacheSize > 0 )
+            id2node_Cache = createCache("idToNode", idToNodeCacheSize, nodeCacheInitialCapacityFactor, 1000,
+                                        idToNodeOffHeapCacheSize, nodeIdCodec, nodeCodec);
         if ( nodeMissesCacheSize > 0 )
             notPresent = CacheFactory.createCache(nodeMissesCacheSize, nodeCacheInitialCapacityFactor);
     }
 
-    private static <Key, Value> ThreadBufferingCache<Key, Value> createCache(String label, int mainCachesize,
-                                                                             double initialCapacityFactor, int bufferSize) {
-        Cache<Key, Value> cache = CacheFactory.createCache(mainCachesize, initialCapacityFactor);
+    private <Key, Value> ThreadBufferingCache<Key, Value> createCache(String label, int mainCachesize,
+                                                                      double initialCapacityFactor, int bufferSize,
+                                                                      long offHeapSize,
+                                                                      CacheOffHeap.Codec<Key> keyCodec,
+                                                                      CacheOffHeap.Codec<Value> valueCodec) {
+        Cache<Key, Value> cache;
+        if ( offHeapSize <= 0 )
+            cache = CacheFactory.createCache(mainCachesize, initialCapacityFactor);
+        else {
+            CacheOffHeap<Key, Value> offHeapCache = new CacheOffHeap<>(offHeapSize, keyCodec, valueCodec);
+            offHeapCaches.add(offHeapCache);
+            if ( mainCachesize <= 0 )
+                cache = offHeapCache;
+            else
+                cache = CacheFactory.createTieredCache(CacheFactory.createCache(mainCachesize, initialCapacityFactor), offHeapCache);
+        }
         return new ThreadBufferingCache<>(label, cache, bufferSize);
     }
 
+    // ---- Encoding for off-heap caches.
+
+    private static final CacheOffHeap.Codec<NodeId> nodeIdCodec = new CacheOffHeap.Codec<>() {
+        @Override
+        public byte[] encode(NodeId nodeId) {
+            byte[] bytes = new byte[NodeId.SIZE];
+            NodeIdFactory.set(nodeId, bytes);
+            return bytes;
+        }
+
+        @Override
+        public NodeId decode(byte[] bytes) {
+            return NodeIdFactory.get(bytes);
+        }
+    };
+
+    // Same encoding as NodeTableTRDF, without value encoding of numbers:
+    // that would make distinct RDF terms, such as "1"^^xsd:long and
+    // "1"^^xsd:integer or "01"^^xsd:integer, into the same cache key.
+    // Thrift serializers are not thread-safe, so there is one per thread.
+    private static final ThreadLocal<TSerializer> serializer = ThreadLocal.withInitial(()->{
+        try {
+            return new TSerializer(new TCompactProtocol.Factory());
+        } catch (TException ex) {
+            throw new TDBException("NodeTableCache/serializer", ex);
+        }
+    });
+
+    private static final ThreadLocal<TDeserializer> deserializer = ThreadLocal.withInitial(()->{
+        try {
+            return new TDeserializer(new TCompactProtocol.Factory());
+        } catch (TException ex) {
+            throw new TDBException("NodeTableCache/deserializer", ex);
+        }
+    });
+
+    private static final CacheOffHeap.Codec<Node> nodeCodec = new CacheOffHeap.Codec<>() {
+        @Override
+        public byte[] encode(Node node) {
+            RDF_Term term = ThriftConvert.convert(node, false);
+            try {
+                return serializer.get().serialize(term);
+            } catch (TException ex) {
+                throw new TDBException("NodeTableCache/encode", ex);
+            }
+        }
+
+        @Override
+        public Node decode(byte[] bytes) {
+            RDF_Term term = new RDF_Term();
+            try {
+                deserializer.get().deserialize(term, bytes);
+            } catch (TException ex) {
+                throw new TDBException("NodeTableCache/decode", ex);
+            }
+            return ThriftConvert.convert(term);
+        }
+    };
+
     // ---- Cache access, no going to underlying table.
 
     public Node getNodeForNodeIdCache(NodeId id) {
@@ -189,7 +292,32 @@ public class NodeTableCache implements NodeTable, TransactionListener {
 
     @Override
     public List<Node> bulkNodeIdToNode(List<NodeId> nodeIds) {
-        return NodeTableOps.bulkNodeIdToNodeImpl(this, nodeIds);
+        // Find the cache misses, then fetch them from the base table in one call.
+        List<Node> results = new ArrayList<>(nodeIds.size());
+        List<NodeId> misses = new ArrayList<>();
+        List<Integer> missIndexes = new ArrayList<>();
+        for ( NodeId id : nodeIds ) {
+            Node n = null;
+            if ( ! NodeId.isDoesNotExist(id) && ! NodeId.isAny(id) ) {
+                n = cacheLookup(id);
+                if ( n == null ) {
+                    misses.add(id);
+                    missIndexes.add(results.size());
+                }
+            }
+            results.add(n);
+        }
+        if ( misses.isEmpty() )
+            return results;
+        synchronized (lock) {
+            List<Node> nodes = baseTable.bulkNodeIdToNode(misses);
+            for ( int i = 0 ; i < misses.size() ; i++ ) {
+                Node n = nodes.get(i);
+                cacheUpdate(n, misses.get(i));
+                results.set(missIndexes.get(i), n);
+            }
+        }
+        return results;
     }
 
     // ---- The worker functions
@@ -394,6 +522,8 @@ public class NodeTableCache implements NodeTable, TransactionListener {
             // Already closed
             return;
         baseTable.close();
+        offHeapCaches.forEach(CacheOffHeap::close);
+        offHeapCaches.clear();
         node2id_Cache = null;
         id2node_Cache = null;
         notPresent = null;
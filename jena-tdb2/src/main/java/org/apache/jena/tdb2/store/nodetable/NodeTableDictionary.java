@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.tdb2.store.nodetable;
+
+import org.apache.jena.atlas.logging.Log;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.dboe.base.file.BinaryDataFile;
+import org.apache.jena.dboe.index.Index;
+import org.apache.jena.dboe.transaction.txn.TransactionException;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.riot.thrift.RiotThriftException;
+import org.apache.jena.riot.thrift.TRDF;
+import org.apache.jena.riot.thrift.ThriftConvert;
+import org.apache.jena.riot.thrift.wire.RDF_Term;
+import org.apache.jena.tdb2.TDBException;
+import org.apache.jena.tdb2.store.NodeId;
+import org.apache.jena.tdb2.store.NodeIdFactory;
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TProtocol;
+
+/**
+ * NodeTable that stores IRI namespaces, literal datatypes and language tags in a
+ * {@link NodeDictionary} in a separate file, and RDF terms in the data file as a
+ * one byte tag followed by the dictionary id and the rest of the term.
+ * <ul>
+ * <li>IRI: namespace id, local part
+ * <li>Literal: lexical form with datatype id or language tag id; xsd:string has no id
+ * <li>Blank node: label
+ * </ul>
+ * Other terms (e.g. triple terms, literals with a base direction) and terms that would
+ * need a new dictionary entry when the dictionary is full are written in the Thrift
+ * encoding of {@link NodeTableTRDF}.
+ */
+public class NodeTableDictionary extends NodeTableNative {
+    private static final byte TagTerm      = 0;
+    private static final byte TagIRI       = 1;
+    private static final byte TagString    = 2;
+    private static final byte TagLang      = 3;
+    private static final byte TagDatatype  = 4;
+    private static final byte TagBlankNode = 5;
+
+    private final BinaryDataFile diskFile;
+    private final TReadAppendFileTransport transport;
+    private final TProtocol protocol;
+    private final NodeDictionary dictionary;
+
+    public NodeTableDictionary(Index nodeToId, BinaryDataFile objectFile, BinaryDataFile dictionaryFile, int dictionaryMaxSize) {
+        super(nodeToId);
+        try {
+            this.diskFile = objectFile;
+            transport = new TReadAppendFileTransport(diskFile);
+            if ( ! transport.isOpen() )
+                transport.open();
+            this.protocol = TRDF.protocol(transport);
+            this.dictionary = new NodeDictionary(dictionaryFile, dictionaryMaxSize);
+        }
+        catch (Exception ex) {
+            throw new TDBException("NodeTableDictionary", ex);
+        }
+    }
+
+    @Override
+    protected NodeId writeNodeToTable(Node node) {
+        try {
+            long x = diskFile.length();
+            NodeId nid = NodeIdFactory.createPtr(x);
+            write(node);
+            return nid;
+        }
+        catch(TransactionException ex) { throw ex; }
+        catch (Exception ex) {
+            throw new TDBException("NodeTableDictionary/Write", ex);
+        }
+    }
+
+    private void write(Node node) throws TException {
+        if ( node.isURI() ) {
+            String iri = node.getURI();
+            int idx = splitIRI(iri);
+            long nsId = ( idx > 0 ) ? dictionary.getAllocateId(iri.substring(0, idx)) : -1;
+            if ( nsId >= 0 ) {
+                protocol.writeByte(TagIRI);
+                protocol.writeI64(nsId);
+                protocol.writeString(iri.substring(idx));
+                return;
+            }
+        } else if ( node.isBlank() ) {
+            protocol.writeByte(TagBlankNode);
+            protocol.writeString(node.getBlankNodeLabel());
+            return;
+        } else if ( node.isLiteral() && node.getLiteralBaseDirection() == null ) {
+            String lex = node.getLiteralLexicalForm();
+            String lang = node.getLiteralLanguage();
+            if ( lang != null && ! lang.isEmpty() ) {
+                long langId = dictionary.getAllocateId(lang);
+                if ( langId >= 0 ) {
+                    protocol.writeByte(TagLang);
+                    protocol.writeI64(langId);
+                    protocol.writeString(lex);
+                    return;
+                }
+            } else if ( XSDDatatype.XSDstring.equals(node.getLiteralDatatype()) ) {
+                protocol.writeByte(TagString);
+                protocol.writeString(lex);
+                return;
+            } else {
+                long dtId = dictionary.getAllocateId(node.getLiteralDatatypeURI());
+                if ( dtId >= 0 ) {
+                    protocol.writeByte(TagDatatype);
+                    protocol.writeI64(dtId);
+                    protocol.writeString(lex);
+                    return;
+                }
+            }
+        }
+        RDF_Term term = ThriftConvert.convert(node, true);
+        protocol.writeByte(TagTerm);
+        term.write(protocol);
+    }
+
+    /**
+     * Index of the start of the local part of an IRI: after the last '/', '#' or ':',
+     * ignoring the last character so that the local part is not empty. Return 0 for no split.
+     */
+    private static int splitIRI(String iri) {
+        for ( int i = iri.length() - 2 ; i >= 0 ; i-- ) {
+            char ch = iri.charAt(i);
+            if ( ch == '/' || ch == '#' || ch == ':' )
+                return i + 1;
+        }
+        return 0;
+    }
+
+    @Override
+    protected Node readNodeFromTable(NodeId id) {
+        try {
+            long x = id.getPtrLocation();
+            transport.readPosition(x);
+            byte tag = protocol.readByte();
+            switch (tag) {
+                case TagIRI -> {
+                    String ns = dictionary.getString(protocol.readI64());
+                    return NodeFactory.createURI(ns + protocol.readString());
+                }
+                case TagBlankNode -> {
+                    return NodeFactory.createBlankNode(protocol.readString());
+                }
+                case TagString -> {
+                    return NodeFactory.createLiteralString(protocol.readString());
+                }
+                case TagLang -> {
+                    String lang = dictionary.getString(protocol.readI64());
+                    return NodeFactory.createLiteralLang(protocol.readString(), lang);
+                }
+                case TagDatatype -> {
+                    String dt = dictionary.getString(protocol.readI64());
+                    return NodeFactory.createLiteralDT(protocol.readString(), NodeFactory.getType(dt));
+                }
+                case TagTerm -> {
+                    RDF_Term term = new RDF_Term();
+                    term.read(protocol);
+                    return ThriftConvert.convert(term);
+                }
+                default ->
+                    throw new TDBException("NodeTableDictionary/Read: Bad tag "+tag+" : NodeId = "+id);
+            }
+        }
+        catch (TException ex) {
+            throw new TDBException("NodeTableDictionary/Read", ex);
+        }
+        catch (RiotThriftException ex) {
+            Log.error(this, "Bad encoding: NodeId = "+id);
+            throw ex;
+        }
+    }
+
+    @Override
+    protected void syncSub() {
+        try { transport.flush(); }
+        catch (Exception ex) { throw new TDBException("NodeTableDictionary", ex); }
+        dictionary.sync();
+    }
+
+    @Override
+    protected void closeSub() {
+        if ( transport.isOpen() ) {
+            try { transport.close(); }
+            catch (Exception ex) { throw new TDBException("NodeTableDictionary", ex); }
+        }
+        dictionary.close();
+    }
+
+    /** Number of strings in the dictionary. */
+    public int dictionarySize() {
+        synchronized(this) {
+            return dictionary.size();
+        }
+    }
+
+    public Index getIndex()                 { return nodeHashToId; }
+    public BinaryDataFile getData()         { return diskFile; }
+    public BinaryDataFile getDictionary()   { return dictionary.getData(); }
+}
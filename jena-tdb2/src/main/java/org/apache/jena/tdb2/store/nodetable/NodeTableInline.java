@@ -21,6 +21,9 @@
 
 package org.apache.jena.tdb2.store.nodetable;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.jena.graph.Node;
 import org.apache.jena.tdb2.store.NodeId;
 
@@ -68,6 +71,29 @@ public class NodeTableInline extends NodeTableWrapper
         return super.getNodeForNodeId(id);
     }
 
+    @Override
+    public List<Node> bulkNodeIdToNode(List<NodeId> nodeIds)
+    {
+        // Decode inline NodeIds; pass the rest to the underlying table in one call.
+        List<Node> results = new ArrayList<>(nodeIds.size());
+        List<NodeId> others = new ArrayList<>();
+        for ( NodeId id : nodeIds ) {
+            Node n = NodeId.extract(id);
+            if ( n == null )
+                others.add(id);
+            results.add(n);
+        }
+        if ( others.isEmpty() )
+            return results;
+        List<Node> nodes = super.bulkNodeIdToNode(others);
+        int j = 0;
+        for ( int i = 0 ; i < results.size() ; i++ ) {
+            if ( results.get(i) == null )
+                results.set(i, nodes.get(j++));
+        }
+        return results;
+    }
+
     @Override
     public String toString() { return "Inline("+nodeTable.toString()+")"; }
 }
@@ -21,8 +21,7 @@
 
 package org.apache.jena.tdb2.store.nodetable;
 
-import java.util.Iterator;
-import java.util.List;
+import java.util.*;
 import java.util.function.Function;
 
 import org.apache.jena.atlas.iterator.Iter;
@@ -80,9 +79,31 @@ public abstract class NodeTableNative implements NodeTable
         return NodeTableOps.bulkNodeToNodeIdImpl(this, nodes, withAllocation);
     }
 
+    /**
+     * Bulk mapping from {@code NodeId} to {@code Node}.
+     * Each node is read once, and the node storage is read in file order
+     * (the order of pointer NodeIds).
+     */
     @Override
     public List<Node> bulkNodeIdToNode(List<NodeId> nodeIds) {
-        return NodeTableOps.bulkNodeIdToNodeImpl(this, nodeIds);
+        SortedSet<NodeId> ordered = new TreeSet<>();
+        for ( NodeId id : nodeIds ) {
+            if ( id != null && id.isPtr() )
+                ordered.add(id);
+        }
+        Map<NodeId, Node> nodes = new HashMap<>(2 * ordered.size());
+        synchronized (this) {
+            for ( NodeId id : ordered )
+                nodes.put(id, readNodeFromTable(id));
+        }
+        List<Node> results = new ArrayList<>(nodeIds.size());
+        for ( NodeId id : nodeIds ) {
+            Node n = nodes.get(id);
+            if ( n == null )
+                n = _retrieveNodeByNodeId(id);
+            results.add(n);
+        }
+        return results;
     }
 
     // ---- The worker functions
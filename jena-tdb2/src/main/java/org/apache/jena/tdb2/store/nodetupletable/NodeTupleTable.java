@@ -52,6 +52,15 @@ public interface NodeTupleTable extends Sync, Closeable
     /** Find by NodeId. */
     public Iterator<Tuple<NodeId>> find(Tuple<NodeId> ids);
 
+    /**
+     * Find by NodeId, scanning the index with up to {@code parallelism} threads.
+     * If {@code ordered} is false, the tuples are not returned in index order.
+     * The iterator should be closed if it is not used to the end.
+     */
+    public default Iterator<Tuple<NodeId>> findParallel(Tuple<NodeId> ids, int parallelism, boolean ordered) {
+        return find(ids);
+    }
+
     /** Find all tuples */
     public Iterator<Tuple<NodeId>> findAll();
 
@@ -171,6 +171,16 @@ public class NodeTupleTableConcrete implements NodeTupleTable
         } finally { finishRead(); }
     }
 
+    @Override
+    public Iterator<Tuple<NodeId>> findParallel(Tuple<NodeId> tuple, int parallelism, boolean ordered)
+    {
+        try {
+            startRead();
+            Iterator<Tuple<NodeId>> iter = tupleTable.findParallel(tuple, parallelism, ordered);
+            return iteratorControl(iter);
+        } finally { finishRead(); }
+    }
+
     @Override
     public Iterator<Tuple<NodeId>> findAll()
     {
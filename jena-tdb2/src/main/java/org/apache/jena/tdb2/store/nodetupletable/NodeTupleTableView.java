@@ -25,6 +25,7 @@ import java.util.Iterator;
 
 import org.apache.jena.atlas.lib.ArrayUtils;
 import org.apache.jena.atlas.lib.tuple.Tuple;
+import org.apache.jena.atlas.lib.tuple.TupleFactory;
 import org.apache.jena.graph.Node;
 import org.apache.jena.tdb2.store.NodeId;
 import org.apache.jena.tdb2.store.tupletable.TupleTable;
@@ -96,6 +97,13 @@ public class NodeTupleTableView extends NodeTupleTableWrapper
         return nodeTupleTable.find(ids2);
     }
 
+    @Override
+    public Iterator<Tuple<NodeId>> findParallel(Tuple<NodeId> ids, int parallelism, boolean ordered)
+    {
+        NodeId[] ids2 = push(NodeId.class, prefixId, ids);
+        return nodeTupleTable.findParallel(TupleFactory.create(ids2), parallelism, ordered);
+    }
+
     @Override
     public Iterator<Tuple<NodeId>> findAsNodeIds(Node... nodes)
     {
@@ -67,6 +67,10 @@ public class NodeTupleTableWrapper implements NodeTupleTable
     public Iterator<Tuple<NodeId>> find(Tuple<NodeId> tuple)
     { return nodeTupleTable.find(tuple); }
 
+    @Override
+    public Iterator<Tuple<NodeId>> findParallel(Tuple<NodeId> tuple, int parallelism, boolean ordered)
+    { return nodeTupleTable.findParallel(tuple, parallelism, ordered); }
+
     @Override
     public Iterator<Tuple<NodeId>> findAsNodeIds(Node... nodes)
     { return nodeTupleTable.findAsNodeIds(nodes); }
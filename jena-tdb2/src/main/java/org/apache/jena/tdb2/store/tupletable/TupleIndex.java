@@ -58,6 +58,19 @@ public interface TupleIndex extends Sync, Closeable
      */
     public Iterator<Tuple<NodeId>> find(Tuple<NodeId> pattern);
 
+    /**
+     * Find all matching tuples, as {@link #find}, with the scan of the index split into
+     * up to {@code parallelism} parts that are executed in parallel.
+     * If {@code ordered} is false, the tuples are not returned in index order.
+     * The iterator should be closed if it is not used to the end.
+     * <p>
+     * This must be called in a read transaction.
+     * Small scans, and indexes that can not be split, are performed by {@link #find}.
+     */
+    public default Iterator<Tuple<NodeId>> findParallel(Tuple<NodeId> pattern, int parallelism, boolean ordered) {
+        return find(pattern);
+    }
+
     /** return an iterator of everything */
     public Iterator<Tuple<NodeId>> all();
 
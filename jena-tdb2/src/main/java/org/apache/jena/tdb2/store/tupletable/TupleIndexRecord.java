@@ -24,8 +24,10 @@ package org.apache.jena.tdb2.store.tupletable;
 import static java.lang.String.format;
 import static org.apache.jena.tdb2.sys.SystemTDB.SizeOfNodeId;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.function.Predicate;
 
 import org.apache.jena.atlas.iterator.Iter;
@@ -37,6 +39,7 @@ import org.apache.jena.dboe.base.record.RecordFactory;
 import org.apache.jena.dboe.base.record.RecordMapper;
 import org.apache.jena.dboe.index.RangeIndex;
 import org.apache.jena.tdb2.TDBException;
+import org.apache.jena.tdb2.lib.ParallelScan;
 import org.apache.jena.tdb2.lib.TupleLib;
 import org.apache.jena.tdb2.store.NodeId;
 import org.apache.jena.tdb2.store.NodeIdFactory;
@@ -127,18 +130,30 @@ public class TupleIndexRecord extends TupleIndexBase
 
     // Package visibility for testing.
     final Iterator<Tuple<NodeId>> findOrScan(Tuple<NodeId> pattern) {
-        return findWorker(pattern, true, true);
+        return findWorker(pattern, true, true, 1, true);
     }
 
     final Iterator<Tuple<NodeId>> findOrPartialScan(Tuple<NodeId> pattern) {
-        return findWorker(pattern, true, false);
+        return findWorker(pattern, true, false, 1, true);
     }
 
     final Iterator<Tuple<NodeId>> findByIndex(Tuple<NodeId> pattern) {
-        return findWorker(pattern, false, false);
+        return findWorker(pattern, false, false, 1, true);
     }
 
-    private Iterator<Tuple<NodeId>> findWorker(Tuple<NodeId> patternNaturalOrder, boolean partialScanAllowed, boolean fullScanAllowed) {
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The index range is divided at keys in the branch nodes of the index
+     * and the parts are scanned on a pool of threads (see {@link ParallelScan}).
+     */
+    @Override
+    public Iterator<Tuple<NodeId>> findParallel(Tuple<NodeId> pattern, int parallelism, boolean ordered) {
+        return findWorker(pattern, true, true, parallelism, ordered);
+    }
+
+    private Iterator<Tuple<NodeId>> findWorker(Tuple<NodeId> patternNaturalOrder, boolean partialScanAllowed, boolean fullScanAllowed,
+                                               int parallelism, boolean ordered) {
         if ( Check )
         {
             if ( tupleLength != patternNaturalOrder.len() )
@@ -193,14 +208,14 @@ public class TupleIndexRecord extends TupleIndexBase
                 if ( ! fullScanAllowed )
                     return null;
                 // Full scan necessary
-                tuples = index.iterator(null, null, recordMapper);
+                tuples = rangeIterator(null, null, parallelism, ordered);
             } else {
                 // Adjust the maxRec.
                 NodeId X = pattern.get(leadingIdx);
                 // Set the max Record to the leading NodeIds, +1.
                 // Example, SP? inclusive to S(P+1)? exclusive where ? is zero.
                 NodeIdFactory.setNext(X, maxRec.getKey(), leadingIdx*SizeOfNodeId);
-                tuples = index.iterator(minRec, maxRec, recordMapper);
+                tuples = rangeIterator(minRec, maxRec, parallelism, ordered);
             }
             if ( leadingIdx < numSlots-1 ) {
                 if ( ! partialScanAllowed )
@@ -244,6 +259,24 @@ public class TupleIndexRecord extends TupleIndexBase
         return tuples;
     }
 
+    private Iterator<Tuple<NodeId>> rangeIterator(Record minRec, Record maxRec, int parallelism, boolean ordered) {
+        if ( parallelism > 1 ) {
+            List<Record> splits = index.splitRange(minRec, maxRec, parallelism);
+            if ( ! splits.isEmpty() ) {
+                // Create the iterators on this thread, which is in the transaction.
+                List<Iterator<Tuple<NodeId>>> iterators = new ArrayList<>(splits.size()+1);
+                Record lower = minRec;
+                for ( Record split : splits ) {
+                    iterators.add(index.iterator(lower, split, recordMapper));
+                    lower = split;
+                }
+                iterators.add(index.iterator(lower, maxRec, recordMapper));
+                return ordered ? ParallelScan.ordered(iterators) : ParallelScan.unordered(iterators);
+            }
+        }
+        return index.iterator(minRec, maxRec, recordMapper);
+    }
+
     @Override
     public Iterator<Tuple<NodeId>> all()
     {
@@ -64,6 +64,11 @@ public class TupleIndexWrapper implements TupleIndex
         return index.find(pattern);
     }
 
+    @Override
+    public Iterator<Tuple<NodeId>> findParallel(Tuple<NodeId> pattern, int parallelism, boolean ordered) {
+        return index.findParallel(pattern, parallelism, ordered);
+    }
+
     @Override
     public Iterator<Tuple<NodeId>> all() {
         return index.all();
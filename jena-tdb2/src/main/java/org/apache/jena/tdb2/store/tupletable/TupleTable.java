@@ -46,6 +46,7 @@ public class TupleTable implements Sync, Closeable
     private final TupleIndex   scanAllIndex;   // Use this index if a complete scan is needed.
     private final int tupleLen;
     private boolean syncNeeded = false;
+    private volatile TupleTableMonitor monitor = null;
 
     public TupleTable(int tupleLen, TupleIndex[] indexes)
     {
@@ -93,6 +94,7 @@ public class TupleTable implements Sync, Closeable
         // the indexes when the triple is already present.
         if ( tupleLen != t.len() )
             throw new TDBException(format("Mismatch: inserting tuple of length %d into a table of tuples of length %d", t.len(), tupleLen));
+        notifyAdd(t);
         for ( int i = 0; i < indexes.length ; i++ ) {
             if ( indexes[i] == null ) continue;
             indexes[i].add(t);
@@ -102,6 +104,8 @@ public class TupleTable implements Sync, Closeable
 
     /** Insert tuples */
     public void addAll(List<Tuple<NodeId>> t) {
+        if ( monitor != null )
+            t.forEach(this::notifyAdd);
         // Parallel.
         for ( int i = 0; i < indexes.length ; i++ ) {
             if ( indexes[i] == null ) continue;
@@ -114,6 +118,7 @@ public class TupleTable implements Sync, Closeable
     public void delete( Tuple<NodeId> t ) {
         if ( tupleLen != t.len() )
             throw new TDBException(format("Mismatch: deleting tuple of length %d from a table of tuples of length %d", t.len(), tupleLen));
+        notifyDelete(t);
 
         for ( TupleIndex index : indexes ) {
             if ( index == null )
@@ -124,6 +129,8 @@ public class TupleTable implements Sync, Closeable
 
     /** Delete tuples */
     public void deleteAll(List<Tuple<NodeId>> t) {
+        if ( monitor != null )
+            t.forEach(this::notifyDelete);
         // Parallel.
         for ( int i = 0; i < indexes.length ; i++ ) {
             if ( indexes[i] == null ) continue;
@@ -132,8 +139,46 @@ public class TupleTable implements Sync, Closeable
         }
     }
 
+    private void notifyAdd(Tuple<NodeId> t) {
+        TupleTableMonitor m = monitor;
+        if ( m != null )
+            m.add(this, t);
+    }
+
+    private void notifyDelete(Tuple<NodeId> t) {
+        TupleTableMonitor m = monitor;
+        if ( m != null )
+            m.delete(this, t);
+    }
+
+    /**
+     * Set the monitor to be told about changes made through this table, replacing any
+     * current monitor. Set to null to remove the monitor.
+     * Changes made directly to the indexes are not seen by the monitor.
+     */
+    public void setMonitor(TupleTableMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    public TupleTableMonitor getMonitor() {
+        return monitor;
+    }
+
     /** Find all matching tuples - a slot of NodeId.NodeIdAny means match any */
     public Iterator<Tuple<NodeId>> find(Tuple<NodeId> pattern) {
+        return find(pattern, 1, true);
+    }
+
+    /**
+     * Find all matching tuples, scanning the chosen index with up to {@code parallelism} threads.
+     * If {@code ordered} is false, the tuples are not returned in index order.
+     * @see TupleIndex#findParallel
+     */
+    public Iterator<Tuple<NodeId>> findParallel(Tuple<NodeId> pattern, int parallelism, boolean ordered) {
+        return find(pattern, parallelism, ordered);
+    }
+
+    private Iterator<Tuple<NodeId>> find(Tuple<NodeId> pattern, int parallelism, boolean ordered) {
         if ( tupleLen != pattern.len() )
             throw new TDBException(format("Mismatch: finding tuple of length %d in a table of tuples of length %d", pattern.len(), tupleLen));
 
@@ -147,8 +192,11 @@ public class TupleTable implements Sync, Closeable
                 return Iter.nullIterator();
         }
 
-        if ( numSlots == 0 )
+        if ( numSlots == 0 ) {
+            if ( parallelism > 1 )
+                return scanAllIndex.findParallel(pattern, parallelism, ordered);
             return scanAllIndex.all();
+        }
 
         int indexNumSlots = 0;
         TupleIndex index = null;
@@ -165,6 +213,8 @@ public class TupleTable implements Sync, Closeable
         if ( index == null )
             // No index at all.  Scan.
             index = indexes[0];
+        if ( parallelism > 1 )
+            return index.findParallel(pattern, parallelism, ordered);
         return index.find(pattern);
     }
 
@@ -190,6 +240,9 @@ public class TupleTable implements Sync, Closeable
     public boolean isEmpty()        { return indexes[0].isEmpty(); }
 
     public void clear() {
+        TupleTableMonitor m = monitor;
+        if ( m != null )
+            m.clear(this);
         for ( TupleIndex idx : indexes ) {
             if ( idx != null )
                 idx.clear();
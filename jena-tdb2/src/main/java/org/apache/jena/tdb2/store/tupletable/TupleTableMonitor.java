@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.tdb2.store.tupletable;
+
+import org.apache.jena.atlas.lib.tuple.Tuple;
+import org.apache.jena.tdb2.store.NodeId;
+
+/**
+ * Notification of the changes made through a {@link TupleTable}.
+ * Calls are made on the thread making the change, before the change is made.
+ *
+ * @see TupleTable#setMonitor
+ */
+public interface TupleTableMonitor {
+    /** A tuple is being added. The tuple may already be in the table. */
+    public void add(TupleTable table, Tuple<NodeId> tuple);
+
+    /** A tuple is being deleted. The tuple may not be in the table. */
+    public void delete(TupleTable table, Tuple<NodeId> tuple);
+
+    /** The table is being cleared. */
+    public void clear(TupleTable table);
+}
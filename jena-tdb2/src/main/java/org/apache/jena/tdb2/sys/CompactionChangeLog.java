@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.tdb2.sys;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.jena.atlas.lib.tuple.Tuple;
+import org.apache.jena.dboe.storage.StoragePrefixes;
+import org.apache.jena.dboe.transaction.txn.Transaction;
+import org.apache.jena.dboe.transaction.txn.TxnState;
+import org.apache.jena.graph.Node;
+import org.apache.jena.tdb2.TDBException;
+import org.apache.jena.tdb2.store.DatasetGraphTDB;
+import org.apache.jena.tdb2.store.NodeId;
+import org.apache.jena.tdb2.store.StoragePrefixesTDB;
+import org.apache.jena.tdb2.store.nodetable.NodeTable;
+import org.apache.jena.tdb2.store.nodetupletable.NodeTupleTable;
+import org.apache.jena.tdb2.store.tupletable.TupleTable;
+import org.apache.jena.tdb2.store.tupletable.TupleTableMonitor;
+
+/**
+ * Record the changes made to a database while it is being copied by online compaction,
+ * and apply the changes from committed transactions to the copy.
+ * <p>
+ * Changes are recorded with the transaction making them. Aborted transactions are
+ * skipped when the changes are applied, which must be when there are no active writers.
+ * <p>
+ * The changes are kept in memory, up to a maximum number. If there are more, the
+ * recorded changes are dropped, nothing more is recorded, and the log can not be
+ * applied.
+ */
+final class CompactionChangeLog implements TupleTableMonitor {
+
+    private enum Action { ADD, DELETE, CLEAR }
+
+    private record Change(Transaction transaction, TupleTable table, Action action, Tuple<NodeId> tuple) {}
+
+    private final DatasetGraphTDB dsg;
+    private final int maxChanges;
+    private List<Change> changes = new ArrayList<>();
+    private boolean overflow = false;
+
+    CompactionChangeLog(DatasetGraphTDB dsg, int maxChanges) {
+        this.dsg = dsg;
+        this.maxChanges = maxChanges;
+    }
+
+    /** Start recording. Call when there are no active writers. */
+    void start() {
+        nodeTupleTables(dsg).forEach(ntt->ntt.getTupleTable().setMonitor(this));
+    }
+
+    /** Stop recording. */
+    void stop() {
+        nodeTupleTables(dsg).forEach(ntt->{
+            TupleTable table = ntt.getTupleTable();
+            if ( table.getMonitor() == this )
+                table.setMonitor(null);
+        });
+    }
+
+    /** Number of changes recorded. */
+    synchronized int size() {
+        return changes.size();
+    }
+
+    /** Whether there were more changes than the maximum. */
+    synchronized boolean hasOverflowed() {
+        return overflow;
+    }
+
+    /**
+     * Apply the changes of committed transactions, in order, to another database.
+     * Call in a read transaction on the recorded database and a write transaction on
+     * the destination, when there are no active writers on the recorded database.
+     */
+    synchronized void replay(DatasetGraphTDB dsgDst) {
+        if ( overflow )
+            throw new TDBException("Compaction: too many changes to apply (max "+maxChanges+")");
+        List<NodeTupleTable> srcTables = nodeTupleTables(dsg);
+        List<NodeTupleTable> dstTables = nodeTupleTables(dsgDst);
+        Map<TupleTable, Integer> tableIndex = new IdentityHashMap<>();
+        for ( int i = 0 ; i < srcTables.size() ; i++ )
+            tableIndex.put(srcTables.get(i).getTupleTable(), i);
+        for ( Change change : changes ) {
+            if ( ! isCommitted(change.transaction) )
+                continue;
+            int idx = tableIndex.get(change.table);
+            NodeTable nodeTable = srcTables.get(idx).getNodeTable();
+            NodeTupleTable dst = dstTables.get(idx);
+            switch (change.action) {
+                case ADD ->     dst.addRow(nodes(nodeTable, change.tuple));
+                case DELETE ->  dst.deleteRow(nodes(nodeTable, change.tuple));
+                case CLEAR ->   dst.clear();
+            }
+        }
+    }
+
+    private static boolean isCommitted(Transaction transaction) {
+        if ( transaction == null )
+            // Change made outside a transaction of the database.
+            return true;
+        TxnState state = transaction.getState();
+        return state == TxnState.COMMITTED || state == TxnState.END_COMMITTED;
+    }
+
+    private static Node[] nodes(NodeTable nodeTable, Tuple<NodeId> tuple) {
+        Node[] nodes = new Node[tuple.len()];
+        for ( int i = 0 ; i < nodes.length ; i++ ) {
+            nodes[i] = nodeTable.getNodeForNodeId(tuple.get(i));
+            if ( nodes[i] == null )
+                throw new TDBException("Compaction: no node for "+tuple.get(i));
+        }
+        return nodes;
+    }
+
+    // Triples, quads, prefixes.
+    private static List<NodeTupleTable> nodeTupleTables(DatasetGraphTDB dsg) {
+        StoragePrefixes prefixes = dsg.getStoragePrefixes();
+        if ( ! ( prefixes instanceof StoragePrefixesTDB prefixesTDB ) )
+            throw new TDBException("Compaction: prefixes are not TDB2 storage");
+        return List.of(dsg.getTripleTable().getNodeTupleTable(),
+                       dsg.getQuadTable().getNodeTupleTable(),
+                       prefixesTDB.getNodeTupleTable());
+    }
+
+    // -- TupleTableMonitor
+
+    @Override
+    public void add(TupleTable table, Tuple<NodeId> tuple) {
+        record(table, Action.ADD, tuple);
+    }
+
+    @Override
+    public void delete(TupleTable table, Tuple<NodeId> tuple) {
+        record(table, Action.DELETE, tuple);
+    }
+
+    @Override
+    public void clear(TupleTable table) {
+        record(table, Action.CLEAR, null);
+    }
+
+    private synchronized void record(TupleTable table, Action action, Tuple<NodeId> tuple) {
+        if ( overflow )
+            return;
+        if ( changes.size() >= maxChanges ) {
+            overflow = true;
+            changes = new ArrayList<>();
+            return;
+        }
+        Transaction transaction = dsg.getTxnSystem().getThreadTransaction();
+        changes.add(new Change(transaction, table, action, tuple));
+    }
+}
@@ -56,9 +56,11 @@ public class ComponentIdMgr {
 
         setup(40, "prefixes");
         setup(41, "prefixes-data");
+        setup(42, "prefixes-dict");
 
         setup(50, "nodes");
         setup(51, "nodes-data");
+        setup(52, "nodes-dict");
     }
 
     static void setup(int idx, String unitName) {
@@ -46,6 +46,7 @@ import org.apache.jena.dboe.sys.IO_DB;
 import org.apache.jena.dboe.sys.Names;
 import org.apache.jena.dboe.transaction.txn.TransactionCoordinator;
 import org.apache.jena.query.ARQ;
+import org.apache.jena.query.TxnType;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFDataMgr;
 import org.apache.jena.sparql.core.DatasetGraph;
@@ -304,6 +305,9 @@ public class DatabaseOps {
     // JVM-wide :-(
     private static Object compactionLock = new Object();
 
+    // Maximum number of changes recorded during an online compaction.
+    /*package*/ static int compactionMaxChanges = SystemTDB.CompactionMaxChanges;
+
     /**
      * Equivalent to {@code compact(container, false)}.
      */
@@ -312,6 +316,25 @@ public class DatabaseOps {
     }
 
     public static void compact(DatasetGraphSwitchable container, boolean shouldDeleteOld) {
+        compact(container, shouldDeleteOld, false);
+    }
+
+    /**
+     * Compact the database.
+     * <p>
+     * If {@code online} is false, writers are blocked while the database is copied.
+     * If {@code online} is true, readers and writers continue while the database is
+     * copied. Changes made during the copy are recorded and applied to the copy
+     * when the switch over to the new database is made; writers are blocked only
+     * while the recorded changes are applied. If there are too many changes to keep
+     * in memory ({@link SystemTDB#CompactionMaxChanges}), the database is copied again
+     * with writers blocked. Changes made by bulk loaders, which
+     * write the indexes directly, are not recorded; bulk loaders must not be used
+     * on the database during an online compaction.
+     * <p>
+     * On MS Windows, compaction is always done with writers blocked.
+     */
+    public static void compact(DatasetGraphSwitchable container, boolean shouldDeleteOld, boolean online) {
         if ( Sys.isWindows) {
             // Windows does not support Files.move when the directory contains memory mapped files.
             // MS Windows: 2024-03-08 https://github.com/apache/jena/issues/2315
@@ -359,7 +382,7 @@ public class DatabaseOps {
             Location loc2tmp = Location.create(tmpDir);
 
             try {
-                compaction(container, loc1, loc2tmp, db2);
+                compaction(container, loc1, loc2tmp, db2, online);
                 // Container now using the new location.
                 // The original database is not in use.
             } catch (RuntimeIOException ex) {
@@ -390,7 +413,7 @@ public class DatabaseOps {
     }
 
     /** Copy the latest version from one location to another. */
-    private static void compaction(DatasetGraphSwitchable container, Location loc1, Location loc2tmp, Path path2final) {
+    private static void compaction(DatasetGraphSwitchable container, Location loc1, Location loc2tmp, Path path2final, boolean online) {
         if ( loc1.isMem() || loc2tmp.isMem() )
             throw new TDBException("Compact involves a memory location: "+loc1+" : "+loc2tmp);
 
@@ -411,6 +434,24 @@ public class DatabaseOps {
 
         TransactionCoordinator txnMgr1 = dsgBase.getTxnSystem().getTxnMgr();
 
+        if ( online )
+            compactionOnline(container, dsgCurrent, loc1, loc2tmp, path2final);
+        else
+            compactionOffline(container, dsgCurrent, loc1, loc2tmp, path2final);
+
+        // This switches off the source database.
+        // It waits until all transactions (readers) have finished.
+        // This call is not undone.
+        // Database1 is no longer in use.
+        txnMgr1.startExclusiveMode();
+
+        // Clean-up.
+        // Includes dsgBase.shutdown() which closes files.
+        StoreConnection.release(dsgBase.getLocation());
+    }
+
+    private static void compactionOffline(DatasetGraphSwitchable container, DatasetGraphTDB dsgBase,
+                                          Location loc1, Location loc2tmp, Path path2final) {
         // -- Stop updates.
         // On exit there are no writers and none will start until switched over.
         // Readers can start on the old database.
@@ -423,64 +464,117 @@ public class DatabaseOps {
         container.execReadOnlyDatabase(()->{
             // No active writers or promote transactions on the current database.
             // These are held up on a lock in the switchable container.
+            copyAndSwitchOver(container, dsgBase, loc1, loc2tmp, path2final);
+        });
+    }
 
-            // -- Copy the current state to the new area.
-            copyConfigFiles(loc1, loc2tmp);
-
-            // -- Copy to temporary area so that if the copy is interrupted
-            // (e.g. the server exits mid-copy) the restart does choose the
-            // directory as the data storage.
-
-            DatasetGraphTDB dsgTmpCompact = StoreConnection.connectCreate(loc2tmp).getDatasetGraphTDB();
-            CopyDSG.copy(dsgBase, dsgTmpCompact);
-            StoreConnection.internalExpel(loc2tmp, true);
-            // Now on-disk in tmp location.
-
-            moveDirectory(loc2tmp, path2final);
-            Location loc2final = Location.create(path2final);   // Location must exist.
-
-            // Next generation storage datasetGraph.
-            DatasetGraphTDB dsgCompact = StoreConnection.connectCreate(loc2final).getDatasetGraphTDB();
-
-            // -- Switch
-            // Update TransactionCoordinator and switch over.
-            TransactionCoordinator txnMgr2 = dsgCompact.getTxnSystem().getTxnMgr();
-            txnMgr2.execExclusive(()->{
-                // No active transactions in either database.
-                txnMgr2.takeOverFrom(txnMgr1);
-
-                // Copy over external transaction components.
-                txnMgr2.modifyConfigDirect(()-> {
-                    txnMgr1.listExternals().forEach(txnMgr2::addExternal);
-                    // External listeners?
-                    // (the NodeTableCache listener is not external)
-                });
-
-                // No transactions on new database 2 (not exposed yet).
-                // No writers or promote transactions on database 1.
-                // Maybe old readers on database 1.
-                // -- Switch.
-                if ( ! container.change(dsgCurrent, dsgCompact) ) {
-                    Log.warn(DatabaseOps.class, "Inconsistent: old datasetgraph not as expected");
-                    container.set(dsgCompact);
-                }
-                // The compacted database is now active
+    /**
+     * Copy the database and switch the container over to the copy.
+     * Call when there are no active writers on the current database.
+     */
+    private static void copyAndSwitchOver(DatasetGraphSwitchable container, DatasetGraphTDB dsgBase,
+                                          Location loc1, Location loc2tmp, Path path2final) {
+        // -- Copy the current state to the new area.
+        copyConfigFiles(loc1, loc2tmp);
+
+        // -- Copy to temporary area so that if the copy is interrupted
+        // (e.g. the server exits mid-copy) the restart does choose the
+        // directory as the data storage.
+
+        DatasetGraphTDB dsgTmpCompact = StoreConnection.connectCreate(loc2tmp).getDatasetGraphTDB();
+        CopyDSG.copy(dsgBase, dsgTmpCompact);
+        switchOver(container, dsgBase, loc2tmp, path2final);
+    }
+
+    private static void compactionOnline(DatasetGraphSwitchable container, DatasetGraphTDB dsgBase,
+                                         Location loc1, Location loc2tmp, Path path2final) {
+        CompactionChangeLog changes = new CompactionChangeLog(dsgBase, compactionMaxChanges);
+        try {
+            // Start recording changes and start the read transaction for the copy
+            // at a point where there are no writers.
+            container.execReadOnlyDatabase(()->{
+                changes.start();
+                dsgBase.begin(TxnType.READ);
             });
-            // New database running.
-            // New transactions go to this database.
-            // Old readers continue on db1.
 
-        });
+            // -- Copy the database as seen by the read transaction.
+            // Writers continue on the current database.
+            DatasetGraphTDB dsgTmpCompact;
+            try {
+                copyConfigFiles(loc1, loc2tmp);
+                dsgTmpCompact = StoreConnection.connectCreate(loc2tmp).getDatasetGraphTDB();
+                CopyDSG.copy(dsgBase, dsgTmpCompact);
+            } finally {
+                if ( dsgBase.isInTransaction() )
+                    dsgBase.end();
+            }
 
-        // This switches off the source database.
-        // It waits until all transactions (readers) have finished.
-        // This call is not undone.
-        // Database1 is no longer in use.
-        txnMgr1.startExclusiveMode();
+            // -- Block writers, apply the changes made during the copy, and switch over.
+            container.execReadOnlyDatabase(()->{
+                changes.stop();
+                if ( changes.hasOverflowed() ) {
+                    // Too many changes to keep : start again with writers blocked.
+                    FmtLog.info(LOG, "Compact: more than %d changes during the copy : copying again with writers blocked", compactionMaxChanges);
+                    StoreConnection.internalExpel(loc2tmp, true);
+                    Path tmpDir = IO_DB.asPath(loc2tmp);
+                    IO.deleteAll(tmpDir);
+                    IOX.createDirectory(tmpDir);
+                    copyAndSwitchOver(container, dsgBase, loc1, loc2tmp, path2final);
+                    return;
+                }
+                FmtLog.debug(LOG, "Compact: %d changes during the copy", changes.size());
+                Txn.executeRead(dsgBase, ()->
+                    Txn.executeWrite(dsgTmpCompact, ()->changes.replay(dsgTmpCompact))
+                );
+                switchOver(container, dsgBase, loc2tmp, path2final);
+            });
+        } finally {
+            changes.stop();
+        }
+    }
 
-        // Clean-up.
-        // Includes dsgBase.shutdown() which closes files.
-        StoreConnection.release(dsgBase.getLocation());
+    /**
+     * Move the copy of the database into place and switch the container over to it.
+     * Call when there are no active writers on the current database.
+     */
+    private static void switchOver(DatasetGraphSwitchable container, DatasetGraphTDB dsgCurrent, Location loc2tmp, Path path2final) {
+        StoreConnection.internalExpel(loc2tmp, true);
+        // Now on-disk in tmp location.
+
+        moveDirectory(loc2tmp, path2final);
+        Location loc2final = Location.create(path2final);   // Location must exist.
+
+        // Next generation storage datasetGraph.
+        DatasetGraphTDB dsgCompact = StoreConnection.connectCreate(loc2final).getDatasetGraphTDB();
+
+        // -- Switch
+        // Update TransactionCoordinator and switch over.
+        TransactionCoordinator txnMgr1 = dsgCurrent.getTxnSystem().getTxnMgr();
+        TransactionCoordinator txnMgr2 = dsgCompact.getTxnSystem().getTxnMgr();
+        txnMgr2.execExclusive(()->{
+            // No active transactions in either database.
+            txnMgr2.takeOverFrom(txnMgr1);
+
+            // Copy over external transaction components.
+            txnMgr2.modifyConfigDirect(()-> {
+                txnMgr1.listExternals().forEach(txnMgr2::addExternal);
+                // External listeners?
+                // (the NodeTableCache listener is not external)
+            });
+
+            // No transactions on new database 2 (not exposed yet).
+            // No writers or promote transactions on database 1.
+            // Maybe old readers on database 1.
+            // -- Switch.
+            if ( ! container.change(dsgCurrent, dsgCompact) ) {
+                Log.warn(DatabaseOps.class, "Inconsistent: old datasetgraph not as expected");
+                container.set(dsgCompact);
+            }
+            // The compacted database is now active
+        });
+        // New database running.
+        // New transactions go to this database.
+        // Old readers continue on db1.
     }
 
     private static void moveDirectory(Location locTmp, Path pathDst) {
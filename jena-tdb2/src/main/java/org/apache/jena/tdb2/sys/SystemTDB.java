@@ -171,6 +171,25 @@ public class SystemTDB
     /** Size of Node lookup miss cache for prefixes. */
     public static final int PrefixNodeMissCacheSize       = 100;
 
+    /** Size, in bytes, of the off-heap Node to NodeId cache. Zero means no off-heap cache. */
+    public static final long Node2NodeIdOffHeapCacheSize = longValue("Node2NodeIdOffHeapCacheSize", 0);
+
+    /** Size, in bytes, of the off-heap NodeId to Node cache. Zero means no off-heap cache. */
+    public static final long NodeId2NodeOffHeapCacheSize = longValue("NodeId2NodeOffHeapCacheSize", 0);
+
+    /**
+     * Maximum number of strings (IRI namespaces, datatypes, language tags) in the
+     * dictionary of a compressed node table. Terms that would need a new entry
+     * once it is full are stored without the dictionary.
+     */
+    public static final int NodeDictionaryMaxSize   = intValue("NodeDictionaryMaxSize", 100*1000);
+
+    /**
+     * Maximum number of changes kept in memory during an online compaction. If there
+     * are more, the compaction copies the database again with writers blocked.
+     */
+    public static final int CompactionMaxChanges    = intValue("CompactionMaxChanges", 1000*1000);
+
     /** Initial capacity factor for node caches. */
     public static final double NodeCacheInitialCapacityFactor = doubleValue("NodeCacheInitialCapacityFactor", 0.25);
 
@@ -271,6 +290,10 @@ public class SystemTDB
         return value(name, defaultValue, Integer::parseInt);
     }
 
+    private static long longValue(String name, long defaultValue) {
+        return value(name, defaultValue, Long::parseLong);
+    }
+
     private static double doubleValue(String name, double defaultValue) {
         return value(name, defaultValue, Double::parseDouble);
     }
@@ -343,6 +366,10 @@ public class SystemTDB
             TDB2.logInfo.info("File mode: direct (forced)");
             return FileMode.direct;
         }
+        if ( x.equalsIgnoreCase("directAsync") ) {
+            TDB2.logInfo.info("File mode: directAsync (forced)");
+            return FileMode.directAsync;
+        }
         if ( x.equalsIgnoreCase("mapped") )
         {
             TDB2.logInfo.info("File mode: mapped (forced)");
@@ -359,6 +386,6 @@ public class SystemTDB
             TDB2.logInfo.debug("File mode: Direct");
             return FileMode.direct;
         }
-        throw new TDBException("Unrecognized file mode (not one of 'default', 'direct' or 'mapped': "+x);
+        throw new TDBException("Unrecognized file mode (not one of 'default', 'direct', 'directAsync' or 'mapped': "+x);
     }
 }
@@ -271,12 +271,13 @@ public class ProcBuildIndexX
         int blockSize = SystemTDB.BlockSize;
         RecordFactory recordFactory = ((TupleIndexRecord)index).getRangeIndex().getRecordFactory();
 
-        int order = BPlusTreeParams.calcOrder(blockSize, recordFactory);
-        BPlusTreeParams bptParams = new BPlusTreeParams(order, recordFactory);
-
         // Extract from index.
         TupleIndexRecord tIdxRec = (TupleIndexRecord)index;
         BPlusTree bpt = (BPlusTree)(tIdxRec.getRangeIndex());
+
+        int order = BPlusTreeParams.calcOrder(blockSize, recordFactory);
+        // Keep the leaf format of the index.
+        BPlusTreeParams bptParams = new BPlusTreeParams(order, recordFactory, bpt.getParams().isCompressedLeaves());
         BlockMgr blkMgrNodes = bpt.getNodeManager().getBlockMgr();
         BlockMgr blkMgrRecords = bpt.getRecordsMgr().getBlockMgr();
         BufferChannel blkState = bpt.getStateManager().getBufferChannel();
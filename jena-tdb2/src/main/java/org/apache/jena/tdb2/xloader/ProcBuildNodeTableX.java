@@ -63,6 +63,7 @@ import org.apache.jena.system.progress.ProgressIterator;
 import org.apache.jena.system.progress.ProgressMonitorOutput;
 import org.apache.jena.system.progress.ProgressStreamRDF;
 import org.apache.jena.tdb2.DatabaseMgr;
+import org.apache.jena.tdb2.TDBException;
 import org.apache.jena.tdb2.lib.NodeLib;
 import org.apache.jena.tdb2.store.DatasetGraphTDB;
 import org.apache.jena.tdb2.store.Hash;
@@ -124,7 +125,9 @@ public class ProcBuildNodeTableX {
         DatasetGraph dsg = DatabaseMgr.connectDatasetGraph(DB);
         DatasetGraphTDB dsgtdb = TDBInternal.getDatasetGraphTDB(dsg);
         NodeTable nt = dsgtdb.getTripleTable().getNodeTupleTable().getNodeTable();
-        NodeTableTRDF nodeTable = (NodeTableTRDF)nt.baseNodeTable();
+        // The node table is written directly in the Thrift encoding.
+        if ( ! ( nt.baseNodeTable() instanceof NodeTableTRDF nodeTable ) )
+            throw new TDBException("xloader: database node table is not supported: "+nt.baseNodeTable().getClass().getSimpleName());
 
         OutputStream toSortOutputStream;
         InputStream fromSortInputStream;
@@ -31,6 +31,7 @@ import org.apache.jena.dboe.trans.bplustree.BPlusTreeFactory;
 import org.apache.jena.tdb2.params.StoreParams;
 import org.apache.jena.tdb2.store.nodetable.NodeTable;
 import org.apache.jena.tdb2.store.nodetable.NodeTableCache;
+import org.apache.jena.tdb2.store.nodetable.NodeTableDictionary;
 import org.apache.jena.tdb2.store.nodetable.NodeTableInline;
 import org.apache.jena.tdb2.store.nodetable.NodeTableTRDF;
 import org.apache.jena.tdb2.sys.SystemTDB;
@@ -59,6 +60,10 @@ public class BuildTestLib {
 
         Index index = buildRangeIndex(fs, recordFactory, params);
         BinaryDataFile bdf = createBinaryDataFile(location, basename+"-data");
+        if ( params.isCompressedNodes() ) {
+            BinaryDataFile dict = createBinaryDataFile(location, basename+"-dict");
+            return new NodeTableDictionary(index, bdf, dict, SystemTDB.NodeDictionaryMaxSize);
+        }
         NodeTable nt = new NodeTableTRDF(index, bdf);
         return nt;
     }
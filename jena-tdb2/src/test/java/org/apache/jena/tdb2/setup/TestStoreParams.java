@@ -77,6 +77,36 @@ public class TestStoreParams {
         assertEqualsStoreParams(paramsExpected,paramsActual);
     }
 
+    @Test public void store_params_07() {
+        StoreParams params = StoreParams.builder(label())
+                .nodeId2NodeOffHeapCacheSize(8L*1024*1024*1024)
+                .node2NodeIdOffHeapCacheSize(1024*1024)
+                .build();
+        StoreParams params2 = roundTrip(params);
+        assertEqualsStoreParams(params, params2);
+        assertEquals(8L*1024*1024*1024, params2.getNodeId2NodeOffHeapCacheSize());
+        assertEquals(1024*1024, params2.getNode2NodeIdOffHeapCacheSize());
+    }
+
+    @Test public void store_params_08() {
+        StoreParams params = StoreParams.builder(label()).compressedIndexes(true).build();
+        StoreParams params2 = roundTrip(params);
+        assertEqualsStoreParams(params, params2);
+        assertTrue(params2.isCompressedIndexes());
+        // Only written when set.
+        JsonObject obj = StoreParamsCodec.encodeToJson(StoreParams.getDftStoreParams());
+        assertFalse(obj.hasKey("tdb.compressed_indexes"));
+    }
+
+    @Test public void store_params_09() {
+        StoreParams params = StoreParams.builder(label()).compressedNodes(true).build();
+        StoreParams params2 = roundTrip(params);
+        assertEqualsStoreParams(params, params2);
+        assertTrue(params2.isCompressedNodes());
+        JsonObject obj = StoreParamsCodec.encodeToJson(StoreParams.getDftStoreParams());
+        assertFalse(obj.hasKey("tdb.compressed_nodes"));
+    }
+
     // ----
 
     @Test public void store_params_10() {
@@ -30,9 +30,14 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import org.apache.jena.atlas.iterator.Iter;
 import org.apache.jena.atlas.lib.FileOps;
 import org.apache.jena.dboe.base.file.Location;
 import org.apache.jena.dboe.sys.Names;
+import org.apache.jena.query.TxnType;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.sse.SSE;
+import org.apache.jena.system.Txn;
 import org.apache.jena.tdb2.ConfigTest;
 import org.apache.jena.tdb2.params.StoreParams;
 import org.apache.jena.tdb2.params.StoreParamsCodec;
@@ -169,5 +174,51 @@ public class TestStoreParamsCreate {
         assertFalse(StoreParams.sameValues(pApp, pDB));
         assertFalse(StoreParams.sameValues(pSpecial, pDB));
     }
-}
 
+    // Compressed indexes are fixed at creation.
+    @Test public void params_compressed_01() {
+        StoreParams pCompressed = StoreParams.builder("pCompressed", pApp).compressedIndexes(true).build();
+        dbConnection = DatabaseConnection.connectCreate(locContainer, pCompressed, null);
+        DatasetGraph dsg = dbConnection.getDatasetGraph();
+        Txn.executeWrite(dsg, ()->{
+            for ( int i = 0 ; i < 1000 ; i++ )
+                dsg.add(SSE.parseQuad("(:g :s :p "+i+")"));
+        });
+        expel();
+        dbConnection = DatabaseConnection.connectCreate(locContainer);
+        StoreParams pDB = TDBInternal.getDatasetGraphTDB(dbConnection.getDatasetGraph()).getStoreParams();
+        assertTrue(pDB.isCompressedIndexes());
+        DatasetGraph dsg2 = dbConnection.getDatasetGraph();
+        Txn.executeRead(dsg2, ()->{
+            assertEquals(1000, Iter.count(dsg2.find()));
+            assertTrue(dsg2.contains(SSE.parseQuad("(:g :s :p 999)")));
+        });
+    }
+
+    // Compressed nodes are fixed at creation.
+    @Test public void params_compressed_02() {
+        StoreParams pCompressed = StoreParams.builder("pCompressed", pApp).compressedNodes(true).build();
+        dbConnection = DatabaseConnection.connectCreate(locContainer, pCompressed, null);
+        DatasetGraph dsg = dbConnection.getDatasetGraph();
+        Txn.executeWrite(dsg, ()->{
+            for ( int i = 0 ; i < 100 ; i++ )
+                dsg.add(SSE.parseQuad("(:g :s"+i+" :p 'abc"+i+"'@en)"));
+        });
+        // Aborted changes, including new dictionary entries, are not seen.
+        dsg.begin(TxnType.WRITE);
+        dsg.add(SSE.parseQuad("(<http://aborted/g> <http://aborted/s> :p 'x'@fr)"));
+        dsg.abort();
+        dsg.end();
+        Txn.executeWrite(dsg, ()->dsg.add(SSE.parseQuad("(<http://other/g> <http://other/s> :p 'x'@de)")));
+        expel();
+        dbConnection = DatabaseConnection.connectCreate(locContainer);
+        StoreParams pDB = TDBInternal.getDatasetGraphTDB(dbConnection.getDatasetGraph()).getStoreParams();
+        assertTrue(pDB.isCompressedNodes());
+        DatasetGraph dsg2 = dbConnection.getDatasetGraph();
+        Txn.executeRead(dsg2, ()->{
+            assertEquals(101, Iter.count(dsg2.find()));
+            assertTrue(dsg2.contains(SSE.parseQuad("(:g :s99 :p 'abc99'@en)")));
+            assertTrue(dsg2.contains(SSE.parseQuad("(<http://other/g> <http://other/s> :p 'x'@de)")));
+        });
+    }
+}
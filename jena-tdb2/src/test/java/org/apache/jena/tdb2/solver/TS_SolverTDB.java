@@ -29,6 +29,11 @@ import org.junit.platform.suite.api.Suite;
 
     TestSolverTDB.class
     , TestStats.class
+    , TestFilterNodeId.class
+    , TestSemiJoinTDB.class
+    , TestSharedScansTDB.class
+    , TestQueryResultCacheTDB.class
+    , TestParallelQueryTDB.class
 })
 
 public class TS_SolverTDB
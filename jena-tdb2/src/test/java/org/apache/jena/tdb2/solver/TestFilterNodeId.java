@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.tdb2.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.exec.QueryExec;
+import org.apache.jena.sparql.sse.SSE;
+import org.apache.jena.sparql.expr.ExprList;
+import org.apache.jena.system.Txn;
+import org.apache.jena.tdb2.TDB2;
+import org.apache.jena.tdb2.junit.TL;
+import org.apache.jena.tdb2.store.DatasetGraphTDB;
+import org.apache.jena.tdb2.sys.TDBInternal;
+
+/** FILTER evaluation on NodeIds gives the same results as evaluation on Nodes. */
+public class TestFilterNodeId {
+    private static final String PREFIXES = "PREFIX : <http://example/> PREFIX xsd: <http://www.w3.org/2001/XMLSchema#> ";
+
+    private static Dataset dataset;
+    private static DatasetGraph dsg;
+
+    @BeforeAll
+    public static void beforeClass() {
+        dataset = TL.createTestDatasetMem();
+        dsg = dataset.asDatasetGraph();
+        Txn.executeWrite(dsg, ()->{
+            for ( int i = 0 ; i < 20 ; i++ ) {
+                dsg.add(SSE.parseQuad("(_ :s"+i+" :p "+(i-5)+")"));
+                dsg.add(SSE.parseQuad("(:g :s"+i+" :p "+(i-5)+")"));
+                dsg.add(SSE.parseQuad("(_ :s"+i+" :q '"+(1.5*i)+"'^^xsd:decimal)"));
+                dsg.add(SSE.parseQuad("(_ :s"+i+" :d '2024-01-"+String.format("%02d", i+1)+"'^^xsd:date)"));
+            }
+            // Not inline.
+            dsg.add(SSE.parseQuad("(_ :x1 :p 123456789012345678901234567890)"));
+            dsg.add(SSE.parseQuad("(_ :x2 :p 'abc')"));
+            dsg.add(SSE.parseQuad("(_ :x3 :p :o)"));
+            dsg.add(SSE.parseQuad("(_ :x4 :p '5'^^xsd:double)"));
+            dsg.add(SSE.parseQuad("(_ :x5 :p '05'^^xsd:integer)"));
+            dsg.add(SSE.parseQuad("(_ :x6 :d '2024-01-05Z'^^xsd:date)"));
+        });
+    }
+
+    @AfterAll
+    public static void afterClass() {
+        TL.expel(dataset);
+    }
+
+    @Test public void filter_nodeid_01() { test("SELECT * { ?s :p ?o FILTER(?o > 10) }", 5); }
+    @Test public void filter_nodeid_02() { test("SELECT * { ?s :p ?o FILTER(10 >= ?o) }", 18); }
+    @Test public void filter_nodeid_03() { test("SELECT * { ?s :p ?o FILTER(?o = 5) }", 3); }
+    @Test public void filter_nodeid_04() { test("SELECT * { ?s :p ?o FILTER(?o != 5) }", 22); }
+    @Test public void filter_nodeid_05() { test("SELECT * { ?s :p ?o FILTER(?o < -2 || ?o > 12) }", 6); }
+    @Test public void filter_nodeid_06() { test("SELECT * { ?s :p ?o FILTER(?o >= 0 && ?o <= 3) }", 4); }
+    @Test public void filter_nodeid_07() { test("SELECT * { ?s :p ?o FILTER(!(?o < 0)) }", 18); }
+    @Test public void filter_nodeid_08() { test("SELECT * { ?s :p ?o FILTER(?o > 1.5) }", 16); }
+    @Test public void filter_nodeid_09() { test("SELECT * { ?s :q ?o FILTER(?o < 3) }", 2); }
+    @Test public void filter_nodeid_10() { test("SELECT * { ?s :d ?o FILTER(?o < '2024-01-04'^^xsd:date) }", 3); }
+    // '05'^^xsd:integer is stored as the inline value 5.
+    @Test public void filter_nodeid_11() { test("SELECT * { ?s :p ?o FILTER(sameTerm(?o, 5)) }", 2); }
+    @Test public void filter_nodeid_12() { test("SELECT * { ?s :p ?o FILTER(sameTerm(?o, 'abc')) }", 1); }
+    @Test public void filter_nodeid_13() { test("SELECT * { ?s :p ?o FILTER(sameTerm(?o, :o)) }", 1); }
+    @Test public void filter_nodeid_14() { test("SELECT * { ?s :p ?o FILTER(sameTerm(?o, :notInData)) }", 0); }
+    @Test public void filter_nodeid_15() { test("SELECT * { ?s :p ?o ; :q ?q FILTER(sameTerm(?o, ?q)) }", 0); }
+    @Test public void filter_nodeid_16() { test("SELECT * { ?s :p ?o FILTER(BOUND(?o)) }", 25); }
+    @Test public void filter_nodeid_17() { test("SELECT * { ?s :p ?o FILTER(BOUND(?z)) }", 0); }
+    @Test public void filter_nodeid_18() { test("SELECT * { ?s :p ?o FILTER(!BOUND(?z) && ?o > 100) }", 1); }
+    @Test public void filter_nodeid_19() { test("SELECT * { ?s :p ?o FILTER(?o > 1.5 || true) }", 25); }
+    @Test public void filter_nodeid_20() { test("SELECT * { ?s :p ?o FILTER(STRLEN(STR(?o)) > 1 && ?o < 0) }", 5); }
+    @Test public void filter_nodeid_21() { test("SELECT * { GRAPH :g { ?s :p ?o FILTER(?o > 10) } }", 4); }
+    @Test public void filter_nodeid_22() { test("SELECT * { VALUES ?v { 5 10 } ?s :p ?o FILTER(?o > ?v) }", 15); }
+
+    // Default graph as union graph.
+    @Test public void filter_nodeid_23() {
+        String qs = PREFIXES+"SELECT * { GRAPH <urn:x-arq:UnionGraph> { ?s :p ?o FILTER(?o <= -4) } }";
+        Txn.executeRead(dsg, ()->{
+            List<Binding> x1 = Iter.toList(QueryExec.dataset(dsg).query(qs).select());
+            List<Binding> x2 = Iter.toList(QueryExec.dataset(dsg).query(qs).set(TDB2.symFilterNodeIds, false).select());
+            assertEquals(2, x1.size());
+            assertEquals(Set.copyOf(x1), Set.copyOf(x2));
+        });
+    }
+
+    @Test public void filter_nodeid_compile_01() {
+        assertTrue(filter("(> ?x 1)").hasNodeIdTests());
+        assertTrue(filter("(sameTerm ?x ?y)").hasNodeIdTests());
+        assertTrue(filter("(&& (bound ?x) (< 'a' ?x))").hasNodeIdTests());
+    }
+
+    @Test public void filter_nodeid_compile_02() {
+        assertFalse(filter("(regex ?x 'a')").hasNodeIdTests());
+        assertFalse(filter("(> ?x ?y)").hasNodeIdTests());
+        assertFalse(filter("(&& (bound ?x) (isIRI ?x))").hasNodeIdTests());
+    }
+
+    private static FilterNodeId filter(String exprStr) {
+        ExprList exprs = new ExprList(SSE.parseExpr(exprStr));
+        DatasetGraphTDB dsgtdb = TDBInternal.getDatasetGraphTDB(dsg);
+        return Txn.calculateRead(dsg, ()->new FilterNodeId(exprs, dsgtdb.getTripleTable().getNodeTupleTable().getNodeTable(), null));
+    }
+
+    private static void test(String queryString, int expected) {
+        String qs = PREFIXES+queryString;
+        Txn.executeRead(dsg, ()->{
+            List<Binding> x1 = Iter.toList(QueryExec.dataset(dsg).query(qs).select());
+            List<Binding> x2 = Iter.toList(QueryExec.dataset(dsg).query(qs).set(TDB2.symFilterNodeIds, false).select());
+            assertEquals(expected, x1.size());
+            assertEquals(Set.copyOf(x2), Set.copyOf(x1));
+        });
+    }
+}
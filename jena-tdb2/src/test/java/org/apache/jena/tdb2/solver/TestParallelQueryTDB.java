@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.tdb2.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.ARQ;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.exec.QueryExec;
+import org.apache.jena.sparql.exec.QueryExecBuilder;
+import org.apache.jena.system.Txn;
+import org.apache.jena.tdb2.junit.TL;
+
+/**
+ * Parallel query execution on TDB2: bindings from TDB2 must only be read on the
+ * thread of the transaction.
+ */
+public class TestParallelQueryTDB {
+    private static final int N = 20_000;
+    private static final String PREFIX = "PREFIX : <http://example/> ";
+
+    private static Dataset dataset;
+    private static DatasetGraph dsg;
+
+    @BeforeAll
+    public static void beforeClass() {
+        dataset = TL.createTestDatasetMem();
+        dsg = dataset.asDatasetGraph();
+        Node p = NodeFactory.createURI("http://example/p");
+        Txn.executeWrite(dsg, ()->{
+            for ( int i = 0 ; i < N ; i++ ) {
+                // Not inlined: the node table is read to compare and write the objects.
+                int x = (i * 7919) % N;
+                dsg.add(Quad.defaultGraphIRI, NodeFactory.createURI("http://example/s" + i), p,
+                        NodeFactory.createLiteralString("value " + x));
+            }
+        });
+    }
+
+    @AfterAll
+    public static void afterClass() {
+        TL.expel(dataset);
+    }
+
+    private static List<Binding> query(String queryString, QueryExecBuilder builder) {
+        // The common pool must run tasks on other threads (see the surefire configuration).
+        assumeTrue(ForkJoinPool.getCommonPoolParallelism() > 1);
+        return Txn.calculateRead(dsg, ()->{
+            try ( QueryExec qExec = builder.query(PREFIX + queryString).build() ) {
+                return qExec.select().materialize().stream().toList();
+            }
+        });
+    }
+
+    private static void checkSorted(List<Binding> results, int expectedSize) {
+        assertEquals(expectedSize, results.size());
+        Var o = Var.alloc("o");
+        String previous = null;
+        for ( Binding b : results ) {
+            Node n = b.get(o);
+            assertNotNull(n);
+            String lex = n.getLiteralLexicalForm();
+            if ( previous != null )
+                assertTrue(previous.compareTo(lex) <= 0, ()->"Out of order: " + lex);
+            previous = lex;
+        }
+    }
+
+    @Test public void parallelSortTDB_memory() {
+        List<Binding> results = query("SELECT * { ?s :p ?o } ORDER BY ?o",
+                                      QueryExec.dataset(dsg).set(ARQ.parallelSort, 4));
+        checkSorted(results, N);
+    }
+
+    @Test public void parallelSortTDB_spill() {
+        List<Binding> results = query("SELECT * { ?s :p ?o } ORDER BY ?o",
+                                      QueryExec.dataset(dsg).set(ARQ.parallelSort, 4).set(ARQ.spillToDiskThreshold, 2_000L));
+        checkSorted(results, N);
+    }
+
+    @Test public void parallelSortTDB_topN() {
+        List<Binding> results = query("SELECT * { ?s :p ?o } ORDER BY ?o LIMIT 10000",
+                                      QueryExec.dataset(dsg).set(ARQ.parallelSort, 4));
+        checkSorted(results, 10_000);
+    }
+
+    @Test public void parallelHashJoinTDB() {
+        String qs = """
+                SELECT * {
+                  { SELECT ?s ?o { ?s :p ?o } LIMIT 20000 }
+                  { SELECT ?s ?o2 { ?s :p ?o2 } LIMIT 20000 }
+                }""";
+        List<Binding> results = query(qs, QueryExec.dataset(dsg).set(ARQ.parallelHashJoin, 4));
+        assertEquals(N, results.size());
+        Var o = Var.alloc("o");
+        Var o2 = Var.alloc("o2");
+        for ( Binding b : results ) {
+            assertNotNull(b.get(o));
+            assertEquals(b.get(o), b.get(o2));
+        }
+    }
+}
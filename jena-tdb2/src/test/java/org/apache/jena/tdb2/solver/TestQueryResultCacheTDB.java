@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.tdb2.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.query.ARQ;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.exec.QueryExec;
+import org.apache.jena.sparql.exec.QueryResultCache;
+import org.apache.jena.sparql.sse.SSE;
+import org.apache.jena.system.Txn;
+import org.apache.jena.tdb2.junit.TL;
+
+/** Query results cached for read transactions and removed on commit. */
+public class TestQueryResultCacheTDB {
+    private QueryResultCache systemCache;
+    private QueryResultCache cache;
+    private Dataset dataset;
+    private DatasetGraph dsg;
+
+    @BeforeEach public void before() {
+        systemCache = QueryResultCache.get();
+        cache = new QueryResultCache(1024 * 1024);
+        QueryResultCache.set(cache);
+        dataset = TL.createTestDatasetMem();
+        dsg = dataset.asDatasetGraph();
+        Txn.executeWrite(dsg, ()->dsg.add(SSE.parseQuad("(_ :s :p 1)")));
+    }
+
+    @AfterEach public void after() {
+        QueryResultCache.set(systemCache);
+        TL.expel(dataset);
+    }
+
+    private static final String queryString = "SELECT * { ?s ?p ?o }";
+
+    @Test public void resultCacheTDB_01() {
+        assertEquals(1, count());
+        assertEquals(1, cache.size());
+        assertEquals(1, count());
+        assertEquals(1, cache.size());
+        Txn.executeWrite(dsg, ()->dsg.add(SSE.parseQuad("(_ :s :p 2)")));
+        assertEquals(0, cache.size());
+        assertEquals(2, count());
+        assertEquals(1, cache.size());
+    }
+
+    @Test public void resultCacheTDB_02() {
+        // Write transactions are not cached.
+        Txn.executeWrite(dsg, ()->{
+            try ( QueryExec qExec = QueryExec.dataset(dsg).query(queryString).set(ARQ.queryResultCache, true).build() ) {
+                assertEquals(1, Iter.count(qExec.select()));
+            }
+        });
+        assertEquals(0, cache.size());
+    }
+
+    private long count() {
+        return Txn.calculateRead(dsg, ()->{
+            try ( QueryExec qExec = QueryExec.dataset(dsg).query(queryString).set(ARQ.queryResultCache, true).build() ) {
+                return Iter.count(qExec.select());
+            }
+        });
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.tdb2.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.query.ARQ;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.ExecutionContext;
+import org.apache.jena.sparql.engine.QueryIterator;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.iterator.QueryIterRoot;
+import org.apache.jena.sparql.engine.join.SemiJoinFilter;
+import org.apache.jena.sparql.exec.QueryExec;
+import org.apache.jena.sparql.exec.RowSet;
+import org.apache.jena.sparql.sse.SSE;
+import org.apache.jena.system.Txn;
+import org.apache.jena.tdb2.junit.TL;
+import org.apache.jena.tdb2.store.DatasetGraphTDB;
+import org.apache.jena.tdb2.sys.TDBInternal;
+
+/** Semi-join filters applied to NodeIds during pattern matching. */
+public class TestSemiJoinTDB {
+    private static Dataset dataset;
+    private static DatasetGraph dsg;
+
+    @BeforeAll
+    public static void beforeClass() {
+        dataset = TL.createTestDatasetMem();
+        dsg = dataset.asDatasetGraph();
+        Txn.executeWrite(dsg, ()->{
+            for ( int i = 0 ; i < 10 ; i++ ) {
+                dsg.add(SSE.parseQuad("(_ :s"+i+" :q :o"+i+")"));
+                dsg.add(SSE.parseQuad("(_ :o"+i+" :r "+i+")"));
+            }
+            dsg.add(SSE.parseQuad("(_ :s1 :p 1)"));
+            dsg.add(SSE.parseQuad("(_ :s2 :p 2)"));
+        });
+    }
+
+    @AfterAll
+    public static void afterClass() {
+        TL.expel(dataset);
+    }
+
+    @Test public void semiJoinTDB_01() {
+        List<Binding> rows = List.of(SSE.parseBinding("(row (?x <http://example/s1>))"),
+                                     // Not in the database.
+                                     SSE.parseBinding("(row (?x <http://example/other>))"));
+        SemiJoinFilter filter = SemiJoinFilter.create(rows, List.of(Var.alloc("x")), 10);
+        Txn.executeRead(dsg, ()->{
+            DatasetGraphTDB dsgtdb = TDBInternal.getDatasetGraphTDB(dsg);
+            ExecutionContext execCxt = filter.execCxt(ExecutionContext.create(dsg));
+            QueryIterator qIter = PatternMatchTDB2.execute(dsgtdb, null,
+                                                           SSE.parseBGP("(bgp (?x <http://example/q> ?o) (?o <http://example/r> ?z))"),
+                                                           QueryIterRoot.create(execCxt), null, execCxt);
+            assertEquals(1, Iter.count(qIter));
+        });
+    }
+
+    @Test public void semiJoinTDB_02() {
+        String qs = "PREFIX : <http://example/> SELECT * { { SELECT ?x { ?x :p ?v } } ?x :q ?o . ?o :r ?z }";
+        List<String> results1 = execute(qs, 0);
+        List<String> results2 = execute(qs, 100);
+        assertEquals(2, results1.size());
+        assertEquals(results1, results2);
+    }
+
+    private static List<String> execute(String qs, int semiJoin) {
+        List<String> results = new ArrayList<>();
+        Txn.executeRead(dsg, ()->{
+            RowSet rowSet = QueryExec.dataset(dsg).query(qs)
+                    .set(ARQ.optIndexJoinStrategy, false)
+                    .set(ARQ.semiJoinFilter, semiJoin)
+                    .select();
+            rowSet.forEachRemaining(b->{
+                StringBuilder sb = new StringBuilder();
+                for ( Var v : rowSet.getResultVars() )
+                    sb.append(v).append("=").append(b.get(v)).append(" ");
+                results.add(sb.toString());
+            });
+        });
+        Collections.sort(results);
+        return results;
+    }
+}
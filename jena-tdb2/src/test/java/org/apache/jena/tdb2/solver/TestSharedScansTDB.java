@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.tdb2.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.query.ARQ;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.sparql.ARQConstants;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.main.SharedScans;
+import org.apache.jena.sparql.exec.QueryExec;
+import org.apache.jena.sparql.exec.RowSet;
+import org.apache.jena.sparql.sse.SSE;
+import org.apache.jena.system.Txn;
+import org.apache.jena.tdb2.junit.TL;
+
+/** Sharing pattern evaluation between queries in read transactions. */
+public class TestSharedScansTDB {
+    private static Dataset dataset;
+    private static DatasetGraph dsg;
+
+    @BeforeAll
+    public static void beforeClass() {
+        dataset = TL.createTestDatasetMem();
+        dsg = dataset.asDatasetGraph();
+        Txn.executeWrite(dsg, ()->{
+            for ( int i = 0 ; i < 100 ; i++ ) {
+                dsg.add(SSE.parseQuad("(_ :s"+i+" :q :o"+(i%10)+")"));
+                dsg.add(SSE.parseQuad("(_ :o"+(i%10)+" :r "+i+")"));
+            }
+        });
+    }
+
+    @AfterAll
+    public static void afterClass() {
+        TL.expel(dataset);
+    }
+
+    private static final String queryString = "PREFIX : <http://example/> SELECT * { ?x :q ?o . ?o :r ?z }";
+
+    @Test public void sharedScansTDB_01() {
+        Txn.executeRead(dsg, ()->{
+            try ( QueryExec qExec = QueryExec.dataset(dsg).query(queryString).build() ) {
+                qExec.select().materialize();
+                assertNotNull(qExec.getContext().get(ARQConstants.sysDataVersion));
+            }
+        });
+        Txn.executeWrite(dsg, ()->{
+            try ( QueryExec qExec = QueryExec.dataset(dsg).query(queryString).build() ) {
+                qExec.select().materialize();
+                assertNull(qExec.getContext().get(ARQConstants.sysDataVersion));
+            }
+        });
+    }
+
+    @Test public void sharedScansTDB_02() throws Exception {
+        List<String> expected = execute(0);
+        assertEquals(1000, expected.size());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for ( int i = 0 ; i < 20 ; i++ )
+                futures.add(executor.submit(()->execute(1000)));
+            for ( Future<List<String>> f : futures )
+                assertEquals(expected, f.get());
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(0, SharedScans.get().size());
+    }
+
+    private static List<String> execute(int sharedScans) {
+        List<String> results = new ArrayList<>();
+        Txn.executeRead(dsg, ()->{
+            RowSet rowSet = QueryExec.dataset(dsg).query(queryString)
+                    .set(ARQ.sharedScans, sharedScans)
+                    .select();
+            rowSet.forEachRemaining(b->{
+                StringBuilder sb = new StringBuilder();
+                for ( Var v : rowSet.getResultVars() )
+                    sb.append(v).append("=").append(b.get(v)).append(" ");
+                results.add(sb.toString());
+            });
+        });
+        Collections.sort(results);
+        return results;
+    }
+}
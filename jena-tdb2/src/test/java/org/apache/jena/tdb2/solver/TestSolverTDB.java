@@ -21,16 +21,19 @@
 
 package org.apache.jena.tdb2.solver;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import org.apache.jena.atlas.iterator.Iter;
 import org.apache.jena.graph.Graph;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.Triple;
@@ -42,15 +45,19 @@ import org.apache.jena.shared.impl.PrefixMappingImpl;
 import org.apache.jena.sparql.algebra.Algebra;
 import org.apache.jena.sparql.algebra.Op;
 import org.apache.jena.sparql.algebra.OpVars;
+import org.apache.jena.sparql.core.DatasetGraph;
 import org.apache.jena.sparql.core.Var;
 import org.apache.jena.sparql.engine.QueryIterator;
 import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.exec.QueryExec;
 import org.apache.jena.sparql.exec.RowSet;
 import org.apache.jena.sparql.exec.RowSetOps;
 import org.apache.jena.sparql.exec.RowSetRewindable;
 import org.apache.jena.sparql.resultset.ResultsCompare;
 import org.apache.jena.sparql.sse.SSE;
 import org.apache.jena.tdb2.ConfigTest;
+import org.apache.jena.tdb2.TDB2;
+import org.apache.jena.system.Txn;
 import org.apache.jena.tdb2.junit.TL;
 
 public class TestSolverTDB {
@@ -132,6 +139,47 @@ public class TestSolverTDB {
         rs1.materialize();
     }
 
+    @Test
+    public void solve_08() {
+        // Batched NodeId to Node conversion gives the same results.
+        String x = "(bgp (?s ?p ?o))";
+        RowSetRewindable rs1 = exec(x).rewindable();
+        dataset.getContext().set(TDB2.symBatchResolveNodes, 2);
+        try {
+            RowSetRewindable rs2 = exec(x).rewindable();
+            assertTrue(rs1.size() > 2);
+            rs1.reset();
+            same(rs1, rs2, true);
+        } finally {
+            dataset.getContext().unset(TDB2.symBatchResolveNodes);
+        }
+    }
+
+    @Test
+    public void solve_09() {
+        // Parallel index scans give the same results.
+        Dataset ds = TL.createTestDatasetMem();
+        try {
+            DatasetGraph dsg = ds.asDatasetGraph();
+            Txn.executeWrite(dsg, ()->{
+                for ( int i = 0 ; i < 3000 ; i++ )
+                    dsg.add(SSE.parseQuad("(:g"+(i%30)+" :s"+i+" :p "+i+")"));
+            });
+            Txn.executeRead(dsg, ()->{
+                String qs1 = "SELECT * { GRAPH ?g { ?s <http://example/p> ?o } }";
+                String qs2 = "SELECT * { GRAPH <urn:x-arq:UnionGraph> { ?s <http://example/p> ?o } }";
+                for ( String qs : List.of(qs1, qs2) ) {
+                    List<Binding> x1 = Iter.toList(QueryExec.dataset(dsg).query(qs).select());
+                    List<Binding> x2 = Iter.toList(QueryExec.dataset(dsg).query(qs).set(TDB2.symParallelScan, 4).select());
+                    assertEquals(3000, x1.size());
+                    assertEquals(Set.copyOf(x1), Set.copyOf(x2));
+                }
+            });
+        } finally {
+            TL.expel(ds);
+        }
+    }
+
     // ------
 
     private static void equals(RowSet rs1, RowSet rs2) {
@@ -25,6 +25,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 
 import org.apache.jena.graph.Node;
@@ -70,4 +73,22 @@ public abstract class AbstractTestNodeTable
     @Test public void nodetable_07()    { testNode("'x'^^<http://example/dt>"); }
     @Test public void nodetable_08()    { testNode("'نواف'"); }
     @Test public void nodetable_09()    { testNode("'نواف'"); }
+
+    @Test public void nodetable_bulk_01() {
+        NodeTable nt = createEmptyNodeTable();
+        List<Node> nodes = new ArrayList<>();
+        for ( String str : new String[] {"<http://example/x>", "1", "_:x", "'x'", "<http://example/y>", "'abcdefghijklmnopqrstuvwxyz'"} )
+            nodes.add(NodeFactoryExtra.parseNode(str));
+        List<NodeId> nodeIds = new ArrayList<>();
+        for ( Node n : nodes )
+            nodeIds.add(nt.getAllocateNodeId(n));
+        // Reverse order and a repeat - results are aligned with the request.
+        List<NodeId> request = new ArrayList<>(nodeIds.reversed());
+        request.add(nodeIds.get(0));
+        List<Node> results = nt.bulkNodeIdToNode(request);
+        assertEquals(request.size(), results.size());
+        for ( int i = 0 ; i < request.size() ; i++ )
+            assertEquals(nt.getNodeForNodeId(request.get(i)), results.get(i));
+        assertEquals(nodes.getFirst(), results.getLast());
+    }
 }
@@ -31,6 +31,9 @@ import org.junit.platform.suite.api.Suite;
     , TestNodeTableStoredBase.class
     , TestNodeTableStored.class
     , TestNodeTable.class
+    , TestNodeTableOffHeap.class
+    , TestNodeTableDictionary.class
+    , TestNodeTableDictionaryTxn.class
 })
 public class TS_NodeTable
 {
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.tdb2.store.nodetable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.dboe.base.file.BinaryDataFileMem;
+import org.apache.jena.dboe.base.file.FileSet;
+import org.apache.jena.dboe.base.file.Location;
+import org.apache.jena.dboe.base.record.RecordFactory;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.tdb2.junit.BuildTestLib;
+import org.apache.jena.tdb2.params.StoreParams;
+import org.apache.jena.tdb2.params.StoreParamsBuilder;
+import org.apache.jena.tdb2.sys.SystemTDB;
+
+/** Node table with the dictionary encoding. No cache, no inlining. */
+public class TestNodeTableDictionary extends AbstractTestNodeTable
+{
+    private static int counter = 0;
+    private static String label() { return TestNodeTableDictionary.class.getSimpleName()+"-"+(++counter); }
+
+    @Override
+    protected NodeTable createEmptyNodeTable() {
+        return createNodeTable(true);
+    }
+
+    private static NodeTable createNodeTable(boolean compressed) {
+        StoreParams params =
+            StoreParamsBuilder.create(label())
+                .nodeId2NodeCacheSize(-1)
+                .node2NodeIdCacheSize(-1)
+                .nodeMissCacheSize(-1)
+                .compressedNodes(compressed)
+                .build();
+        return BuildTestLib.makeNodeTableBase(Location.mem(), "test", params);
+    }
+
+    @Test public void nodetable_dict_01()   { testNode("<http://example/ns#>"); }
+    @Test public void nodetable_dict_02()   { testNode("<urn:x:y>"); }
+    @Test public void nodetable_dict_03()   { testNode("<x>"); }
+    @Test public void nodetable_dict_04()   { testNode("''"); }
+    @Test public void nodetable_dict_05()   { testNode("'123456789012345678901234567890'^^<http://www.w3.org/2001/XMLSchema#integer>"); }
+    @Test public void nodetable_dict_06()   { testNode("'2024-01-01'^^<http://www.w3.org/2001/XMLSchema#date>"); }
+    @Test public void nodetable_dict_07()   { testNode("<<( <http://example/s> <http://example/p> 'o'@en )>>"); }
+
+    // Shared namespaces, datatypes and language tags are written once.
+    @Test public void nodetable_dict_10() {
+        NodeTableDictionary nt = (NodeTableDictionary)createNodeTable(true);
+        for ( int i = 0 ; i < 100 ; i++ ) {
+            writeNode(nt, NodeFactory.createURI("http://example/ns/"+i));
+            writeNode(nt, NodeFactory.createLiteralLang("text "+i, "en"));
+            writeNode(nt, NodeFactory.createLiteralDT("x"+i, NodeFactory.getType("http://example/dt")));
+        }
+        assertEquals(3, nt.dictionarySize());
+    }
+
+    // The encoding is smaller than the Thrift encoding for IRIs in a shared namespace.
+    @Test public void nodetable_dict_11() {
+        NodeTableDictionary nt1 = (NodeTableDictionary)createNodeTable(true);
+        NodeTableTRDF nt2 = (NodeTableTRDF)createNodeTable(false);
+        for ( int i = 0 ; i < 100 ; i++ ) {
+            Node n = NodeFactory.createURI("http://example.org/some/long/namespace/"+i);
+            nt1.getAllocateNodeId(n);
+            nt2.getAllocateNodeId(n);
+        }
+        long len1 = nt1.getData().length() + nt1.getDictionary().length();
+        long len2 = nt2.getData().length();
+        assertTrue(len1 < len2/2, "Dictionary encoding: "+len1+" Thrift encoding: "+len2);
+    }
+
+    // A full dictionary : terms are stored without it.
+    @Test public void nodetable_dict_12() {
+        RecordFactory recordFactory = new RecordFactory(SystemTDB.LenNodeHash, SystemTDB.SizeOfNodeId);
+        NodeTableDictionary nt = new NodeTableDictionary(BuildTestLib.buildRangeIndex(FileSet.mem(), recordFactory, null),
+                                                         new BinaryDataFileMem(), new BinaryDataFileMem(), 2);
+        for ( int i = 0 ; i < 10 ; i++ ) {
+            writeNode(nt, NodeFactory.createURI("http://example/ns"+i+"/x"));
+            writeNode(nt, NodeFactory.createLiteralLang("text", "en-x"+i));
+        }
+        assertEquals(2, nt.dictionarySize());
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.tdb2.store.nodetable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.atlas.lib.FileOps;
+import org.apache.jena.dboe.base.file.Location;
+import org.apache.jena.dboe.sys.IO_DB;
+import org.apache.jena.query.ReadWrite;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.sse.SSE;
+import org.apache.jena.system.Txn;
+import org.apache.jena.tdb2.ConfigTest;
+import org.apache.jena.tdb2.DatabaseMgr;
+import org.apache.jena.tdb2.params.StoreParams;
+import org.apache.jena.tdb2.sys.TDBInternal;
+
+/** Node table with the dictionary encoding in a database, with transactions. */
+public class TestNodeTableDictionaryTxn {
+    private Location dir = null;
+
+    // No node caches : terms are decoded from the node table.
+    private static final StoreParams params =
+        StoreParams.builder("dictionary").compressedNodes(true)
+            .nodeId2NodeCacheSize(-1)
+            .node2NodeIdCacheSize(-1)
+            .nodeMissCacheSize(-1)
+            .build();
+
+    private static final Quad quad1 = SSE.parseQuad("(<http://example/g> <http://example/s> <http://example/p> 'abc'@en)");
+    private static final Quad quad2 = SSE.parseQuad("(<http://example/g> <http://aborted/s> <http://example/p> 'def'@de)");
+    private static final Quad quad3 = SSE.parseQuad("(<http://example/g> <http://committed/s> <http://example/p> 'ghi'^^<http://committed/dt>)");
+    private static final Quad quad4 = SSE.parseQuad("(<http://committed/g> <http://example/s> <http://committed/p> 'jkl'@fr)");
+
+    @BeforeEach
+    public void before() {
+        String DIR = ConfigTest.getCleanDir();
+        FileOps.ensureDir(DIR);
+        FileOps.clearAll(DIR);
+        dir = Location.create(DIR);
+    }
+
+    @AfterEach
+    public void after() {
+        TDBInternal.reset();
+        FileUtils.deleteQuietly(IO_DB.asFile(dir));
+    }
+
+    @Test public void nodetable_dict_txn_01() {
+        DatasetGraph dsg = DatabaseMgr.connectDatasetGraph(dir, params);
+        NodeTable nodeTable = TDBInternal.getDatasetGraphTDB(dsg).getQuadTable().getNodeTupleTable().getNodeTable();
+        assertTrue(nodeTable.baseNodeTable() instanceof NodeTableDictionary);
+
+        Txn.executeWrite(dsg, ()->dsg.add(quad1));
+
+        // New namespace and language tag, then abort.
+        dsg.begin(ReadWrite.WRITE);
+        dsg.add(quad2);
+        dsg.abort();
+        dsg.end();
+
+        // Different new namespaces, datatype and language tag.
+        Txn.executeWrite(dsg, ()->{
+            dsg.add(quad3);
+            dsg.add(quad4);
+        });
+
+        Set<Quad> expected = Set.of(quad1, quad3, quad4);
+        Txn.executeRead(dsg, ()->assertEquals(expected, Iter.toSet(dsg.find())));
+
+        TDBInternal.expel(dsg);
+        DatasetGraph dsg2 = DatabaseMgr.connectDatasetGraph(dir, params);
+        Txn.executeRead(dsg2, ()->assertEquals(expected, Iter.toSet(dsg2.find())));
+    }
+
+    @Test public void nodetable_dict_txn_02() {
+        // Abort of the first use of the dictionary.
+        DatasetGraph dsg = DatabaseMgr.connectDatasetGraph(dir, params);
+        dsg.begin(ReadWrite.WRITE);
+        dsg.add(quad2);
+        dsg.abort();
+        dsg.end();
+
+        Txn.executeWrite(dsg, ()->dsg.add(quad3));
+        Set<Quad> expected = Set.of(quad3);
+        Txn.executeRead(dsg, ()->assertEquals(expected, Iter.toSet(dsg.find())));
+
+        TDBInternal.expel(dsg);
+        DatasetGraph dsg2 = DatabaseMgr.connectDatasetGraph(dir, params);
+        Txn.executeRead(dsg2, ()->assertEquals(expected, Iter.toSet(dsg2.find())));
+    }
+}
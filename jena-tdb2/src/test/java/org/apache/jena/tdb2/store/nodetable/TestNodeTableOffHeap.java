@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *   SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.apache.jena.tdb2.store.nodetable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.apache.jena.atlas.lib.cache.CacheOffHeap;
+import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.dboe.base.file.Location;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.tdb2.junit.BuildTestLib;
+import org.apache.jena.tdb2.params.StoreParams;
+import org.apache.jena.tdb2.params.StoreParamsBuilder;
+import org.apache.jena.tdb2.store.NodeId;
+
+/** Node table with small on-heap caches in front of off-heap caches. */
+public class TestNodeTableOffHeap extends AbstractTestNodeTable
+{
+    private static int counter = 0;
+    private static String label() { return TestNodeTableOffHeap.class.getSimpleName()+"-"+(++counter); }
+
+    @Override
+    protected NodeTable createEmptyNodeTable()
+    {
+        StoreParams params =
+            StoreParamsBuilder.create(label())
+                .nodeId2NodeCacheSize(10)
+                .node2NodeIdCacheSize(10)
+                .nodeMissCacheSize(10)
+                .nodeId2NodeOffHeapCacheSize(CacheOffHeap.MinSize)
+                .node2NodeIdOffHeapCacheSize(CacheOffHeap.MinSize)
+                .build();
+        return BuildTestLib.makeNodeTable(Location.mem(), "test", params);
+    }
+
+    // More nodes than the on-heap caches hold.
+    @Test public void nodetable_offheap_01() {
+        NodeTable nt = createEmptyNodeTable();
+        int N = 100;
+        NodeId[] ids = new NodeId[N];
+        for ( int i = 0 ; i < N ; i++ )
+            ids[i] = nt.getAllocateNodeId(node(i));
+        for ( int i = 0 ; i < N ; i++ ) {
+            assertEquals(node(i), nt.getNodeForNodeId(ids[i]));
+            assertEquals(ids[i], nt.getNodeIdForNode(node(i)));
+        }
+    }
+
+    // Numbers outside the inline NodeId range, with the same value but
+    // different datatypes or lexical forms, are different nodes.
+    @Test public void nodetable_offheap_02() {
+        NodeTable nt = createEmptyNodeTable();
+        String[] lexicals = { "72057594037927936", "+72057594037927936", "072057594037927936" };
+        RDFDatatype[] datatypes = { XSDDatatype.XSDinteger, XSDDatatype.XSDlong };
+        List<Node> nodes = new ArrayList<>();
+        for ( String lex : lexicals ) {
+            for ( RDFDatatype dt : datatypes )
+                nodes.add(NodeFactory.createLiteralDT(lex, dt));
+        }
+        List<NodeId> ids = new ArrayList<>();
+        for ( Node n : nodes )
+            ids.add(nt.getAllocateNodeId(n));
+        assertEquals(nodes.size(), new HashSet<>(ids).size());
+        // Push the nodes out of the on-heap caches.
+        for ( int i = 0 ; i < 100 ; i++ )
+            nt.getAllocateNodeId(node(i));
+        for ( int i = 0 ; i < nodes.size() ; i++ ) {
+            assertEquals(ids.get(i), nt.getNodeIdForNode(nodes.get(i)));
+            assertEquals(nodes.get(i), nt.getNodeForNodeId(ids.get(i)));
+        }
+    }
+
+    private static Node node(int i) {
+        return NodeFactory.createURI("http://example/node-"+i);
+    }
+}
@@ -26,6 +26,7 @@ import static org.apache.jena.tdb2.store.tupletable.NData.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 import org.junit.jupiter.api.Test;
@@ -40,6 +41,7 @@ import org.apache.jena.dboe.index.RangeIndex;
 import org.apache.jena.tdb2.junit.BuildTestLib;
 import org.apache.jena.tdb2.params.StoreParams;
 import org.apache.jena.tdb2.store.NodeId;
+import org.apache.jena.tdb2.store.NodeIdFactory;
 import org.apache.jena.tdb2.sys.SystemTDB;
 
 public class TestTupleIndexRecordDirect
@@ -315,5 +317,46 @@ public class TestTupleIndexRecordDirect
         assertFalse(iter.hasNext());
    }
 
+    @Test public void TupleIndexRecordFindParallel_1()
+    {
+        TupleIndexRecord index = create("SPO");
+        for ( int i = 0 ; i < 1000 ; i++ )
+            add(index, NodeIdFactory.createPtr(i/100), NodeIdFactory.createPtr(i%10), NodeIdFactory.createPtr(i));
+        assertFalse(index.getRangeIndex().splitRange(null, null, 4).isEmpty());
+
+        Tuple<NodeId> any = tuple(null, null, null);
+        List<Tuple<NodeId>> expected = Iter.toList(index.findOrScan(any));
+        assertEquals(1000, expected.size());
+        assertEquals(expected, Iter.toList(index.findParallel(any, 4, true)));
+        assertEquals(Set.copyOf(expected), Iter.toSet(index.findParallel(any, 4, false)));
+    }
+
+    @Test public void TupleIndexRecordFindParallel_2()
+    {
+        TupleIndexRecord index = create("SPO");
+        for ( int i = 0 ; i < 1000 ; i++ )
+            add(index, NodeIdFactory.createPtr(i/100), NodeIdFactory.createPtr(i%10), NodeIdFactory.createPtr(i));
+        // Prefix range, then partial scan.
+        Tuple<NodeId> pattern1 = tuple(NodeIdFactory.createPtr(3), null, null);
+        assertEquals(Iter.toList(index.findOrScan(pattern1)), Iter.toList(index.findParallel(pattern1, 3, true)));
+        Tuple<NodeId> pattern2 = tuple(NodeIdFactory.createPtr(3), null, NodeIdFactory.createPtr(305));
+        List<Tuple<NodeId>> x = Iter.toList(index.findParallel(pattern2, 3, false));
+        assertEquals(1, x.size());
+        // Not present.
+        Tuple<NodeId> pattern3 = tuple(NodeIdFactory.createPtr(99), null, null);
+        assertFalse(index.findParallel(pattern3, 3, true).hasNext());
+    }
 
+    @Test public void TupleIndexRecordFindParallel_3()
+    {
+        TupleIndexRecord index = create("SPO");
+        for ( int i = 0 ; i < 10000 ; i++ )
+            add(index, NodeIdFactory.createPtr(i/100), NodeIdFactory.createPtr(i%10), NodeIdFactory.createPtr(i));
+        // Stop early.
+        Iterator<Tuple<NodeId>> iter = index.findParallel(tuple(null, null, null), 4, true);
+        assertTrue(iter.hasNext());
+        iter.next();
+        Iter.close(iter);
+        assertFalse(iter.hasNext());
+    }
 }
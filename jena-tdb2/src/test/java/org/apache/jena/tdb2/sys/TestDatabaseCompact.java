@@ -27,6 +27,7 @@ import static org.junit.jupiter.api.Assumptions.assumeFalse;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.AfterEach;
@@ -41,6 +42,7 @@ import org.apache.jena.dboe.sys.IO_DB;
 import org.apache.jena.dboe.transaction.txn.*;
 import org.apache.jena.graph.Graph;
 import org.apache.jena.graph.Triple;
+import org.apache.jena.query.TxnType;
 import org.apache.jena.sparql.core.DatasetGraph;
 import org.apache.jena.sparql.core.Quad;
 import org.apache.jena.sparql.sse.SSE;
@@ -229,6 +231,118 @@ public class TestDatabaseCompact
         Txn.executeRead(dsgOld,  ()->assertNull(dsgOld.getDefaultGraph().getPrefixMapping().getNsPrefixURI("ex")));
     }
 
+    @Test public void compact_online_1() {
+        DatasetGraph dsg = DatabaseMgr.connectDatasetGraph(dir);
+        DatasetGraphSwitchable dsgs = (DatasetGraphSwitchable)dsg;
+        Location loc1 = ((DatasetGraphTDB)dsgs.get()).getLocation();
+
+        Txn.executeWrite(dsg, ()-> {
+            dsg.add(quad2);
+            dsg.add(quad1);
+            dsg.prefixes().add("ex", "http://example/");
+        });
+        DatabaseMgr.compactOnline(dsg, false);
+
+        assertFalse(StoreConnection.isSetup(loc1));
+        Location loc2 = ((DatasetGraphTDB)dsgs.get()).getLocation();
+        assertNotEquals(loc1, loc2);
+
+        Txn.executeRead(dsg, ()-> {
+            assertTrue(dsg.contains(quad2));
+            assertTrue(dsg.contains(quad1));
+            assertEquals("http://example/", dsg.prefixes().get("ex"));
+        });
+        // Recording has stopped.
+        DatasetGraphTDB dsgTDB = (DatasetGraphTDB)dsgs.get();
+        assertNull(dsgTDB.getTripleTable().getNodeTupleTable().getTupleTable().getMonitor());
+    }
+
+    // Changes recorded during a copy are applied, except those of aborted transactions.
+    @Test public void compact_online_changes() {
+        DatasetGraph dsg = DatabaseMgr.connectDatasetGraph(dir);
+        DatasetGraphTDB dsgSrc = (DatasetGraphTDB)((DatasetGraphSwitchable)dsg).get();
+        DatasetGraphTDB dsgDst = TDBInternal.getDatasetGraphTDB(DatabaseMgr.createDatasetGraph());
+        Txn.executeWrite(dsg, ()->dsg.add(quad1));
+
+        CompactionChangeLog changes = new CompactionChangeLog(dsgSrc, 100);
+        changes.start();
+        Txn.executeWrite(dsg, ()->{
+            dsg.getDefaultGraph().add(triple3);
+            dsg.add(quad2);
+            dsg.delete(quad1);
+        });
+        dsg.begin(TxnType.WRITE);
+        dsg.getDefaultGraph().add(triple1);
+        dsg.abort();
+        dsg.end();
+        changes.stop();
+        Triple triple4 = SSE.parseTriple("(<s> <q> 4)");
+        Txn.executeWrite(dsg, ()->dsg.getDefaultGraph().add(triple4));
+
+        Txn.executeWrite(dsgDst, ()->dsgDst.add(quad1));
+        Txn.executeRead(dsgSrc, ()->Txn.executeWrite(dsgDst, ()->changes.replay(dsgDst)));
+
+        Txn.executeRead(dsgDst, ()->{
+            assertTrue(dsgDst.getDefaultGraph().contains(triple3));
+            assertTrue(dsgDst.contains(quad2));
+            assertFalse(dsgDst.contains(quad1));
+            // Aborted.
+            assertFalse(dsgDst.getDefaultGraph().contains(triple1));
+            // After recording stopped.
+            assertFalse(dsgDst.getDefaultGraph().contains(triple4));
+        });
+    }
+
+    // Too many changes to record: nothing is kept and the log can not be applied.
+    @Test public void compact_online_changes_overflow() {
+        DatasetGraph dsg = DatabaseMgr.connectDatasetGraph(dir);
+        DatasetGraphTDB dsgSrc = (DatasetGraphTDB)((DatasetGraphSwitchable)dsg).get();
+        DatasetGraphTDB dsgDst = TDBInternal.getDatasetGraphTDB(DatabaseMgr.createDatasetGraph());
+        CompactionChangeLog changes = new CompactionChangeLog(dsgSrc, 2);
+        changes.start();
+        Txn.executeWrite(dsg, ()->dsg.add(quad1));
+        assertFalse(changes.hasOverflowed());
+        Txn.executeWrite(dsg, ()->{
+            dsg.getDefaultGraph().add(triple3);
+            dsg.add(quad2);
+        });
+        changes.stop();
+        assertTrue(changes.hasOverflowed());
+        assertEquals(0, changes.size());
+        assertThrows(TDBException.class, ()->
+            Txn.executeRead(dsgSrc, ()->Txn.executeWrite(dsgDst, ()->changes.replay(dsgDst))));
+    }
+
+    // Writers during an online compaction, with a change log that overflows.
+    @Test public void compact_online_overflow() throws Exception {
+        assumeFalse(Sys.isWindows);
+        DatasetGraph dsg = DatabaseMgr.connectDatasetGraph(dir);
+        Txn.executeWrite(dsg, ()->{
+            for ( int i = 0 ; i < 10_000 ; i++ )
+                dsg.add(SSE.parseQuad("(<g> <s> <p> "+i+")"));
+        });
+        int maxChanges = DatabaseOps.compactionMaxChanges;
+        AtomicBoolean stop = new AtomicBoolean(false);
+        AtomicInteger count = new AtomicInteger();
+        Thread writer = new Thread(()->{
+            while ( ! stop.get() ) {
+                int i = count.get();
+                Txn.executeWrite(dsg, ()->dsg.add(SSE.parseQuad("(<g> <s> <q> "+i+")")));
+                count.incrementAndGet();
+            }
+        });
+        try {
+            DatabaseOps.compactionMaxChanges = 1;
+            writer.start();
+            DatabaseMgr.compactOnline(dsg, false);
+        } finally {
+            stop.set(true);
+            writer.join();
+            DatabaseOps.compactionMaxChanges = maxChanges;
+        }
+        Txn.executeRead(dsg, ()->assertEquals(10_000 + count.get(), dsg.stream().count()));
+    }
+
     @Test public void compact_delete() {
         assumeFalse(Sys.isWindows);
         DatasetGraph dsg = DatabaseMgr.connectDatasetGraph(dir);